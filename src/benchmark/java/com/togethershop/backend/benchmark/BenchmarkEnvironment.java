@@ -0,0 +1,96 @@
+package com.togethershop.backend.benchmark;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.togethershop.backend.BackendApplication;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크 대상 환경 - MySQL / Redis 컨테이너 + 같은 JVM 에서 기동한 애플리케이션
+ * - FCM 은 실제 발송하지 않도록 더미 자격 증명으로 FirebaseApp 을 미리 초기화
+ */
+@Slf4j
+public class BenchmarkEnvironment implements AutoCloseable {
+
+    private final MySQLContainer<?> mysql;
+    private final GenericContainer<?> redis;
+    @Getter
+    private ConfigurableApplicationContext context;
+    @Getter
+    private int port;
+
+    public BenchmarkEnvironment(BenchmarkSettings settings) {
+        this.mysql = new MySQLContainer<>(DockerImageName.parse(settings.getMysqlImage()))
+                .withDatabaseName("togethershop")
+                .withCommand("--max-connections=500");
+        this.redis = new GenericContainer<>(DockerImageName.parse(settings.getRedisImage()))
+                .withExposedPorts(6379);
+        start(settings);
+    }
+
+    private void start(BenchmarkSettings settings) {
+        log.info("MySQL / Redis 컨테이너 기동");
+        mysql.start();
+        redis.start();
+
+        if (FirebaseApp.getApps().isEmpty()) {
+            FirebaseApp.initializeApp(FirebaseOptions.builder()
+                    .setCredentials(GoogleCredentials.create(new AccessToken("benchmark", null)))
+                    .setProjectId("benchmark")
+                    .build());
+        }
+
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", 0);
+        props.put("spring.datasource.url", mysql.getJdbcUrl());
+        props.put("spring.datasource.username", mysql.getUsername());
+        props.put("spring.datasource.password", mysql.getPassword());
+        props.put("spring.datasource.hikari.maximum-pool-size", 50);
+        props.put("spring.jpa.hibernate.ddl-auto", "update");
+        props.put("spring.jpa.show-sql", false);
+        props.put("spring.data.redis.host", redis.getHost());
+        props.put("spring.data.redis.port", redis.getMappedPort(6379));
+        props.put("spring.data.redis.password", "");
+        props.put("jwt.secret", "benchmark-secret-key-benchmark-secret-key-0123456789");
+        props.put("jwt.access-token-expiration", 24 * 60 * 60 * 1000L);
+        props.put("jwt.refresh-token-expiration", 7 * 24 * 60 * 60 * 1000L);
+        props.put("fcm.key.path", "benchmark-missing-key.json");
+        props.put("chat.cluster.enabled", settings.isClusterEnabled());
+        props.put("chat.write-behind.enabled", settings.isWriteBehind());
+        props.put("chat.write-behind.journal-path", "build/benchmark/chat-write-behind.journal");
+        props.put("chat.archive.dir", "build/benchmark/chat-archive");
+        props.put("logging.level.com.togethershop", "WARN");
+
+        log.info("애플리케이션 기동");
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties(props)
+                .run();
+        port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public String webSocketUrl() {
+        // SockJS 엔드포인트의 raw WebSocket 경로
+        return "ws://localhost:" + port + "/ws-chat/websocket";
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        redis.stop();
+        mysql.stop();
+    }
+}
@@ -0,0 +1,68 @@
+package com.togethershop.backend.benchmark;
+
+import com.togethershop.backend.domain.Business;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.AccountStatus;
+import com.togethershop.backend.dto.VerificationStatus;
+import com.togethershop.backend.repository.ShopUserRepository;
+import com.togethershop.backend.security.JwtTokenProvider;
+import com.togethershop.backend.service.PartnershipService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 매장 / 협업 채팅방 생성 (방마다 매장 2곳, 협업 요청 수락까지 진행)
+ */
+@Slf4j
+public class BenchmarkFixtures {
+
+    @Getter
+    @AllArgsConstructor
+    public static class BenchRoom {
+        private final String roomId;
+        private final Long requesterId;
+        private final String requesterToken;
+        private final Long recipientId;
+        private final String recipientToken;
+    }
+
+    public static List<BenchRoom> create(ApplicationContext context, int rooms) {
+        ShopUserRepository userRepo = context.getBean(ShopUserRepository.class);
+        PartnershipService partnershipService = context.getBean(PartnershipService.class);
+        JwtTokenProvider jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Business> businesses = new ArrayList<>(rooms * 2);
+        for (int i = 0; i < rooms * 2; i++) {
+            businesses.add(Business.builder()
+                    .username("bench-" + runId + "-" + i)
+                    .email("bench-" + runId + "-" + i + "@benchmark.local")
+                    .businessName("벤치마크 매장 " + i)
+                    .businessCategory("CAFE")
+                    .verificationStatus(VerificationStatus.PENDING)
+                    .status(AccountStatus.ACTIVE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        businesses = userRepo.saveAll(businesses);
+
+        List<BenchRoom> result = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            Business requester = businesses.get(i * 2);
+            Business recipient = businesses.get(i * 2 + 1);
+            ChatRoom room = partnershipService.createRequest(requester.getId(), recipient.getId(), "벤치마크 협업 요청");
+            partnershipService.acceptRequest(room.getRoomId(), recipient.getId());
+            result.add(new BenchRoom(room.getRoomId(),
+                    requester.getId(), jwtTokenProvider.createAccessToken(requester.getId(), "USER"),
+                    recipient.getId(), jwtTokenProvider.createAccessToken(recipient.getId(), "USER")));
+        }
+        log.info("벤치마크 데이터 생성 - 방 {}개, 매장 {}곳", rooms, businesses.size());
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.togethershop.backend.benchmark;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 벤치마크 설정 (-Dbench.* 시스템 프로퍼티)
+ * - rooms x 2명 x sessions-per-user 개의 STOMP 세션을 연결
+ * - *-rate 는 전체 초당 요청 수 (0 이면 해당 시나리오 끔)
+ */
+@Getter
+@Builder
+public class BenchmarkSettings {
+    private final int rooms;
+    private final int sessionsPerUser;
+    private final double sendRate;
+    private final double proposeRate;
+    private final double respondRate;
+    private final double acceptRatio;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int drainSeconds;
+    private final int connectConcurrency;
+    private final String mysqlImage;
+    private final String redisImage;
+    private final boolean clusterEnabled;
+    private final boolean writeBehind;
+    private final double maxErrorRate;
+    private final double maxP99Millis;
+
+    public static BenchmarkSettings fromSystemProperties() {
+        return BenchmarkSettings.builder()
+                .rooms(intProp("bench.rooms", 500))
+                .sessionsPerUser(intProp("bench.sessions-per-user", 2))
+                .sendRate(doubleProp("bench.send-rate", 500))
+                .proposeRate(doubleProp("bench.propose-rate", 5))
+                .respondRate(doubleProp("bench.respond-rate", 5))
+                .acceptRatio(doubleProp("bench.accept-ratio", 0.5))
+                .warmupSeconds(intProp("bench.warmup-seconds", 10))
+                .durationSeconds(intProp("bench.duration-seconds", 60))
+                .drainSeconds(intProp("bench.drain-seconds", 5))
+                .connectConcurrency(intProp("bench.connect-concurrency", 64))
+                .mysqlImage(System.getProperty("bench.mysql-image", "mysql:8.0"))
+                .redisImage(System.getProperty("bench.redis-image", "redis:7-alpine"))
+                .clusterEnabled(Boolean.parseBoolean(System.getProperty("bench.cluster", "false")))
+                .writeBehind(Boolean.parseBoolean(System.getProperty("bench.write-behind", "false")))
+                .maxErrorRate(doubleProp("bench.max-error-rate", 0.01))
+                .maxP99Millis(doubleProp("bench.max-p99-ms", 0))
+                .build();
+    }
+
+    public int totalSessions() {
+        return rooms * 2 * sessionsPerUser;
+    }
+
+    private static int intProp(String key, int defaultValue) {
+        return Integer.parseInt(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleProp(String key, double defaultValue) {
+        return Double.parseDouble(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+}
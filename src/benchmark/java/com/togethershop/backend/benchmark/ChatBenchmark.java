@@ -0,0 +1,310 @@
+package com.togethershop.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.benchmark.BenchmarkFixtures.BenchRoom;
+import com.togethershop.backend.benchmark.StompLoadClient.BenchSession;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP 채팅 부하 / 지연 벤치마크
+ * - rooms 개의 협업 방에 참여자별 sessions-per-user 개 세션을 연결해 /topic/room/{roomId} 구독
+ * - chat.send / chat.propose / chat.proposal.accept|reject 를 설정한 초당 비율로 전송
+ * - 요청 시각(nanoTime)을 메시지에 실어 구독 세션마다 전달 지연(fan-out latency) 측정
+ * - 결과: 시나리오별 요청/전달 수, 처리량, 오류율, p50~max 와 build/benchmark/*.hgrm
+ * - 오류율이 max-error-rate 또는 p99 가 max-p99-ms 를 넘으면 종료 코드 1 (릴리스 전 회귀 확인용)
+ *
+ * 실행: ./gradlew benchmark -Dbench.rooms=500 -Dbench.send-rate=1000 -Dbench.duration-seconds=120
+ */
+@Slf4j
+public class ChatBenchmark {
+
+    private static final String MARKER = "bench|";
+
+    private final BenchmarkSettings settings;
+    private final BenchmarkEnvironment env;
+    private final List<BenchRoom> rooms;
+    private final StompLoadClient client;
+
+    private final ScenarioStats connect = new ScenarioStats("connect");
+    private final ScenarioStats send = new ScenarioStats("chat.send");
+    private final ScenarioStats propose = new ScenarioStats("chat.propose");
+    private final ScenarioStats accept = new ScenarioStats("proposal.accept");
+    private final ScenarioStats reject = new ScenarioStats("proposal.reject");
+
+    // 방 index → [요청자 세션들, 수신자 세션들]
+    private final List<List<List<BenchSession>>> sessions = new ArrayList<>();
+    private final Set<Long> seenProposals = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<long[]> pendingProposals = new ConcurrentLinkedQueue<>(); // [roomIndex, messageId]
+    private final Map<Long, Long> respondedAt = new ConcurrentHashMap<>();
+
+    public ChatBenchmark(BenchmarkSettings settings, BenchmarkEnvironment env, List<BenchRoom> rooms) {
+        this.settings = settings;
+        this.env = env;
+        this.rooms = rooms;
+        this.client = new StompLoadClient(env.getContext().getBean(ObjectMapper.class), connect);
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSettings settings = BenchmarkSettings.fromSystemProperties();
+        int exitCode;
+        try (BenchmarkEnvironment env = new BenchmarkEnvironment(settings)) {
+            List<BenchRoom> rooms = BenchmarkFixtures.create(env.getContext(), settings.getRooms());
+            exitCode = new ChatBenchmark(settings, env, rooms).run();
+        }
+        System.exit(exitCode);
+    }
+
+    public int run() throws Exception {
+        connectAll();
+        TimeUnit.SECONDS.sleep(1); // 구독 등록 대기
+
+        ScheduledExecutorService drivers = Executors.newScheduledThreadPool(4);
+        schedule(drivers, settings.getSendRate(), this::sendText);
+        schedule(drivers, settings.getProposeRate(), this::proposeCoupon);
+        schedule(drivers, settings.getRespondRate(), this::respondToProposal);
+
+        log.info("워밍업 {}초", settings.getWarmupSeconds());
+        TimeUnit.SECONDS.sleep(settings.getWarmupSeconds());
+        for (ScenarioStats stats : List.of(send, propose, accept, reject)) {
+            stats.reset();
+        }
+
+        log.info("측정 {}초", settings.getDurationSeconds());
+        TimeUnit.SECONDS.sleep(settings.getDurationSeconds());
+        drivers.shutdownNow();
+        long endedAt = System.nanoTime();
+        TimeUnit.SECONDS.sleep(settings.getDrainSeconds()); // 전송 중인 메시지 수신 대기
+
+        int exitCode = report(endedAt);
+        sessions.forEach(room -> room.forEach(side -> side.forEach(BenchSession::disconnect)));
+        return exitCode;
+    }
+
+    private void connectAll() throws InterruptedException {
+        log.info("STOMP 세션 {}개 연결", settings.totalSessions());
+        Semaphore inFlight = new Semaphore(settings.getConnectConcurrency());
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            BenchRoom room = rooms.get(i);
+            List<BenchSession> requesterSide = new CopyOnWriteArrayList<>();
+            List<BenchSession> recipientSide = new CopyOnWriteArrayList<>();
+            sessions.add(List.of(requesterSide, recipientSide));
+
+            int roomIndex = i;
+            for (int s = 0; s < settings.getSessionsPerUser() * 2; s++) {
+                boolean requester = s % 2 == 0;
+                inFlight.acquire();
+                futures.add(client.connect(env.webSocketUrl(),
+                                requester ? room.getRequesterToken() : room.getRecipientToken(),
+                                room.getRoomId(), frame -> onRoomMessage(roomIndex, frame))
+                        .whenComplete((session, error) -> {
+                            inFlight.release();
+                            if (error != null) {
+                                connect.sent(1);
+                                connect.error();
+                                log.debug("연결 실패", error);
+                            } else {
+                                (requester ? requesterSide : recipientSide).add(session);
+                            }
+                        }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+    }
+
+    private void onRoomMessage(int roomIndex, JsonNode frame) {
+        String type = frame.path("type").asText();
+        switch (type) {
+            case "TEXT" -> {
+                Long sentAt = marker(frame.path("content").asText());
+                if (sentAt != null) send.delivered(sentAt);
+            }
+            case "COUPON_PROPOSAL" -> {
+                Long sentAt = marker(frame.path("payload").path("proposerCoupon").path("itemName").asText());
+                if (sentAt == null) return;
+                propose.delivered(sentAt);
+                long messageId = frame.path("id").asLong();
+                if (seenProposals.add(messageId)) {
+                    pendingProposals.add(new long[]{roomIndex, messageId});
+                }
+            }
+            case "PROPOSAL_ACCEPTED", "PROPOSAL_REJECTED" -> {
+                Long sentAt = respondedAt.get(frame.path("proposalMessageId").asLong());
+                if (sentAt != null) {
+                    ("PROPOSAL_ACCEPTED".equals(type) ? accept : reject).delivered(sentAt);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void sendText() {
+        int roomIndex = randomRoom();
+        BenchSession session = randomSession(roomIndex, ThreadLocalRandom.current().nextBoolean());
+        if (session == null) return;
+        send.sent(roomSessionCount(roomIndex));
+        try {
+            session.send("/app/chat.send", Map.of(
+                    "roomId", rooms.get(roomIndex).getRoomId(),
+                    "content", MARKER + System.nanoTime(),
+                    "clientMessageId", UUID.randomUUID().toString()));
+        } catch (RuntimeException e) {
+            send.error();
+        }
+    }
+
+    private void proposeCoupon() {
+        int roomIndex = randomRoom();
+        BenchSession session = randomSession(roomIndex, ThreadLocalRandom.current().nextBoolean());
+        if (session == null) return;
+        propose.sent(roomSessionCount(roomIndex));
+        try {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("roomId", rooms.get(roomIndex).getRoomId());
+            payload.put("proposerCoupon", coupon(MARKER + System.nanoTime()));
+            payload.put("recipientCoupon", coupon("벤치마크 상대 쿠폰"));
+            session.send("/app/chat.propose", payload);
+        } catch (RuntimeException e) {
+            propose.error();
+        }
+    }
+
+    private void respondToProposal() {
+        long[] pending = pendingProposals.poll();
+        if (pending == null) return;
+        int roomIndex = (int) pending[0];
+        long messageId = pending[1];
+        BenchSession session = randomSession(roomIndex, ThreadLocalRandom.current().nextBoolean());
+        if (session == null) return;
+
+        boolean accepting = ThreadLocalRandom.current().nextDouble() < settings.getAcceptRatio();
+        ScenarioStats stats = accepting ? accept : reject;
+        stats.sent(roomSessionCount(roomIndex));
+        respondedAt.put(messageId, System.nanoTime());
+        try {
+            if (accepting) {
+                session.send("/app/chat.proposal.accept", Map.of("proposalId", messageId));
+            } else {
+                session.send("/app/chat.proposal.reject", Map.of("proposalId", messageId, "reason", "벤치마크"));
+            }
+        } catch (RuntimeException e) {
+            stats.error();
+        }
+    }
+
+    private static Map<String, Object> coupon(String itemName) {
+        LocalDate today = LocalDate.now();
+        return Map.of(
+                "itemName", itemName,
+                "discountPercent", 10,
+                "totalQuantity", 100,
+                "startDate", today.toString(),
+                "endDate", today.plusDays(30).toString());
+    }
+
+    /**
+     * rate(초당) 를 최대 1ms 간격 tick 으로 나눠 전송, 소수점 몫은 누적해서 보정
+     */
+    private static void schedule(ScheduledExecutorService drivers, double rate, Runnable action) {
+        if (rate <= 0) return;
+        double ticksPerSecond = Math.min(rate, 1000);
+        double perTick = rate / ticksPerSecond;
+        double[] credit = {0};
+        drivers.scheduleAtFixedRate(() -> {
+            credit[0] += perTick;
+            while (credit[0] >= 1) {
+                credit[0] -= 1;
+                action.run();
+            }
+        }, 0, (long) (1_000_000_000L / ticksPerSecond), TimeUnit.NANOSECONDS);
+    }
+
+    private int randomRoom() {
+        return ThreadLocalRandom.current().nextInt(rooms.size());
+    }
+
+    private BenchSession randomSession(int roomIndex, boolean requesterSide) {
+        List<BenchSession> side = sessions.get(roomIndex).get(requesterSide ? 0 : 1);
+        if (side.isEmpty()) return null;
+        return side.get(ThreadLocalRandom.current().nextInt(side.size()));
+    }
+
+    private int roomSessionCount(int roomIndex) {
+        List<List<BenchSession>> room = sessions.get(roomIndex);
+        return room.get(0).size() + room.get(1).size();
+    }
+
+    private static Long marker(String text) {
+        if (text == null || !text.startsWith(MARKER)) return null;
+        try {
+            return Long.parseLong(text.substring(MARKER.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int report(long endedAt) throws IOException {
+        Path outDir = Path.of("build", "benchmark");
+        Files.createDirectories(outDir);
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%n세션 %d개 / 방 %d개 / 측정 %d초%n",
+                settings.totalSessions(), rooms.size(), settings.getDurationSeconds()));
+        table.append(String.format("%-16s %9s %10s %10s %7s %7s %9s %10s %8s %8s %8s %8s %8s%n",
+                "scenario", "requests", "expected", "delivered", "errors", "err%",
+                "req/s", "deliv/s", "p50ms", "p90ms", "p99ms", "p999ms", "maxms"));
+
+        boolean failed = false;
+        for (ScenarioStats stats : List.of(connect, send, propose, accept, reject)) {
+            if (stats.sentCount() == 0) continue;
+            table.append(String.format("%-16s %9d %10d %10d %7d %6.2f%% %9.1f %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                    stats.getName(), stats.sentCount(), stats.expectedCount(), stats.deliveredCount(),
+                    stats.errorCount(), stats.errorRate() * 100,
+                    stats.requestsPerSecond(endedAt), stats.deliveriesPerSecond(endedAt),
+                    stats.percentileMillis(50), stats.percentileMillis(90), stats.percentileMillis(99),
+                    stats.percentileMillis(99.9), stats.maxMillis()));
+
+            try (PrintStream out = new PrintStream(outDir.resolve(stats.getName() + ".hgrm").toFile())) {
+                stats.writePercentiles(out);
+            }
+            if (stats.errorRate() > settings.getMaxErrorRate()) {
+                failed = true;
+            }
+            if (settings.getMaxP99Millis() > 0 && stats != connect
+                    && stats.percentileMillis(99) > settings.getMaxP99Millis()) {
+                failed = true;
+            }
+        }
+
+        System.out.print(table);
+        Files.writeString(outDir.resolve("report.txt"), table.toString());
+        if (failed) {
+            System.out.println("기준 초과 (max-error-rate=" + settings.getMaxErrorRate()
+                    + ", max-p99-ms=" + settings.getMaxP99Millis() + ")");
+        }
+        return failed ? 1 : 0;
+    }
+}
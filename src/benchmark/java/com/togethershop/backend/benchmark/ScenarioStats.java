@@ -0,0 +1,111 @@
+package com.togethershop.backend.benchmark;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 시나리오별 지표 - 요청 수, 기대/실제 전달 수, 오류 수, 전달 지연(HdrHistogram, μs)
+ */
+public class ScenarioStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    @Getter
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder expected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile long startedAt = System.nanoTime();
+
+    public ScenarioStats(String name) {
+        this.name = name;
+    }
+
+    public void sent(int expectedDeliveries) {
+        sent.increment();
+        expected.add(expectedDeliveries);
+    }
+
+    public void delivered(long sentAtNanos) {
+        delivered.increment();
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAtNanos);
+        latency.recordValue(Math.min(Math.max(micros, 0), MAX_TRACKABLE_MICROS));
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * 워밍업 구간 지표 제거
+     */
+    public void reset() {
+        latency.reset();
+        sent.reset();
+        expected.reset();
+        delivered.reset();
+        errors.reset();
+        startedAt = System.nanoTime();
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    public long expectedCount() {
+        return expected.sum();
+    }
+
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * (오류 + 유실) / 기대 전달 수
+     */
+    public double errorRate() {
+        long exp = expectedCount();
+        if (exp == 0) return errorCount() > 0 ? 1.0 : 0.0;
+        long lost = Math.max(0, exp - deliveredCount());
+        return (double) (errorCount() + lost) / exp;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+
+    public double requestsPerSecond(long endNanos) {
+        return perSecond(sentCount(), endNanos);
+    }
+
+    public double deliveriesPerSecond(long endNanos) {
+        return perSecond(deliveredCount(), endNanos);
+    }
+
+    /**
+     * HdrHistogram 백분위 분포 (ms) - 릴리스 간 비교용 .hgrm
+     */
+    public void writePercentiles(PrintStream out) {
+        latency.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private double perSecond(long count, long endNanos) {
+        double seconds = (endNanos - startedAt) / 1e9;
+        return seconds > 0 ? count / seconds : 0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.togethershop.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 벤치마크용 STOMP 클라이언트 - 세션 연결 후 방 토픽 구독
+ */
+@Slf4j
+public class StompLoadClient {
+
+    private final WebSocketStompClient stompClient;
+    private final ScenarioStats connectStats;
+
+    public StompLoadClient(ObjectMapper objectMapper, ScenarioStats connectStats) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        this.stompClient.setMessageConverter(converter);
+        this.stompClient.setInboundMessageSizeLimit(1024 * 1024);
+        this.connectStats = connectStats;
+    }
+
+    /**
+     * 연결 + /topic/room/{roomId} 구독, 수신 프레임은 onRoomMessage 로 전달
+     */
+    public CompletableFuture<BenchSession> connect(String url, String token, String roomId,
+                                                   Consumer<JsonNode> onRoomMessage) {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add("Authorization", "Bearer " + token);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+
+        long startedAt = System.nanoTime();
+        return stompClient.connectAsync(url, handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                                byte[] payload, Throwable exception) {
+                        connectStats.error();
+                    }
+
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        connectStats.error();
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        // 서버 ERROR 프레임
+                        connectStats.error();
+                        log.debug("STOMP ERROR: {}", headers.getFirst("message"));
+                    }
+                })
+                .thenApply(session -> {
+                    connectStats.sent(1);
+                    connectStats.delivered(startedAt);
+                    session.subscribe("/topic/room/" + roomId, new StompFrameHandler() {
+                        @Override
+                        public Type getPayloadType(StompHeaders headers) {
+                            return JsonNode.class;
+                        }
+
+                        @Override
+                        public void handleFrame(StompHeaders headers, Object payload) {
+                            onRoomMessage.accept((JsonNode) payload);
+                        }
+                    });
+                    return new BenchSession(session);
+                });
+    }
+
+    /**
+     * 세션 단위 전송 직렬화 (WebSocket 세션은 동시 전송 불가)
+     */
+    public static class BenchSession {
+        private final StompSession session;
+
+        BenchSession(StompSession session) {
+            this.session = session;
+        }
+
+        public synchronized void send(String destination, Object payload) {
+            session.send(destination, payload);
+        }
+
+        public void disconnect() {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        }
+    }
+}
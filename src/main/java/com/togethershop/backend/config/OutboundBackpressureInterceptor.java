@@ -0,0 +1,120 @@
+package com.togethershop.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * clientOutboundChannel 세션별 대기 메시지 수 제한
+ * - max-pending 을 넘으면 overflow-policy 에 따라 DROP(해당 메시지 버림) 또는 DISCONNECT(세션 종료)
+ * - 한 명의 느린 클라이언트가 outbound 스레드/큐를 점유해 다른 방 브로드캐스트가 밀리는 것을 방지
+ * - 전송 지연(큐 대기 + 전송) 을 chat.ws.outbound.send.latency 로 기록
+ */
+@Component
+@Slf4j
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    public enum OverflowPolicy { DROP, DISCONNECT }
+
+    private final StompSessionRegistry sessionRegistry;
+    private final Map<String, AtomicInteger> pendingBySession = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> enqueuedAt = new ConcurrentHashMap<>();
+    private final Timer sendLatency;
+    private final Counter dropped;
+    private final Counter evicted;
+
+    @Value("${chat.ws.session.max-pending:500}")
+    private int maxPending;
+    @Value("${chat.ws.session.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    public OutboundBackpressureInterceptor(StompSessionRegistry sessionRegistry, MeterRegistry meterRegistry) {
+        this.sessionRegistry = sessionRegistry;
+        this.sendLatency = Timer.builder("chat.ws.outbound.send.latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.ws.outbound.dropped")
+                .tag("reason", "max_pending")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("chat.ws.slow_session.evictions")
+                .tag("reason", "max_pending")
+                .register(meterRegistry);
+        sessionRegistry.addCloseListener("outbound-backpressure", pendingBySession::remove);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return message;
+
+        AtomicInteger pending = pendingBySession.computeIfAbsent(sessionId, id -> new AtomicInteger());
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                log.warn("느린 WebSocket 세션 종료: sessionId={}, pending={}", sessionId, pending.get());
+                evicted.increment();
+                sessionRegistry.close(sessionId, CloseStatus.SESSION_NOT_RELIABLE);
+            } else {
+                dropped.increment();
+            }
+            return null;
+        }
+
+        UUID id = message.getHeaders().getId();
+        if (id != null) {
+            enqueuedAt.put(id, System.nanoTime());
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // executor 큐가 가득 차 거절된 경우 - afterMessageHandled 가 호출되지 않으므로 여기서 정리
+        if (ex != null || !sent) {
+            release(message);
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        UUID id = message.getHeaders().getId();
+        Long start = id != null ? enqueuedAt.get(id) : null;
+        if (start != null) {
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        release(message);
+    }
+
+    private void release(Message<?> message) {
+        UUID id = message.getHeaders().getId();
+        if (id != null) {
+            enqueuedAt.remove(id);
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return;
+        AtomicInteger pending = pendingBySession.get(sessionId);
+        if (pending != null) {
+            pending.decrementAndGet();
+        }
+    }
+}
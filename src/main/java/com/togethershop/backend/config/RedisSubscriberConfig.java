@@ -1,16 +1,22 @@
 package com.togethershop.backend.config;
 
+import com.togethershop.backend.service.ChatBroadcaster;
 import com.togethershop.backend.service.RedisChatSubscriber;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import java.util.List;
+
 // RedisSubscriberConfig.java (채널 구독 등록)
+// 클러스터 모드에서만 노드당 하나의 리스너 컨테이너를 등록 → 메시지당 노드별 1회 수신
 @Configuration
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.cluster.enabled", havingValue = "true")
 public class RedisSubscriberConfig {
 
     private final RedisConnectionFactory cf;
@@ -20,9 +26,10 @@ public class RedisSubscriberConfig {
     public RedisMessageListenerContainer redisContainer() {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(cf);
-        // 모든 방 채널 패턴 구독
-        container.addMessageListener(subscriber, new PatternTopic("chat.room.*"));
+        // 모든 방 / 사용자 채널 패턴 구독
+        container.addMessageListener(subscriber, List.of(
+                new PatternTopic(ChatBroadcaster.ROOM_CHANNEL_PREFIX + "*"),
+                new PatternTopic(ChatBroadcaster.USER_CHANNEL_PREFIX + "*")));
         return container;
     }
 }
-
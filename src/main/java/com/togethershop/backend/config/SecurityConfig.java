@@ -38,6 +38,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/business/**").authenticated() // 사업자 API는 인증 필요
                         .requestMatchers("/api/notifications/**").authenticated()
                         .requestMatchers("/ws-chat/**").permitAll()
+                        .requestMatchers("/ws-chat-native").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(h -> h
@@ -0,0 +1,137 @@
+package com.togethershop.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연결별 STOMP 페이로드 인코딩 (JSON 기본, CBOR/Smile 선택)
+ * - 클라이언트는 CONNECT 프레임에 payload-encoding: cbor | smile 헤더로 요청
+ * - 바이너리 프레임은 SockJS 로 보낼 수 없으므로 /ws-chat-native (순수 WebSocket) 연결에서만 적용, SockJS 는 JSON 유지
+ * - 변환된 MESSAGE 프레임: content-type application/octet-stream(바이너리 프레임) + payload-encoding 헤더
+ * - 브로커는 같은 payload(byte[])를 구독자 수만큼 재사용하므로, payload 참조 기준으로 인코딩별 한 번만 변환
+ * - 클라이언트 → 서버(SEND) 는 JSON 그대로
+ */
+@Component
+@Slf4j
+public class StompPayloadEncoder implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "payload-encoding";
+
+    public enum Encoding {
+        JSON, CBOR, SMILE;
+
+        static Encoding parse(String value) {
+            if (value == null || value.isBlank()) return JSON;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return JSON;
+            }
+        }
+    }
+
+    private final StompSessionRegistry sessionRegistry;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final Map<Encoding, ObjectMapper> binaryMappers = new EnumMap<>(Encoding.class);
+    private final Map<String, Encoding> encodings = new ConcurrentHashMap<>();
+    // key: 원본 JSON payload (byte[] 는 참조 동등성) - 브로드캐스트가 끝나면 GC 로 정리
+    private final Map<Encoding, Map<byte[], byte[]>> encoded = new EnumMap<>(Encoding.class);
+
+    public StompPayloadEncoder(StompSessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+        binaryMappers.put(Encoding.CBOR, new ObjectMapper(new CBORFactory()));
+        binaryMappers.put(Encoding.SMILE, new ObjectMapper(new SmileFactory()));
+        for (Encoding encoding : binaryMappers.keySet()) {
+            encoded.put(encoding, Collections.synchronizedMap(new WeakHashMap<>()));
+        }
+        sessionRegistry.addCloseListener("payload-encoding", encodings::remove);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return message;
+
+        // inbound CONNECT - 인코딩 협상
+        StompHeaderAccessor stomp = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (stomp != null && stomp.getCommand() == StompCommand.CONNECT) {
+            negotiate(sessionId, stomp.getFirstNativeHeader(ENCODING_HEADER));
+            return message;
+        }
+
+        // outbound MESSAGE - 협상된 인코딩으로 변환
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        Encoding encoding = encodings.get(sessionId);
+        if (encoding == null || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        MimeType contentType = SimpMessageHeaderAccessor.getContentType(message.getHeaders());
+        if (contentType == null || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return message;
+        }
+
+        byte[] payload = encode(encoding, json);
+        if (payload == null) return message;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(ENCODING_HEADER, encoding.name().toLowerCase(Locale.ROOT));
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private void negotiate(String sessionId, String requested) {
+        Encoding encoding = Encoding.parse(requested);
+        if (encoding == Encoding.JSON) return;
+
+        WebSocketSession session = sessionRegistry.get(sessionId);
+        if (session == null || session instanceof SockJsSession) {
+            log.debug("SockJS 세션은 바이너리 인코딩 미지원 - JSON 유지: sessionId={}", sessionId);
+            return;
+        }
+        encodings.put(sessionId, encoding);
+        log.debug("STOMP 페이로드 인코딩: sessionId={}, encoding={}", sessionId, encoding);
+    }
+
+    private byte[] encode(Encoding encoding, byte[] json) {
+        Map<byte[], byte[]> cache = encoded.get(encoding);
+        byte[] cached = cache.get(json);
+        if (cached != null) return cached;
+
+        try {
+            JsonNode tree = jsonMapper.readTree(json);
+            byte[] result = binaryMappers.get(encoding).writeValueAsBytes(tree);
+            cache.put(json, result);
+            return result;
+        } catch (IOException e) {
+            log.warn("STOMP 페이로드 {} 변환 실패 - JSON 으로 전송", encoding, e);
+            return null;
+        }
+    }
+}
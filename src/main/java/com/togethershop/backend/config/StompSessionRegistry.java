@@ -0,0 +1,82 @@
+package com.togethershop.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 이 노드에 연결된 WebSocket 세션 목록 (sessionId = STOMP simpSessionId)
+ * - WebSocketTransportRegistration 의 decorator factory 로 등록되어 연결/종료를 추적
+ * - 느린 세션 강제 종료, 세션 종료 시 정리 작업 등록에 사용
+ */
+@Component
+@Slf4j
+public class StompSessionRegistry {
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> closeListeners = new ConcurrentHashMap<>();
+    private final Counter transportEvictions;
+
+    public StompSessionRegistry(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("chat.ws.sessions", sessions, Map::size);
+        // send-time-limit / send-buffer-size-limit 초과로 Spring 이 종료시킨 세션
+        this.transportEvictions = Counter.builder("chat.ws.slow_session.evictions")
+                .tag("reason", "transport_limit")
+                .register(meterRegistry);
+    }
+
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    transportEvictions.increment();
+                }
+                closeListeners.values().forEach(listener -> listener.accept(session.getId()));
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * 세션 종료 시 호출될 정리 작업 등록 (세션별 상태를 가진 컴포넌트용)
+     */
+    public void addCloseListener(String name, Consumer<String> listener) {
+        closeListeners.put(name, listener);
+    }
+
+    public WebSocketSession get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void close(String sessionId, CloseStatus status) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null || !session.isOpen()) return;
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.warn("WebSocket 세션 종료 실패: sessionId={}, error={}", sessionId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.togethershop.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 배치/백그라운드 작업용 executor
+ * - @Scheduled 기본 스케줄러(단일 스레드)는 트리거만 하고, 오래 걸리는 본 작업은 여기로 넘김
+ * - 빈으로 등록해 Spring 이 초기화 / 종료(graceful) 를 관리
+ */
+@Configuration
+@Slf4j
+public class TaskExecutorConfig {
+
+    @Value("${coupon.expiry.send-parallelism:4}")
+    private int couponExpirySendParallelism;
+    @Value("${chat.push.send-threads:4}")
+    private int chatPushSendThreads;
+    @Value("${chat.push.queue-capacity:1000}")
+    private int chatPushQueueCapacity;
+    @Value("${coupon.bulk.job-threads:2}")
+    private int couponBulkJobThreads;
+    @Value("${coupon.bulk.push-threads:2}")
+    private int couponBulkPushThreads;
+    @Value("${coupon.bulk.push-queue-capacity:50}")
+    private int couponBulkPushQueueCapacity;
+
+    /**
+     * 쿠폰 만료 안내 실행 - 한 번에 하나만, 실행 중 다시 트리거되면 버림 (노드 간 중복은 Redis 락이 막음)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor couponExpiryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("coupon-expiry-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler((task, pool) -> log.info("쿠폰 만료 안내 실행 중 - 이번 트리거는 건너뜀"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 채팅 아카이브 실행 - 한 번에 하나만, 실행 중 다시 트리거되면 버림 (노드 간 중복은 Redis 락이 막음)
+     * - 중간에 종료돼도 다음 실행이 워터마크부터 이어감
+     */
+    @Bean
+    public ThreadPoolTaskExecutor chatArchiveExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("chat-archive-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler((task, pool) -> log.info("채팅 아카이브 실행 중 - 이번 트리거는 건너뜀"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 쿠폰 만료 안내 FCM 배치 동시 전송 - 큐가 차면 실행 스레드에서 직접 보냄
+     */
+    @Bean
+    public ThreadPoolTaskExecutor couponExpirySendExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("coupon-expiry-send-");
+        executor.setCorePoolSize(couponExpirySendParallelism);
+        executor.setMaxPoolSize(couponExpirySendParallelism);
+        executor.setQueueCapacity(couponExpirySendParallelism * 4);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * 채팅 검색 색인 백필 - 기동 시 한 번, 종료 시 기다리지 않음 (다음 기동에서 다시 구성)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor chatSearchBackfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("chat-search-backfill-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 쿠폰 코드 순번 블록 예약 - 호출 측 트랜잭션 밖에서 한 번에 하나씩
+     */
+    @Bean
+    public ThreadPoolTaskExecutor couponCodeBlockExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("coupon-code-block-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 채팅 오프라인 푸시 발송 - 큐가 차면 거절 (ChatPushNotifier 가 다음 flush 로 미룸)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor chatPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("chat-push-");
+        executor.setCorePoolSize(chatPushSendThreads);
+        executor.setMaxPoolSize(chatPushSendThreads);
+        executor.setQueueCapacity(chatPushQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 쿠폰 대량 발급 작업 - 작업 수 제한, 넘치면 시작 시점에 거절 (TaskRejectedException)
+     * - 종료 시 진행 중인 chunk 가 커밋될 때까지 기다림 (작업은 chunk 경계에서 STOPPED 로 끝남)
+     * - 푸시 executor 보다 먼저 종료되도록 의존 관계를 둠 (마지막 chunk 의 알림도 발송)
+     */
+    @Bean
+    @DependsOn("couponBulkPushExecutor")
+    public ThreadPoolTaskExecutor couponBulkIssueExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("coupon-bulk-issue-");
+        executor.setCorePoolSize(couponBulkJobThreads);
+        executor.setMaxPoolSize(couponBulkJobThreads);
+        executor.setQueueCapacity(couponBulkJobThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 쿠폰 대량 발급 FCM 발송 - 큐가 차면 발급 스레드가 직접 보내며 속도를 맞춤 (알림 유실 없음)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor couponBulkPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("coupon-bulk-push-");
+        executor.setCorePoolSize(couponBulkPushThreads);
+        executor.setMaxPoolSize(couponBulkPushThreads);
+        executor.setQueueCapacity(couponBulkPushQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
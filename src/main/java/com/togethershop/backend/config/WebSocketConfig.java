@@ -1,21 +1,27 @@
 package com.togethershop.backend.config;
 
-import com.togethershop.backend.security.CustomUserDetails;
 import com.togethershop.backend.security.JwtHandshakeInterceptor;
-import com.togethershop.backend.security.JwtTokenProvider;
-import com.togethershop.backend.security.StompPrincipal;
-import com.togethershop.backend.service.CustomUserDetailsService;
+import com.togethershop.backend.security.StompAuthChannelInterceptor;
+import com.togethershop.backend.security.StompSubscribeAuthorizationInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -23,8 +29,42 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final StompSubscribeAuthorizationInterceptor stompSubscribeAuthorizationInterceptor;
+    private final StompSessionRegistry stompSessionRegistry;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final StompPayloadEncoder stompPayloadEncoder;
+    private final MeterRegistry meterRegistry;
+
+    // 채널 executor (virtual-threads=true 는 Java 21 런타임 필요)
+    @Value("${chat.ws.virtual-threads:false}")
+    private boolean virtualThreads;
+    @Value("${chat.ws.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+    @Value("${chat.ws.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+    @Value("${chat.ws.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+    @Value("${chat.ws.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+    @Value("${chat.ws.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+    @Value("${chat.ws.outbound.queue-capacity:5000}")
+    private int outboundQueueCapacity;
+
+    // 세션별 전송 제한 - 초과 시 Spring 이 세션 종료 (SESSION_NOT_RELIABLE)
+    @Value("${chat.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+    @Value("${chat.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    @Value("${chat.ws.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${chat.ws.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    // @Scheduled 용 기본 스케줄러를 대체하지 않도록 빈으로 등록하지 않음
+    private final ThreadPoolTaskScheduler heartbeatScheduler = newHeartbeatScheduler();
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -33,36 +73,105 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .addInterceptors(jwtHandshakeInterceptor)
                 .setAllowedOriginPatterns("*")  // CORS 허용
                 .withSockJS();  // SockJS 지원
+
+        // 순수 WebSocket 엔드포인트 - 바이너리 프레임(CBOR/Smile 페이로드) 사용 가능
+        registry.addEndpoint("/ws-chat-native")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOriginPatterns("*");
     }
 
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // /topic, /queue로 시작하는 destination을 브로커가 처리
-        config.enableSimpleBroker("/topic", "/queue");
+        // heart-beat - 응답 없는 클라이언트 세션을 닫아 접속 상태(PresenceRegistry)에서 빠지게 함
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(heartbeatScheduler);
         // /app으로 시작하는 메시지를 애플리케이션이 처리
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(stompSessionRegistry::decorate);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(stompOutboundExecutor())
+                // 인코딩 변환을 먼저 - backpressure 는 최종 메시지 id 로 지연 시간 기록
+                .interceptors(stompPayloadEncoder, outboundBackpressureInterceptor);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new ChannelInterceptor() {
-            @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
-
-                String token = accessor.getFirstNativeHeader("Authorization");
-                if (token != null && token.startsWith("Bearer ")) {
-                    token = token.substring(7);
-
-                    if (jwtTokenProvider.validateToken(token)) {
-                        Long userId = jwtTokenProvider.getUserIdFromToken(token);
-                        CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserById(userId);
-                        accessor.setUser(new StompPrincipal(userDetails));
-                    }
-                }
-                return message;
-            }
+        registration.taskExecutor(stompInboundExecutor());
+        // 인증은 CONNECT 에서 한 번만 (이후 프레임은 세션 principal 사용), 방 구독은 참여자만
+        registration.interceptors(stompAuthChannelInterceptor, stompSubscribeAuthorizationInterceptor,
+                stompPayloadEncoder);
+    }
+
+    /**
+     * 클라이언트 → 서버 메시지 처리
+     * - 큐가 가득 차면 호출 스레드(전송 스레드)에서 처리 → 보내는 쪽이 자연스럽게 느려짐
+     */
+    @Bean
+    public ThreadPoolTaskExecutor stompInboundExecutor() {
+        ThreadPoolTaskExecutor executor = channelExecutor("ws-inbound-",
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * 서버 → 클라이언트 메시지 전송
+     * - 큐가 가득 차면 해당 메시지는 버림 (브로커가 구독자별로 로그 후 계속 진행)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor stompOutboundExecutor() {
+        ThreadPoolTaskExecutor executor = channelExecutor("ws-outbound-",
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+        Counter rejected = Counter.builder("chat.ws.outbound.dropped")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("outbound 채널 큐가 가득 찼습니다");
         });
+        return executor;
+    }
+
+    private static ThreadPoolTaskScheduler newHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String prefix, int core, int max, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(core);
+        executor.setMaxPoolSize(max);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        if (virtualThreads) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        }
+        // 초기화는 @Bean 등록 후 Spring 이 수행 (거절 핸들러 등 설정이 모두 반영된 뒤)
+        Gauge.builder("chat.ws.channel.queue.depth", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("channel", prefix.substring(0, prefix.length() - 1))
+                .register(meterRegistry);
+        Gauge.builder("chat.ws.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("channel", prefix.substring(0, prefix.length() - 1))
+                .register(meterRegistry);
+        return executor;
     }
 }
@@ -5,12 +5,16 @@ import org.springframework.http.ResponseEntity;
 import java.util.List;
 import com.togethershop.backend.dto.*;
 import com.togethershop.backend.service.BusinessCouponService;
+import com.togethershop.backend.service.CouponBulkIssueService;
 import com.togethershop.backend.security.CustomUserDetails; // 커스텀 UserDetails
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -19,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class BusinessCouponController {
 
     private final BusinessCouponService businessCouponService;
+    private final CouponBulkIssueService couponBulkIssueService;
 
     /**
      * 특정 사업자가 발급한 쿠폰 리스트 조회 (최신순)
@@ -105,4 +110,41 @@ public class BusinessCouponController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * 내 매장에서 최근 days 일 안에 결제한 고객에게 쿠폰 대량 발급
+     * - text/event-stream 으로 progress / done 이벤트 전송 (CouponBulkIssueProgressDTO)
+     */
+    @PostMapping(value = "/templates/{templateId}/bulk-issue", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> bulkIssue(
+            @PathVariable Long templateId,
+            @RequestParam(value = "days", defaultValue = "30") int days,
+            Authentication authentication) {
+        CustomUserDetails user = (CustomUserDetails) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(couponBulkIssueService.start(user.getId(), templateId, days));
+        } catch (IllegalArgumentException e) {
+            log.warn("쿠폰 대량 발급 요청 거절 - templateId: {}, {}", templateId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("쿠폰 대량 발급 요청 거절 - templateId: {}, {}", templateId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * 대량 발급 진행 상황 (SSE 연결이 끊겼을 때 확인용)
+     */
+    @GetMapping("/templates/{templateId}/bulk-issue/{jobId}")
+    public ResponseEntity<CouponBulkIssueProgressDTO> getBulkIssueProgress(
+            @PathVariable Long templateId,
+            @PathVariable String jobId,
+            Authentication authentication) {
+        CustomUserDetails user = (CustomUserDetails) authentication.getPrincipal();
+        CouponBulkIssueProgressDTO progress = couponBulkIssueService.progress(user.getId(), jobId);
+        if (progress == null || !templateId.equals(progress.getTemplateId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(progress);
+    }
 }
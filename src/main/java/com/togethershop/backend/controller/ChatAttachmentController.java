@@ -0,0 +1,108 @@
+package com.togethershop.backend.controller;
+
+import com.togethershop.backend.domain.ChatAttachment;
+import com.togethershop.backend.security.CustomUserDetails;
+import com.togethershop.backend.service.AttachmentStorage;
+import com.togethershop.backend.service.ChatAttachmentService;
+import com.togethershop.backend.util.RangeFileResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 채팅 첨부 파일
+ * - POST /api/chat/{roomId}/attachments {fileName, contentType, size} → 업로드 세션
+ * - PUT  /api/chat/attachments/{id}?offset=N (본문 = application/octet-stream 청크)
+ *   (offset=size, 본문 없음 → 모두 받았지만 확정되지 않은 업로드의 확정 재시도)
+ * - GET  /api/chat/attachments/{id}/upload → 이어 올릴 offset
+ * - GET  /api/chat/attachments/{id}[/thumbnail] → 다운로드 (Range, ETag 지원)
+ */
+@RestController
+@RequestMapping("/api/chat")
+@RequiredArgsConstructor
+@Slf4j
+public class ChatAttachmentController {
+
+    private final ChatAttachmentService attachmentService;
+    private final AttachmentStorage storage;
+
+    @PostMapping("/{roomId}/attachments")
+    public ResponseEntity<?> start(@PathVariable String roomId,
+                                   @AuthenticationPrincipal CustomUserDetails userDetails,
+                                   @RequestBody Map<String, Object> request) {
+        Object size = request.get("size");
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachmentService.start(roomId,
+                userDetails.getUserId(),
+                (String) request.get("fileName"),
+                (String) request.get("contentType"),
+                size instanceof Number n ? n.longValue() : null));
+    }
+
+    @GetMapping("/attachments/{attachmentId}/upload")
+    public ResponseEntity<?> uploadStatus(@PathVariable String attachmentId,
+                                          @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(attachmentService.status(attachmentId, userDetails.getUserId()));
+    }
+
+    // 본문을 그대로 디스크로 스트리밍 (멀티파트/바인딩 없이)
+    @PutMapping("/attachments/{attachmentId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String attachmentId,
+                                         @RequestParam long offset,
+                                         @AuthenticationPrincipal CustomUserDetails userDetails,
+                                         HttpServletRequest request) throws IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED).body(Map.of("error", "Content-Length 가 필요합니다"));
+        }
+        try {
+            return ResponseEntity.ok(attachmentService.uploadChunk(attachmentId, userDetails.getUserId(),
+                    offset, length, request.getInputStream()));
+        } catch (IllegalStateException e) {
+            // offset 불일치/동시 업로드 - 현재 상태를 돌려줘 클라이언트가 이어서 보내도록
+            Map<String, Object> body = new HashMap<>(attachmentService.status(attachmentId, userDetails.getUserId()));
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        }
+    }
+
+    @GetMapping("/attachments/{attachmentId}")
+    public void download(@PathVariable String attachmentId,
+                         @AuthenticationPrincipal CustomUserDetails userDetails,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ChatAttachment attachment = attachmentService.requireReadable(attachmentId, userDetails.getUserId());
+        RangeFileResponder.write(storage.filePath(attachmentId), attachment.etag(), attachment.getCompletedAt(),
+                attachment.getContentType(), attachment.getFileName(), isInlineSafe(attachment), request, response);
+    }
+
+    @GetMapping("/attachments/{attachmentId}/thumbnail")
+    public void thumbnail(@PathVariable String attachmentId,
+                          @AuthenticationPrincipal CustomUserDetails userDetails,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        ChatAttachment attachment = attachmentService.requireReadable(attachmentId, userDetails.getUserId());
+        Path thumbnail = storage.thumbnailPath(attachmentId);
+        if (!attachment.isThumbnail() || !Files.exists(thumbnail)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        RangeFileResponder.write(thumbnail, "\"" + attachmentId + "-thumb\"", attachment.getCompletedAt(),
+                "image/jpeg", "thumb-" + attachment.getFileName() + ".jpg", true, request, response);
+    }
+
+    // 래스터 이미지만 브라우저에서 바로 표시 (SVG 는 스크립트를 포함할 수 있어 다운로드로)
+    private static boolean isInlineSafe(ChatAttachment attachment) {
+        return attachment.isImage() && !attachment.getContentType().contains("svg");
+    }
+}
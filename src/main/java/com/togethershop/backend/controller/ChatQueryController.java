@@ -1,11 +1,14 @@
 package com.togethershop.backend.controller;
 
-import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.ChatMessageSliceDTO;
+import com.togethershop.backend.dto.ProposalPayloadDTO;
+import com.togethershop.backend.dto.ProposalStatus;
 import com.togethershop.backend.service.ChatService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 // ChatQueryController.java
 @RestController
 @RequestMapping("/api/chat")
@@ -14,11 +17,20 @@ public class ChatQueryController {
 
     private final ChatService chatService;
 
-    @GetMapping("/{roomId}/history")
-    public Page<ChatMessageDTO> history(@PathVariable String roomId,
-                                        @RequestParam(defaultValue = "0") int page,
-                                        @RequestParam(defaultValue = "50") int size) {
-        return chatService.history(roomId, page, size);
+    // before/after 는 이전 응답의 beforeCursor/afterCursor, 둘 다 없으면 최신 페이지
+    @GetMapping({"/{roomId}/history", "/{roomId}/messages"})
+    public ChatMessageSliceDTO history(@PathVariable String roomId,
+                                       @RequestParam(required = false) String before,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(defaultValue = "50") int size) {
+        return chatService.history(roomId, before, after, size);
+    }
+
+    // 방의 쿠폰 제안 목록 (status 미지정 시 응답 대기 중인 제안)
+    @GetMapping("/{roomId}/proposals")
+    public List<ProposalPayloadDTO> proposals(@PathVariable String roomId,
+                                              @RequestParam(required = false) ProposalStatus status) {
+        return chatService.proposals(roomId, status);
     }
 }
 
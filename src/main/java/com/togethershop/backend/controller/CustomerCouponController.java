@@ -1,16 +1,21 @@
 package com.togethershop.backend.controller;
 
+import com.togethershop.backend.domain.Coupon;
 import com.togethershop.backend.dto.*;
+import com.togethershop.backend.exception.CouponClaimConflictException;
 import com.togethershop.backend.security.CustomUserDetails;
 import com.togethershop.backend.service.CustomerCouponService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -35,13 +40,26 @@ public class CustomerCouponController {
         return ResponseEntity.ok(coupons);
     }
 
+    // Idempotency-Key 가 같은 재시도는 처음 발급한 쿠폰을 반환, 품절/한도 초과/처리 중은 409
     @PostMapping("/{templateId}/claim")
-    public ResponseEntity<CouponResponseDTO> claimCoupon(
+    public ResponseEntity<?> claimCoupon(
             @AuthenticationPrincipal CustomUserDetails user,
-            @PathVariable("templateId") Long couponTemplateId) {
+            @PathVariable("templateId") Long couponTemplateId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Long customerId = user.getUserId();
-        CouponResponseDTO newCoupon = customerCouponService.claimCoupon(customerId, couponTemplateId);
-        return ResponseEntity.ok(newCoupon);
+        try {
+            CouponResponseDTO newCoupon = customerCouponService.claimCoupon(customerId, couponTemplateId, idempotencyKey);
+            return ResponseEntity.ok(newCoupon);
+        } catch (CouponClaimConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // Redis 기록이 유실된 상태에서 들어온 중복 - 유니크 인덱스가 막음 (다른 제약 위반은 그대로 전파)
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause == null || !cause.contains(Coupon.CLAIM_UNIQUE_CONSTRAINT)) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "이미 발급받은 쿠폰입니다"));
+        }
     }
 
     @GetMapping(path = "/{couponId}/qr-code", produces = MediaType.IMAGE_PNG_VALUE)
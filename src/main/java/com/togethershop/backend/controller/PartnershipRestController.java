@@ -4,23 +4,29 @@ import com.togethershop.backend.domain.Business;
 import com.togethershop.backend.domain.ChatMessage;
 import com.togethershop.backend.domain.ChatRoom;
 import com.togethershop.backend.domain.Partnership;
+import com.togethershop.backend.domain.RoomSummary;
 import com.togethershop.backend.dto.ChatHistoryResponseDTO;
 import com.togethershop.backend.dto.ChatMessageResponseDTO;
-import com.togethershop.backend.dto.MessageDeliveryStatus;
+import com.togethershop.backend.dto.ChatSearchResultDTO;
 import com.togethershop.backend.dto.MessageType;
-import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.dto.ProposalPayloadDTO;
+import com.togethershop.backend.dto.SenderProfileDTO;
 import com.togethershop.backend.repository.ChatRoomRepository;
 import com.togethershop.backend.repository.PartnershipRepository;
 import com.togethershop.backend.repository.ShopUserRepository;
 import com.togethershop.backend.security.CustomUserDetails;
+import com.togethershop.backend.service.ChatSearchService;
+import com.togethershop.backend.service.ChatService;
 import com.togethershop.backend.service.PartnershipService;
+import com.togethershop.backend.service.ProposalPayloadCache;
+import com.togethershop.backend.service.RoomSummaryService;
+import com.togethershop.backend.service.SenderProfileCache;
+import com.togethershop.backend.service.UnreadCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -37,10 +43,15 @@ import java.util.Map;
 public class PartnershipRestController {
 
     private final PartnershipService partnershipService;
+    private final ChatService chatService;
     private final ChatRoomRepository roomRepo;
     private final ShopUserRepository userRepo;
-    private final ChatMessageRepository messageRepo;
     private final PartnershipRepository partnershipRepo;
+    private final SenderProfileCache senderProfileCache;
+    private final RoomSummaryService roomSummaryService;
+    private final UnreadCounterService unreadCounterService;
+    private final ChatSearchService chatSearchService;
+    private final ProposalPayloadCache proposalPayloadCache;
 
     @PostMapping("/request/{recipientId}")
     public ResponseEntity<?> requestPartnership(
@@ -102,102 +113,91 @@ public class PartnershipRestController {
     }
 
     /**
-     * 방 목록 조회 (status = Partnership 기준)
+     * 방 목록 조회 (room_summary 프로젝션 - 인덱스 조회 1회)
      */
     @GetMapping("/rooms")
     public ResponseEntity<List<Map<String, Object>>> myRooms(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @RequestParam(value = "q", required = false) String query) {
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
         Long userId = userDetails.getUserId();
-        Business user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
-
-        List<ChatRoom> rooms = roomRepo.findByRequesterIdOrRecipientIdOrderByCreatedAtDesc(
-                user.getId(), user.getId());
-
-        if (query != null && !query.trim().isEmpty()) {
-            String q = query.trim().toLowerCase();
-            rooms = rooms.stream()
-                    .filter(r -> {
-                        boolean isRequester = r.getRequester().getId().equals(user.getId());
-                        Business otherUser = isRequester ? r.getRecipient() : r.getRequester();
-                        return otherUser.getBusinessName().toLowerCase().contains(q)
-                                || (otherUser.getBusinessCategory() != null
-                                && otherUser.getBusinessCategory().toLowerCase().contains(q));
-                    })
-                    .toList();
-        }
+        Slice<RoomSummary> summaries = roomSummaryService.findRooms(userId, query, page, size);
+        Map<String, Long> unreadCounts = unreadCounterService.getUnreadCounts(userId,
+                summaries.getContent().stream().map(RoomSummary::getRoomId).toList());
 
-        List<Map<String, Object>> dto = rooms.stream().map(r -> {
+        List<Map<String, Object>> dto = summaries.getContent().stream().map(s -> {
+            Business otherUser = s.getOtherBusiness();
             Map<String, Object> map = new HashMap<>();
-            map.put("roomId", r.getRoomId());
-
-            // Partnership 상태 기준
-            map.put("status", getPartnershipStatus(r));
-
-            map.put("createdAt", r.getCreatedAt());
-
-            boolean isRequester = r.getRequester().getId().equals(user.getId());
-            Business otherUser = isRequester ? r.getRecipient() : r.getRequester();
+            map.put("roomId", s.getRoomId());
+            map.put("status", s.getPartnershipStatus());
+            map.put("createdAt", s.getRoomCreatedAt());
             map.put("otherShop", otherUser.getBusinessName());
             map.put("otherUserId", otherUser.getId());
-            map.put("role", isRequester ? "REQUESTER" : "RECIPIENT");
+            map.put("role", s.getRole());
             map.put("otherUserCategory", otherUser.getBusinessCategory());
+            map.put("lastMessage", s.getLastMessagePreview());
+            map.put("lastMessageAt", s.getLastActivityAt());
+            long unread = unreadCounts.getOrDefault(s.getRoomId(), 0L);
+            map.put("isUnread", unread > 0);
+            map.put("unreadCount", unread);
+            return map;
+        }).toList();
 
-            ChatMessage lastMessage = messageRepo.findTopByRoomRoomIdOrderBySentAtDesc(r.getRoomId())
-                    .orElse(null);
-            if (lastMessage == null) {
-                map.put("lastMessage", "협업 요청 완료");
-                map.put("lastMessageAt", r.getCreatedAt());
-            } else if (lastMessage.getType() == MessageType.COUPON_PROPOSAL) {
-                map.put("lastMessage", "제휴 협의");
-                map.put("lastMessageAt", lastMessage.getSentAt());
-            } else {
-                map.put("lastMessage", lastMessage.getContent());
-                map.put("lastMessageAt", lastMessage.getSentAt());// 메시지가 없으면 방 생성 시간
-            }
+        return ResponseEntity.ok()
+                .header("X-Has-More", String.valueOf(summaries.hasNext()))
+                .body(dto);
+    }
 
-            if (lastMessage == null) {
-                map.put("lastMessage", "협업 요청 완료");
-                map.put("lastMessageAt", r.getCreatedAt());
-            } else {
-                // MessageType에 따라 마지막 메시지 텍스트 변경
-                switch (lastMessage.getType()) {
-                    case PARTNERSHIP_REQUEST:
-                        map.put("lastMessage", "제휴 제안");
-                        break;
-                    case COUPON_PROPOSAL:
-                        map.put("lastMessage", "제휴 협의");
-                        break;
-                    default:
-                        map.put("lastMessage", lastMessage.getContent());
-                        break;
-                }
-                map.put("lastMessageAt", lastMessage.getSentAt());
-
-                // 읽음 여부 표시
-                Long currentUserId = user.getId();
-                boolean isUnread = lastMessage.getSenderId() != null
-                        && !lastMessage.getSenderId().equals(currentUserId)
-                        && lastMessage.getDeliveryStatus() != MessageDeliveryStatus.READ;
-                map.put("isUnread", isUnread);
-            }
+    /**
+     * 내 모든 채팅방에서 메시지 검색 (최신순, beforeId 커서)
+     */
+    @GetMapping("/rooms/search")
+    public ResponseEntity<ChatSearchResultDTO> searchMyRooms(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(chatSearchService.searchMyRooms(userDetails.getUserId(), query, beforeId, size));
+    }
 
-            return map;
-        }).toList();
+    /**
+     * 채팅방 안에서 메시지 검색
+     */
+    @GetMapping("/rooms/{roomId}/search")
+    public ResponseEntity<ChatSearchResultDTO> searchRoom(
+            @PathVariable String roomId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("채팅방을 찾을 수 없습니다"));
 
-        return ResponseEntity.ok(dto);
+        Long userId = userDetails.getUserId();
+        if (!room.getRequester().getId().equals(userId) &&
+                !room.getRecipient().getId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(chatSearchService.searchRoom(room, query, beforeId, size));
     }
 
+    /**
+     * 읽음 처리 - lastSeq(마지막으로 본 메시지 seq) 까지, 없으면 방 전체
+     * Redis 카운터만 즉시 갱신, DB 읽음 상태는 비동기 일괄 반영
+     */
     @PostMapping("/rooms/{roomId}/read")
-    @Transactional
     public ResponseEntity<?> markAsRead(
             @PathVariable String roomId,
+            @RequestParam(value = "lastSeq", required = false) Long lastSeq,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        Long userId = userDetails.getUserId();
-        int updated = messageRepo.markMessagesAsRead(roomId, userId); // repository에 구현 필요
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("채팅방을 찾을 수 없습니다"));
+
+        long updated = unreadCounterService.markRead(room, userDetails.getUserId(), lastSeq);
 
         return ResponseEntity.ok(Map.of(
                 "updatedCount", updated,
@@ -205,13 +205,24 @@ public class PartnershipRestController {
         ));
     }
 
+    /**
+     * 전체 안 읽은 메시지 수 (앱 배지)
+     */
+    @GetMapping("/rooms/unread-count")
+    public ResponseEntity<?> totalUnread(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(Map.of(
+                "totalUnread", unreadCounterService.getTotalUnread(userDetails.getUserId())
+        ));
+    }
+
     /**
      * 채팅 기록 조회 (payload 포함, status = Partnership 기준)
      */
     @GetMapping("/rooms/{roomId}/history")
     public ResponseEntity<ChatHistoryResponseDTO> history(
             @PathVariable String roomId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "100") int size,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
@@ -231,14 +242,18 @@ public class PartnershipRestController {
         Business me = isRequester ? room.getRequester() : room.getRecipient();
         Business otherUser = isRequester ? room.getRecipient() : room.getRequester();
 
-        Page<ChatMessage> msgs = messageRepo.findByRoomRoomIdOrderBySentAtAsc(
-                roomId, PageRequest.of(page, size));
+        // keyset 커서 페이지 (COUNT 없음)
+        Slice<ChatMessage> msgs = chatService.loadMessages(room, before, after, size);
+
+        // 페이지 단위로 발신자 프로필 / 제안 payload 일괄 조회
+        proposalPayloadCache.preload(msgs.getContent());
+        Map<Long, SenderProfileDTO> senders = senderProfileCache.getAll(
+                msgs.getContent().stream().map(ChatMessage::getSenderId).toList());
 
         List<ChatMessageResponseDTO> result = msgs.getContent().stream().map(m -> {
+            SenderProfileDTO sender = senders.get(m.getSenderId());
             String senderName = (m.getSenderId() != null)
-                    ? userRepo.findById(m.getSenderId())
-                    .map(Business::getUsername)
-                    .orElse("UNKNOWN")
+                    ? (sender != null ? sender.getUsername() : "UNKNOWN")
                     : "SYSTEM";
 
             ChatMessageResponseDTO.ChatMessageResponseDTOBuilder builder = ChatMessageResponseDTO.builder()
@@ -247,8 +262,16 @@ public class PartnershipRestController {
                     .senderId(m.getSenderId())
                     .senderName(senderName)
                     .content(m.getContent())
+                    .fileUrl(m.getFileUrl())
                     .createdAt(m.getSentAt());
 
+            if (m.getType() == MessageType.COUPON_PROPOSAL) {
+                // 실시간 전송(ChatMessageConverter)과 같은 payload - 새로고침 후에도 수락/거절 가능
+                ProposalPayloadDTO proposal = proposalPayloadCache.get(m);
+                builder.content(proposal != null ? "쿠폰 교환 제안" : "쿠폰 교환 제안 (파싱 오류)");
+                builder.proposal(proposal);
+            }
+
             if (m.getType() == MessageType.PARTNERSHIP_REQUEST) {
                 // payload에서도 현재 접속자 기준으로 requester/recipient
                 builder.payload(ChatMessageResponseDTO.Payload.builder()
@@ -265,9 +288,9 @@ public class PartnershipRestController {
 
         ChatHistoryResponseDTO response = ChatHistoryResponseDTO.builder()
                 .messages(result)
-                .totalElements(msgs.getTotalElements())
-                .totalPages(msgs.getTotalPages())
-                .currentPage(page)
+                .hasMore(msgs.hasNext())
+                .beforeCursor(ChatService.firstCursor(msgs))
+                .afterCursor(ChatService.lastCursor(msgs))
                 .roomInfo(ChatHistoryResponseDTO.RoomInfo.builder()
                         .roomId(room.getRoomId())
                         .status(partnershipStatus)
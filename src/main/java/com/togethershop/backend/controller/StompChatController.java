@@ -3,13 +3,14 @@ package com.togethershop.backend.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.togethershop.backend.dto.ProposalPayloadDTO;
 import com.togethershop.backend.security.CustomUserDetails;
+import com.togethershop.backend.service.ChatBroadcaster;
 import com.togethershop.backend.service.ChatService;
+import com.togethershop.backend.service.ChatSyncService;
 import com.togethershop.backend.service.PartnershipService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
@@ -23,7 +24,8 @@ public class StompChatController {
 
     private final ChatService chatService;
     private final PartnershipService partnershipService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBroadcaster chatBroadcaster;
+    private final ChatSyncService chatSyncService;
 
     // 1️⃣ 텍스트 메시지 전송
     @MessageMapping("/chat.send")
@@ -31,8 +33,20 @@ public class StompChatController {
         CustomUserDetails userDetails = getUserFromPrincipal(principal);
         String roomId = (String) payload.get("roomId");
         String content = (String) payload.get("content");
+        String clientMessageId = (String) payload.get("clientMessageId");
 
-        chatService.sendTextMessage(roomId, userDetails.getUserId(), content);
+        chatService.sendTextMessage(roomId, userDetails.getUserId(), content, clientMessageId);
+    }
+
+    // 재연결 후 놓친 메시지 동기화 (lastSeq 이후)
+    @MessageMapping("/chat.sync")
+    public void sync(@Payload Map<String, Object> payload, Principal principal) {
+        CustomUserDetails userDetails = getUserFromPrincipal(principal);
+        String roomId = (String) payload.get("roomId");
+        Long lastSeq = getLongFromMap(payload, "lastSeq");
+
+        chatSyncService.sync(roomId, userDetails.getUserId(), userDetails.getUsername(),
+                lastSeq != null ? lastSeq : 0L);
     }
 
     // 2️⃣ 쿠폰 제안
@@ -86,7 +100,7 @@ public class StompChatController {
 
         try {
             Map<String, Object> status = chatService.propose(roomId);
-            messagingTemplate.convertAndSendToUser(userDetails.getUsername(), "/queue/proposal-status", Map.of(
+            chatBroadcaster.sendToUser(userDetails.getUsername(), "/queue/proposal-status", Map.of(
                     "type", "PROPOSAL_STATUS",
                     "roomId", roomId,
                     "status", status,
@@ -10,6 +10,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "business")
+@EntityListeners(BusinessProfileListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
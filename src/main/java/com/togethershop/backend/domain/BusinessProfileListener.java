@@ -0,0 +1,23 @@
+package com.togethershop.backend.domain;
+
+import com.togethershop.backend.service.SenderProfileCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Business 수정/삭제 시 발신자 프로필 캐시 무효화
+// (EntityManagerFactory 생성 시점 순환 참조를 피하려고 ObjectProvider 로 지연 조회)
+public class BusinessProfileListener {
+
+    private final ObjectProvider<SenderProfileCache> senderProfileCache;
+
+    public BusinessProfileListener(ObjectProvider<SenderProfileCache> senderProfileCache) {
+        this.senderProfileCache = senderProfileCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onProfileChanged(Business business) {
+        senderProfileCache.ifAvailable(cache -> cache.evict(business.getId()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.togethershop.backend.domain;
+
+import com.togethershop.backend.dto.AttachmentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 채팅 첨부 파일 (청크 업로드 세션 겸 메타데이터)
+ * - 파일 본문은 AttachmentStorage 의 로컬 디스크에 저장, DB 에는 메타데이터만
+ * - receivedBytes 는 다음 청크의 시작 offset (이어 올리기 기준)
+ */
+@Entity
+@Table(name = "chat_attachments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_chat_attachments_attachment_id", columnNames = "attachment_id"),
+        indexes = @Index(name = "idx_chat_attachments_status_created", columnList = "status, created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attachment_id", nullable = false, length = 36)
+    private String attachmentId; // UUID - 다운로드 URL / 저장 파일명
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomPk; // chat_rooms.id
+
+    @Column(name = "room_uuid", nullable = false, length = 64)
+    private String roomId; // chat_rooms.room_id (UUID)
+
+    @Column(name = "uploader_id", nullable = false)
+    private Long uploaderId;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AttachmentStatus status;
+
+    @Column(name = "has_thumbnail", nullable = false)
+    private boolean thumbnail;
+
+    @Column(name = "message_id")
+    private Long messageId; // 완료 후 발송된 FILE 메시지
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public boolean isImage() {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    // 내용이 바뀌지 않으므로 id + 크기로 강한 ETag
+    public String etag() {
+        return "\"" + attachmentId + "-" + sizeBytes + "\"";
+    }
+}
@@ -9,7 +9,14 @@ import java.time.Instant;
 
 // ChatMessage.java
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        // 히스토리 keyset 페이지네이션용
+        @Index(name = "idx_chat_messages_room_sent_id", columnList = "room_id, sent_at, id")
+}, uniqueConstraints = {
+        // 재연결 시 시퀀스 기반 동기화 / 재전송 중복 방지
+        @UniqueConstraint(name = "uk_chat_messages_room_seq", columnNames = {"room_id", "seq"}),
+        @UniqueConstraint(name = "uk_chat_messages_room_client_id", columnNames = {"room_id", "client_message_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +52,14 @@ public class ChatMessage {
     @Column(name = "sent_at", nullable = false)
     private Instant sentAt;
 
+    // 방 단위 단조 증가 시퀀스 (RoomSequenceAllocator 가 저장 시 발급, 롤백 시 빈 번호 생길 수 있음)
+    @Column(name = "seq")
+    private Long seq;
+
+    // 클라이언트가 생성한 메시지 id (재전송 중복 방지)
+    @Column(name = "client_message_id", length = 64)
+    private String clientMessageId;
+
     @Column(name = "read_at")
     private Instant readAt;
 
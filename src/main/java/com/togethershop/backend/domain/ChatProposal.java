@@ -0,0 +1,82 @@
+package com.togethershop.backend.domain;
+
+import com.togethershop.backend.dto.ProposalStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 쿠폰 교환 제안 (COUPON_PROPOSAL 메시지 1건당 1행)
+ * - 메시지 content JSON 을 매번 파싱하지 않도록 쿠폰 조건을 타입 있는 컬럼으로 보관
+ * - 수락/거절 동시 처리는 version 으로 막음
+ * - 방의 진행 중 제안은 (room_id, status) 인덱스로 바로 조회
+ */
+@Entity
+@Table(name = "chat_proposals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_chat_proposals_message", columnNames = "message_id"),
+        indexes = @Index(name = "idx_chat_proposals_room_status", columnList = "room_id, status, message_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatProposal {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId; // chat_messages.id (write-behind 대기 중일 수 있어 FK 없음)
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomPk; // chat_rooms.id
+
+    @Column(name = "room_uuid", nullable = false, length = 64)
+    private String roomId; // chat_rooms.room_id (UUID)
+
+    @Column(name = "proposer_id", nullable = false)
+    private Long proposerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private ProposalStatus status;
+
+    // 제안자 쿠폰
+    @Column(name = "proposer_item_name", length = 100)
+    private String proposerItemName;
+    @Column(name = "proposer_discount_percent")
+    private Integer proposerDiscountPercent;
+    @Column(name = "proposer_total_quantity")
+    private Integer proposerTotalQuantity;
+    @Column(name = "proposer_start_date")
+    private LocalDate proposerStartDate;
+    @Column(name = "proposer_end_date")
+    private LocalDate proposerEndDate;
+
+    // 상대방 쿠폰
+    @Column(name = "recipient_item_name", length = 100)
+    private String recipientItemName;
+    @Column(name = "recipient_discount_percent")
+    private Integer recipientDiscountPercent;
+    @Column(name = "recipient_total_quantity")
+    private Integer recipientTotalQuantity;
+    @Column(name = "recipient_start_date")
+    private LocalDate recipientStartDate;
+    @Column(name = "recipient_end_date")
+    private LocalDate recipientEndDate;
+
+    @Column(name = "responded_by")
+    private Long respondedBy;
+
+    @Column(name = "responded_at")
+    private Instant respondedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "coupons")
+@Table(name = "coupons",
+        uniqueConstraints = @UniqueConstraint(name = Coupon.CLAIM_UNIQUE_CONSTRAINT,
+                columnNames = {"customer_id", "template_id", "claim_no"}),
+        indexes = @Index(name = "idx_coupons_status_customer_expire", columnList = "status, customer_id, expire_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +18,9 @@ import java.time.LocalDateTime;
 @Builder
 public class Coupon {
 
+    // 고객 x 템플릿 발급 순번 유니크 - 중복 발급 판별용 (CustomerCouponController)
+    public static final String CLAIM_UNIQUE_CONSTRAINT = "uk_coupons_customer_template_claim";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "coupon_id")
@@ -26,6 +32,9 @@ public class Coupon {
     @Column(name = "customer_id", nullable = false)
     private Long customerId;  // 쿠폰 소유 고객 ID
 
+    @Column(name = "claim_no")
+    private Integer claimNo;  // 고객별 같은 템플릿 발급 순번 (1 ~ 한도), 기존 행은 null
+
     @Column(name = "coupon_code", unique = true)
     private String couponCode;
 
@@ -0,0 +1,25 @@
+package com.togethershop.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 쿠폰 코드 HiLo 블록 카운터 (CouponCodeAllocator 전용)
+ * - nextValue 는 지금까지 예약된 마지막 순번, 노드는 block-size 만큼 올리고 그 구간을 로컬에서 사용
+ * - Redis 가 아닌 DB 에 두어 카운터가 유실돼도 이미 나간 순번을 다시 쓰지 않음
+ */
+@Entity
+@Table(name = "coupon_code_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CouponCodeSequence {
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,70 @@
+package com.togethershop.backend.domain;
+
+import com.togethershop.backend.dto.MessageType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 목록용 방 요약 (방 x 참여자 1행)
+ * - 메시지 전송 / 파트너십 상태 변경 때마다 RoomSummaryService 가 갱신
+ * - 안 읽은 수 조회는 UnreadCounterService(Redis), unread_count 는 DB 사본
+ *   (메시지 저장 시 +1, 읽음 반영 시 ReadReceiptBatcher 가 chat_messages 기준으로 다시 계산)
+ * - 채팅 탭 목록은 (business_id, last_activity_at) 인덱스 한 번으로 조회
+ */
+@Entity
+@Table(name = "room_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_summary_room_business",
+                columnNames = {"room_id", "business_id"}),
+        indexes = @Index(name = "idx_room_summary_business_activity",
+                columnList = "business_id, last_activity_at, room_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomPk; // chat_rooms.id
+
+    @Column(name = "room_uuid", nullable = false, length = 64)
+    private String roomId; // chat_rooms.room_id (UUID)
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId; // 목록 소유자
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "other_business_id", nullable = false)
+    private Business otherBusiness; // 상대 매장 (이름/카테고리는 조회 시 조인 - 프로필 변경 즉시 반영)
+
+    @Column(name = "role", length = 20, nullable = false)
+    private String role; // REQUESTER / RECIPIENT
+
+    @Column(name = "partnership_status", length = 20)
+    private String partnershipStatus;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_message_type", length = 50)
+    private MessageType lastMessageType;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_activity_at", nullable = false)
+    private Instant lastActivityAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    @Column(name = "room_created_at")
+    private LocalDateTime roomCreatedAt;
+}
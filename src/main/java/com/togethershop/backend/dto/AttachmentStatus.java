@@ -0,0 +1,6 @@
+package com.togethershop.backend.dto;
+
+public enum AttachmentStatus {
+    UPLOADING,  // 청크 업로드 중 (.part 파일)
+    COMPLETE    // 업로드 완료, FILE 메시지 발송됨
+}
@@ -0,0 +1,39 @@
+package com.togethershop.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Redis pub/sub 로 노드 간 전달되는 STOMP 브로드캐스트 단위
+ * - messageId 로 노드별 중복 전달 제거
+ * - user 가 있으면 convertAndSendToUser, 없으면 destination 으로 전송
+ * - kind 가 있으면 STOMP 전송이 아닌 노드 간 상태 동기화 (최근 메시지 버퍼, 검색 색인 등)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatBroadcastEnvelope {
+    public static final String KIND_BUFFER_APPEND = "BUFFER_APPEND";
+    public static final String KIND_BUFFER_INVALIDATE = "BUFFER_INVALIDATE";
+    public static final String KIND_SEARCH_INDEX = "SEARCH_INDEX";
+    public static final String KIND_ROOM_MEMBERSHIP = "ROOM_MEMBERSHIP";
+    public static final String KIND_ARCHIVE_INDEX = "ARCHIVE_INDEX";
+    public static final String KIND_SEARCH_PRUNE = "SEARCH_PRUNE";
+
+    private String messageId;
+    private String originNode;
+    private String destination;
+    private String user;
+    private JsonNode payload;
+    private String kind;
+    private String roomId;
+    private Long roomPk;   // chat_rooms.id 로만 식별하는 동기화 (아카이브 인덱스)
+    private ChatMessageDTO message;
+    private List<Long> messageIds;   // 검색 색인에서 뺄 메시지 id (아카이브)
+}
@@ -9,9 +9,9 @@ import java.util.List;
 @Builder
 public class ChatHistoryResponseDTO {
     private List<ChatMessageResponseDTO> messages;
-    private long totalElements;
-    private int totalPages;
-    private int currentPage;
+    private boolean hasMore;        // 요청 방향으로 더 불러올 메시지 존재 여부
+    private String beforeCursor;    // 더 과거 메시지 요청 시 before 로 전달
+    private String afterCursor;     // 새 메시지 요청 시 after 로 전달
     private RoomInfo roomInfo;
 
     @Getter
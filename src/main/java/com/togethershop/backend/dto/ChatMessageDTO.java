@@ -12,12 +12,16 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 public class ChatMessageDTO {
+    private Long id;
+    private Long seq;              // 방 단위 시퀀스 (재연결 동기화 기준)
+    private String clientMessageId;
     private String roomId;
     private Long senderId;
     private String senderName;
     private String businessName;
     private String content;
     private MessageType type;
+    private String fileUrl;        // FILE 메시지 다운로드 경로
     private Instant timestamp;
     private boolean isTemp;
     private ProposalPayloadDTO payload;
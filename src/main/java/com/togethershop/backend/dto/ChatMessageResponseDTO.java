@@ -13,8 +13,10 @@ public class ChatMessageResponseDTO {
     private Long senderId;
     private String senderName;
     private String content;
+    private String fileUrl;   // FILE 메시지 다운로드 경로
     private Instant createdAt;
     private Payload payload;
+    private ProposalPayloadDTO proposal;   // COUPON_PROPOSAL 메시지의 제안 내용 (실시간 전송과 같은 형식)
 
     @Getter
     @Builder
@@ -0,0 +1,75 @@
+package com.togethershop.backend.dto;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * chat_messages 한 행 (write-behind 큐 / 저널 / 아카이브 세그먼트 기록 단위)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatMessageRow {
+    private Long id;
+    private Long roomPk;
+    private Long senderId;
+    private Long receiverBusinessId;
+    private MessageType type;
+    private String fileUrl;
+    private String proposalData;
+    private String content;
+    private Instant sentAt;
+    private Long seq;
+    private String clientMessageId;
+    private Instant readAt;
+    private MessageDeliveryStatus deliveryStatus;
+    private Long partnershipId;
+
+    public static ChatMessageRow from(ChatMessage m) {
+        return ChatMessageRow.builder()
+                .id(m.getId())
+                .roomPk(m.getRoom().getId())
+                .senderId(m.getSenderId())
+                .receiverBusinessId(m.getReceiverBusinessId())
+                .type(m.getType())
+                .fileUrl(m.getFileUrl())
+                .proposalData(m.getProposalData())
+                .content(m.getContent())
+                .sentAt(m.getSentAt())
+                .seq(m.getSeq())
+                .clientMessageId(m.getClientMessageId())
+                .readAt(m.getReadAt())
+                .deliveryStatus(m.getDeliveryStatus())
+                .partnershipId(m.getPartnership() != null ? m.getPartnership().getId() : null)
+                .build();
+    }
+
+    /**
+     * 아카이브에서 읽은 행을 DTO 변환용 엔티티로 (영속화하지 않음)
+     */
+    public ChatMessage toMessage(ChatRoom room) {
+        return ChatMessage.builder()
+                .id(id)
+                .room(room)
+                .senderId(senderId)
+                .receiverBusinessId(receiverBusinessId)
+                .type(type)
+                .fileUrl(fileUrl)
+                .proposalData(proposalData)
+                .content(content)
+                .sentAt(sentAt)
+                .seq(seq)
+                .clientMessageId(clientMessageId)
+                .readAt(readAt)
+                .deliveryStatus(deliveryStatus)
+                .partnership(room.getPartnership())
+                .build();
+    }
+}
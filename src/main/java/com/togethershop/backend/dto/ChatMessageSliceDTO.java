@@ -0,0 +1,21 @@
+package com.togethershop.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서 기반 채팅 히스토리 응답 (COUNT 없음)
+ * - messages: 항상 오래된 순
+ * - hasMore: 요청 방향(before/최신: 과거, after: 최신)으로 더 불러올 메시지가 있는지
+ * - beforeCursor / afterCursor: 이 페이지의 첫/마지막 메시지 커서
+ */
+@Getter
+@Builder
+public class ChatMessageSliceDTO {
+    private List<ChatMessageDTO> messages;
+    private boolean hasMore;
+    private String beforeCursor;
+    private String afterCursor;
+}
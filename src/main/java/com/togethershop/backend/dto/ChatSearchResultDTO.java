@@ -0,0 +1,21 @@
+package com.togethershop.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 채팅 검색 결과
+ * - messages: 최신순
+ * - nextBeforeId: 다음 페이지 요청 시 beforeId 로 전달
+ * - indexReady: false 면 기동 직후 색인 구성 중이라 일부 결과가 빠질 수 있음
+ */
+@Getter
+@Builder
+public class ChatSearchResultDTO {
+    private List<ChatMessageDTO> messages;
+    private boolean hasMore;
+    private Long nextBeforeId;
+    private boolean indexReady;
+}
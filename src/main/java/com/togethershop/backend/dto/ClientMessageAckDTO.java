@@ -0,0 +1,18 @@
+package com.togethershop.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 재전송된 메시지에 대한 응답 (/user/queue/chat.ack)
+ */
+@Getter
+@Builder
+public class ClientMessageAckDTO {
+    private String type;
+    private String roomId;
+    private String clientMessageId;
+    private Long messageId;
+    private Long seq;
+    private boolean duplicate;
+}
@@ -0,0 +1,18 @@
+package com.togethershop.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CouponBulkIssueProgressDTO {
+    private String jobId;
+    private Long templateId;
+    private String status;   // RUNNING, DONE, SOLD_OUT, STOPPED, FAILED
+    private Long total;      // 대상 고객 수 (시작 시점 기준)
+    private Long processed;  // 확인한 고객 수
+    private Long issued;     // 발급 수
+    private Long skipped;    // 이미 보유 / 동시 발급 충돌로 제외
+    private String message;
+}
@@ -4,5 +4,6 @@ public enum MessageType {
     TEXT,
     SYSTEM,
     COUPON_PROPOSAL,     // 쿠폰 제안 메시지(구조화된 페이로드)
-    PARTNERSHIP_REQUEST
+    PARTNERSHIP_REQUEST,
+    FILE                 // 첨부 파일 (fileUrl = /api/chat/attachments/{attachmentId}, content = 파일명)
 }
@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ProposalPayloadDTO {
+    private Long messageId;
     private String roomId;
     private Long proposerId;
     private CouponDTO proposerCoupon;
@@ -0,0 +1,7 @@
+package com.togethershop.backend.dto;
+
+public enum ProposalStatus {
+    REQUESTED, // 제안 대기
+    ACCEPTED, // 수락
+    REJECTED // 거절
+}
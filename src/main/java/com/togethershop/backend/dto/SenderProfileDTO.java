@@ -0,0 +1,13 @@
+package com.togethershop.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 채팅 메시지 발신자 표시용 프로필 (username, 상호명)
+@Getter
+@AllArgsConstructor
+public class SenderProfileDTO {
+    private Long id;
+    private String username;
+    private String businessName;
+}
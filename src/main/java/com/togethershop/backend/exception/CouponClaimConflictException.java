@@ -0,0 +1,11 @@
+package com.togethershop.backend.exception;
+
+/**
+ * 쿠폰 발급 요청이 현재 상태와 충돌 (한도 초과 / 품절 / 같은 요청 처리 중) - 컨트롤러에서 409 로 응답
+ */
+public class CouponClaimConflictException extends IllegalStateException {
+
+    public CouponClaimConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.togethershop.backend.repository;
+
+import com.togethershop.backend.domain.ChatAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatAttachmentRepository extends JpaRepository<ChatAttachment, Long> {
+
+    Optional<ChatAttachment> findByAttachmentId(String attachmentId);
+
+    // 청크 반영 - 다른 요청이 먼저 offset 을 옮겼으면 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE ChatAttachment a SET a.receivedBytes = :next " +
+            "WHERE a.attachmentId = :attachmentId AND a.receivedBytes = :expected " +
+            "AND a.status = com.togethershop.backend.dto.AttachmentStatus.UPLOADING")
+    int advance(@Param("attachmentId") String attachmentId,
+                @Param("expected") Long expected,
+                @Param("next") Long next);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ChatAttachment a SET a.thumbnail = true WHERE a.attachmentId = :attachmentId")
+    int markThumbnail(@Param("attachmentId") String attachmentId);
+
+    // 오래 방치된 업로드 세션 정리용
+    @Query("SELECT a FROM ChatAttachment a WHERE a.status = com.togethershop.backend.dto.AttachmentStatus.UPLOADING " +
+            "AND a.createdAt < :before")
+    List<ChatAttachment> findStaleUploads(@Param("before") Instant before);
+}
@@ -5,24 +5,62 @@ import com.togethershop.backend.domain.ChatRoom;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    Page<ChatMessage> findByRoomRoomIdOrderBySentAtAsc(String roomId, Pageable pageable);
 
     Page<ChatMessage> findByRoom(ChatRoom room, Pageable pageable);
 
     Optional<ChatMessage> findTopByRoomRoomIdOrderBySentAtDesc(String roomId);
 
-    @Modifying
-    @Query("UPDATE ChatMessage m SET m.deliveryStatus = 'READ' " +
-            "WHERE m.room.roomId = :roomId AND m.senderId <> :userId " +
-            "AND m.deliveryStatus <> 'READ'")
-    int markMessagesAsRead(@Param("roomId") String roomId, @Param("userId") Long userId);
+    // keyset 페이지네이션 - (room_id, sent_at, id) 인덱스 사용, COUNT 없이 size + 1 건으로 다음 페이지 여부 판단
+    @Query("SELECT m FROM ChatMessage m WHERE m.room.id = :roomPk " +
+            "ORDER BY m.sentAt DESC, m.id DESC")
+    List<ChatMessage> findLatestInRoom(@Param("roomPk") Long roomPk, Pageable pageable);
 
-}
+    @Query("SELECT m FROM ChatMessage m WHERE m.room.id = :roomPk " +
+            "AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.id < :id)) " +
+            "ORDER BY m.sentAt DESC, m.id DESC")
+    List<ChatMessage> findBeforeInRoom(@Param("roomPk") Long roomPk,
+                                       @Param("sentAt") Instant sentAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m WHERE m.room.id = :roomPk " +
+            "AND (m.sentAt > :sentAt OR (m.sentAt = :sentAt AND m.id > :id)) " +
+            "ORDER BY m.sentAt ASC, m.id ASC")
+    List<ChatMessage> findAfterInRoom(@Param("roomPk") Long roomPk,
+                                      @Param("sentAt") Instant sentAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // 재연결 동기화 - 마지막으로 받은 seq 이후 메시지
+    @Query("SELECT m FROM ChatMessage m WHERE m.room.id = :roomPk AND m.seq > :seq " +
+            "ORDER BY m.seq ASC")
+    List<ChatMessage> findAfterSeqInRoom(@Param("roomPk") Long roomPk,
+                                         @Param("seq") Long seq,
+                                         Pageable pageable);
+
+    // 방 요약 backfill 용 - 특정 참여자 기준 안 읽은 메시지 수
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.room.id = :roomPk " +
+            "AND m.senderId <> :userId AND m.deliveryStatus <> 'READ'")
+    long countUnreadInRoom(@Param("roomPk") Long roomPk, @Param("userId") Long userId);
 
+    // 일부만 읽은 경우 남은 안 읽은 수 - (room_id, seq) 유니크 인덱스 범위
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.room.id = :roomPk " +
+            "AND m.senderId <> :userId AND m.seq > :seq")
+    long countFromOthersAfterSeq(@Param("roomPk") Long roomPk, @Param("userId") Long userId, @Param("seq") Long seq);
+
+    // 안 읽은 메시지 카운터(Redis) 초기화용 - 사용자 참여 방별 안 읽은 수 [roomId, count]
+    @Query("SELECT m.room.roomId, COUNT(m) FROM ChatMessage m " +
+            "WHERE (m.room.requester.id = :userId OR m.room.recipient.id = :userId) " +
+            "AND m.senderId <> :userId AND m.deliveryStatus <> 'READ' " +
+            "GROUP BY m.room.roomId")
+    List<Object[]> countUnreadByRoomFor(@Param("userId") Long userId);
+
+}
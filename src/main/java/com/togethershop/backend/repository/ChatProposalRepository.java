@@ -0,0 +1,25 @@
+package com.togethershop.backend.repository;
+
+import com.togethershop.backend.domain.ChatProposal;
+import com.togethershop.backend.dto.ProposalStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatProposalRepository extends JpaRepository<ChatProposal, Long> {
+
+    Optional<ChatProposal> findByMessageId(Long messageId);
+
+    // 히스토리 페이지의 제안 메시지를 한 번에 조회
+    List<ChatProposal> findByMessageIdIn(Collection<Long> messageIds);
+
+    // 방의 상태별 제안 - (room_id, status, message_id) 인덱스
+    @Query("SELECT p FROM ChatProposal p WHERE p.roomPk = :roomPk AND p.status = :status " +
+            "ORDER BY p.messageId DESC")
+    List<ChatProposal> findByRoomAndStatus(@Param("roomPk") Long roomPk,
+                                           @Param("status") ProposalStatus status);
+}
@@ -26,4 +26,13 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
                                              @Param("status") ChatStatus status);
 
     List<ChatRoom> findByPartnershipId(Long partnershipId);
+
+    // 구독 권한 캐시용 - [roomId, requesterId, recipientId, status] (엔티티 로딩 없이)
+    @Query("SELECT cr.roomId, cr.requester.id, cr.recipient.id, cr.status FROM ChatRoom cr " +
+            "WHERE cr.requester.id = :businessId OR cr.recipient.id = :businessId")
+    List<Object[]> findMembershipsOf(@Param("businessId") Long businessId);
+
+    @Query("SELECT cr.roomId, cr.requester.id, cr.recipient.id, cr.status FROM ChatRoom cr " +
+            "WHERE cr.roomId = :roomId")
+    List<Object[]> findMembership(@Param("roomId") String roomId);
 }
@@ -6,7 +6,6 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -15,10 +14,34 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByCouponCode(String couponCode);
     List<Coupon> findByCustomerIdAndStatus(Long customerId, CouponStatus status);
 
+    // 고객별 템플릿 발급 수 - (customer_id, template_id, claim_no) 유니크 인덱스 사용
+    long countByCustomerIdAndTemplateId(Long customerId, Long templateId);
+
+    // 대량 발급 대상 중 이 템플릿 쿠폰을 가진 고객 - [customerId, 발급 수, 최대 claim_no]
+    @Query("SELECT c.customerId, COUNT(c), MAX(c.claimNo) FROM Coupon c " +
+            "WHERE c.templateId = :templateId AND c.customerId IN :customerIds GROUP BY c.customerId")
+    List<Object[]> findClaimCounts(@Param("templateId") Long templateId, @Param("customerIds") List<Long> customerIds);
+
     @Query("SELECT c FROM Coupon c WHERE c.customerId = :customerId AND c.status = 'ISSUED' " +
             "AND c.expireDate >= CURRENT_TIMESTAMP ORDER BY c.expireDate ASC")
     List<Coupon> findExpiringCoupons(@Param("customerId") Long customerId, @Param("now") LocalDateTime now, org.springframework.data.domain.Pageable pageable);
-    List<Coupon> findByExpireDateAndStatus(LocalDate expireDate, CouponStatus status);
+    // 만료 임박 안내 대상 고객 - customer_id keyset, expire_date(DATETIME) 는 [from, to) 범위로 비교
+    // (status, customer_id, expire_date) 인덱스를 customer_id 순으로 훑으므로 정렬/DISTINCT 에 filesort 없음
+    @Query("SELECT DISTINCT c.customerId FROM Coupon c WHERE c.status = :status " +
+            "AND c.expireDate >= :from AND c.expireDate < :to AND c.customerId > :afterCustomerId " +
+            "ORDER BY c.customerId")
+    List<Long> findCustomerIdsExpiringBetween(@Param("status") CouponStatus status,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("afterCustomerId") Long afterCustomerId,
+                                              org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT c FROM Coupon c WHERE c.customerId IN :customerIds AND c.status = :status " +
+            "AND c.expireDate >= :from AND c.expireDate < :to")
+    List<Coupon> findExpiringBetweenFor(@Param("customerIds") List<Long> customerIds,
+                                        @Param("status") CouponStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
 
 
     // 특정 템플릿의 총 발급된 쿠폰 개수
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CouponTemplateRepository extends JpaRepository<CouponTemplate, Long> {
@@ -37,4 +38,9 @@ public interface CouponTemplateRepository extends JpaRepository<CouponTemplate,
     List<CouponTemplate> findByApplicableBusinessIdAndRoomIsNull(Long applicableBusinessId);
 
     List<CouponTemplate> findByRoom(ChatRoom room);
-}
\ No newline at end of file
+
+    // 쿠폰 이름(제휴 요청 매장명) 일괄 조회 [templateId, businessName]
+    @Query("SELECT ct.id, r.businessName FROM CouponTemplate ct JOIN ct.partnership p JOIN p.requester r " +
+            "WHERE ct.id IN :ids")
+    List<Object[]> findRequesterNamesByIds(@Param("ids") Collection<Long> ids);
+}
@@ -5,13 +5,22 @@ import com.togethershop.backend.domain.Customer;
 import com.togethershop.backend.dto.AccountStatus;
 import com.togethershop.backend.dto.CustomerStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNullApi;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByUsername(String username);
     Optional<Customer> findByIdAndStatus(Long customerId, AccountStatus status);
 
+    // FCM 토큰 일괄 조회 (토큰 있는 고객만) [customerId, token]
+    @Query("SELECT c.id, c.customerFcmToken FROM Customer c " +
+            "WHERE c.id IN :ids AND c.customerFcmToken IS NOT NULL AND c.customerFcmToken <> ''")
+    List<Object[]> findFcmTokensByIds(@Param("ids") Collection<Long> ids);
+
 
 }
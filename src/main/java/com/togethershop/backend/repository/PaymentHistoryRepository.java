@@ -1,6 +1,7 @@
 package com.togethershop.backend.repository;
 
 import com.togethershop.backend.domain.PaymentHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -52,4 +53,25 @@ public interface PaymentHistoryRepository extends JpaRepository<PaymentHistory,
 """)
     LocalDateTime findLatestVisitDate(@Param("customerId") Long customerId, @Param("businessId") Long businessId);
 
+    // 대량 쿠폰 발급 대상 - 매장에서 since 이후 결제한 고객 수
+    @Query("""
+        SELECT COUNT(DISTINCT p.customerId)
+        FROM PaymentHistory p
+        WHERE p.businessId = :businessId AND p.paymentDate >= :since
+    """)
+    long countCustomersPaidSince(@Param("businessId") Long businessId, @Param("since") LocalDateTime since);
+
+    // 대량 쿠폰 발급 대상 - customer_id keyset (afterCustomerId 다음부터 오름차순)
+    @Query("""
+        SELECT DISTINCT p.customerId
+        FROM PaymentHistory p
+        WHERE p.businessId = :businessId AND p.paymentDate >= :since
+          AND p.customerId > :afterCustomerId
+        ORDER BY p.customerId
+    """)
+    List<Long> findCustomerIdsPaidSince(@Param("businessId") Long businessId,
+                                        @Param("since") LocalDateTime since,
+                                        @Param("afterCustomerId") Long afterCustomerId,
+                                        Pageable pageable);
+
 }
@@ -0,0 +1,52 @@
+package com.togethershop.backend.repository;
+
+import com.togethershop.backend.domain.RoomSummary;
+import com.togethershop.backend.dto.MessageType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RoomSummaryRepository extends JpaRepository<RoomSummary, Long> {
+
+    // 채팅 목록 - 상대 매장만 fetch join, Slice 라 COUNT 없음
+    @Query("SELECT s FROM RoomSummary s JOIN FETCH s.otherBusiness b " +
+            "WHERE s.businessId = :businessId " +
+            "AND (:q IS NULL OR LOWER(b.businessName) LIKE :q OR LOWER(b.businessCategory) LIKE :q) " +
+            "ORDER BY s.lastActivityAt DESC, s.roomPk DESC")
+    Slice<RoomSummary> findRoomList(@Param("businessId") Long businessId,
+                                    @Param("q") String q,
+                                    Pageable pageable);
+
+    boolean existsByRoomPk(Long roomPk);
+
+    // 메시지 미리보기 - 늦게 도착한 과거 메시지가 최신 미리보기를 덮지 않도록 시간 조건
+    @Modifying
+    @Query("UPDATE RoomSummary s SET s.lastMessagePreview = :preview, s.lastMessageType = :type, " +
+            "s.lastSenderId = :senderId, s.lastActivityAt = :sentAt " +
+            "WHERE s.roomPk = :roomPk AND s.lastActivityAt <= :sentAt")
+    int updateLastMessage(@Param("roomPk") Long roomPk,
+                          @Param("preview") String preview,
+                          @Param("type") MessageType type,
+                          @Param("senderId") Long senderId,
+                          @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE RoomSummary s SET s.unreadCount = s.unreadCount + :count " +
+            "WHERE s.roomPk = :roomPk AND s.businessId <> :senderId")
+    int incrementUnread(@Param("roomPk") Long roomPk, @Param("senderId") Long senderId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE RoomSummary s SET s.partnershipStatus = :status WHERE s.roomPk = :roomPk")
+    int updatePartnershipStatus(@Param("roomPk") Long roomPk, @Param("status") String status);
+
+    // 요약이 없는 기존 방 (기동 시 backfill 대상)
+    @Query("SELECT r.id FROM ChatRoom r WHERE NOT EXISTS " +
+            "(SELECT 1 FROM RoomSummary s WHERE s.roomPk = r.id) ORDER BY r.id")
+    List<Long> findRoomIdsWithoutSummary(Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.togethershop.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.server.ServerHttpRequest;
@@ -17,6 +18,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
+    public static final String PRINCIPAL_ATTR = "principal";
+    public static final String TOKEN_EXPIRES_AT_ATTR = "tokenExpiresAt";
+
     private final JwtTokenProvider jwtTokenProvider;
 
     @Override
@@ -39,10 +43,13 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
                     token = token.substring(7);
                 }
 
-                if (jwtTokenProvider.validateToken(token)) {
-                    Authentication auth = jwtTokenProvider.getAuthentication(token);
+                // 검증 + 클레임 추출 1회, 사용자 조회 1회 → 이후 STOMP 프레임은 세션 principal 사용
+                Claims claims = jwtTokenProvider.parseValidClaims(token);
+                if (claims != null) {
+                    Authentication auth = jwtTokenProvider.getAuthentication(claims, token);
                     SecurityContextHolder.getContext().setAuthentication(auth);
-                    attributes.put("principal", auth.getPrincipal());
+                    attributes.put(PRINCIPAL_ATTR, auth.getPrincipal());
+                    attributes.put(TOKEN_EXPIRES_AT_ATTR, claims.getExpiration().toInstant());
                     return true; // 연결 허용
                 }
             }
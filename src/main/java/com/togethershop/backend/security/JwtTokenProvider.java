@@ -71,6 +71,26 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * 서명/만료 검증과 클레임 추출을 한 번의 파싱으로 처리 (유효하지 않으면 null)
+     */
+    public Claims parseValidClaims(String token) {
+        try {
+            return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 이미 검증된 클레임으로 인증 객체 생성 (사용자 조회 1회)
+     */
+    public Authentication getAuthentication(Claims claims, String token) {
+        Long userId = Long.parseLong(claims.getSubject());
+        CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserById(userId);
+        return new UsernamePasswordAuthenticationToken(userDetails, token, userDetails.getAuthorities());
+    }
+
     public Long getUserIdFromToken(String token) {
         return Long.parseLong(getClaims(token).getSubject());
     }
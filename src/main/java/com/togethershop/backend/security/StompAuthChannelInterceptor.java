@@ -1,51 +1,71 @@
 package com.togethershop.backend.security;
 
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * STOMP 인증 - CONNECT 프레임에서만 수행
+ * - 핸드셰이크에서 인증된 principal(세션 attribute)을 우선 사용, 없으면 CONNECT 의 Authorization 헤더를 한 번 검증
+ * - accessor.setUser 로 세션에 principal 을 묶어 이후 프레임은 JWT 파싱/DB 조회 없이 처리
+ * - 토큰 만료는 StompTokenExpiryScheduler 가 타이머로 세션 종료
+ */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class StompAuthChannelInterceptor implements ChannelInterceptor {
 
+    private final JwtTokenProvider jwtTokenProvider;
+    private final StompTokenExpiryScheduler tokenExpiryScheduler;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
 
-        // WebSocket 세션 attribute에서 principal 가져오기
-        Object principal = accessor.getSessionAttributes() != null
-                ? accessor.getSessionAttributes().get("principal")
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object principal = attributes != null ? attributes.get(JwtHandshakeInterceptor.PRINCIPAL_ATTR) : null;
+        Instant expiresAt = attributes != null
+                ? (Instant) attributes.get(JwtHandshakeInterceptor.TOKEN_EXPIRES_AT_ATTR)
                 : null;
 
-        if (principal == null) {
-            log.warn("인증되지 않은 사용자 접근 차단");
-            throw new IllegalArgumentException("인증 실패: WebSocket 연결에 JWT 필요");
+        if (!(principal instanceof CustomUserDetails)) {
+            String token = accessor.getFirstNativeHeader("Authorization");
+            if (token != null && token.startsWith("Bearer ")) {
+                token = token.substring(7);
+            }
+            Claims claims = token != null ? jwtTokenProvider.parseValidClaims(token) : null;
+            if (claims != null) {
+                principal = jwtTokenProvider.getAuthentication(claims, token).getPrincipal();
+                expiresAt = claims.getExpiration().toInstant();
+            }
         }
 
-        // UserDetails가 있다면 그 username을 로깅
-        String username = principal instanceof UserDetails userDetails
-                ? userDetails.getUsername()
-                : principal.toString();
-
-        log.debug("STOMP 사용자 인증됨: {}", username);
-
-        // SecurityContext에 Authentication 설정
-        if (principal instanceof UserDetails userDetails) {
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (!(principal instanceof CustomUserDetails userDetails)) {
+            log.warn("인증되지 않은 STOMP CONNECT 차단: sessionId={}", accessor.getSessionId());
+            throw new IllegalArgumentException("인증 실패: WebSocket 연결에 JWT 필요");
         }
 
+        Authentication auth = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        accessor.setUser(auth);
+        tokenExpiryScheduler.schedule(accessor.getSessionId(), expiresAt);
+
+        log.debug("STOMP 사용자 인증됨: {}", userDetails.getUsername());
         return message;
     }
-}
\ No newline at end of file
+}
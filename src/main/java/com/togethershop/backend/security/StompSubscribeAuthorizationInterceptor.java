@@ -0,0 +1,83 @@
+package com.togethershop.backend.security;
+
+import com.togethershop.backend.service.RoomMembershipCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP SUBSCRIBE 권한 확인 - /topic/room/{roomId} 는 방 참여자(요청자/수신자)만 구독 가능
+ * - /topic/ 아래는 /topic/room/{roomId} 만 허용 (/topic/** 같은 패턴 구독으로 다른 방 메시지를 받지 않도록)
+ * - 목적지에 패턴 문자(*, ?, {)가 있으면 거부 - SimpleBroker 는 구독 목적지를 Ant 패턴으로 매칭
+ * - StompAuthChannelInterceptor 다음에 등록 (CONNECT 시점에 principal 이 설정되어 있어야 함)
+ * - CONNECT 에서 사용자의 방 목록을 RoomMembershipCache 에 미리 적재
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompSubscribeAuthorizationInterceptor implements ChannelInterceptor {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final RoomMembershipCache roomMembershipCache;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) return message;
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            Long businessId = businessId(accessor);
+            try {
+                roomMembershipCache.preload(businessId);
+            } catch (RuntimeException e) {
+                // 적재 실패해도 연결은 허용 - SUBSCRIBE 에서 방 단위로 조회
+                log.warn("방 참여 정보 적재 실패 - businessId: {}", businessId, e);
+            }
+            return message;
+        }
+        if (command != StompCommand.SUBSCRIBE) return message;
+
+        String destination = accessor.getDestination();
+        if (destination == null) return message;
+        Long businessId = businessId(accessor);
+        if (isPattern(destination)) {
+            log.warn("패턴 목적지 구독 거부 - destination: {}, businessId: {}", destination, businessId);
+            throw new AccessDeniedException("구독할 수 없는 목적지입니다");
+        }
+        if (!destination.startsWith(TOPIC_PREFIX)) return message;
+
+        String roomId = destination.startsWith(ROOM_TOPIC_PREFIX) ? destination.substring(ROOM_TOPIC_PREFIX.length()) : "";
+        if (roomId.isEmpty() || roomId.indexOf('/') >= 0) {
+            log.warn("허용되지 않은 토픽 구독 거부 - destination: {}, businessId: {}", destination, businessId);
+            throw new AccessDeniedException("구독할 수 없는 목적지입니다");
+        }
+        if (!roomMembershipCache.isMember(roomId, businessId)) {
+            log.warn("채팅방 구독 거부 - roomId: {}, businessId: {}", roomId, businessId);
+            throw new AccessDeniedException("채팅방 구독 권한이 없습니다");
+        }
+        return message;
+    }
+
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    private static Long businessId(StompHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof Authentication auth
+                && auth.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUserId();
+        }
+        return null;
+    }
+}
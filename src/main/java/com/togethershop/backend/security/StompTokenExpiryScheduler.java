@@ -0,0 +1,69 @@
+package com.togethershop.backend.security;
+
+import com.togethershop.backend.config.StompSessionRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP 세션 토큰 만료 처리
+ * - 프레임마다 JWT 를 검증하지 않고, CONNECT 시 만료 시각에 세션 종료를 예약
+ * - 세션이 먼저 끊기면 예약 취소, 클라이언트는 갱신한 토큰으로 재연결
+ */
+@Component
+@Slf4j
+public class StompTokenExpiryScheduler {
+
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("토큰이 만료되었습니다");
+
+    private final StompSessionRegistry sessionRegistry;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, ScheduledFuture<?>> expiries = new ConcurrentHashMap<>();
+
+    public StompTokenExpiryScheduler(StompSessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "ws-token-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        sessionRegistry.addCloseListener("token-expiry", this::cancel);
+    }
+
+    public void schedule(String sessionId, Instant expiresAt) {
+        if (sessionId == null || expiresAt == null) return;
+        long delayMs = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+        ScheduledFuture<?> future = scheduler.schedule(() -> {
+            expiries.remove(sessionId);
+            log.info("토큰 만료로 WebSocket 세션 종료: sessionId={}", sessionId);
+            sessionRegistry.close(sessionId, TOKEN_EXPIRED);
+        }, delayMs, TimeUnit.MILLISECONDS);
+
+        ScheduledFuture<?> previous = expiries.put(sessionId, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    public void cancel(String sessionId) {
+        ScheduledFuture<?> future = expiries.remove(sessionId);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
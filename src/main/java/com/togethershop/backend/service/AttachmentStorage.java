@@ -0,0 +1,109 @@
+package com.togethershop.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 채팅 첨부 파일 로컬 디스크 저장소
+ * - 디렉터리 구조: {dir}/{attachmentId 앞 2자}/{attachmentId}[.part | .thumb.jpg]
+ * - 청크는 요청 본문 스트림을 FileChannel.transferFrom 으로 바로 기록 (힙에 전체 버퍼링하지 않음)
+ * - 업로드 중에는 .part, 완료 시 원자적 rename
+ * - 클러스터 모드에서는 dir 을 공유 볼륨으로 지정해야 모든 노드에서 업로드 이어받기/다운로드 가능
+ */
+@Component
+@Slf4j
+public class AttachmentStorage {
+
+    private final Path baseDir;
+
+    public AttachmentStorage(@Value("${chat.attachment.dir:./data/chat-attachments}") String dir) {
+        this.baseDir = Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * offset 위치부터 length 바이트 기록, 실제 기록한 바이트 수 반환
+     * - 앞서 중간에 끊긴 청크가 남아 있으면 offset 뒤를 잘라내고 다시 씀
+     */
+    public long writeChunk(String attachmentId, long offset, InputStream body, long length) {
+        Path part = partPath(attachmentId);
+        try {
+            Files.createDirectories(part.getParent());
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(body)) {
+                if (channel.size() > offset) {
+                    channel.truncate(offset);
+                }
+                if (channel.size() < offset) {
+                    throw new IllegalStateException("업로드 파일이 offset 보다 짧습니다: " + channel.size());
+                }
+                long written = 0;
+                while (written < length) {
+                    long n = channel.transferFrom(source, offset + written, length - written);
+                    if (n <= 0) break;
+                    written += n;
+                }
+                // offset 을 DB 에 반영하기 전에 디스크에 기록
+                channel.force(false);
+                return written;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("첨부 파일 청크 기록 실패: " + attachmentId, e);
+        }
+    }
+
+    /**
+     * .part → 완료 파일 rename - 이미 옮겨졌으면 그대로 성공 (rename 후 메시지 발송이 실패해 다시 완료 처리하는 경우)
+     */
+    public void complete(String attachmentId) {
+        Path file = filePath(attachmentId);
+        try {
+            Files.move(partPath(attachmentId), file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            if (!Files.exists(file)) {
+                throw new UncheckedIOException("첨부 파일 완료 처리 실패: " + attachmentId, e);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("첨부 파일 완료 처리 실패: " + attachmentId, e);
+        }
+    }
+
+    public void delete(String attachmentId) {
+        try {
+            Files.deleteIfExists(partPath(attachmentId));
+            Files.deleteIfExists(filePath(attachmentId));
+            Files.deleteIfExists(thumbnailPath(attachmentId));
+        } catch (IOException e) {
+            log.warn("첨부 파일 삭제 실패: {}", attachmentId, e);
+        }
+    }
+
+    public Path filePath(String attachmentId) {
+        return dirOf(attachmentId).resolve(attachmentId);
+    }
+
+    public Path thumbnailPath(String attachmentId) {
+        return dirOf(attachmentId).resolve(attachmentId + ".thumb.jpg");
+    }
+
+    private Path partPath(String attachmentId) {
+        return dirOf(attachmentId).resolve(attachmentId + ".part");
+    }
+
+    private Path dirOf(String attachmentId) {
+        return baseDir.resolve(attachmentId.substring(0, 2));
+    }
+}
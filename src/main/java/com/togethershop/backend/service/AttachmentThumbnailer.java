@@ -0,0 +1,141 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatAttachment;
+import com.togethershop.backend.repository.ChatAttachmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미지 첨부 썸네일 비동기 생성
+ * - 전용 스레드 풀(작은 큐)에서 처리, 큐가 가득 차면 썸네일 없이 넘어감 (원본 다운로드는 가능)
+ * - 원본 해상도에 맞춰 source subsampling 으로 읽어 큰 이미지도 힙을 적게 사용
+ * - max-source-pixels 를 넘는 이미지는 건너뜀 (압축 폭탄 방지)
+ * - 완료되면 방에 ATTACHMENT_THUMBNAIL 이벤트 브로드캐스트
+ */
+@Component
+@Slf4j
+public class AttachmentThumbnailer {
+
+    private final AttachmentStorage storage;
+    private final ChatAttachmentRepository attachmentRepo;
+    private final ChatBroadcaster chatBroadcaster;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${chat.attachment.thumbnail.max-edge:320}")
+    private int maxEdge;
+    @Value("${chat.attachment.thumbnail.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    public AttachmentThumbnailer(AttachmentStorage storage,
+                                 ChatAttachmentRepository attachmentRepo,
+                                 ChatBroadcaster chatBroadcaster,
+                                 @Value("${chat.attachment.thumbnail.threads:2}") int threads,
+                                 @Value("${chat.attachment.thumbnail.queue-capacity:100}") int queueCapacity) {
+        this.storage = storage;
+        this.attachmentRepo = attachmentRepo;
+        this.chatBroadcaster = chatBroadcaster;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "chat-thumbnail");
+            t.setDaemon(true);
+            return t;
+        }, (task, pool) -> log.warn("썸네일 큐가 가득 차 생성 생략"));
+    }
+
+    public void submit(ChatAttachment attachment) {
+        if (!attachment.isImage()) return;
+        String attachmentId = attachment.getAttachmentId();
+        String roomId = attachment.getRoomId();
+        executor.execute(() -> generate(attachmentId, roomId));
+    }
+
+    private void generate(String attachmentId, String roomId) {
+        Path source = storage.filePath(attachmentId);
+        Path target = storage.thumbnailPath(attachmentId);
+        try {
+            BufferedImage image = readSubsampled(source);
+            if (image == null) return;
+
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            ImageIO.write(scale(image), "jpg", tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            attachmentRepo.markThumbnail(attachmentId);
+            chatBroadcaster.sendToRoom(roomId, Map.of(
+                    "type", "ATTACHMENT_THUMBNAIL",
+                    "attachmentId", attachmentId,
+                    "thumbnailUrl", ChatAttachmentService.thumbnailUrl(attachmentId)
+            ));
+        } catch (IOException | RuntimeException e) {
+            log.warn("썸네일 생성 실패 - attachmentId: {}", attachmentId, e);
+        }
+    }
+
+    private BufferedImage readSubsampled(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    log.info("썸네일 생략 - 원본이 너무 큼: {}x{}", width, height);
+                    return null;
+                }
+                // 결과의 2배 정도 해상도로만 읽고 나머지는 보간으로 축소
+                int step = Math.max(1, Math.max(width, height) / (maxEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // JPEG 는 알파 채널을 지원하지 않으므로 RGB 로 그림
+        BufferedImage thumb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumb;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
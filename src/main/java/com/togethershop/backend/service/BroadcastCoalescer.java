@@ -0,0 +1,157 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 목적지(/topic/room/{roomId})별 브로드캐스트 묶음 전송 (chat.broadcast.coalesce.enabled=true 일 때만)
+ * - 첫 이벤트 후 linger-ms 동안 더 들어오면 모아서, 마지막 이벤트 후 linger-ms 가 지나거나
+ *   첫 이벤트 후 max-delay-ms 가 되면 전송 (max-batch 건이 차면 즉시)
+ * - 2건 이상이면 JSON 배열 한 프레임, 1건이면 기존과 같은 단일 객체 프레임
+ * - 직렬화는 목적지별 한 번 (구독 세션 수와 무관)
+ * - 전송은 단일 스레드에서 순서대로 → 같은 방의 이벤트 순서 유지
+ */
+@Component
+@Slf4j
+public class BroadcastCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSize;
+    private final Counter framesSaved;
+
+    @Value("${chat.broadcast.coalesce.enabled:false}")
+    private boolean enabled;
+    @Value("${chat.broadcast.coalesce.linger-ms:5}")
+    private long lingerMs;
+    @Value("${chat.broadcast.coalesce.max-delay-ms:20}")
+    private long maxDelayMs;
+    @Value("${chat.broadcast.coalesce.max-batch:50}")
+    private int maxBatch;
+
+    public BroadcastCoalescer(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "ws-broadcast-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.batchSize = DistributionSummary.builder("chat.ws.broadcast.batch.size")
+                .description("묶음 전송 1회당 이벤트 수")
+                .register(meterRegistry);
+        this.framesSaved = Counter.builder("chat.ws.broadcast.frames.saved")
+                .description("묶음 전송으로 줄어든 STOMP 프레임 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(String destination, Object payload) {
+        long now = System.nanoTime();
+        boolean[] full = {false};
+        batches.compute(destination, (d, batch) -> {
+            if (batch == null) {
+                batch = new Batch(now);
+                scheduler.schedule(() -> flushIfDue(d), lingerMs, TimeUnit.MILLISECONDS);
+            }
+            batch.payloads.add(payload);
+            batch.lastAt = now;
+            full[0] = batch.payloads.size() >= maxBatch;
+            return batch;
+        });
+        if (full[0]) {
+            scheduler.execute(() -> flush(destination));
+        }
+    }
+
+    // 마지막 이벤트 후 linger 가 지났거나 max-delay 에 도달했으면 전송, 아니면 다시 예약
+    private void flushIfDue(String destination) {
+        Batch batch = batches.get(destination);
+        if (batch == null) return;
+
+        long now = System.nanoTime();
+        long lingerDeadline = batch.lastAt + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        long maxDeadline = batch.firstAt + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        long deadline = Math.min(lingerDeadline, maxDeadline);
+        if (now >= deadline) {
+            flush(destination);
+        } else {
+            scheduler.schedule(() -> flushIfDue(destination), deadline - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush(String destination) {
+        Batch batch = batches.remove(destination);
+        if (batch == null || batch.payloads.isEmpty()) return;
+
+        List<Object> payloads = batch.payloads;
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payloads.size() == 1 ? payloads.get(0) : payloads);
+            messagingTemplate.send(destination, jsonMessage(json));
+            batchSize.record(payloads.size());
+            framesSaved.increment(payloads.size() - 1);
+        } catch (JsonProcessingException e) {
+            log.error("브로드캐스트 직렬화 실패 - destination: {}, 이벤트 {}건", destination, payloads.size(), e);
+        } catch (RuntimeException e) {
+            log.error("브로드캐스트 전송 실패 - destination: {}, 이벤트 {}건", destination, payloads.size(), e);
+        }
+    }
+
+    private static Message<byte[]> jsonMessage(byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 남은 묶음은 종료 전에 전송
+        for (String destination : new ArrayList<>(batches.keySet())) {
+            scheduler.execute(() -> flush(destination));
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Batch {
+        private final long firstAt;
+        private volatile long lastAt;
+        private final List<Object> payloads = new ArrayList<>();
+
+        Batch(long firstAt) {
+            this.firstAt = firstAt;
+            this.lastAt = firstAt;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.util.ChatCursor;
+import com.togethershop.backend.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 오래된 채팅 메시지 아카이브 (방별 append-only 세그먼트 파일)
+ * - 디렉터리 구조: {dir}/{roomPk}/00000001.seg, 00000002.seg ... (segment-max-bytes 넘으면 다음 파일)
+ * - 세그먼트 = 블록의 나열, 블록 = 64바이트 헤더 + deflate 압축된 JSON lines (block-messages 건)
+ * - 헤더에 첫/마지막 (sentAt, id) 키와 seq 범위를 두어 블록 헤더만으로 sparse index 구성
+ *   → 조회 시 해당 블록 하나만 읽어 압축 해제
+ * - 블록은 (sentAt, id) 오름차순으로만 추가, 마지막 블록의 마지막 키가 아카이브 워터마크
+ * - 클러스터 모드에서는 dir 을 공유 볼륨으로 지정해야 모든 노드에서 조회 가능
+ *   블록을 추가하면 다른 노드의 인덱스 캐시도 무효화 (ChatBroadcaster.syncToCluster), 빈 인덱스는 캐시하지 않음
+ */
+@Component
+@Slf4j
+public class ChatArchiveStore {
+
+    private static final int BLOCK_MAGIC = 0x43484231; // "CHB1"
+    // magic, length, count, crc (int x4) + firstMicros, firstId, lastMicros, lastId, minSeq, maxSeq (long x6)
+    private static final int HEADER_BYTES = 4 * 4 + 8 * 6;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ObjectMapper objectMapper;
+    private final ChatBroadcaster chatBroadcaster;
+    private final Path baseDir;
+    private final long segmentMaxBytes;
+    private final int blockMessages;
+    // 방별 블록 인덱스 (추가 시 클러스터 전체 무효화, 알림을 놓쳐도 TTL 후 다시 읽음)
+    private final TtlLruCache<Long, List<Block>> indexes;
+
+    public ChatArchiveStore(ObjectMapper objectMapper,
+                            ChatBroadcaster chatBroadcaster,
+                            @Value("${chat.archive.dir:./data/chat-archive}") String dir,
+                            @Value("${chat.archive.segment-max-bytes:8388608}") long segmentMaxBytes,
+                            @Value("${chat.archive.block-messages:256}") int blockMessages,
+                            @Value("${chat.archive.index-cache.max-rooms:10000}") int maxRooms,
+                            @Value("${chat.archive.index-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.chatBroadcaster = chatBroadcaster;
+        this.baseDir = Path.of(dir);
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.blockMessages = Math.max(1, blockMessages);
+        this.indexes = new TtlLruCache<>(maxRooms, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public boolean hasArchive(Long roomPk) {
+        return !index(roomPk).isEmpty();
+    }
+
+    /**
+     * 아카이브된 마지막 (sentAt, id) - 이 키 이하의 메시지는 모두 아카이브에 있음 (없으면 null)
+     */
+    public ChatCursor watermark(Long roomPk) {
+        List<Block> blocks = index(roomPk);
+        if (blocks.isEmpty()) return null;
+        Block last = blocks.get(blocks.size() - 1);
+        return new ChatCursor(fromMicros(last.lastMicros()), last.lastId());
+    }
+
+    public long maxSeq(Long roomPk) {
+        return index(roomPk).stream().mapToLong(Block::maxSeq).max().orElse(0);
+    }
+
+    /**
+     * 블록 단위로 추가 후 fsync - rows 는 (sentAt, id) 오름차순이고 워터마크보다 뒤여야 함
+     */
+    public synchronized void append(Long roomPk, List<ChatMessageRow> rows) {
+        if (rows.isEmpty()) return;
+        List<Block> blocks = loadIndex(roomPk, true);
+        Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        long prevMicros = last != null ? last.lastMicros() : Long.MIN_VALUE;
+        long prevId = last != null ? last.lastId() : Long.MIN_VALUE;
+        for (ChatMessageRow row : rows) {
+            if (compare(micros(row.getSentAt()), row.getId(), prevMicros, prevId) <= 0) {
+                throw new IllegalArgumentException("아카이브는 (sentAt, id) 오름차순으로만 추가할 수 있습니다: id=" + row.getId());
+            }
+            prevMicros = micros(row.getSentAt());
+            prevId = row.getId();
+        }
+
+        Path roomDir = baseDir.resolve(String.valueOf(roomPk));
+        try {
+            Files.createDirectories(roomDir);
+            for (int from = 0; from < rows.size(); from += blockMessages) {
+                List<ChatMessageRow> chunk = rows.subList(from, Math.min(rows.size(), from + blockMessages));
+                writeBlock(activeSegment(roomDir), chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("아카이브 기록 실패: roomPk=" + roomPk, e);
+        } finally {
+            indexes.invalidate(roomPk);
+        }
+        try {
+            chatBroadcaster.syncToCluster(roomPk, ChatBroadcastEnvelope.KIND_ARCHIVE_INDEX);
+        } catch (RuntimeException e) {
+            // 기록은 끝났으므로 실패로 돌리지 않음 - 다른 노드는 인덱스 TTL 후 반영
+            log.warn("아카이브 인덱스 무효화 전파 실패: roomPk={}, error={}", roomPk, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onClusterSync(ChatBroadcastEnvelope envelope) {
+        if (ChatBroadcastEnvelope.KIND_ARCHIVE_INDEX.equals(envelope.getKind()) && envelope.getRoomPk() != null) {
+            indexes.invalidate(envelope.getRoomPk());
+        }
+    }
+
+    /**
+     * before 보다 과거 메시지 (최신 → 과거 순), before 가 null 이면 아카이브의 가장 최근부터
+     */
+    public List<ChatMessageRow> readBefore(Long roomPk, ChatCursor before, int limit) {
+        List<Block> blocks = index(roomPk);
+        List<ChatMessageRow> result = new ArrayList<>();
+        long bMicros = before != null ? micros(before.getSentAt()) : Long.MAX_VALUE;
+        long bId = before != null ? before.getId() : Long.MAX_VALUE;
+
+        for (int i = blocks.size() - 1; i >= 0 && result.size() < limit; i--) {
+            Block block = blocks.get(i);
+            if (compare(block.firstMicros(), block.firstId(), bMicros, bId) >= 0) continue;
+            List<ChatMessageRow> rows = readBlock(block);
+            for (int j = rows.size() - 1; j >= 0 && result.size() < limit; j--) {
+                ChatMessageRow row = rows.get(j);
+                if (compare(micros(row.getSentAt()), row.getId(), bMicros, bId) < 0) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * after 보다 최신 메시지 (과거 → 최신 순)
+     */
+    public List<ChatMessageRow> readAfter(Long roomPk, ChatCursor after, int limit) {
+        List<Block> blocks = index(roomPk);
+        List<ChatMessageRow> result = new ArrayList<>();
+        long aMicros = micros(after.getSentAt());
+        long aId = after.getId();
+
+        for (int i = firstBlockAfter(blocks, aMicros, aId); i < blocks.size() && result.size() < limit; i++) {
+            for (ChatMessageRow row : readBlock(blocks.get(i))) {
+                if (result.size() >= limit) break;
+                if (compare(micros(row.getSentAt()), row.getId(), aMicros, aId) > 0) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * seq 이후 메시지 (seq 오름차순) - 재연결 동기화용
+     */
+    public List<ChatMessageRow> readAfterSeq(Long roomPk, long seq, int limit) {
+        List<ChatMessageRow> result = new ArrayList<>();
+        for (Block block : index(roomPk)) {
+            if (result.size() >= limit) break;
+            if (block.maxSeq() <= seq) continue;
+            for (ChatMessageRow row : readBlock(block)) {
+                if (row.getSeq() != null && row.getSeq() > seq) {
+                    result.add(row);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(ChatMessageRow::getSeq));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // 마지막 키가 after 보다 큰 첫 블록 (블록은 키 오름차순)
+    private static int firstBlockAfter(List<Block> blocks, long micros, long id) {
+        int lo = 0, hi = blocks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Block b = blocks.get(mid);
+            if (compare(b.lastMicros(), b.lastId(), micros, id) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private List<Block> index(Long roomPk) {
+        List<Block> cached = indexes.get(roomPk);
+        if (cached != null) return cached;
+        List<Block> loaded = loadIndex(roomPk, false);
+        // 아카이브가 아직 없는 방은 캐시하지 않음 - 다른 노드가 첫 블록을 쓰면 바로 보이도록 (디렉터리 확인 한 번)
+        if (!loaded.isEmpty()) {
+            indexes.put(roomPk, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 세그먼트의 블록 헤더만 훑어 인덱스 구성
+     * - 끝의 불완전한 블록(기록 중 장애)은 인덱스에서 제외, repair=true(기록 직전)면 파일에서도 잘라냄
+     */
+    private List<Block> loadIndex(Long roomPk, boolean repair) {
+        Path roomDir = baseDir.resolve(String.valueOf(roomPk));
+        if (!Files.isDirectory(roomDir)) return List.of();
+
+        List<Block> blocks = new ArrayList<>();
+        try {
+            for (Path segment : segments(roomDir)) {
+                try (FileChannel ch = repair
+                        ? FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(segment, StandardOpenOption.READ)) {
+                    long size = ch.size();
+                    long pos = 0;
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    while (pos < size) {
+                        header.clear();
+                        boolean complete = pos + HEADER_BYTES <= size && readFully(ch, header, pos);
+                        header.flip();
+                        if (!complete || header.getInt() != BLOCK_MAGIC) {
+                            if (repair) truncateTail(ch, segment, pos);
+                            break;
+                        }
+                        int length = header.getInt();
+                        if (pos + HEADER_BYTES + length > size) {
+                            if (repair) truncateTail(ch, segment, pos);
+                            break;
+                        }
+                        blocks.add(new Block(segment, pos, length, header.getInt(), header.getInt(),
+                                header.getLong(), header.getLong(), header.getLong(), header.getLong(),
+                                header.getLong(), header.getLong()));
+                        pos += HEADER_BYTES + length;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("아카이브 인덱스 로드 실패: roomPk=" + roomPk, e);
+        }
+        return List.copyOf(blocks);
+    }
+
+    private static void truncateTail(FileChannel ch, Path segment, long pos) throws IOException {
+        log.warn("아카이브 세그먼트 끝의 불완전한 블록 제거: {} (offset {})", segment, pos);
+        ch.truncate(pos);
+        ch.force(true);
+    }
+
+    private static List<Path> segments(Path roomDir) throws IOException {
+        try (Stream<Path> files = Files.list(roomDir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path activeSegment(Path roomDir) throws IOException {
+        List<Path> segments = segments(roomDir);
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            if (Files.size(last) < segmentMaxBytes) {
+                return last;
+            }
+        }
+        return roomDir.resolve(String.format("%08d%s", segments.size() + 1, SEGMENT_SUFFIX));
+    }
+
+    private void writeBlock(Path segment, List<ChatMessageRow> rows) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        long minSeq = Long.MAX_VALUE, maxSeq = 0;
+        for (ChatMessageRow row : rows) {
+            lines.append(objectMapper.writeValueAsString(row)).append('\n');
+            if (row.getSeq() != null) {
+                minSeq = Math.min(minSeq, row.getSeq());
+                maxSeq = Math.max(maxSeq, row.getSeq());
+            }
+        }
+        byte[] compressed = deflate(lines.toString().getBytes(StandardCharsets.UTF_8));
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+
+        ChatMessageRow first = rows.get(0);
+        ChatMessageRow last = rows.get(rows.size() - 1);
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        buf.putInt(BLOCK_MAGIC)
+                .putInt(compressed.length)
+                .putInt(rows.size())
+                .putInt((int) crc.getValue())
+                .putLong(micros(first.getSentAt())).putLong(first.getId())
+                .putLong(micros(last.getSentAt())).putLong(last.getId())
+                .putLong(minSeq == Long.MAX_VALUE ? 0 : minSeq).putLong(maxSeq)
+                .put(compressed)
+                .flip();
+
+        try (FileChannel ch = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+    }
+
+    private List<ChatMessageRow> readBlock(Block block) {
+        try (FileChannel ch = FileChannel.open(block.segment(), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(block.length());
+            if (!readFully(ch, buf, block.offset() + HEADER_BYTES)) {
+                throw new IllegalStateException("아카이브 블록이 손상되었습니다: " + block.segment());
+            }
+            byte[] compressed = buf.array();
+            CRC32 crc = new CRC32();
+            crc.update(compressed);
+            if ((int) crc.getValue() != block.crc()) {
+                throw new IllegalStateException("아카이브 블록 체크섬 불일치: " + block.segment() + "@" + block.offset());
+            }
+
+            byte[] raw;
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+                raw = in.readAllBytes();
+            }
+            List<ChatMessageRow> rows = new ArrayList<>(block.count());
+            for (String line : new String(raw, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isBlank()) {
+                    rows.add(objectMapper.readValue(line, ChatMessageRow.class));
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("아카이브 블록 읽기 실패: " + block.segment(), e);
+        }
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        long pos = position;
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);
+            if (n < 0) return false;
+            pos += n;
+        }
+        return true;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static int compare(long microsA, long idA, long microsB, long idB) {
+        int c = Long.compare(microsA, microsB);
+        return c != 0 ? c : Long.compare(idA, idB);
+    }
+
+    private record Block(Path segment, long offset, int length, int count, int crc,
+                         long firstMicros, long firstId, long lastMicros, long lastId,
+                         long minSeq, long maxSeq) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.MessageDeliveryStatus;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.util.ChatCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * 오래된 채팅 메시지를 MySQL 에서 ChatArchiveStore 세그먼트로 이동
+ * - min-age-days 보다 오래된 메시지를 방별로 batch-size 씩: 세그먼트에 추가(fsync) → chat_messages 에서 삭제
+ * - 추가 후 삭제 전에 중단되면 다음 실행에서 워터마크 이하 행은 다시 쓰지 않고 삭제만 함
+ * - 옮긴 메시지는 검색 색인에서도 제거 (ChatSearchIndex.onArchived)
+ * - 응답 대기 중인 쿠폰 제안이 있으면 그 제안 이전까지만 이동 (수락/거절은 DB 의 메시지를 사용)
+ * - 여러 노드 중 한 곳에서만 실행되도록 Redis 락 사용
+ * - @Scheduled 는 트리거만 - 본 작업은 chatArchiveExecutor 에서 (기본 스케줄러 스레드를 잡지 않음)
+ */
+@Component
+@Slf4j
+public class ChatArchiver {
+
+    private static final String LOCK_KEY = "chat:archive:lock";
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private static final String SELECT_BATCH = "SELECT id, room_id, sender_business_id, receiver_business_id, type, " +
+            "file_url, proposal_data, content, sent_at, read_at, status, partnership_id, seq, client_message_id " +
+            "FROM chat_messages WHERE room_id = ? AND sent_at < ? ORDER BY sent_at, id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChatArchiveStore archiveStore;
+    private final ChatSearchIndex searchIndex;
+    private final ThreadPoolTaskExecutor archiveExecutor;
+
+    @Value("${chat.archive.enabled:false}")
+    private boolean enabled;
+    @Value("${chat.archive.min-age-days:180}")
+    private int minAgeDays;
+    @Value("${chat.archive.batch-size:1000}")
+    private int batchSize;
+    @Value("${chat.archive.lock-ttl-minutes:60}")
+    private long lockTtlMinutes;
+
+    public ChatArchiver(JdbcTemplate jdbcTemplate,
+                        RedisTemplate<String, String> redisTemplate,
+                        ChatArchiveStore archiveStore,
+                        ChatSearchIndex searchIndex,
+                        @Qualifier("chatArchiveExecutor") ThreadPoolTaskExecutor archiveExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.archiveStore = archiveStore;
+        this.searchIndex = searchIndex;
+        this.archiveExecutor = archiveExecutor;
+    }
+
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) return;
+        archiveExecutor.execute(this::run);
+    }
+
+    public void run() {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, Duration.ofMinutes(lockTtlMinutes)))) {
+            log.info("다른 노드에서 채팅 아카이브 진행 중 - 건너뜀");
+            return;
+        }
+        try {
+            archiveAll(Instant.now().minus(minAgeDays, ChronoUnit.DAYS));
+        } finally {
+            if (token.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    public void archiveAll(Instant cutoff) {
+        List<Long> roomPks = jdbcTemplate.query("SELECT DISTINCT room_id FROM chat_messages WHERE sent_at < ?",
+                ps -> ps.setTimestamp(1, Timestamp.from(cutoff), (Calendar) UTC.clone()),
+                (rs, rowNum) -> rs.getLong(1));
+        long total = 0;
+        for (Long roomPk : roomPks) {
+            try {
+                total += archiveRoom(roomPk, cutoff);
+            } catch (RuntimeException e) {
+                // 한 방의 실패가 나머지 방 아카이브를 막지 않도록
+                log.error("채팅 아카이브 실패 - roomPk: {}", roomPk, e);
+            }
+        }
+        log.info("채팅 아카이브 완료 - 방 {}개, 메시지 {}건 (기준 {})", roomPks.size(), total, cutoff);
+    }
+
+    public long archiveRoom(Long roomPk, Instant cutoff) {
+        List<Instant> pending = jdbcTemplate.query(
+                "SELECT MIN(created_at) FROM chat_proposals WHERE room_id = ? AND status = 'REQUESTED'",
+                ps -> ps.setLong(1, roomPk),
+                (rs, rowNum) -> getInstant(rs, 1));
+        Instant pendingFrom = pending.isEmpty() ? null : pending.get(0);
+        Instant roomCutoff = pendingFrom != null && pendingFrom.isBefore(cutoff) ? pendingFrom : cutoff;
+
+        String roomId = jdbcTemplate.query("SELECT room_id FROM chat_rooms WHERE id = ?",
+                        (rs, rowNum) -> rs.getString(1), roomPk).stream()
+                .findFirst()
+                .orElse(null);
+
+        long moved = 0;
+        while (true) {
+            List<ChatMessageRow> rows = jdbcTemplate.query(SELECT_BATCH, ps -> {
+                ps.setLong(1, roomPk);
+                ps.setTimestamp(2, Timestamp.from(roomCutoff), (Calendar) UTC.clone());
+                ps.setInt(3, batchSize);
+            }, ROW_MAPPER);
+            if (rows.isEmpty()) break;
+
+            // 이전 실행에서 이미 세그먼트에 들어간 행은 삭제만
+            ChatCursor watermark = archiveStore.watermark(roomPk);
+            List<ChatMessageRow> fresh = watermark == null ? rows : rows.stream()
+                    .filter(r -> isAfter(r, watermark))
+                    .toList();
+            archiveStore.append(roomPk, fresh);
+            deleteRows(rows);
+            searchIndex.onArchived(roomId, rows.stream().map(ChatMessageRow::getId).toList());
+
+            moved += rows.size();
+            if (rows.size() < batchSize) break;
+        }
+        if (moved > 0) {
+            log.info("채팅 아카이브 - roomPk: {}, {}건 이동", roomPk, moved);
+        }
+        return moved;
+    }
+
+    private void deleteRows(List<ChatMessageRow> rows) {
+        jdbcTemplate.batchUpdate("DELETE FROM chat_messages WHERE id = ?", rows, 500,
+                (ps, row) -> ps.setLong(1, row.getId()));
+    }
+
+    private static boolean isAfter(ChatMessageRow row, ChatCursor cursor) {
+        int c = row.getSentAt().compareTo(cursor.getSentAt());
+        return c > 0 || (c == 0 && row.getId() > cursor.getId());
+    }
+
+    private static final RowMapper<ChatMessageRow> ROW_MAPPER = (rs, rowNum) -> ChatMessageRow.builder()
+            .id(rs.getLong("id"))
+            .roomPk(rs.getLong("room_id"))
+            .senderId(rs.getLong("sender_business_id"))
+            .receiverBusinessId(getLong(rs, "receiver_business_id"))
+            .type(MessageType.valueOf(rs.getString("type")))
+            .fileUrl(rs.getString("file_url"))
+            .proposalData(rs.getString("proposal_data"))
+            .content(rs.getString("content"))
+            .sentAt(getInstant(rs, "sent_at"))
+            .readAt(getInstant(rs, "read_at"))
+            .deliveryStatus(MessageDeliveryStatus.valueOf(rs.getString("status")))
+            .partnershipId(getLong(rs, "partnership_id"))
+            .seq(getLong(rs, "seq"))
+            .clientMessageId(rs.getString("client_message_id"))
+            .build();
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    // ChatMessageWriter 와 동일하게 UTC 로 해석
+    private static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        return getInstant(rs, rs.findColumn(column));
+    }
+
+    private static Instant getInstant(ResultSet rs, int column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column, (Calendar) UTC.clone());
+        return ts != null ? ts.toInstant() : null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatAttachment;
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.AttachmentStatus;
+import com.togethershop.backend.repository.ChatAttachmentRepository;
+import com.togethershop.backend.repository.ChatRoomRepository;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅 첨부 파일 청크 업로드 (이어 올리기 가능)
+ * 1) start: 파일명/크기로 업로드 세션 생성 → attachmentId
+ * 2) uploadChunk: offset 부터 본문 스트림을 디스크에 기록 (offset 은 항상 서버의 receivedBytes 와 같아야 함)
+ *    - 끊기면 status 로 receivedBytes 를 확인해 그 위치부터 다시 전송
+ * 3) 마지막 청크가 들어오면 파일 확정 + FILE 메시지 저장/브로드캐스트 + (이미지면) 썸네일 비동기 생성
+ *    - 확정이 실패하면 receivedBytes == size 인 UPLOADING 으로 남음 → offset=size, 길이 0 요청으로 확정만 다시 시도
+ * - 청크 크기를 chunk-size 로 제한해 요청 하나가 스레드를 오래 잡지 않도록 함
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatAttachmentService {
+
+    private static final String DOWNLOAD_PREFIX = "/api/chat/attachments/";
+
+    private final ChatAttachmentRepository attachmentRepo;
+    private final ChatRoomRepository roomRepo;
+    private final AttachmentStorage storage;
+    private final AttachmentThumbnailer thumbnailer;
+    private final RoomMembershipCache roomMembershipCache;
+    private final ChatService chatService;
+    private final TransactionTemplate transactionTemplate;
+
+    // 같은 첨부의 청크 동시 업로드 방지 (노드 내)
+    private final Map<String, ReentrantLock> uploadLocks = new ConcurrentHashMap<>();
+
+    @Value("${chat.attachment.max-size-bytes:104857600}")
+    private long maxSizeBytes;
+    @Value("${chat.attachment.chunk-size:8388608}")
+    private long chunkSize;
+    @Value("${chat.attachment.stale-hours:24}")
+    private long staleHours;
+
+    public static String downloadUrl(String attachmentId) {
+        return DOWNLOAD_PREFIX + attachmentId;
+    }
+
+    public static String thumbnailUrl(String attachmentId) {
+        return DOWNLOAD_PREFIX + attachmentId + "/thumbnail";
+    }
+
+    public Map<String, Object> start(String roomId, Long uploaderId, String fileName, String contentType, Long size) {
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        if (!roomMembershipCache.isMember(roomId, uploaderId)) {
+            throw new AccessDeniedException("채팅방 참여자만 파일을 올릴 수 있습니다");
+        }
+        String name = sanitizeFileName(fileName);
+        if (size == null || size <= 0 || size > maxSizeBytes) {
+            throw new IllegalArgumentException("파일 크기는 1 ~ " + maxSizeBytes + " 바이트여야 합니다");
+        }
+        if (contentType == null || contentType.isBlank()) {
+            contentType = URLConnection.guessContentTypeFromName(name);
+        }
+
+        ChatAttachment attachment = attachmentRepo.save(ChatAttachment.builder()
+                .attachmentId(UUID.randomUUID().toString())
+                .roomPk(room.getId())
+                .roomId(room.getRoomId())
+                .uploaderId(uploaderId)
+                .fileName(name)
+                .contentType(contentType != null ? contentType : "application/octet-stream")
+                .sizeBytes(size)
+                .receivedBytes(0L)
+                .status(AttachmentStatus.UPLOADING)
+                .createdAt(Instant.now())
+                .build());
+        return uploadState(attachment);
+    }
+
+    public Map<String, Object> status(String attachmentId, Long uploaderId) {
+        return uploadState(requireUpload(attachmentId, uploaderId));
+    }
+
+    /**
+     * offset 이 서버 receivedBytes 와 다르면 IllegalStateException (클라이언트는 status 로 다시 맞춤)
+     * 모두 받았는데 확정되지 않은 경우 길이 0 청크 = 확정 재시도
+     */
+    public Map<String, Object> uploadChunk(String attachmentId, Long uploaderId, long offset, long length, InputStream body) {
+        ChatAttachment attachment = requireUpload(attachmentId, uploaderId);
+        if (attachment.getStatus() == AttachmentStatus.COMPLETE) {
+            return uploadState(attachment);
+        }
+        if (offset != attachment.getReceivedBytes()) {
+            throw new IllegalStateException("offset 이 맞지 않습니다 (서버: " + attachment.getReceivedBytes() + ")");
+        }
+        boolean finalizeOnly = length == 0 && attachment.getReceivedBytes().equals(attachment.getSizeBytes());
+        if (!finalizeOnly && (length <= 0 || length > chunkSize || offset + length > attachment.getSizeBytes())) {
+            throw new IllegalArgumentException("청크 크기가 올바르지 않습니다 (최대 " + chunkSize + " 바이트)");
+        }
+
+        ReentrantLock lock = uploadLocks.computeIfAbsent(attachmentId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("같은 파일의 다른 청크를 업로드 중입니다");
+        }
+        try {
+            if (!finalizeOnly) {
+                long written = storage.writeChunk(attachmentId, offset, body, length);
+                if (written != length) {
+                    throw new IllegalArgumentException("청크가 중간에 끊겼습니다 (" + written + "/" + length + ")");
+                }
+                if (attachmentRepo.advance(attachmentId, offset, offset + written) == 0) {
+                    throw new IllegalStateException("다른 요청이 먼저 반영되었습니다");
+                }
+                attachment.setReceivedBytes(offset + written);
+            }
+            if (attachment.getReceivedBytes().equals(attachment.getSizeBytes())) {
+                attachment = complete(attachmentId);
+            }
+            return uploadState(attachment);
+        } finally {
+            lock.unlock();
+            uploadLocks.remove(attachmentId, lock);
+        }
+    }
+
+    // 마지막 청크 반영 후 - 파일 확정 + FILE 메시지 발송 (같은 트랜잭션, 이미 확정됐으면 그대로 반환)
+    private ChatAttachment complete(String attachmentId) {
+        return transactionTemplate.execute(status -> {
+            ChatAttachment attachment = attachmentRepo.findByAttachmentId(attachmentId)
+                    .orElseThrow(() -> new IllegalArgumentException("첨부 파일을 찾을 수 없습니다"));
+            if (attachment.getStatus() == AttachmentStatus.COMPLETE) {
+                return attachment;
+            }
+            storage.complete(attachmentId);
+
+            ChatMessage message = chatService.sendFileMessage(attachment.getRoomId(), attachment.getUploaderId(),
+                    attachment.getFileName(), downloadUrl(attachmentId));
+            attachment.setStatus(AttachmentStatus.COMPLETE);
+            attachment.setCompletedAt(Instant.now());
+            attachment.setMessageId(message.getId());
+
+            TransactionUtils.afterCommit(() -> thumbnailer.submit(attachment));
+            log.info("첨부 파일 업로드 완료 - attachmentId: {}, size: {}", attachmentId, attachment.getSizeBytes());
+            return attachment;
+        });
+    }
+
+    /**
+     * 다운로드 대상 - 업로드가 끝났고 요청자가 방 참여자인 경우만
+     */
+    public ChatAttachment requireReadable(String attachmentId, Long userId) {
+        ChatAttachment attachment = attachmentRepo.findByAttachmentId(attachmentId)
+                .filter(a -> a.getStatus() == AttachmentStatus.COMPLETE)
+                .orElseThrow(() -> new IllegalArgumentException("첨부 파일을 찾을 수 없습니다"));
+        if (!roomMembershipCache.isMember(attachment.getRoomId(), userId)) {
+            throw new AccessDeniedException("첨부 파일 조회 권한이 없습니다");
+        }
+        return attachment;
+    }
+
+    // 완료되지 않고 방치된 업로드 세션 정리
+    @Scheduled(cron = "${chat.attachment.cleanup-cron:0 15 * * * *}")
+    public void cleanupStaleUploads() {
+        Instant before = Instant.now().minus(Duration.ofHours(staleHours));
+        for (ChatAttachment attachment : attachmentRepo.findStaleUploads(before)) {
+            storage.delete(attachment.getAttachmentId());
+            attachmentRepo.delete(attachment);
+            log.info("방치된 첨부 업로드 정리 - attachmentId: {}", attachment.getAttachmentId());
+        }
+    }
+
+    private ChatAttachment requireUpload(String attachmentId, Long uploaderId) {
+        ChatAttachment attachment = attachmentRepo.findByAttachmentId(attachmentId)
+                .orElseThrow(() -> new IllegalArgumentException("첨부 파일을 찾을 수 없습니다"));
+        if (!attachment.getUploaderId().equals(uploaderId)) {
+            throw new AccessDeniedException("업로드한 사용자만 이어서 올릴 수 있습니다");
+        }
+        return attachment;
+    }
+
+    private Map<String, Object> uploadState(ChatAttachment attachment) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("attachmentId", attachment.getAttachmentId());
+        state.put("status", attachment.getStatus().name());
+        state.put("offset", attachment.getReceivedBytes());
+        state.put("size", attachment.getSizeBytes());
+        state.put("chunkSize", chunkSize);
+        if (attachment.getStatus() == AttachmentStatus.COMPLETE) {
+            state.put("fileUrl", downloadUrl(attachment.getAttachmentId()));
+            state.put("messageId", attachment.getMessageId());
+        }
+        return state;
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("파일명이 필요합니다");
+        }
+        String name = fileName.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1).replaceAll("[\\p{Cntrl}]", "").trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("파일명이 올바르지 않습니다");
+        }
+        return name.length() > 255 ? name.substring(name.length() - 255) : name;
+    }
+}
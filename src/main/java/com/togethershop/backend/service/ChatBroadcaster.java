@@ -0,0 +1,200 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.util.TtlLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 채팅 브로드캐스트 진입점
+ * - 단일 노드: SimpMessagingTemplate 로 바로 전송
+ * - 클러스터(chat.cluster.enabled=true): Redis 로 한 번만 발행하고,
+ *   각 노드는 RedisChatSubscriber 를 통해 로컬 구독자가 있을 때만 STOMP 로 전달
+ * - 방 토픽 전송은 chat.broadcast.coalesce.enabled=true 면 짧은 시간 묶어서 배열 프레임으로 전송
+ * - 중복 수신 제거 키: 방 토픽/동기화의 채팅 메시지면 대상(destination / kind) + 메시지 id, 그 외(사용자 큐 등)는 발행마다 UUID
+ * - 로컬 구독자 확인은 LocalSubscriptionIndex (destination → 구독 수)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatBroadcaster {
+
+    public static final String ROOM_CHANNEL_PREFIX = "chat.room.";
+    public static final String USER_CHANNEL_PREFIX = "chat.user.";
+    private static final String ROOM_DESTINATION_PREFIX = "/topic/room/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisChatPublisher redisChatPublisher;
+    private final SimpUserRegistry simpUserRegistry;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final LocalSubscriptionIndex localSubscriptionIndex;
+
+    @Value("${chat.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${chat.cluster.node-id:}")
+    private String nodeId;
+
+    // 노드별 중복 수신 방지 (envelope messageId - 채팅 메시지는 메시지 id 기반이라 같은 메시지를 다시 발행해도 한 번만 전달)
+    private final TtlLruCache<String, Boolean> deliveredIds = new TtlLruCache<>(100_000, Duration.ofMinutes(5));
+
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * 채팅방 구독자 전체에게 전송 (/topic/room/{roomId})
+     */
+    public void sendToRoom(String roomId, Object payload) {
+        String destination = ROOM_DESTINATION_PREFIX + roomId;
+        if (!clusterEnabled) {
+            sendToDestination(destination, payload);
+            return;
+        }
+        redisChatPublisher.publish(ROOM_CHANNEL_PREFIX + roomId, envelope(destination, null, payload));
+    }
+
+    /**
+     * 특정 사용자 세션에게 전송 (/user/{username}{destination})
+     */
+    public void sendToUser(String username, String destination, Object payload) {
+        if (!clusterEnabled) {
+            messagingTemplate.convertAndSendToUser(username, destination, payload);
+            return;
+        }
+        redisChatPublisher.publish(USER_CHANNEL_PREFIX + username, envelope(destination, username, payload));
+    }
+
+    /**
+     * 노드 간 상태 동기화 발행 (클러스터 모드에서만, 같은 chat.room.* 채널 사용)
+     * - 수신 노드에서는 ChatBroadcastEnvelope 를 로컬 이벤트로 발행
+     */
+    public void syncToCluster(String roomId, String kind, ChatMessageDTO message) {
+        if (!clusterEnabled) return;
+        ChatBroadcastEnvelope envelope = ChatBroadcastEnvelope.builder()
+                .messageId(dedupId(kind + ":" + roomId, message))
+                .originNode(nodeId)
+                .kind(kind)
+                .roomId(roomId)
+                .message(message)
+                .build();
+        redisChatPublisher.publish(ROOM_CHANNEL_PREFIX + roomId, envelope);
+    }
+
+    /**
+     * 방 UUID 없이 chat_rooms.id 로 식별하는 상태 동기화 (아카이브 인덱스 무효화 등)
+     */
+    public void syncToCluster(Long roomPk, String kind) {
+        if (!clusterEnabled) return;
+        ChatBroadcastEnvelope envelope = ChatBroadcastEnvelope.builder()
+                .messageId(UUID.randomUUID().toString())
+                .originNode(nodeId)
+                .kind(kind)
+                .roomPk(roomPk)
+                .build();
+        redisChatPublisher.publish(ROOM_CHANNEL_PREFIX + roomPk, envelope);
+    }
+
+    /**
+     * 메시지 id 목록 동기화 (검색 색인 정리)
+     */
+    public void syncMessageIdsToCluster(String roomId, String kind, List<Long> messageIds) {
+        if (!clusterEnabled) return;
+        ChatBroadcastEnvelope envelope = ChatBroadcastEnvelope.builder()
+                .messageId(UUID.randomUUID().toString())
+                .originNode(nodeId)
+                .kind(kind)
+                .roomId(roomId)
+                .messageIds(messageIds)
+                .build();
+        redisChatPublisher.publish(ROOM_CHANNEL_PREFIX + roomId, envelope);
+    }
+
+    /**
+     * Redis 로 수신한 브로드캐스트를 이 노드의 STOMP 세션에만 전달
+     */
+    public void deliverLocally(ChatBroadcastEnvelope envelope) {
+        if (!markDelivered(envelope.getMessageId())) {
+            log.debug("중복 브로드캐스트 무시: messageId={}", envelope.getMessageId());
+            return;
+        }
+
+        if (envelope.getKind() != null) {
+            // 발신 노드는 이미 반영함
+            if (!nodeId.equals(envelope.getOriginNode())) {
+                eventPublisher.publishEvent(envelope);
+            }
+            return;
+        }
+
+        if (envelope.getUser() != null) {
+            if (simpUserRegistry.getUser(envelope.getUser()) != null) {
+                messagingTemplate.convertAndSendToUser(envelope.getUser(), envelope.getDestination(), envelope.getPayload());
+            }
+            return;
+        }
+
+        if (localSubscriptionIndex.hasSubscribers(envelope.getDestination())) {
+            sendToDestination(envelope.getDestination(), envelope.getPayload());
+        }
+    }
+
+    // 방 토픽 전송 - 묶음 전송 모드면 BroadcastCoalescer 로
+    private void sendToDestination(String destination, Object payload) {
+        if (broadcastCoalescer.isEnabled()) {
+            broadcastCoalescer.submit(destination, payload);
+        } else {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private synchronized boolean markDelivered(String messageId) {
+        if (messageId == null) return true;
+        if (deliveredIds.get(messageId) != null) return false;
+        deliveredIds.put(messageId, Boolean.TRUE);
+        return true;
+    }
+
+    private ChatBroadcastEnvelope envelope(String destination, String user, Object payload) {
+        return ChatBroadcastEnvelope.builder()
+                .messageId(user != null ? UUID.randomUUID().toString() : dedupId(destination, payload))
+                .originNode(nodeId)
+                .destination(destination)
+                .user(user)
+                .payload(objectMapper.valueToTree(payload))
+                .build();
+    }
+
+    // 채팅 메시지는 대상 + 메시지 id, 그 외 payload 는 발행마다 새 UUID
+    private static String dedupId(String target, Object payload) {
+        if (payload instanceof ChatMessageDTO message && message.getId() != null) {
+            return target + "#" + message.getId();
+        }
+        return UUID.randomUUID().toString();
+    }
+}
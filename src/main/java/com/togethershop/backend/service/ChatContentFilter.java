@@ -0,0 +1,156 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.util.AhoCorasick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 채팅 금칙어 / 스팸 링크 필터 (Aho-Corasick)
+ * - 사전 파일: 한 줄에 한 단어, "단어<TAB>FLAG|MASK|REJECT" 로 단어별 조치 지정 (없으면 default-action), # 주석
+ * - 메시지마다 오토마톤으로 한 번만 훑고, 걸린 단어 중 가장 강한 조치 적용 (REJECT > MASK > FLAG)
+ *   - MASK: MASK/REJECT 단어 구간만 mask 문자로 치환해 저장/전송 (FLAG 단어는 그대로)
+ *   - REJECT: 전송 거부 - 발신자에게 /queue/chat.rejected 로 알림 (applyForSend, 모든 전송 경로 공통)
+ *   - FLAG: 그대로 전송하고 로그/메트릭만 남김 (MASK/REJECT 단어와 함께 있어도 기록)
+ * - 파일이 바뀌면 reload-ms 주기로 새 오토마톤을 빌드해 volatile 참조만 교체 (전송 경로는 잠금 없음)
+ */
+@Component
+@Slf4j
+public class ChatContentFilter {
+
+    public enum Action { FLAG, MASK, REJECT }
+
+    private final ChatBroadcaster chatBroadcaster;
+    private final Map<Action, Counter> hits = new EnumMap<>(Action.class);
+
+    private volatile AhoCorasick automaton = AhoCorasick.empty();
+    private volatile long loadedStamp = -1;
+
+    @Value("${chat.moderation.enabled:true}")
+    private boolean enabled;
+    @Value("${chat.moderation.dictionary:./data/chat-moderation.txt}")
+    private String dictionary;
+    @Value("${chat.moderation.default-action:MASK}")
+    private Action defaultAction;
+    @Value("${chat.moderation.mask-char:*}")
+    private char maskChar;
+
+    public ChatContentFilter(ChatBroadcaster chatBroadcaster, MeterRegistry meterRegistry) {
+        this.chatBroadcaster = chatBroadcaster;
+        for (Action action : Action.values()) {
+            hits.put(action, Counter.builder("chat.moderation.hits")
+                    .tag("action", action.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        reloadIfChanged();
+    }
+
+    /**
+     * 걸린 단어가 없거나 FLAG 만 있으면 text 를 그대로, MASK 면 치환된 문자열을 반환
+     * - REJECT 는 IllegalArgumentException
+     */
+    public String apply(String text) {
+        if (!enabled || text == null || text.isEmpty()) return text;
+
+        AhoCorasick current = automaton;
+        int tags = current.scan(text);
+        if (tags == 0) return text;
+
+        if (has(tags, Action.FLAG)) {
+            hits.get(Action.FLAG).increment();
+            log.warn("금칙어 포함 메시지 (FLAG) - length: {}", text.length());
+        }
+        if (has(tags, Action.REJECT)) {
+            hits.get(Action.REJECT).increment();
+            throw new IllegalArgumentException("허용되지 않는 단어나 링크가 포함된 메시지입니다");
+        }
+        if (has(tags, Action.MASK)) {
+            hits.get(Action.MASK).increment();
+            return current.mask(text, maskChar, Action.MASK.ordinal());
+        }
+        return text;
+    }
+
+    /**
+     * 메시지 전송 경로 공통 (ChatService / PartnershipService)
+     * - 거부되면 발신자에게 /queue/chat.rejected 로 알리고 null 반환, 아니면 apply 결과
+     */
+    public String applyForSend(String text, String roomId, String senderUsername, String clientMessageId) {
+        try {
+            return apply(text);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> rejected = new HashMap<>();
+            rejected.put("roomId", roomId);
+            rejected.put("clientMessageId", clientMessageId);
+            rejected.put("reason", e.getMessage());
+            chatBroadcaster.sendToUser(senderUsername, "/queue/chat.rejected", rejected);
+            return null;
+        }
+    }
+
+    private static boolean has(int tags, Action action) {
+        return (tags & (1 << action.ordinal())) != 0;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.moderation.reload-ms:30000}")
+    public void reloadIfChanged() {
+        if (!enabled) return;
+        Path path = Paths.get(dictionary);
+        try {
+            if (!Files.exists(path)) {
+                if (loadedStamp != 0) {
+                    automaton = AhoCorasick.empty();
+                    loadedStamp = 0;
+                    log.info("금칙어 사전 없음 - 필터 비활성: {}", path.toAbsolutePath());
+                }
+                return;
+            }
+            long stamp = Files.getLastModifiedTime(path).toMillis() ^ Files.size(path);
+            if (stamp == loadedStamp) return;
+
+            long start = System.nanoTime();
+            AhoCorasick built = AhoCorasick.build(parse(Files.readAllLines(path, StandardCharsets.UTF_8)));
+            automaton = built;
+            loadedStamp = stamp;
+            log.info("금칙어 사전 적재 - {}개, {}ms", built.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            // 기존 오토마톤 유지
+            log.error("금칙어 사전 적재 실패: {}", path, e);
+        }
+    }
+
+    private Map<String, Integer> parse(List<String> lines) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            int tab = line.indexOf('\t');
+            String term = (tab >= 0 ? line.substring(0, tab) : line).trim();
+            Action action = tab >= 0
+                    ? Action.valueOf(line.substring(tab + 1).trim().toUpperCase(Locale.ROOT))
+                    : defaultAction;
+            if (!term.isEmpty()) {
+                terms.merge(term, action.ordinal(), Math::max);
+            }
+        }
+        return terms;
+    }
+}
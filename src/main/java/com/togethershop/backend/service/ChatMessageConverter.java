@@ -0,0 +1,57 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.dto.ProposalPayloadDTO;
+import com.togethershop.backend.dto.SenderProfileDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * ChatMessage → ChatMessageDTO 변환 (ChatService / RecentMessageBuffer 공용)
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMessageConverter {
+
+    private final SenderProfileCache senderProfileCache;
+    private final ProposalPayloadCache proposalPayloadCache;
+
+    public ChatMessageDTO toDto(ChatMessage entity) {
+        return toDto(entity, senderProfileCache.get(entity.getSenderId()));
+    }
+
+    public ChatMessageDTO toDto(ChatMessage entity, SenderProfileDTO sender) {
+        if (sender == null) {
+            throw new IllegalArgumentException("Sender not found");
+        }
+
+        ChatMessageDTO.ChatMessageDTOBuilder builder = ChatMessageDTO.builder()
+                .id(entity.getId())
+                .seq(entity.getSeq())
+                .clientMessageId(entity.getClientMessageId())
+                .roomId(entity.getRoom().getRoomId())
+                .senderId(entity.getSenderId())
+                .senderName(sender.getUsername())
+                .businessName(sender.getBusinessName())
+                .type(entity.getType())
+                .fileUrl(entity.getFileUrl())
+                .timestamp(entity.getSentAt());
+
+        if (entity.getType() == MessageType.COUPON_PROPOSAL) {
+            // 제안 payload 는 캐시에서 (메시지마다 JSON 역직렬화하지 않음)
+            ProposalPayloadDTO payload = proposalPayloadCache.get(entity);
+            if (payload != null) {
+                builder.content("쿠폰 교환 제안");
+                builder.payload(payload);
+            } else {
+                builder.content("쿠폰 교환 제안 (파싱 오류)");
+            }
+        } else {
+            builder.content(entity.getContent());
+        }
+
+        return builder.build();
+    }
+}
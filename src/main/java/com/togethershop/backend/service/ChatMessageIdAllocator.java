@@ -0,0 +1,51 @@
+package com.togethershop.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * write-behind 모드용 chat_messages.id 발급기 (HiLo)
+ * - Redis INCRBY 로 노드별 id 블록을 예약하고, 블록 안에서는 로컬로 발급
+ * - 최초 1회는 DB 의 MAX(id) 로 Redis 카운터를 초기화
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageIdAllocator {
+
+    private static final String ID_KEY = "chat:message:id";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${chat.write-behind.id-block-size:1000}")
+    private int blockSize;
+
+    private long next;
+    private long max;
+
+    public synchronized long nextId() {
+        if (next == 0 || next > max) {
+            reserveBlock();
+        }
+        return next++;
+    }
+
+    private void reserveBlock() {
+        if (Boolean.FALSE.equals(redisTemplate.hasKey(ID_KEY))) {
+            Long dbMax = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM chat_messages", Long.class);
+            redisTemplate.opsForValue().setIfAbsent(ID_KEY, String.valueOf(dbMax));
+        }
+        Long end = redisTemplate.opsForValue().increment(ID_KEY, blockSize);
+        if (end == null) {
+            throw new IllegalStateException("메시지 ID 블록 예약 실패");
+        }
+        max = end;
+        next = end - blockSize + 1;
+        log.debug("메시지 ID 블록 예약: {} ~ {}", next, max);
+    }
+}
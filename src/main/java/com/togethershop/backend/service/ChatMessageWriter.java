@@ -0,0 +1,451 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.util.AppendOnlyJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 채팅 메시지 저장 진입점
+ * - 저장과 함께 room_summary(채팅 목록 요약), 안 읽은 메시지 카운터, 최근 메시지 버퍼를 갱신
+ *   (write-behind 모드의 room_summary 는 flush 배치 트랜잭션에서 방별로 묶어 반영 - 전송 트랜잭션에서 UPDATE 하지 않음)
+ * - 기본: messageRepo.save (동기 INSERT)
+ * - write-behind(chat.write-behind.enabled=true):
+ *   1) ChatMessageIdAllocator 로 id 선발급 → 로컬 저널에 기록 → 바운디드 큐에 적재 → 저널 fsync(group commit) 후 반환
+ *   2) flush-interval-ms 마다 큐를 비워 multi-row INSERT 로 일괄 저장
+ *      - flush 는 전용 스레드(chat-write-behind-)에서만, 항상 자체 트랜잭션으로 실행
+ *        (@Scheduled 기본 스레드의 긴 작업에 밀리지 않고, 호출자 트랜잭션 롤백에 휩쓸리지 않음)
+ *   3) 큐가 가득 차면 offer-timeout-ms 만큼 대기 후 예외 (backpressure)
+ *   4) 기동 시 저널에 남은 레코드를 재적재 (ON DUPLICATE KEY 로 멱등)
+ *   5) 무결성 오류로 저장할 수 없는 행은 dead-letter 파일로 옮김 (fsync) - 기동 시마다 재시도, 여전히 실패하면 남겨 둠
+ *   6) 조회(히스토리/동기화/검색)는 flush 를 기다리지 않고 pendingRows 로 방별 대기 행을 합쳐서 응답
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO chat_messages " +
+            "(id, room_id, sender_business_id, receiver_business_id, type, file_url, proposal_data, " +
+            "content, sent_at, read_at, status, partnership_id, seq, client_message_id) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+    // 저널 복구 시 이미 반영된 행은 건너뜀
+    private static final String RECOVERY_SUFFIX = " ON DUPLICATE KEY UPDATE id = id";
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private final ChatMessageRepository messageRepo;
+    private final ChatMessageIdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RoomSummaryService roomSummaryService;
+    private final UnreadCounterService unreadCounterService;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final PlatformTransactionManager transactionManager;
+    private final RoomSequenceAllocator roomSequenceAllocator;
+    private final ChatSearchIndex chatSearchIndex;
+
+    @Value("${chat.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${chat.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${chat.write-behind.batch-size:200}")
+    private int batchSize;
+    @Value("${chat.write-behind.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+    @Value("${chat.write-behind.journal-path:./data/chat-write-behind.journal}")
+    private String journalPath;
+    @Value("${chat.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+    @Value("${chat.write-behind.dead-letter-path:./data/chat-write-behind.dead-letter}")
+    private String deadLetterPath;
+    @Value("${chat.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    @Value("${chat.write-behind.flush-wait-ms:3000}")
+    private long flushWaitMs;
+
+    private final LinkedBlockingQueue<ChatMessageRow> queue = new LinkedBlockingQueue<>();
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    // 방별 저장 대기 행 (seq 순) - seq 초기화 / 조회 시 대기 행까지 반영
+    // 저장된 행도 한 주기 더 남겨 둠 (조회 트랜잭션 스냅샷 이후에 커밋된 행이 양쪽에서 모두 빠지지 않도록, 중복은 id 로 제거)
+    private final Map<Long, ConcurrentSkipListMap<Long, ChatMessageRow>> pendingByRoom = new ConcurrentHashMap<>();
+    private final List<ChatMessageRow> retained = new ArrayList<>();
+    private final Object enqueueLock = new Object();
+    private final List<ChatMessageRow> inFlight = new ArrayList<>();
+    private Semaphore permits;
+    private AppendOnlyJournal journal;
+    private AppendOnlyJournal deadLetter;
+    private TransactionTemplate flushTransaction;
+    private ThreadPoolTaskScheduler flushScheduler;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        permits = new Semaphore(queueCapacity);
+        // 배치마다 독립 트랜잭션 - 커밋된 뒤에만 permit 반환 / 저널 truncate
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        journal = new AppendOnlyJournal(Path.of(journalPath), journalFsync);
+        deadLetter = new AppendOnlyJournal(Path.of(deadLetterPath), true);
+        recover();
+        replayDeadLetters();
+
+        // @Scheduled 기본 스케줄러(단일 스레드)를 쓰지 않음 - 아카이브/푸시/만료 안내 중에도 flush 가 멈추지 않도록
+        flushScheduler = new ThreadPoolTaskScheduler();
+        flushScheduler.setPoolSize(1);
+        flushScheduler.setThreadNamePrefix("chat-write-behind-");
+        flushScheduler.setDaemon(true);
+        flushScheduler.initialize();
+        // 기동 시 recover 로 저널을 이미 비웠으므로 첫 실행은 한 주기 뒤
+        flushScheduler.scheduleWithFixedDelay(this::scheduledFlush,
+                Instant.now().plusMillis(flushIntervalMs), Duration.ofMillis(flushIntervalMs));
+    }
+
+    // 예외가 나가면 주기 실행이 취소되므로 여기서 막음 (배치는 inFlight 에 남아 다음 주기에 재시도)
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("채팅 메시지 flush 실패 - 다음 주기에 재시도", e);
+        }
+    }
+
+    /**
+     * 메시지 저장 - write-behind 모드면 id 만 발급하고 비동기로 저장
+     */
+    public ChatMessage save(ChatMessage msg) {
+        assignSeq(msg);
+        if (!enabled) {
+            ChatMessage saved = messageRepo.save(msg);
+            onSaved(saved);
+            return saved;
+        }
+
+        try {
+            if (!permits.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("메시지 저장 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("메시지 저장이 중단되었습니다", e);
+        }
+
+        long journalSeq;
+        try {
+            msg.setId(idAllocator.nextId());
+            // DATETIME(6) 과 같은 정밀도로 - 대기 행과 DB 행의 커서 비교가 어긋나지 않도록
+            msg.setSentAt(msg.getSentAt().truncatedTo(ChronoUnit.MICROS));
+            ChatMessageRow row = ChatMessageRow.from(msg);
+            String line = objectMapper.writeValueAsString(row);
+            synchronized (enqueueLock) {
+                journalSeq = journal.write(line);
+                pendingIds.add(row.getId());
+                // compute 안에서 넣어야 flush 쪽의 빈 맵 제거와 엇갈리지 않음
+                pendingByRoom.compute(row.getRoomPk(), (roomPk, rows) -> {
+                    ConcurrentSkipListMap<Long, ChatMessageRow> target = rows != null ? rows : new ConcurrentSkipListMap<>();
+                    target.put(row.getSeq(), row);
+                    return target;
+                });
+                queue.add(row);
+            }
+        } catch (Exception e) {
+            permits.release();
+            throw new IllegalStateException("메시지 저장 실패", e);
+        }
+        // fsync 는 enqueueLock 밖에서 - 동시에 들어온 메시지를 한 번의 force 로 묶음 (group commit)
+        try {
+            journal.sync(journalSeq);
+        } catch (UncheckedIOException e) {
+            // 이미 큐에 들어가 저장될 수 있음 - 클라이언트 재전송은 clientMessageId 로 중복 제거
+            throw new IllegalStateException("메시지 저장 실패", e);
+        }
+        onAccepted(msg);
+        return msg;
+    }
+
+    /**
+     * 같은 트랜잭션에서 만든 행(채팅방 등)을 참조하는 메시지는 큐를 거치지 않고 바로 저장
+     * - write-behind 모드에서도 id 는 발급기에서 받아 AUTO_INCREMENT 와 겹치지 않게 함
+     */
+    public ChatMessage saveNow(ChatMessage msg) {
+        assignSeq(msg);
+        if (!enabled) {
+            ChatMessage saved = messageRepo.save(msg);
+            onSaved(saved);
+            return saved;
+        }
+        msg.setId(idAllocator.nextId());
+        insertRows(List.of(ChatMessageRow.from(msg)), "");
+        onSaved(msg);
+        return msg;
+    }
+
+    private void assignSeq(ChatMessage msg) {
+        if (msg.getSeq() == null) {
+            msg.setSeq(roomSequenceAllocator.next(msg.getRoom().getId(), () -> pendingMaxSeq(msg.getRoom().getId())));
+        }
+    }
+
+    private long pendingMaxSeq(Long roomPk) {
+        ConcurrentSkipListMap<Long, ChatMessageRow> rows = pendingByRoom.get(roomPk);
+        if (rows == null) return 0;
+        Map.Entry<Long, ChatMessageRow> last = rows.lastEntry();
+        return last != null ? last.getKey() : 0;
+    }
+
+    private void onSaved(ChatMessage msg) {
+        roomSummaryService.onMessage(msg);
+        onAccepted(msg);
+    }
+
+    // room_summary 외 - write-behind 큐에 넣은 시점에 반영 (room_summary 는 flush 에서)
+    private void onAccepted(ChatMessage msg) {
+        unreadCounterService.onMessage(msg);
+        recentMessageBuffer.onMessageSaved(msg);
+        chatSearchIndex.onMessageSaved(msg);
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 메시지면 즉시 flush (제안 수락/거절 등 조회 전에 호출)
+     */
+    public void flushIfPending(Long messageId) {
+        if (enabled && messageId != null && pendingIds.contains(messageId)) {
+            flushOnWriterThread();
+        }
+    }
+
+    /**
+     * 아직 DB 에 없을 수 있는 방 메시지 (seq 순) - 조회 결과와 합칠 때 id 로 중복 제거
+     */
+    public List<ChatMessageRow> pendingRows(Long roomPk) {
+        if (!enabled) return List.of();
+        ConcurrentSkipListMap<Long, ChatMessageRow> rows = pendingByRoom.get(roomPk);
+        return rows != null ? new ArrayList<>(rows.values()) : List.of();
+    }
+
+    // 호출자 스레드/트랜잭션이 아닌 flush 스레드에서 실행하고 완료까지 대기
+    private void flushOnWriterThread() {
+        try {
+            flushScheduler.submit(this::flush).get(flushWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("메시지 저장 대기가 중단되었습니다", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("메시지 저장이 지연되고 있습니다. 잠시 후 다시 시도해주세요.", e);
+        }
+    }
+
+    /**
+     * 큐를 비워 배치 INSERT - 단일 스레드로만 수행 (저널 truncate 시점 보장)
+     */
+    public synchronized void flush() {
+        retained.forEach(this::releaseRetained);
+        retained.clear();
+        if (inFlight.isEmpty()) {
+            queue.drainTo(inFlight);
+        }
+        while (!inFlight.isEmpty()) {
+            List<ChatMessageRow> chunk = new ArrayList<>(inFlight.subList(0, Math.min(batchSize, inFlight.size())));
+            try {
+                flushTransaction.executeWithoutResult(status ->
+                        roomSummaryService.onMessagesFlushed(insertBatch(chunk)));
+            } catch (DataAccessException | TransactionException e) {
+                // 일시 장애: 남은 행을 유지하고 다음 주기에 재시도 (permit 미반환 → 큐가 차면 backpressure)
+                log.error("채팅 메시지 배치 저장 실패 - {}건 재시도 예정: {}", inFlight.size(), e.getMessage(), e);
+                return;
+            }
+
+            // 커밋된 chunk 는 바로 inFlight 에서 뺌 - 뒤 chunk 가 실패해도 다시 INSERT / room_summary 반영되지 않도록
+            inFlight.subList(0, chunk.size()).clear();
+            chunk.forEach(r -> pendingIds.remove(r.getId()));
+            retained.addAll(chunk);
+            permits.release(chunk.size());
+            log.debug("채팅 메시지 {}건 저장 완료", chunk.size());
+            if (inFlight.isEmpty()) {
+                queue.drainTo(inFlight);
+            }
+        }
+
+        synchronized (enqueueLock) {
+            if (queue.isEmpty()) {
+                journal.truncate();
+            }
+        }
+    }
+
+    private void releaseRetained(ChatMessageRow row) {
+        pendingByRoom.computeIfPresent(row.getRoomPk(), (roomPk, rows) -> {
+            rows.remove(row.getSeq());
+            return rows.isEmpty() ? null : rows;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        if (!enabled) return;
+        flushScheduler.shutdown();
+        flushScheduler.getScheduledExecutor().awaitTermination(flushWaitMs, TimeUnit.MILLISECONDS);
+        flush();
+        journal.close();
+        deadLetter.close();
+    }
+
+    /**
+     * dead-letter 행 재시도 (기동 시 / 원인 데이터를 고친 뒤) - 여전히 실패한 행은 파일에 남김
+     * @return 저장된 행 수
+     */
+    public synchronized int replayDeadLetters() {
+        if (!enabled) return 0;
+        List<String> lines = deadLetter.readAll();
+        if (lines.isEmpty()) return 0;
+        List<String> remaining = new ArrayList<>();
+        int replayed = 0;
+        for (String line : lines) {
+            try {
+                insertRows(List.of(objectMapper.readValue(line, ChatMessageRow.class)), RECOVERY_SUFFIX);
+                replayed++;
+            } catch (DataIntegrityViolationException e) {
+                remaining.add(line);
+            } catch (Exception e) {
+                log.warn("dead-letter 레코드 재시도 실패: {}", e.getMessage());
+                remaining.add(line);
+            }
+        }
+        deadLetter.truncate();
+        remaining.forEach(deadLetter::append);
+        log.info("dead-letter 재시도 - 저장 {}건, 남음 {}건", replayed, remaining.size());
+        return replayed;
+    }
+
+    private void recover() {
+        List<ChatMessageRow> rows = new ArrayList<>();
+        for (String line : journal.readAll()) {
+            try {
+                rows.add(objectMapper.readValue(line, ChatMessageRow.class));
+            } catch (Exception e) {
+                // 기록 도중 종료된 마지막 줄 등
+                log.warn("손상된 저널 레코드 무시: {}", line);
+            }
+        }
+        if (rows.isEmpty()) return;
+
+        log.info("write-behind 저널 복구: {}건 재적재", rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<ChatMessageRow> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            // 이미 반영된 행의 안 읽은 수가 다시 더해질 수 있음 - 다음 읽음 반영 때 chat_messages 기준으로 재계산됨
+            flushTransaction.executeWithoutResult(status -> {
+                insertRows(chunk, RECOVERY_SUFFIX);
+                roomSummaryService.onMessagesFlushed(chunk);
+            });
+        }
+        journal.truncate();
+    }
+
+    /**
+     * multi-row INSERT, 무결성 오류가 나면 행 단위로 다시 시도해 문제 행만 dead-letter 로
+     * (한 행 때문에 파이프라인 전체가 멈추지 않도록, 저널 truncate 전에 dead-letter 에 먼저 기록)
+     * @return 저장된 행
+     */
+    private List<ChatMessageRow> insertBatch(List<ChatMessageRow> rows) {
+        try {
+            insertRows(rows, "");
+            return rows;
+        } catch (DataIntegrityViolationException e) {
+            List<ChatMessageRow> saved = new ArrayList<>(rows.size());
+            for (ChatMessageRow row : rows) {
+                try {
+                    insertRows(List.of(row), "");
+                    saved.add(row);
+                } catch (DataIntegrityViolationException rowError) {
+                    toDeadLetter(row);
+                    log.error("채팅 메시지 저장 불가 - dead-letter 로 이동: id={}, roomPk={}, error={}",
+                            row.getId(), row.getRoomPk(), rowError.getMessage());
+                }
+            }
+            return saved;
+        }
+    }
+
+    private void toDeadLetter(ChatMessageRow row) {
+        try {
+            deadLetter.append(objectMapper.writeValueAsString(row));
+        } catch (Exception e) {
+            // 기록조차 못 하면 배치를 실패시켜 저널에 남김 (다음 주기에 재시도)
+            throw new IllegalStateException("dead-letter 기록 실패 - id=" + row.getId(), e);
+        }
+    }
+
+    private void insertRows(List<ChatMessageRow> rows, String suffix) {
+        String sql = INSERT_PREFIX + String.join(",", Collections.nCopies(rows.size(), ROW_PLACEHOLDER)) + suffix;
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            for (ChatMessageRow r : rows) {
+                ps.setLong(i++, r.getId());
+                ps.setLong(i++, r.getRoomPk());
+                ps.setLong(i++, r.getSenderId());
+                ps.setLong(i++, r.getReceiverBusinessId());
+                ps.setString(i++, r.getType().name());
+                ps.setString(i++, r.getFileUrl());
+                ps.setString(i++, r.getProposalData());
+                ps.setString(i++, r.getContent());
+                setInstant(ps, i++, r.getSentAt());
+                setInstant(ps, i++, r.getReadAt());
+                ps.setString(i++, r.getDeliveryStatus().name());
+                setLong(ps, i++, r.getPartnershipId());
+                setLong(ps, i++, r.getSeq());
+                ps.setString(i++, r.getClientMessageId());
+            }
+            return ps;
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    // Hibernate 의 Instant 매핑(UTC Timestamp)과 동일하게 바인딩
+    private static void setInstant(PreparedStatement ps, int index, Instant instant) throws SQLException {
+        if (instant == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.from(instant), (Calendar) UTC.clone());
+        }
+    }
+}
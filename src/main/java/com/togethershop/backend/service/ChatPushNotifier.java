@@ -0,0 +1,167 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.Business;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.FcmSendDTO;
+import com.togethershop.backend.repository.BusinessRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 오프라인 수신자 채팅 푸시 (FCM)
+ * - 수신 사업자에게 살아 있는 STOMP 세션이 없을 때만 대상
+ * - 수신자별로 coalesce-ms 동안 모아서 한 번만 발송 ("OO 외 N건")
+ * - 노드 간에는 Redis chat:push:sent:{businessId} (NX, coalesce-ms) 로 같은 창에 한 번만 발송,
+ *   다른 노드가 이미 보냈으면 다음 창으로 합침
+ * - @Scheduled flush 는 창이 찬 수신자를 골라내기만 하고, Redis/DB 조회와 FCM 발송은 chatPushExecutor 에서
+ */
+@Component
+@Slf4j
+public class ChatPushNotifier {
+
+    private static final String SENT_KEY_PREFIX = "chat:push:sent:";
+    private static final int PREVIEW_LENGTH = 80;
+
+    private final PresenceRegistry presenceRegistry;
+    private final FcmService fcmService;
+    private final BusinessRepository businessRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ThreadPoolTaskExecutor pushExecutor;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    @Value("${chat.push.enabled:true}")
+    private boolean enabled;
+    @Value("${chat.push.coalesce-ms:15000}")
+    private long coalesceMs;
+
+    public ChatPushNotifier(PresenceRegistry presenceRegistry,
+                            FcmService fcmService,
+                            BusinessRepository businessRepository,
+                            RedisTemplate<String, String> redisTemplate,
+                            @Qualifier("chatPushExecutor") ThreadPoolTaskExecutor pushExecutor) {
+        this.presenceRegistry = presenceRegistry;
+        this.fcmService = fcmService;
+        this.businessRepository = businessRepository;
+        this.redisTemplate = redisTemplate;
+        this.pushExecutor = pushExecutor;
+    }
+
+    /**
+     * 메시지 저장(커밋) 후 호출 - 상대방이 오프라인이면 푸시 대기열에 추가
+     */
+    public void onMessage(Long recipientId, String roomId, String senderName, String preview) {
+        if (!enabled || recipientId == null || presenceRegistry.isOnline(recipientId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.compute(recipientId, (id, p) -> {
+            if (p == null) p = new Pending(now);
+            p.count++;
+            p.roomId = roomId;
+            p.senderName = senderName;
+            p.preview = preview;
+            return p;
+        });
+    }
+
+    /**
+     * 방의 상대방 사업자 id
+     */
+    public static Long counterpartOf(ChatRoom room, Long senderId) {
+        Long requesterId = room.getRequester().getId();
+        return requesterId.equals(senderId) ? room.getRecipient().getId() : requesterId;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.push.flush-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Long, Pending>> due = new ArrayList<>();
+        for (Long recipientId : pending.keySet()) {
+            pending.computeIfPresent(recipientId, (id, p) -> {
+                if (now - p.firstAt < coalesceMs) return p;
+                due.add(Map.entry(id, p));
+                return null;
+            });
+        }
+        for (Map.Entry<Long, Pending> entry : due) {
+            try {
+                pushExecutor.execute(() -> send(entry.getKey(), entry.getValue()));
+            } catch (TaskRejectedException e) {
+                // 발송이 밀리면 다음 flush 로 (그 사이 온 메시지와 합침)
+                requeue(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void send(Long recipientId, Pending p) {
+        // 창 안에 다시 접속했으면 읽을 수 있으므로 생략
+        if (presenceRegistry.isOnline(recipientId)) return;
+
+        if (!claimWindow(recipientId)) {
+            requeue(recipientId, p);
+            return;
+        }
+
+        String token = businessRepository.findById(recipientId)
+                .map(Business::getBusinessFcmToken)
+                .orElse(null);
+        if (token == null || token.isBlank()) return;
+
+        String body = p.count > 1 ? p.preview + " 외 " + (p.count - 1) + "건" : p.preview;
+        fcmService.sendNotification(FcmSendDTO.builder()
+                .token(token)
+                .title(p.senderName != null ? p.senderName : "새 채팅 메시지")
+                .body(body)
+                .build());
+        log.debug("채팅 푸시 발송 - recipientId: {}, roomId: {}, count: {}", recipientId, p.roomId, p.count);
+    }
+
+    private void requeue(Long recipientId, Pending p) {
+        pending.merge(recipientId, p, (cur, prev) -> {
+            cur.count += prev.count;
+            return cur;
+        });
+    }
+
+    private boolean claimWindow(Long recipientId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(SENT_KEY_PREFIX + recipientId, "1", Duration.ofMillis(coalesceMs)));
+        } catch (DataAccessException e) {
+            log.warn("푸시 발송 창 확인 실패 - recipientId: {}", recipientId, e);
+            return true;
+        }
+    }
+
+    public static String preview(String content) {
+        if (content == null) return "";
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) + "…" : content;
+    }
+
+    private static class Pending {
+        private final long firstAt;
+        private int count;
+        private String roomId;
+        private String senderName;
+        private String preview;
+
+        Pending(long firstAt) {
+            this.firstAt = firstAt;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.util.PostingList;
+import com.togethershop.backend.util.SearchTokenizer;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * 채팅 메시지 역색인 (방 단위, 노드 메모리)
+ * - 방마다 사전(TreeMap) → 포스팅 리스트(delta-varint 메시지 id)
+ * - 저장 커밋 후 색인, 다른 노드에는 Redis 동기화로 전달
+ * - 기동 시 chat_messages 를 id 순으로 읽어 chatSearchBackfillExecutor 에서 재구성 (아카이브된 메시지는 제외)
+ * - 아카이브로 빠진 메시지는 ChatArchiver 가 제거 (다른 노드에는 Redis 동기화로 전달)
+ * - 방마다 최근 max-messages-per-room 건까지만 유지 - 넘으면 작은 id 부터 잘라냄 (오래된 메시지는 검색 대상에서 빠짐)
+ * - 검색어 덩어리마다 색인어 교집합 → 덩어리 간 교집합, bigram 오탐은 ChatSearchService 에서 본문으로 확인
+ */
+@Component
+@Slf4j
+public class ChatSearchIndex {
+
+    private static final String BACKFILL_SQL = "SELECT m.id, r.room_id, m.content FROM chat_messages m " +
+            "JOIN chat_rooms r ON r.id = m.room_id WHERE m.type = 'TEXT' AND m.id > ? ORDER BY m.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatBroadcaster chatBroadcaster;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    @Value("${chat.search.enabled:true}")
+    private boolean enabled;
+    @Value("${chat.search.backfill-batch-size:5000}")
+    private int backfillBatchSize;
+    @Value("${chat.search.max-messages-per-room:200000}")
+    private int maxMessagesPerRoom;
+
+    private final Map<String, RoomIndex> rooms = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public ChatSearchIndex(JdbcTemplate jdbcTemplate,
+                           ChatBroadcaster chatBroadcaster,
+                           @Qualifier("chatSearchBackfillExecutor") ThreadPoolTaskExecutor backfillExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chatBroadcaster = chatBroadcaster;
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 백필 완료 여부 (완료 전 검색은 일부 메시지가 빠질 수 있음)
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void onMessageSaved(ChatMessage msg) {
+        if (!enabled || msg.getType() != MessageType.TEXT || msg.getContent() == null) return;
+        String roomId = msg.getRoom().getRoomId();
+        long id = msg.getId();
+        String content = msg.getContent();
+        TransactionUtils.afterCommit(() -> {
+            add(roomId, id, content);
+            chatBroadcaster.syncToCluster(roomId, ChatBroadcastEnvelope.KIND_SEARCH_INDEX, ChatMessageDTO.builder()
+                    .id(id)
+                    .roomId(roomId)
+                    .type(MessageType.TEXT)
+                    .content(content)
+                    .build());
+        });
+    }
+
+    @EventListener
+    public void onClusterSync(ChatBroadcastEnvelope envelope) {
+        if (!enabled) return;
+        if (ChatBroadcastEnvelope.KIND_SEARCH_INDEX.equals(envelope.getKind())) {
+            ChatMessageDTO message = envelope.getMessage();
+            if (message != null && message.getId() != null) {
+                add(message.getRoomId(), message.getId(), message.getContent());
+            }
+        } else if (ChatBroadcastEnvelope.KIND_SEARCH_PRUNE.equals(envelope.getKind())) {
+            if (envelope.getMessageIds() != null) {
+                remove(envelope.getRoomId(), envelope.getMessageIds());
+            }
+        }
+    }
+
+    public void add(String roomId, long messageId, String content) {
+        if (roomId == null || content == null) return;
+        rooms.computeIfAbsent(roomId, k -> new RoomIndex()).add(messageId, SearchTokenizer.indexTerms(content), maxMessagesPerRoom);
+    }
+
+    /**
+     * 아카이브로 chat_messages 에서 빠진 메시지를 색인에서 제거 (이 노드 + 다른 노드)
+     */
+    public void onArchived(String roomId, List<Long> messageIds) {
+        if (!enabled || roomId == null || messageIds.isEmpty()) return;
+        remove(roomId, messageIds);
+        chatBroadcaster.syncMessageIdsToCluster(roomId, ChatBroadcastEnvelope.KIND_SEARCH_PRUNE, messageIds);
+    }
+
+    private void remove(String roomId, List<Long> messageIds) {
+        long[] sorted = messageIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        // 비게 된 방은 맵에서 제거
+        rooms.computeIfPresent(roomId, (k, index) -> index.remove(sorted) ? null : index);
+    }
+
+    /**
+     * 방 안에서 검색 - beforeId 보다 작은 id 를 최신순으로 최대 limit 개
+     */
+    public List<Long> search(String roomId, String query, Long beforeId, int limit) {
+        RoomIndex index = rooms.get(roomId);
+        List<String> runs = SearchTokenizer.runs(query);
+        if (index == null || runs.isEmpty()) return List.of();
+
+        long[] ids = index.match(runs);
+        List<Long> result = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = ids.length - 1; i >= 0 && result.size() < limit; i--) {
+            if (beforeId == null || ids[i] < beforeId) {
+                result.add(ids[i]);
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) return;
+        backfillExecutor.execute(this::runBackfill);
+    }
+
+    private void runBackfill() {
+        long lastId = 0;
+        long indexed = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = jdbcTemplate.query(BACKFILL_SQL,
+                        (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)},
+                        lastId, backfillBatchSize);
+                for (Object[] row : rows) {
+                    add((String) row[1], (Long) row[0], (String) row[2]);
+                    lastId = (Long) row[0];
+                }
+                indexed += rows.size();
+                if (rows.size() < backfillBatchSize) break;
+            }
+            ready = true;
+            log.info("채팅 검색 색인 구성 완료 - 방 {}개, 메시지 {}건, 포스팅 {}KB",
+                    rooms.size(), indexed, rooms.values().stream().mapToLong(RoomIndex::encodedBytes).sum() / 1024);
+        } catch (RuntimeException e) {
+            log.error("채팅 검색 색인 구성 실패 (id {} 까지 색인됨)", lastId, e);
+        }
+    }
+
+    /**
+     * 방 하나의 사전 - 추가/조회/정리는 방 단위로 직렬화
+     */
+    private static class RoomIndex {
+        private final TreeMap<String, PostingList> terms = new TreeMap<>();
+        private final PostingList messages = new PostingList();   // 색인된 메시지 id 전체 (상한 계산용)
+
+        synchronized void add(long messageId, Iterable<String> tokens, int maxMessages) {
+            messages.add(messageId);
+            for (String token : tokens) {
+                terms.computeIfAbsent(token, k -> new PostingList()).add(messageId);
+            }
+            // 매번 재인코딩하지 않도록 상한의 10% 를 넘으면 한 번에 잘라냄
+            if (maxMessages > 0 && messages.size() > maxMessages + maxMessages / 10) {
+                long[] ids = messages.toArray();
+                if (ids.length > maxMessages) {
+                    long floor = ids[ids.length - maxMessages];
+                    removeIf(id -> id < floor);
+                }
+            }
+        }
+
+        // 남은 메시지가 없으면 true
+        synchronized boolean remove(long[] sortedIds) {
+            removeIf(id -> Arrays.binarySearch(sortedIds, id) >= 0);
+            return messages.size() == 0;
+        }
+
+        private void removeIf(LongPredicate filter) {
+            messages.removeIf(filter);
+            terms.values().removeIf(postings -> postings.removeIf(filter) == 0);
+        }
+
+        synchronized long[] match(List<String> runs) {
+            long[] result = null;
+            for (String run : runs) {
+                long[] ids = SearchTokenizer.isPrefix(run) ? prefix(SearchTokenizer.stripWildcard(run)) : all(run);
+                result = result == null ? ids : intersect(result, ids);
+                if (result.length == 0) break;
+            }
+            return result == null ? new long[0] : result;
+        }
+
+        // 덩어리의 색인어가 모두 들어있는 메시지
+        private long[] all(String run) {
+            long[] result = null;
+            for (String term : SearchTokenizer.runTerms(run)) {
+                PostingList postings = terms.get(term);
+                if (postings == null) return new long[0];
+                result = result == null ? postings.toArray() : intersect(result, postings.toArray());
+            }
+            return result == null ? new long[0] : result;
+        }
+
+        // 접두어로 시작하는 색인어 중 하나라도 들어있는 메시지
+        private long[] prefix(String prefix) {
+            long[] result = new long[0];
+            for (PostingList postings : terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                result = union(result, postings.toArray());
+            }
+            return result;
+        }
+
+        synchronized long encodedBytes() {
+            return terms.values().stream().mapToLong(PostingList::encodedBytes).sum();
+        }
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) next = a[i++];
+            else if (i >= a.length || b[j] < a[i]) next = b[j++];
+            else {
+                next = a[i++];
+                j++;
+            }
+            out[n++] = next;
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,139 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.ChatSearchResultDTO;
+import com.togethershop.backend.dto.SenderProfileDTO;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.repository.ChatRoomRepository;
+import com.togethershop.backend.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅 메시지 검색 (방 안 / 내 모든 방)
+ * - ChatSearchIndex 로 후보 id 를 찾고, DB 에서 본문을 읽어 검색어 포함 여부를 확인 (bigram 오탐 제거)
+ *   (write-behind 로 아직 저장되지 않은 메시지는 메모리 대기 행에서 확인)
+ * - beforeId 커서로 최신순 페이지네이션
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_ROUNDS = 5;
+
+    private final ChatSearchIndex searchIndex;
+    private final ChatRoomRepository roomRepo;
+    private final ChatMessageRepository messageRepo;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatMessageConverter chatMessageConverter;
+    private final SenderProfileCache senderProfileCache;
+
+    @Transactional(readOnly = true)
+    public ChatSearchResultDTO searchRoom(ChatRoom room, String query, Long beforeId, int size) {
+        return search(List.of(room), query, beforeId, size,
+                (before, limit) -> searchIndex.search(room.getRoomId(), query, before, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public ChatSearchResultDTO searchMyRooms(Long userId, String query, Long beforeId, int size) {
+        List<ChatRoom> rooms = roomRepo.findByRequesterIdOrRecipientIdOrderByCreatedAtDesc(userId, userId);
+        List<String> roomIds = rooms.stream()
+                .map(ChatRoom::getRoomId)
+                .toList();
+        // 방별 최신순 후보를 합쳐 전체 최신순으로
+        return search(rooms, query, beforeId, size, (before, limit) -> roomIds.stream()
+                .flatMap(roomId -> searchIndex.search(roomId, query, before, limit).stream())
+                .sorted(Comparator.reverseOrder())
+                .limit(limit)
+                .toList());
+    }
+
+    private ChatSearchResultDTO search(List<ChatRoom> rooms, String query, Long beforeId, int size,
+                                       CandidateSource source) {
+        if (!searchIndex.isEnabled()) {
+            throw new IllegalStateException("채팅 검색이 비활성화되어 있습니다");
+        }
+        List<String> runs = SearchTokenizer.runs(query);
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException("검색어를 입력해주세요");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // 색인 직후 write-behind 대기 중인 메시지도 조회되도록 (flush 를 기다리지 않음)
+        Map<Long, ChatMessage> pending = new HashMap<>();
+        for (ChatRoom room : rooms) {
+            for (ChatMessageRow r : chatMessageWriter.pendingRows(room.getId())) {
+                pending.put(r.getId(), r.toMessage(room));
+            }
+        }
+
+        List<ChatMessage> matched = new ArrayList<>();
+        Long cursor = beforeId;
+        boolean exhausted = false;
+        for (int round = 0; round < MAX_ROUNDS && matched.size() <= limit; round++) {
+            List<Long> candidates = source.find(cursor, limit + 1);
+            if (candidates.isEmpty()) {
+                exhausted = true;
+                break;
+            }
+            Map<Long, ChatMessage> loaded = messageRepo.findAllById(candidates).stream()
+                    .collect(Collectors.toMap(ChatMessage::getId, Function.identity()));
+            for (Long id : candidates) {
+                ChatMessage m = loaded.getOrDefault(id, pending.get(id)); // 아카이브된 메시지는 없음
+                if (m != null && containsAll(m.getContent(), runs)) {
+                    matched.add(m);
+                }
+            }
+            cursor = candidates.get(candidates.size() - 1);
+            if (candidates.size() <= limit) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        boolean hasMore = matched.size() > limit || !exhausted;
+        List<ChatMessage> page = matched.size() > limit ? matched.subList(0, limit) : matched;
+        Map<Long, SenderProfileDTO> senders = senderProfileCache.getAll(
+                page.stream().map(ChatMessage::getSenderId).toList());
+        List<ChatMessageDTO> messages = page.stream()
+                .map(m -> chatMessageConverter.toDto(m, senders.get(m.getSenderId())))
+                .toList();
+
+        Long nextBeforeId = matched.size() > limit ? page.get(page.size() - 1).getId() : cursor;
+        return ChatSearchResultDTO.builder()
+                .messages(messages)
+                .hasMore(hasMore)
+                .nextBeforeId(hasMore ? nextBeforeId : null)
+                .indexReady(searchIndex.isReady())
+                .build();
+    }
+
+    private static boolean containsAll(String content, List<String> runs) {
+        if (content == null) return false;
+        String normalized = SearchTokenizer.normalize(content);
+        for (String run : runs) {
+            if (!normalized.contains(SearchTokenizer.stripWildcard(run))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface CandidateSource {
+        List<Long> find(Long beforeId, int limit);
+    }
+}
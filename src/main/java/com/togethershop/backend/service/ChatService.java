@@ -5,17 +5,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.togethershop.backend.domain.*;
 import com.togethershop.backend.dto.*;
 import com.togethershop.backend.repository.*;
+import com.togethershop.backend.util.ChatCursor;
+import com.togethershop.backend.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,21 +32,54 @@ import java.util.Objects;
 public class ChatService {
 
     private final ChatMessageRepository messageRepo;
+    private final ChatMessageWriter chatMessageWriter;
     private final ChatRoomRepository roomRepo;
     private final CouponTemplateRepository templateRepo;
     private final ShopUserRepository userRepo;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBroadcaster chatBroadcaster;
     private final PartnershipRepository partnershipRepo;
     private final ObjectMapper objectMapper;
-    private final RedisChatPublisher redisChatPublisher;
+    private final SenderProfileCache senderProfileCache;
+    private final ChatMessageConverter chatMessageConverter;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final ClientMessageDeduplicator clientMessageDeduplicator;
+    private final RoomSummaryService roomSummaryService;
+    private final ChatProposalRepository proposalRepo;
+    private final ProposalPayloadCache proposalPayloadCache;
+    private final ChatArchiveStore archiveStore;
+    private final ChatPushNotifier chatPushNotifier;
+    private final ChatContentFilter chatContentFilter;
+    private final CouponInventory couponInventory;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
 
     // 1️⃣ 일반 텍스트 메시지 전송
     @Transactional
     public ChatMessage sendTextMessage(String roomId, Long senderId, String text) {
+        return sendTextMessage(roomId, senderId, text, null);
+    }
+
+    /**
+     * clientMessageId 가 있으면 재전송 시 저장/브로드캐스트 없이 발신자에게 ack 만 보냄
+     * 금칙어 필터(ChatContentFilter)에서 거부되면 발신자에게 /queue/chat.rejected 로 알리고 null 반환
+     */
+    @Transactional
+    public ChatMessage sendTextMessage(String roomId, Long senderId, String text, String clientMessageId) {
         ChatRoom room = roomRepo.findByRoomId(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-        Business sender = userRepo.findById(senderId)
-                .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
+        SenderProfileDTO sender = requireSender(senderId);
+
+        if (text != null) {
+            text = chatContentFilter.applyForSend(text, roomId, sender.getUsername(), clientMessageId);
+            if (text == null) return null;
+        }
+
+        if (!clientMessageDeduplicator.claim(roomId, senderId, clientMessageId)) {
+            log.info("중복 메시지 무시 - roomId: {}, senderId: {}, clientMessageId: {}", roomId, senderId, clientMessageId);
+            chatBroadcaster.sendToUser(sender.getUsername(), "/queue/chat.ack",
+                    clientMessageDeduplicator.duplicateAck(roomId, senderId, clientMessageId));
+            return null;
+        }
 
         ChatMessage msg = ChatMessage.builder()
                 .room(room)
@@ -50,13 +88,43 @@ public class ChatService {
                 .partnership(room.getPartnership())
                 .type(MessageType.TEXT)
                 .content(text)
+                .clientMessageId(clientMessageId)
                 .deliveryStatus(MessageDeliveryStatus.SENT)
                 .sentAt(Instant.now())
                 .build();
 
-        msg = messageRepo.save(msg);
+        msg = chatMessageWriter.save(msg);
+        clientMessageDeduplicator.complete(roomId, senderId, msg);
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId, convertToDTO(msg));
+        chatBroadcaster.sendToRoom(roomId, chatMessageConverter.toDto(msg, sender));
+        notifyOffline(room, sender, ChatPushNotifier.preview(text));
+        return msg;
+    }
+
+    /**
+     * 첨부 파일 메시지 - 업로드 완료 시 ChatAttachmentService 가 호출
+     */
+    @Transactional
+    public ChatMessage sendFileMessage(String roomId, Long senderId, String fileName, String fileUrl) {
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        SenderProfileDTO sender = requireSender(senderId);
+
+        ChatMessage msg = ChatMessage.builder()
+                .room(room)
+                .senderId(sender.getId())
+                .receiverBusinessId(ChatPushNotifier.counterpartOf(room, sender.getId()))
+                .partnership(room.getPartnership())
+                .type(MessageType.FILE)
+                .content(fileName)
+                .fileUrl(fileUrl)
+                .deliveryStatus(MessageDeliveryStatus.SENT)
+                .sentAt(Instant.now())
+                .build();
+
+        msg = chatMessageWriter.save(msg);
+        chatBroadcaster.sendToRoom(roomId, chatMessageConverter.toDto(msg, sender));
+        notifyOffline(room, sender, "파일: " + ChatPushNotifier.preview(fileName));
         return msg;
     }
 
@@ -64,53 +132,61 @@ public class ChatService {
     public ChatMessageDTO proposeCoupon(String roomId, Long senderId, ProposalPayloadDTO coupon) throws Exception {
         ChatRoom room = roomRepo.findByRoomId(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-        Business sender = userRepo.findById(senderId)
-                .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
+        SenderProfileDTO sender = requireSender(senderId);
 
         if (coupon == null) {
             throw new IllegalArgumentException("proposerCoupon 정보가 필요합니다");
         }
 
-        // ✅ proposal payload만 저장
+        // 메시지에는 proposal_data(JSON) 만 남기고, 상태/조건은 chat_proposals 에 타입 있는 컬럼으로 저장
         ProposalPayloadDTO payload = new ProposalPayloadDTO();
         payload.setRoomId(room.getRoomId());
         payload.setProposerId(sender.getId());
         payload.setProposerCoupon(coupon.getProposerCoupon());
         payload.setRecipientCoupon(coupon.getRecipientCoupon());
-        payload.setStatus("REQUESTED");
+        payload.setStatus(ProposalStatus.REQUESTED.name());
 
         ChatMessage msg = ChatMessage.builder()
                 .room(room)
                 .senderId(sender.getId())
                 .type(MessageType.COUPON_PROPOSAL)
                 .partnership(room.getPartnership())
-                .content(objectMapper.writeValueAsString(payload)) // JSON
+                .content("쿠폰 교환 제안")
+                .proposalData(objectMapper.writeValueAsString(payload)) // JSON
                 .deliveryStatus(MessageDeliveryStatus.SENT)
                 .receiverBusinessId(room.getRecipient().getId())
                 .sentAt(Instant.now())
                 .build();
 
-        messageRepo.save(msg);
-        System.out.println(convertToDTO(msg));
-        messagingTemplate.convertAndSend("/topic/room/" + roomId, convertToDTO(msg));
-        return convertToDTO(msg);
+        chatMessageWriter.save(msg);
+        ChatProposal proposal = proposalRepo.save(newProposal(msg, payload, ProposalStatus.REQUESTED));
+        proposalPayloadCache.put(proposal);
+
+        ChatMessageDTO dto = chatMessageConverter.toDto(msg, sender);
+        chatBroadcaster.sendToRoom(roomId, dto);
+        notifyOffline(room, sender, "쿠폰 교환 제안이 도착했습니다");
+        return dto;
     }
 
 
     // 3️⃣ 제안 수락
     @Transactional
     public void acceptProposal(Long messageId) throws Exception {
+        chatMessageWriter.flushIfPending(messageId);
         ChatMessage proposalMessage = messageRepo.findById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("Proposal message not found"));
 
-        ProposalPayloadDTO payload = objectMapper.readValue(proposalMessage.getContent(), ProposalPayloadDTO.class);
-        payload.setStatus("ACCEPTED");
-        proposalMessage.setContent(objectMapper.writeValueAsString(payload));
-        messageRepo.save(proposalMessage);
+        ChatProposal proposal = requirePendingProposal(proposalMessage);
+        proposal.setStatus(ProposalStatus.ACCEPTED);
+        proposal.setRespondedAt(Instant.now());
         ChatRoom room = proposalMessage.getRoom();
+        TransactionUtils.afterCommit(() -> {
+            proposalPayloadCache.evict(messageId);
+            recentMessageBuffer.invalidate(room.getRoomId());
+        });
 
 
-        Business proposer = userRepo.findById(payload.getProposerId())
+        Business proposer = userRepo.findById(proposal.getProposerId())
                 .orElseThrow(() -> new IllegalArgumentException("Proposer not found"));
 
         Business recipient = userRepo.findById(
@@ -118,8 +194,10 @@ public class ChatService {
         ).orElseThrow(() -> new IllegalArgumentException("Recipient not found"));
 
         // ✅ 로그 추가
-        log.info("acceptProposal 호출 - proposerId: {}, proposer DB id: {}", payload.getProposerId(), proposer.getId());
+        log.info("acceptProposal 호출 - proposerId: {}, proposer DB id: {}", proposal.getProposerId(), proposer.getId());
         log.info("acceptProposal 호출 - recipientId: {}, recipient DB id: {}", recipient.getId(), recipient.getId());
+        proposal.setRespondedBy(recipient.getId());
+        proposalRepo.save(proposal);
         // 두 개의 Partnership 조회
         Partnership p1 = partnershipRepo.findByRequesterAndPartner(proposer, recipient)
                 .orElseThrow(() -> new IllegalArgumentException("Partnership not found"));
@@ -131,8 +209,10 @@ public class ChatService {
         p2.setStatus(PartnershipStatus.COMPLETED);
         partnershipRepo.save(p1);
         partnershipRepo.save(p2);
+        roomSummaryService.onPartnershipStatusChanged(room, PartnershipStatus.COMPLETED);
 
         // CouponTemplate 저장 (기존대로)
+        ProposalPayloadDTO payload = ProposalPayloadCache.toPayload(proposal);
         CouponDTO proposerCoupon = payload.getProposerCoupon();
         CouponDTO recipientCoupon = payload.getRecipientCoupon();
 
@@ -142,6 +222,7 @@ public class ChatService {
                 .item(proposerCoupon.getItemName())
                 .discountValue(Long.valueOf(proposerCoupon.getDiscountPercent()))
                 .totalQuantity(proposerCoupon.getTotalQuantity())
+                .currentQuantity(proposerCoupon.getTotalQuantity())
                 .startDate(proposerCoupon.getStartDate())
                 .endDate(proposerCoupon.getEndDate())
                 .createdAt(LocalDateTime.now())
@@ -153,6 +234,7 @@ public class ChatService {
                 .item(recipientCoupon.getItemName())
                 .discountValue(Long.valueOf(recipientCoupon.getDiscountPercent()))
                 .totalQuantity(recipientCoupon.getTotalQuantity())
+                .currentQuantity(recipientCoupon.getTotalQuantity())
                 .startDate(recipientCoupon.getStartDate())
                 .endDate(recipientCoupon.getEndDate())
                 .createdAt(LocalDateTime.now())
@@ -160,9 +242,14 @@ public class ChatService {
 
         templateRepo.save(ct1);
         templateRepo.save(ct2);
+        TransactionUtils.afterCommit(() -> {
+            couponInventory.initialize(ct1.getId(), ct1.getCurrentQuantity());
+            couponInventory.initialize(ct2.getId(), ct2.getCurrentQuantity());
+        });
 
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomId(), Map.of(
+        chatBroadcaster.sendToRoom(room.getRoomId(), Map.of(
                 "type", "PROPOSAL_ACCEPTED",
+                "proposalMessageId", messageId,
                 "partnershipIds", List.of(p1.getId(), p2.getId()),
                 "couponTemplateIds", List.of(ct1.getId(), ct2.getId()),
                 "acceptedBy", recipient.getId(),
@@ -174,23 +261,30 @@ public class ChatService {
     // 4️⃣ 제안 거절
     @Transactional
     public void rejectProposal(Long messageId, String reason) throws JsonProcessingException {
+        chatMessageWriter.flushIfPending(messageId);
         ChatMessage proposalMessage = messageRepo.findById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("Proposal message not found"));
 
         ChatRoom room = proposalMessage.getRoom();
-        ProposalPayloadDTO payload = objectMapper.readValue(proposalMessage.getContent(), ProposalPayloadDTO.class);
-        payload.setStatus("REJECTED");
-        proposalMessage.setContent(objectMapper.writeValueAsString(payload));
-        messageRepo.save(proposalMessage);
+        ChatProposal proposal = requirePendingProposal(proposalMessage);
+        proposal.setStatus(ProposalStatus.REJECTED);
+        proposal.setRespondedAt(Instant.now());
+        TransactionUtils.afterCommit(() -> {
+            proposalPayloadCache.evict(messageId);
+            recentMessageBuffer.invalidate(room.getRoomId());
+        });
 
 
-        Business proposer = userRepo.findById(payload.getProposerId())
+        Business proposer = userRepo.findById(proposal.getProposerId())
                 .orElseThrow(() -> new IllegalArgumentException("Proposer not found"));
 
         Business recipient = userRepo.findById(
                 Objects.equals(room.getRequester().getId(), proposer.getId()) ? room.getRecipient().getId() : room.getRequester().getId()
         ).orElseThrow(() -> new IllegalArgumentException("Recipient not found"));
 
+        proposal.setRespondedBy(recipient.getId());
+        proposalRepo.save(proposal);
+
         // 두 개의 Partnership 조회
         Partnership p1 = partnershipRepo.findByRequesterAndPartner(proposer, recipient)
                 .orElseThrow(() -> new IllegalArgumentException("Partnership not found"));
@@ -203,7 +297,7 @@ public class ChatService {
 //        partnershipRepo.save(p1);
 //        partnershipRepo.save(p2);
 
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomId(), Map.of(
+        chatBroadcaster.sendToRoom(room.getRoomId(), Map.of(
                 "type", "PROPOSAL_REJECTED",
                 "proposalMessageId", messageId,
                 "rejectedBy", recipient.getId(),
@@ -235,49 +329,241 @@ public class ChatService {
         Map<String, Object> result = new HashMap<>();
         result.put("roomId", roomId);
         result.put("proposals", proposals);
+        result.put("pendingProposals", findProposals(room, ProposalStatus.REQUESTED));
         return result;
     }
 
-    // 5️⃣ 채팅 히스토리 조회
-    public Page<ChatMessageDTO> history(String roomId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ChatMessage> result = messageRepo.findByRoomRoomIdOrderBySentAtAsc(roomId, pageable);
-        return result.map(this::convertToDTO);
+    // 방의 상태별 쿠폰 제안 (기본: 응답 대기 중)
+    @Transactional(readOnly = true)
+    public List<ProposalPayloadDTO> proposals(String roomId, ProposalStatus status) {
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        return findProposals(room, status != null ? status : ProposalStatus.REQUESTED);
+    }
+
+    private List<ProposalPayloadDTO> findProposals(ChatRoom room, ProposalStatus status) {
+        return proposalRepo.findByRoomAndStatus(room.getId(), status).stream()
+                .map(ProposalPayloadCache::toPayload)
+                .toList();
+    }
+
+    /**
+     * 응답 대기 중인 제안 조회 (chat_proposals 도입 전 메시지는 JSON 으로 한 번 이관)
+     * - 이미 수락/거절된 제안은 다시 처리하지 않음, 동시 처리는 @Version 으로 차단
+     */
+    private ChatProposal requirePendingProposal(ChatMessage message) {
+        if (message.getType() != MessageType.COUPON_PROPOSAL) {
+            throw new IllegalArgumentException("쿠폰 제안 메시지가 아닙니다");
+        }
+        ChatProposal proposal = proposalRepo.findByMessageId(message.getId())
+                .orElseGet(() -> {
+                    ProposalPayloadDTO legacy = proposalPayloadCache.parseLegacy(message);
+                    if (legacy == null) {
+                        throw new IllegalArgumentException("제안 정보를 읽을 수 없습니다");
+                    }
+                    ProposalStatus status = legacy.getStatus() != null
+                            ? ProposalStatus.valueOf(legacy.getStatus())
+                            : ProposalStatus.REQUESTED;
+                    return proposalRepo.save(newProposal(message, legacy, status));
+                });
+        if (proposal.getStatus() != ProposalStatus.REQUESTED) {
+            throw new IllegalStateException("이미 처리된 제안입니다");
+        }
+        return proposal;
+    }
+
+    private static ChatProposal newProposal(ChatMessage message, ProposalPayloadDTO payload, ProposalStatus status) {
+        CouponDTO proposerCoupon = payload.getProposerCoupon() != null ? payload.getProposerCoupon() : new CouponDTO();
+        CouponDTO recipientCoupon = payload.getRecipientCoupon() != null ? payload.getRecipientCoupon() : new CouponDTO();
+        return ChatProposal.builder()
+                .messageId(message.getId())
+                .roomPk(message.getRoom().getId())
+                .roomId(message.getRoom().getRoomId())
+                .proposerId(payload.getProposerId() != null ? payload.getProposerId() : message.getSenderId())
+                .status(status)
+                .proposerItemName(proposerCoupon.getItemName())
+                .proposerDiscountPercent(proposerCoupon.getDiscountPercent())
+                .proposerTotalQuantity(proposerCoupon.getTotalQuantity())
+                .proposerStartDate(proposerCoupon.getStartDate())
+                .proposerEndDate(proposerCoupon.getEndDate())
+                .recipientItemName(recipientCoupon.getItemName())
+                .recipientDiscountPercent(recipientCoupon.getDiscountPercent())
+                .recipientTotalQuantity(recipientCoupon.getTotalQuantity())
+                .recipientStartDate(recipientCoupon.getStartDate())
+                .recipientEndDate(recipientCoupon.getEndDate())
+                .createdAt(message.getSentAt() != null ? message.getSentAt() : Instant.now())
+                .build();
+    }
+
+    // 5️⃣ 채팅 히스토리 조회 (keyset 커서)
+    @Transactional(readOnly = true)
+    public ChatMessageSliceDTO history(String roomId, String before, String after, int size) {
+        boolean latestPage = isBlank(before) && isBlank(after);
+        if (latestPage) {
+            // 최근 활동이 있었던 방은 메모리 버퍼에서 바로 응답
+            ChatMessageSliceDTO cached = recentMessageBuffer.getLatest(roomId, size);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+
+        boolean prime = latestPage && recentMessageBuffer.canServe(size);
+        RecentMessageBuffer.LoadTicket ticket = prime ? recentMessageBuffer.beginLoad(roomId) : null;
+        Slice<ChatMessage> slice = loadMessages(room, before, after,
+                prime ? recentMessageBuffer.getRoomCapacity() : size);
+
+        // 페이지 단위로 발신자 프로필 / 제안 payload 일괄 조회 (메시지별 SELECT 방지)
+        proposalPayloadCache.preload(slice.getContent());
+        Map<Long, SenderProfileDTO> senders = senderProfileCache.getAll(
+                slice.getContent().stream().map(ChatMessage::getSenderId).toList());
+        List<ChatMessageDTO> messages = slice.getContent().stream()
+                .map(m -> chatMessageConverter.toDto(m, senders.get(m.getSenderId())))
+                .toList();
+
+        if (prime) {
+            recentMessageBuffer.prime(ticket, messages, slice.hasNext());
+            ChatMessageSliceDTO primed = recentMessageBuffer.getLatest(roomId, size);
+            if (primed != null) {
+                return primed;
+            }
+            // 적재가 건너뛰어졌으면 요청 크기만큼 잘라서 응답
+            int skip = Math.max(0, messages.size() - size);
+            List<ChatMessage> page = slice.getContent().subList(skip, slice.getNumberOfElements());
+            return ChatMessageSliceDTO.builder()
+                    .messages(messages.subList(skip, messages.size()))
+                    .hasMore(skip > 0 || slice.hasNext())
+                    .beforeCursor(page.isEmpty() ? null : ChatCursor.of(page.get(0)).encode())
+                    .afterCursor(page.isEmpty() ? null : ChatCursor.of(page.get(page.size() - 1)).encode())
+                    .build();
+        }
+
+        return ChatMessageSliceDTO.builder()
+                .messages(messages)
+                .hasMore(slice.hasNext())
+                .beforeCursor(firstCursor(slice))
+                .afterCursor(lastCursor(slice))
+                .build();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
     }
 
-    // DTO 변환
-    private ChatMessageDTO convertToDTO(ChatMessage entity) {
-        Business sender = userRepo.findById(entity.getSenderId())
-                .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
-
-        ChatMessageDTO.ChatMessageDTOBuilder builder = ChatMessageDTO.builder()
-                .roomId(entity.getRoom().getRoomId())
-                .senderId(entity.getSenderId())
-                .senderName(sender.getUsername())
-                .businessName(sender.getBusinessName())
-                .type(entity.getType())
-                .timestamp(entity.getSentAt());
-
-        if (entity.getType() == MessageType.COUPON_PROPOSAL) {
-            try {
-                // ✅ JSON → ProposalPayloadDTO로 변환
-                ProposalPayloadDTO payload = objectMapper.readValue(entity.getContent(), ProposalPayloadDTO.class);
-                builder.content("쿠폰 교환 제안");
-                builder.payload(payload);
-            } catch (Exception e) {
-                builder.content("쿠폰 교환 제안 (파싱 오류)");
+    private static boolean isBefore(ChatCursor a, ChatCursor b) {
+        int c = a.getSentAt().compareTo(b.getSentAt());
+        return c < 0 || (c == 0 && a.getId() < b.getId());
+    }
+
+    /**
+     * (sentAt, id) keyset 으로 한 페이지 조회 - 결과는 항상 오래된 순
+     * - before: 커서보다 과거 / after: 커서보다 최신 / 둘 다 없으면 최신 페이지
+     * - size + 1 건을 읽어 hasNext 판단 (COUNT 쿼리 없음)
+     * - DB(최근 구간)에서 모자라면 아카이브 세그먼트로 이어서 조회
+     * - write-behind 로 아직 저장되지 않은 방 메시지는 메모리 대기 행에서 합침 (flush 를 기다리지 않음)
+     */
+    public Slice<ChatMessage> loadMessages(ChatRoom room, String before, String after, int size) {
+        if (!isBlank(before) && !isBlank(after)) {
+            throw new IllegalArgumentException("before 와 after 는 동시에 지정할 수 없습니다");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<ChatMessage> rows = new ArrayList<>();
+        boolean ascending = false;
+        if (!isBlank(after)) {
+            ChatCursor cursor = ChatCursor.decode(after);
+            // 커서가 아카이브 구간이면 아카이브 → DB 순서로
+            ChatCursor watermark = archiveStore.watermark(room.getId());
+            if (watermark != null && isBefore(cursor, watermark)) {
+                for (ChatMessageRow r : archiveStore.readAfter(room.getId(), cursor, limit + 1)) {
+                    rows.add(r.toMessage(room));
+                }
+            }
+            if (rows.size() <= limit) {
+                ChatCursor from = rows.isEmpty() ? cursor : ChatCursor.of(rows.get(rows.size() - 1));
+                rows.addAll(messageRepo.findAfterInRoom(room.getId(), from.getSentAt(), from.getId(),
+                        PageRequest.of(0, limit + 1 - rows.size())));
             }
+            ascending = true;
         } else {
-            builder.content(entity.getContent());
+            ChatCursor cursor = isBlank(before) ? null : ChatCursor.decode(before);
+            if (cursor != null) {
+                rows.addAll(messageRepo.findBeforeInRoom(room.getId(), cursor.getSentAt(), cursor.getId(), pageable));
+            } else {
+                rows.addAll(messageRepo.findLatestInRoom(room.getId(), pageable));
+            }
+            // DB 구간을 다 읽었으면 아카이브에서 이어서
+            if (rows.size() <= limit && archiveStore.hasArchive(room.getId())) {
+                ChatCursor from = rows.isEmpty() ? cursor : ChatCursor.of(rows.get(rows.size() - 1));
+                for (ChatMessageRow r : archiveStore.readBefore(room.getId(), from, limit + 1 - rows.size())) {
+                    rows.add(r.toMessage(room));
+                }
+            }
+        }
+
+        rows = mergePending(room, rows, isBlank(before) ? null : ChatCursor.decode(before),
+                isBlank(after) ? null : ChatCursor.decode(after), ascending);
+
+        boolean hasNext = rows.size() > limit;
+        List<ChatMessage> content = new ArrayList<>(hasNext ? rows.subList(0, limit) : rows);
+        if (!ascending) {
+            Collections.reverse(content);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, limit), hasNext);
+    }
+
+    // 커서 범위 안의 대기 행을 합쳐 다시 정렬 (ascending 이면 오래된 순, 아니면 최신 순) - 이미 저장된 행은 id 로 중복 제거
+    private List<ChatMessage> mergePending(ChatRoom room, List<ChatMessage> rows,
+                                           ChatCursor before, ChatCursor after, boolean ascending) {
+        List<ChatMessageRow> pending = chatMessageWriter.pendingRows(room.getId());
+        if (pending.isEmpty()) return rows;
+
+        Map<Long, ChatMessage> merged = new HashMap<>();
+        rows.forEach(m -> merged.put(m.getId(), m));
+        for (ChatMessageRow r : pending) {
+            ChatMessage m = r.toMessage(room);
+            ChatCursor position = ChatCursor.of(m);
+            if ((before == null || isBefore(position, before)) && (after == null || isBefore(after, position))) {
+                merged.putIfAbsent(m.getId(), m);
+            }
         }
+        Comparator<ChatMessage> order = Comparator.comparing(ChatMessage::getSentAt).thenComparing(ChatMessage::getId);
+        List<ChatMessage> result = new ArrayList<>(merged.values());
+        result.sort(ascending ? order : order.reversed());
+        return result;
+    }
 
-        return builder.build();
+    public static String firstCursor(Slice<ChatMessage> slice) {
+        return slice.hasContent() ? ChatCursor.of(slice.getContent().get(0)).encode() : null;
     }
 
+    public static String lastCursor(Slice<ChatMessage> slice) {
+        return slice.hasContent()
+                ? ChatCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)).encode()
+                : null;
+    }
+
+    // 상대방이 접속해 있지 않으면 커밋 후 푸시 (ChatPushNotifier 가 수신자별로 묶어서 발송)
+    private void notifyOffline(ChatRoom room, SenderProfileDTO sender, String preview) {
+        Long recipientId = ChatPushNotifier.counterpartOf(room, sender.getId());
+        String roomId = room.getRoomId();
+        TransactionUtils.afterCommit(() ->
+                chatPushNotifier.onMessage(recipientId, roomId, sender.getBusinessName(), preview));
+    }
+
+    private SenderProfileDTO requireSender(Long senderId) {
+        SenderProfileDTO sender = senderProfileCache.get(senderId);
+        if (sender == null) {
+            throw new IllegalArgumentException("Sender not found");
+        }
+        return sender;
+    }
 
     private Map<String, Object> messageToDto(ChatMessage m) {
-        Business sender = userRepo.findById(m.getSenderId())
-                .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
+        SenderProfileDTO sender = requireSender(m.getSenderId());
 
         Map<String, Object> result = new HashMap<>();
         result.put("id", m.getId());
@@ -288,15 +574,16 @@ public class ChatService {
         result.put("timestamp", System.currentTimeMillis());
 
         if (m.getType() == MessageType.COUPON_PROPOSAL) {
-            try {
-                Map<String, Object> payload = objectMapper.readValue(m.getContent(), Map.class);
-                result.put("payload", payload);
-            } catch (Exception e) {
+            ProposalPayloadDTO payload = proposalPayloadCache.get(m);
+            if (payload == null) {
                 result.put("content", "쿠폰 교환 제안 (파싱 오류)");
-                result.put("payload", null);
             }
+            result.put("payload", payload);
         } else {
             result.put("content", m.getContent());
+            if (m.getFileUrl() != null) {
+                result.put("fileUrl", m.getFileUrl());
+            }
         }
         log.info(result.toString());
         return result;
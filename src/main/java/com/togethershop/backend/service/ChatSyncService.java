@@ -0,0 +1,139 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.SenderProfileDTO;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.repository.ChatRoomRepository;
+import com.togethershop.backend.security.CustomUserDetails;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재연결 시 놓친 메시지만 전달 (seq 기반 delta sync)
+ * - /app/chat.sync {roomId, lastSeq} 또는 /topic/room/{roomId} SUBSCRIBE 의 last-seq 헤더
+ * - lastSeq 이후 메시지를 /user/queue/chat.sync 로 전송, max-messages 를 넘으면 hasMore=true
+ *   (클라이언트는 이어서 다시 요청하거나 히스토리 API 로 전환)
+ * - seq 는 커밋 전에 발급되므로 뒤 번호가 먼저 커밋될 수 있음 → lastSeq 앞 seq-overlap 개 구간부터 다시 보냄
+ *   (이미 받은 메시지가 섞일 수 있으므로 클라이언트는 id 로 중복 제거 - 실시간 수신과 겹치는 경우와 같음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSyncService {
+
+    public static final String LAST_SEQ_HEADER = "last-seq";
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final ChatRoomRepository roomRepo;
+    private final ChatMessageRepository messageRepo;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatMessageConverter chatMessageConverter;
+    private final SenderProfileCache senderProfileCache;
+    private final ChatBroadcaster chatBroadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatArchiveStore archiveStore;
+
+    @Value("${chat.sync.max-messages:200}")
+    private int maxMessages;
+    @Value("${chat.sync.seq-overlap:20}")
+    private int seqOverlap;
+
+    @Transactional(readOnly = true)
+    public void sync(String roomId, Long userId, String username, long lastSeq) {
+        ChatRoom room = roomRepo.findByRoomId(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        if (!room.getRequester().getId().equals(userId) && !room.getRecipient().getId().equals(userId)) {
+            log.warn("채팅방 동기화 권한 없음 - roomId: {}, userId: {}", roomId, userId);
+            return;
+        }
+
+        // 아카이브된 구간부터 필요하면 아카이브 → DB 순서로
+        // 겹침 구간은 한 페이지보다 작게 - hasMore 로 이어 받을 때 항상 앞으로 진행하도록
+        long overlapFrom = Math.max(0, lastSeq - Math.min(seqOverlap, maxMessages / 2));
+        List<ChatMessage> rows = new ArrayList<>();
+        long fromSeq = overlapFrom;
+        if (overlapFrom < archiveStore.maxSeq(room.getId())) {
+            for (ChatMessageRow r : archiveStore.readAfterSeq(room.getId(), overlapFrom, maxMessages + 1)) {
+                rows.add(r.toMessage(room));
+                fromSeq = r.getSeq();
+            }
+        }
+        if (rows.size() <= maxMessages) {
+            rows.addAll(messageRepo.findAfterSeqInRoom(room.getId(), fromSeq,
+                    PageRequest.of(0, maxMessages + 1 - rows.size())));
+        }
+        // write-behind 대기 행 (flush 를 기다리지 않음, 이미 저장된 행은 id 로 중복 제거)
+        List<ChatMessageRow> pending = chatMessageWriter.pendingRows(room.getId());
+        if (!pending.isEmpty()) {
+            Map<Long, ChatMessage> merged = new HashMap<>();
+            rows.forEach(m -> merged.put(m.getId(), m));
+            for (ChatMessageRow r : pending) {
+                if (r.getSeq() > overlapFrom) {
+                    merged.putIfAbsent(r.getId(), r.toMessage(room));
+                }
+            }
+            rows = new ArrayList<>(merged.values());
+            rows.sort(Comparator.comparing(ChatMessage::getSeq));
+        }
+        boolean hasMore = rows.size() > maxMessages;
+        List<ChatMessage> page = hasMore ? rows.subList(0, maxMessages) : rows;
+
+        Map<Long, SenderProfileDTO> senders = senderProfileCache.getAll(
+                page.stream().map(ChatMessage::getSenderId).toList());
+        List<ChatMessageDTO> messages = page.stream()
+                .map(m -> chatMessageConverter.toDto(m, senders.get(m.getSenderId())))
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("type", "SYNC");
+        response.put("roomId", roomId);
+        response.put("messages", messages);
+        response.put("hasMore", hasMore);
+        response.put("lastSeq", page.isEmpty() ? lastSeq : Math.max(lastSeq, page.get(page.size() - 1).getSeq()));
+        chatBroadcaster.sendToUser(username, "/queue/chat.sync", response);
+    }
+
+    /**
+     * 방 토픽 구독 시 last-seq 헤더가 있으면 바로 동기화
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String lastSeq = accessor.getFirstNativeHeader(LAST_SEQ_HEADER);
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX) || lastSeq == null) {
+            return;
+        }
+        if (!(event.getUser() instanceof Authentication auth)
+                || !(auth.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            return;
+        }
+
+        try {
+            // 같은 빈 내부 호출이라 @Transactional 이 적용되지 않으므로 직접 트랜잭션으로 감쌈
+            transactionTemplate.executeWithoutResult(status ->
+                    sync(destination.substring(ROOM_TOPIC_PREFIX.length()), userDetails.getUserId(),
+                            userDetails.getUsername(), Long.parseLong(lastSeq)));
+        } catch (Exception e) {
+            log.error("구독 시 동기화 실패 - destination: {}, lastSeq: {}", destination, lastSeq, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.dto.ClientMessageAckDTO;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 클라이언트 메시지 id 기반 재전송 중복 제거 (Redis SETNX)
+ * - chat:client-msg:{roomId}:{senderId}:{clientMessageId} → "{messageId}:{seq}" (처리 중이면 PENDING)
+ *   - PENDING 은 pending-ttl 만 유지 (프로세스가 죽어도 금방 풀림), 결과를 기록할 때 ttl-hours 로 연장
+ * - 저장 트랜잭션이 롤백되면 키를 지워 재시도가 가능하게 함
+ * - DB 의 (room_id, client_message_id) 유니크 제약이 최종 방어선
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientMessageDeduplicator {
+
+    private static final String KEY_PREFIX = "chat:client-msg:";
+    private static final String PENDING = "PENDING";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${chat.client-message-id.ttl-hours:24}")
+    private long ttlHours;
+    @Value("${chat.client-message-id.pending-ttl-seconds:30}")
+    private long pendingTtlSeconds;
+
+    /**
+     * 처음 보는 clientMessageId 면 true (이후 complete 또는 롤백 시 자동 해제)
+     */
+    public boolean claim(String roomId, Long senderId, String clientMessageId) {
+        if (clientMessageId == null || clientMessageId.isBlank()) return true;
+        String key = key(roomId, senderId, clientMessageId);
+        boolean claimed = Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(key, PENDING, Duration.ofSeconds(pendingTtlSeconds)));
+        if (claimed) {
+            TransactionUtils.afterRollback(() -> redisTemplate.delete(key));
+        }
+        return claimed;
+    }
+
+    /**
+     * 저장 완료 - 커밋 후 저장된 메시지 id / seq 기록
+     */
+    public void complete(String roomId, Long senderId, ChatMessage msg) {
+        if (msg.getClientMessageId() == null || msg.getClientMessageId().isBlank()) return;
+        String key = key(roomId, senderId, msg.getClientMessageId());
+        String value = msg.getId() + ":" + msg.getSeq();
+        TransactionUtils.afterCommit(() ->
+                redisTemplate.opsForValue().set(key, value, Duration.ofHours(ttlHours)));
+    }
+
+    /**
+     * 이미 저장된 메시지 정보 (아직 처리 중이면 messageId/seq 없이 반환)
+     */
+    public ClientMessageAckDTO duplicateAck(String roomId, Long senderId, String clientMessageId) {
+        String value = redisTemplate.opsForValue().get(key(roomId, senderId, clientMessageId));
+        ClientMessageAckDTO.ClientMessageAckDTOBuilder ack = ClientMessageAckDTO.builder()
+                .type("ACK")
+                .roomId(roomId)
+                .clientMessageId(clientMessageId)
+                .duplicate(true);
+        if (value != null && !PENDING.equals(value)) {
+            String[] parts = value.split(":");
+            ack.messageId(Long.valueOf(parts[0]));
+            ack.seq("null".equals(parts[1]) ? null : Long.valueOf(parts[1]));
+        }
+        return ack.build();
+    }
+
+    private static String key(String roomId, Long senderId, String clientMessageId) {
+        return KEY_PREFIX + roomId + ":" + senderId + ":" + clientMessageId;
+    }
+}
@@ -0,0 +1,450 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.CouponTemplate;
+import com.togethershop.backend.domain.CustomerNotification;
+import com.togethershop.backend.domain.NotificationStatus;
+import com.togethershop.backend.domain.NotificationType;
+import com.togethershop.backend.domain.Partnership;
+import com.togethershop.backend.dto.CouponBulkIssueProgressDTO;
+import com.togethershop.backend.dto.CouponStatus;
+import com.togethershop.backend.dto.FcmSendDTO;
+import com.togethershop.backend.repository.CouponRepository;
+import com.togethershop.backend.repository.CouponTemplateRepository;
+import com.togethershop.backend.repository.PaymentHistoryRepository;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 쿠폰 템플릿 대량 발급 (사업자 → 자기 매장 최근 결제 고객)
+ * - 대상: payment_histories 에서 days 일 안에 결제한 고객을 customer_id keyset 으로 chunk-size 명씩 조회
+ * - chunk 마다: 고객당 발급 한도에 찬 고객 제외 → 재고 일괄 예약(CouponInventory.reserveUpTo) → 쿠폰 코드/JTI 미리 생성 →
+ *   coupons, customer_notifications 를 다중 행 INSERT 로 한 트랜잭션에 저장 (엔티티/영속성 컨텍스트 없음)
+ * - claim_no 는 고객별 기존 발급 수(최대 claim_no) + 1 - 개별 발급과 같은 (customer_id, template_id, claim_no) 유니크로 중복 차단
+ * - coupons 는 ON DUPLICATE KEY UPDATE no-op - 같은 순간 개별 발급과 겹친 행만 건너뛰고 재고는 반납 (그 외 오류는 chunk 실패)
+ * - FCM 결과는 이번에 저장한 알림 id 로 상태 갱신
+ * - FCM 은 커밋 후 전용 풀에서 FcmService.sendAll(sendEach, 최대 500건씩) 로 넘기고 발급 루프는 기다리지 않음
+ * - 진행 상황은 SSE progress/done 이벤트 + Redis coupon:bulk:job:{jobId} (연결이 끊겨도 작업은 계속, 조회 API 로 확인)
+ * - 같은 템플릿은 한 번에 한 작업만 (coupon:bulk:lock:{templateId})
+ * - 서버 종료 시 진행 중인 chunk 까지만 발급하고 STOPPED 로 끝냄 (couponBulkIssueExecutor 가 종료를 기다림)
+ */
+@Service
+@Slf4j
+public class CouponBulkIssueService {
+
+    private static final String JOB_KEY_PREFIX = "coupon:bulk:job:";
+    private static final String LOCK_KEY_PREFIX = "coupon:bulk:lock:";
+
+    private static final String COUPON_INSERT_PREFIX = "INSERT INTO coupons " +
+            "(template_id, customer_id, claim_no, coupon_code, jti_token, issue_date, expire_date, status) VALUES ";
+    private static final String COUPON_ROW = "(?,?,?,?,?,?,?,?)";
+    private static final String COUPON_INSERT_SUFFIX = " ON DUPLICATE KEY UPDATE coupon_id = coupon_id";
+
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+                    "return 0", Long.class);
+
+    private final CouponTemplateRepository couponTemplateRepository;
+    private final CouponRepository couponRepository;
+    private final PaymentHistoryRepository paymentHistoryRepository;
+    private final CouponInventory couponInventory;
+    private final CouponClaimGuard couponClaimGuard;
+    private final CouponCodeAllocator couponCodeAllocator;
+    private final FcmService fcmService;
+    private final CustomerNotificationService customerNotificationService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor pushExecutor;
+
+    @Value("${coupon.bulk.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${coupon.bulk.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+    @Value("${coupon.bulk.lock-ttl-minutes:30}")
+    private long lockTtlMinutes;
+    @Value("${coupon.bulk.job-ttl-hours:24}")
+    private long jobTtlHours;
+
+    public CouponBulkIssueService(CouponTemplateRepository couponTemplateRepository,
+                                  CouponRepository couponRepository,
+                                  PaymentHistoryRepository paymentHistoryRepository,
+                                  CouponInventory couponInventory,
+                                  CouponClaimGuard couponClaimGuard,
+                                  CouponCodeAllocator couponCodeAllocator,
+                                  FcmService fcmService,
+                                  CustomerNotificationService customerNotificationService,
+                                  RedisTemplate<String, String> redisTemplate,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("couponBulkIssueExecutor") ThreadPoolTaskExecutor jobExecutor,
+                                  @Qualifier("couponBulkPushExecutor") ThreadPoolTaskExecutor pushExecutor) {
+        this.couponTemplateRepository = couponTemplateRepository;
+        this.couponRepository = couponRepository;
+        this.paymentHistoryRepository = paymentHistoryRepository;
+        this.couponInventory = couponInventory;
+        this.couponClaimGuard = couponClaimGuard;
+        this.couponCodeAllocator = couponCodeAllocator;
+        this.fcmService = fcmService;
+        this.customerNotificationService = customerNotificationService;
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.jobExecutor = jobExecutor;
+        this.pushExecutor = pushExecutor;
+    }
+
+    /**
+     * 대량 발급 시작 - 진행 상황 SSE 스트림 반환
+     * - 템플릿 제휴 당사자가 아니면 IllegalArgumentException, 같은 템플릿 작업이 진행 중이면 IllegalStateException
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter start(Long businessId, Long templateId, int days) {
+        if (days < 1 || days > 365) {
+            throw new IllegalArgumentException("days 는 1 ~ 365 사이여야 합니다");
+        }
+        CouponTemplate template = couponTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid coupon template id"));
+        Partnership partnership = template.getPartnership();
+        if (!businessId.equals(partnership.getRequester().getId()) && !businessId.equals(partnership.getPartner().getId())) {
+            throw new IllegalArgumentException("해당 쿠폰 템플릿의 제휴 매장이 아닙니다");
+        }
+        if (template.getEndDate() == null || template.getEndDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("유효기간이 지난 쿠폰 템플릿입니다");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        String lockKey = LOCK_KEY_PREFIX + templateId;
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(lockKey, jobId, Duration.ofMinutes(lockTtlMinutes)))) {
+            throw new IllegalStateException("이미 대량 발급이 진행 중인 템플릿입니다");
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        Job job = new Job(jobId, businessId, templateId, since,
+                template.getEndDate().atTime(23, 59, 59),
+                template.getPartnership().getRequester().getBusinessName() + " 에서",
+                new SseEmitter(sseTimeoutMs));
+        job.total = paymentHistoryRepository.countCustomersPaidSince(businessId, since);
+        job.emitter.onCompletion(() -> job.detached = true);
+        job.emitter.onTimeout(() -> job.detached = true);
+        job.emitter.onError(e -> job.detached = true);
+
+        publish(job, "progress");
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            unlock(job);
+            redisTemplate.delete(JOB_KEY_PREFIX + jobId);
+            throw new IllegalStateException("대량 발급 작업이 많습니다. 잠시 후 다시 시도해주세요");
+        }
+        log.info("쿠폰 대량 발급 시작 - jobId: {}, templateId: {}, businessId: {}, 대상: {}",
+                jobId, templateId, businessId, job.total);
+        return job.emitter;
+    }
+
+    /**
+     * 진행 상황 조회 (SSE 연결이 끊긴 뒤 확인용) - 다른 사업자의 작업이면 null
+     */
+    public CouponBulkIssueProgressDTO progress(Long businessId, String jobId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(JOB_KEY_PREFIX + jobId);
+        if (fields.isEmpty() || !String.valueOf(businessId).equals(fields.get("businessId"))) {
+            return null;
+        }
+        return CouponBulkIssueProgressDTO.builder()
+                .jobId(jobId)
+                .templateId(Long.valueOf((String) fields.get("templateId")))
+                .status((String) fields.get("status"))
+                .total(Long.valueOf((String) fields.get("total")))
+                .processed(Long.valueOf((String) fields.get("processed")))
+                .issued(Long.valueOf((String) fields.get("issued")))
+                .skipped(Long.valueOf((String) fields.get("skipped")))
+                .message((String) fields.get("message"))
+                .build();
+    }
+
+    private void run(Job job) {
+        try {
+            long afterCustomerId = 0;
+            while (true) {
+                if (jobExecutor.getThreadPoolExecutor().isShutdown()) {
+                    job.status = "STOPPED";
+                    job.message = "서버 종료로 발급이 중단되었습니다";
+                    break;
+                }
+                List<Long> customerIds = paymentHistoryRepository.findCustomerIdsPaidSince(
+                        job.businessId, job.since, afterCustomerId, PageRequest.of(0, chunkSize));
+                if (customerIds.isEmpty()) break;
+                afterCustomerId = customerIds.get(customerIds.size() - 1);
+
+                boolean inStock = issueChunk(job, customerIds);
+                redisTemplate.expire(LOCK_KEY_PREFIX + job.templateId, Duration.ofMinutes(lockTtlMinutes));
+                publish(job, "progress");
+                if (!inStock) {
+                    job.status = "SOLD_OUT";
+                    break;
+                }
+            }
+            if ("RUNNING".equals(job.status)) {
+                job.status = "DONE";
+            }
+        } catch (RuntimeException e) {
+            log.error("쿠폰 대량 발급 실패 - jobId: {}, templateId: {}", job.jobId, job.templateId, e);
+            job.status = "FAILED";
+            job.message = e.getMessage();
+        } finally {
+            publish(job, "done");
+            unlock(job);
+            if (!job.detached) {
+                job.emitter.complete();
+            }
+            log.info("쿠폰 대량 발급 종료 - jobId: {}, status: {}, 발급: {}, 제외: {}",
+                    job.jobId, job.status, job.issued, job.skipped);
+        }
+    }
+
+    /**
+     * 한 chunk 발급 - 재고가 바닥나 이번 chunk 를 다 채우지 못했으면 false
+     */
+    private boolean issueChunk(Job job, List<Long> customerIds) {
+        job.processed += customerIds.size();
+
+        // 고객별 발급 수 / 마지막 claim_no (claim_no 가 없는 기존 행도 한도에 포함)
+        int limit = couponClaimGuard.getPerCustomerLimit();
+        Map<Long, Long> claimedCounts = new HashMap<>();
+        Map<Long, Integer> lastClaimNos = new HashMap<>();
+        for (Object[] row : couponRepository.findClaimCounts(job.templateId, customerIds)) {
+            long count = (Long) row[1];
+            Integer maxClaimNo = (Integer) row[2];
+            claimedCounts.put((Long) row[0], count);
+            lastClaimNos.put((Long) row[0], (int) Math.max(count, maxClaimNo == null ? 0 : maxClaimNo));
+        }
+        List<Long> targets = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            if (claimedCounts.getOrDefault(customerId, 0L) < limit) targets.add(customerId);
+        }
+        job.skipped += customerIds.size() - targets.size();
+        if (targets.isEmpty()) return true;
+
+        int granted = couponInventory.reserveUpTo(job.templateId, targets.size());
+        if (granted == 0) return false;
+
+        // 코드/JTI 는 트랜잭션 밖에서 미리 생성
+        LocalDateTime issuedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<String> codes = couponCodeAllocator.nextCodes(granted);
+        List<PendingCoupon> rows = new ArrayList<>(granted);
+        for (int i = 0; i < granted; i++) {
+            Long customerId = targets.get(i);
+            rows.add(new PendingCoupon(customerId, lastClaimNos.getOrDefault(customerId, 0) + 1,
+                    codes.get(i), couponCodeAllocator.newJti()));
+        }
+
+        List<Long> issued;
+        try {
+            issued = chunkTransaction.execute(status -> insertChunk(job, rows, issuedAt));
+        } catch (RuntimeException e) {
+            couponInventory.release(job.templateId, granted);
+            throw e;
+        }
+        couponInventory.release(job.templateId, granted - issued.size());
+        job.issued += issued.size();
+        job.skipped += granted - issued.size();
+        return granted == targets.size();
+    }
+
+    private List<Long> insertChunk(Job job, List<PendingCoupon> rows, LocalDateTime issuedAt) {
+        Timestamp issueTs = Timestamp.valueOf(issuedAt);
+        Timestamp expireTs = Timestamp.valueOf(job.expireDate);
+        List<Object> args = new ArrayList<>(rows.size() * 8);
+        for (PendingCoupon row : rows) {
+            args.add(job.templateId);
+            args.add(row.customerId);
+            args.add(row.claimNo);
+            args.add(row.couponCode);
+            args.add(row.jtiToken);
+            args.add(issueTs);
+            args.add(expireTs);
+            args.add(CouponStatus.ISSUED.name());
+        }
+        jdbcTemplate.update(COUPON_INSERT_PREFIX + placeholders(rows.size(), COUPON_ROW) + COUPON_INSERT_SUFFIX, args.toArray());
+
+        // 중복으로 건너뛴 행도 영향 행 수에 잡히므로 (CLIENT_FOUND_ROWS) 실제로 들어간 행은 jti_token 으로 확인
+        List<String> jtis = rows.stream().map(r -> r.jtiToken).toList();
+        List<Long> issued = jdbcTemplate.queryForList(
+                "SELECT customer_id FROM coupons WHERE jti_token IN (" + String.join(",", Collections.nCopies(jtis.size(), "?")) + ")",
+                Long.class, jtis.toArray());
+        if (issued.isEmpty()) return issued;
+
+        String title = "쿠폰이 생성되었습니다!";
+        String message = job.couponName + " 쿠폰이 발급되었어요.";
+        List<CustomerNotification> notifications = new ArrayList<>(issued.size());
+        for (Long customerId : issued) {
+            notifications.add(CustomerNotification.builder()
+                    .customerId(customerId)
+                    .title(title)
+                    .message(message)
+                    .notificationType(NotificationType.COUPON)
+                    .sentAt(issuedAt)
+                    .status(NotificationStatus.SENT)
+                    .build());
+        }
+        List<Long> notificationIds = customerNotificationService.saveAll(notifications);
+        Map<Long, Long> notificationByCustomer = new HashMap<>(issued.size() * 2);
+        for (int i = 0; i < issued.size(); i++) {
+            notificationByCustomer.put(issued.get(i), notificationIds.get(i));
+        }
+
+        TransactionUtils.afterCommit(() -> {
+            couponClaimGuard.forget(job.templateId, issued);
+            pushExecutor.execute(() -> push(notificationByCustomer, title, message));
+        });
+        return issued;
+    }
+
+    private void push(Map<Long, Long> notificationByCustomer, String title, String body) {
+        List<Long> customerIds = new ArrayList<>(notificationByCustomer.keySet());
+        Map<Long, String> tokens = new HashMap<>();
+        jdbcTemplate.query("SELECT customer_id, customer_fcm_token FROM customers WHERE customer_id IN (" +
+                        String.join(",", Collections.nCopies(customerIds.size(), "?")) + ") " +
+                        "AND customer_fcm_token IS NOT NULL AND customer_fcm_token <> ''",
+                rs -> { tokens.put(rs.getLong(1), rs.getString(2)); }, customerIds.toArray());
+        if (tokens.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(tokens.keySet());
+        List<FcmSendDTO> dtos = ids.stream()
+                .map(id -> FcmSendDTO.builder().token(tokens.get(id)).title(title).body(body).build())
+                .toList();
+        List<Boolean> results = fcmService.sendAll(dtos);
+        List<Long> delivered = new ArrayList<>(ids.size());
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            (results.get(i) ? delivered : failed).add(notificationByCustomer.get(ids.get(i)));
+        }
+        markNotifications(delivered, NotificationStatus.DELIVERED);
+        markNotifications(failed, NotificationStatus.FAILED);
+    }
+
+    private void markNotifications(List<Long> notificationIds, NotificationStatus status) {
+        if (notificationIds.isEmpty()) return;
+        List<Object> args = new ArrayList<>(notificationIds.size() + 1);
+        args.add(status.name());
+        args.addAll(notificationIds);
+        try {
+            jdbcTemplate.update("UPDATE customer_notifications SET status = ? WHERE customer_notification_id IN (" +
+                    String.join(",", Collections.nCopies(notificationIds.size(), "?")) + ")", args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("쿠폰 알림 상태 갱신 실패 - {}건", notificationIds.size(), e);
+        }
+    }
+
+    private void publish(Job job, String event) {
+        CouponBulkIssueProgressDTO progress = job.snapshot();
+        String key = JOB_KEY_PREFIX + job.jobId;
+        try {
+            Map<String, String> fields = new HashMap<>();
+            fields.put("businessId", String.valueOf(job.businessId));
+            fields.put("templateId", String.valueOf(job.templateId));
+            fields.put("status", job.status);
+            fields.put("total", String.valueOf(job.total));
+            fields.put("processed", String.valueOf(job.processed));
+            fields.put("issued", String.valueOf(job.issued));
+            fields.put("skipped", String.valueOf(job.skipped));
+            if (job.message != null) fields.put("message", job.message);
+            redisTemplate.opsForHash().putAll(key, fields);
+            redisTemplate.expire(key, Duration.ofHours(jobTtlHours));
+        } catch (DataAccessException e) {
+            log.warn("쿠폰 대량 발급 진행 상황 저장 실패 - jobId: {}", job.jobId, e);
+        }
+        if (job.detached) return;
+        try {
+            job.emitter.send(SseEmitter.event().name(event).data(progress));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 끊어도 발급은 계속 (조회 API 로 확인)
+            job.detached = true;
+        }
+    }
+
+    private void unlock(Job job) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY_PREFIX + job.templateId), job.jobId);
+        } catch (DataAccessException e) {
+            log.warn("쿠폰 대량 발급 잠금 해제 실패 - templateId: {} (lock-ttl 후 만료)", job.templateId, e);
+        }
+    }
+
+    private static String placeholders(int rows, String row) {
+        return String.join(",", Collections.nCopies(rows, row));
+    }
+
+    private record PendingCoupon(Long customerId, int claimNo, String couponCode, String jtiToken) {
+    }
+
+    // 작업 스레드 하나만 갱신, SSE 콜백은 detached 만 씀
+    private static class Job {
+        private final String jobId;
+        private final Long businessId;
+        private final Long templateId;
+        private final LocalDateTime since;
+        private final LocalDateTime expireDate;
+        private final String couponName;
+        private final SseEmitter emitter;
+        private volatile boolean detached;
+        private String status = "RUNNING";
+        private String message;
+        private long total;
+        private long processed;
+        private long issued;
+        private long skipped;
+
+        Job(String jobId, Long businessId, Long templateId, LocalDateTime since,
+            LocalDateTime expireDate, String couponName, SseEmitter emitter) {
+            this.jobId = jobId;
+            this.businessId = businessId;
+            this.templateId = templateId;
+            this.since = since;
+            this.expireDate = expireDate;
+            this.couponName = couponName;
+            this.emitter = emitter;
+        }
+
+        CouponBulkIssueProgressDTO snapshot() {
+            return CouponBulkIssueProgressDTO.builder()
+                    .jobId(jobId)
+                    .templateId(templateId)
+                    .status(status)
+                    .total(total)
+                    .processed(processed)
+                    .issued(issued)
+                    .skipped(skipped)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.exception.CouponClaimConflictException;
+import com.togethershop.backend.repository.CouponRepository;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 쿠폰 발급 중복 방지
+ * 1) Idempotency-Key: coupon:idem:{customerId}:{templateId}:{key} = PENDING → couponId (ttl 동안 같은 응답 재사용)
+ *    - PENDING 은 pending-ttl 만 유지 (프로세스가 죽어도 금방 풀림), 결과를 기록할 때 idempotency-ttl 로 연장
+ * 2) 고객당 발급 한도: coupon:claimed:{templateId} hash (customerId → 발급 수)
+ *    - 필드가 없을 때만 DB 에서 발급 수를 세어 채움 → 반복 요청은 DB 조회 없이 Redis 에서 거절
+ *    - 발급 순번(claimNo)을 돌려주고, coupons (customer_id, template_id, claim_no) 유니크 인덱스가 최종 보장
+ *    - 트랜잭션이 롤백되면 필드를 지워 다음 요청에서 DB 기준으로 다시 채움
+ */
+@Component
+@Slf4j
+public class CouponClaimGuard {
+
+    private static final String IDEM_KEY_PREFIX = "coupon:idem:";
+    private static final String CLAIMED_KEY_PREFIX = "coupon:claimed:";
+    private static final String PENDING = "PENDING";
+
+    // -2: 필드 없음(DB 확인 필요), -1: 한도 초과, 그 외: 이번 발급 순번
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local c = redis.call('HGET', KEYS[1], ARGV[1]) " +
+                    "if not c then return -2 end " +
+                    "if tonumber(c) >= tonumber(ARGV[2]) then return -1 end " +
+                    "local n = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+                    "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+                    "return n", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CouponRepository couponRepository;
+    private final int perCustomerLimit;
+    private final Duration idempotencyTtl;
+    private final Duration pendingTtl;
+    private final Duration claimedTtl;
+
+    public CouponClaimGuard(RedisTemplate<String, String> redisTemplate,
+                            CouponRepository couponRepository,
+                            @Value("${coupon.claim.per-customer-limit:1}") int perCustomerLimit,
+                            @Value("${coupon.claim.idempotency-ttl-hours:24}") long idempotencyTtlHours,
+                            @Value("${coupon.claim.pending-ttl-seconds:30}") long pendingTtlSeconds,
+                            @Value("${coupon.claim.claimed-ttl-days:30}") long claimedTtlDays) {
+        this.redisTemplate = redisTemplate;
+        this.couponRepository = couponRepository;
+        this.perCustomerLimit = perCustomerLimit;
+        this.idempotencyTtl = Duration.ofHours(idempotencyTtlHours);
+        this.pendingTtl = Duration.ofSeconds(pendingTtlSeconds);
+        this.claimedTtl = Duration.ofDays(claimedTtlDays);
+    }
+
+    /**
+     * 이미 완료된 같은 키의 요청이면 그때 발급한 couponId, 처음이면 null
+     * - 같은 키로 처리 중이면 CouponClaimConflictException
+     */
+    public Long beginIdempotent(Long customerId, Long templateId, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return null;
+        String key = idemKey(customerId, templateId, idempotencyKey);
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, PENDING, pendingTtl))) {
+            // 커밋 전에 실패하면 같은 키로 다시 시도할 수 있도록
+            TransactionUtils.afterRollback(() -> redisTemplate.delete(key));
+            return null;
+        }
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null || PENDING.equals(value)) {
+            throw new CouponClaimConflictException("같은 요청을 처리 중입니다");
+        }
+        return Long.valueOf(value);
+    }
+
+    public void completeIdempotent(Long customerId, Long templateId, String idempotencyKey, Long couponId) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return;
+        String key = idemKey(customerId, templateId, idempotencyKey);
+        TransactionUtils.afterCommit(() ->
+                redisTemplate.opsForValue().set(key, String.valueOf(couponId), idempotencyTtl));
+    }
+
+    /**
+     * 발급 순번 (1 부터) - 한도를 넘으면 CouponClaimConflictException
+     */
+    public int claimSlot(Long customerId, Long templateId) {
+        String key = CLAIMED_KEY_PREFIX + templateId;
+        Long slot = claim(key, customerId);
+        if (slot == -2) {
+            long issued = couponRepository.countByCustomerIdAndTemplateId(customerId, templateId);
+            redisTemplate.opsForHash().putIfAbsent(key, String.valueOf(customerId), String.valueOf(issued));
+            slot = claim(key, customerId);
+        }
+        if (slot < 0) {
+            throw new CouponClaimConflictException("이미 발급받은 쿠폰입니다");
+        }
+        TransactionUtils.afterRollback(() -> redisTemplate.opsForHash().delete(key, String.valueOf(customerId)));
+        return slot.intValue();
+    }
+
+    public int getPerCustomerLimit() {
+        return perCustomerLimit;
+    }
+
+    /**
+     * 대량 발급처럼 claimSlot 을 거치지 않고 발급한 경우 (커밋 후 호출)
+     * - 필드를 지워 다음 개별 발급 요청이 DB 발급 수로 다시 채우도록
+     */
+    public void forget(Long templateId, List<Long> customerIds) {
+        if (customerIds.isEmpty()) return;
+        redisTemplate.opsForHash().delete(CLAIMED_KEY_PREFIX + templateId,
+                customerIds.stream().map(String::valueOf).toArray());
+    }
+
+    private Long claim(String key, Long customerId) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, List.of(key), String.valueOf(customerId),
+                String.valueOf(perCustomerLimit), String.valueOf(claimedTtl.toMillis()));
+        if (result == null) {
+            throw new IllegalStateException("쿠폰 발급 한도 확인 실패");
+        }
+        return result;
+    }
+
+    // 같은 키를 다른 템플릿 요청에 재사용해도 이전 쿠폰이 반환되지 않도록 템플릿까지 포함
+    private static String idemKey(Long customerId, Long templateId, String idempotencyKey) {
+        return IDEM_KEY_PREFIX + customerId + ":" + templateId + ":" + idempotencyKey;
+    }
+}
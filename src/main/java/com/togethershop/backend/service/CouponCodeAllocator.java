@@ -0,0 +1,227 @@
+package com.togethershop.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 쿠폰 코드 / JTI 발급기
+ * - 코드: HiLo 순번 → 60비트 Feistel 순열(HMAC-SHA256 라운드, 비밀키) → Crockford base32 12자 + Luhn mod 32 검증 문자
+ *   "CP" + 13자 (기존 "CPN" + hex 10자와 길이가 달라 겹치지 않음)
+ *   - 순열은 전단사이므로 순번이 겹치지 않으면 코드도 겹치지 않음 (유니크 인덱스는 최후 보장만)
+ *   - 키 없이는 다음 코드를 추측할 수 없음, 순번 블록은 coupon_code_sequences 에서 block-size 단위로 예약
+ *   - 블록 예약은 couponCodeBlockExecutor 에서 (호출 측 트랜잭션/커넥션과 분리), 절반을 쓰면 다음 블록을 미리 받아 둠
+ *   - 블록이 바닥나면 모니터 밖에서 예약 완료를 기다림 (다른 스레드의 남은 블록 사용을 막지 않음)
+ * - JTI: 스레드별 SecureRandom(DRBG) 128비트 - UUID.randomUUID() 의 공용 SecureRandom 경합 없음
+ */
+@Component
+@Slf4j
+public class CouponCodeAllocator {
+
+    private static final String PREFIX = "CP";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BODY_LENGTH = 12;   // 5비트 x 12 = 60비트
+    private static final int HALF_BITS = 30;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << (HALF_BITS * 2)) - 1;
+    private static final int ROUNDS = 4;
+    private static final String SEQUENCE_NAME = "coupon_code";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate blockTransaction;
+    private final ThreadPoolTaskExecutor blockExecutor;
+    private final int blockSize;
+    private final ThreadLocal<Mac> roundMac;
+    private final ThreadLocal<SecureRandom> jtiRandom = ThreadLocal.withInitial(CouponCodeAllocator::newRandom);
+
+    private long next;
+    private long max;
+    private CompletableFuture<Long> nextBlock;   // 예약 중인 다음 블록의 끝 순번
+
+    public CouponCodeAllocator(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("couponCodeBlockExecutor") ThreadPoolTaskExecutor blockExecutor,
+                               @Value("${coupon.code.secret:${jwt.secret}}") String secret,
+                               @Value("${coupon.code.block-size:1000}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // couponCodeBlockExecutor 스레드에서 독립 트랜잭션으로 커밋 - 이미 나눠 준 블록은 되돌리지 않음
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockExecutor = blockExecutor;
+        this.blockSize = blockSize;
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.roundMac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("쿠폰 코드 키 초기화 실패", e);
+            }
+        });
+    }
+
+    // 첫 발급 요청이 블록 예약을 기다리지 않도록 미리 받아 둠
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void prefetch() {
+        prefetchIfLow();
+    }
+
+    public String nextCode() {
+        return nextCodes(1).get(0);
+    }
+
+    /**
+     * count 개를 한 번에 발급 (대량 발급용) - 락은 순번 예약에만, 순열/인코딩은 호출 스레드에서
+     */
+    public List<String> nextCodes(int count) {
+        long[] sequences = reserve(count);
+        List<String> codes = new ArrayList<>(count);
+        for (long sequence : sequences) {
+            codes.add(encode(permute(sequence)));
+        }
+        return codes;
+    }
+
+    public String newJti() {
+        byte[] bytes = new byte[16];
+        jtiRandom.get().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private long[] reserve(int count) {
+        long[] sequences = new long[count];
+        int filled = 0;
+        while (true) {
+            CompletableFuture<Long> pending;
+            synchronized (this) {
+                while (filled < count && next != 0 && next <= max) {
+                    sequences[filled++] = next++;
+                }
+                prefetchIfLow();
+                if (filled == count) return sequences;
+                pending = nextBlock;
+            }
+
+            // 블록 소진 - 예약이 끝나길 모니터 밖에서 기다림
+            Long end;
+            try {
+                end = pending.join();
+            } catch (CompletionException e) {
+                synchronized (this) {
+                    if (nextBlock == pending) nextBlock = null;   // 다음 호출에서 다시 예약
+                }
+                throw new IllegalStateException("쿠폰 코드 블록 예약 실패", e.getCause());
+            }
+            synchronized (this) {
+                // 먼저 깨어난 스레드가 이미 교체했으면 그 블록을 이어서 사용
+                if (nextBlock == pending) {
+                    nextBlock = null;
+                    max = end;
+                    next = end - blockSize + 1;
+                }
+            }
+        }
+    }
+
+    // 남은 순번이 절반 이하이고 예약 중인 블록이 없으면 다음 블록 예약 시작 (모니터 안에서 호출)
+    private void prefetchIfLow() {
+        long remaining = next == 0 ? 0 : max - next + 1;
+        if (nextBlock == null && remaining <= blockSize / 2) {
+            nextBlock = CompletableFuture.supplyAsync(this::reserveBlock, blockExecutor);
+        }
+    }
+
+    private long reserveBlock() {
+        Long end = blockTransaction.execute(status -> {
+            // LAST_INSERT_ID(expr) 로 같은 커넥션에서 갱신 후 값을 바로 읽음
+            String update = "UPDATE coupon_code_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+            if (jdbcTemplate.update(update, blockSize, SEQUENCE_NAME) == 0) {
+                jdbcTemplate.update("INSERT IGNORE INTO coupon_code_sequences (name, next_value) VALUES (?, 0)", SEQUENCE_NAME);
+                jdbcTemplate.update(update, blockSize, SEQUENCE_NAME);
+            }
+            return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        });
+        if (end == null || end > MAX_SEQUENCE) {
+            throw new IllegalStateException("쿠폰 코드 블록 예약 실패");
+        }
+        log.debug("쿠폰 코드 블록 예약: {} ~ {}", end - blockSize + 1, end);
+        return end;
+    }
+
+    // 60비트 평형 Feistel - 라운드 수와 무관하게 전단사
+    private long permute(long sequence) {
+        long left = sequence >>> HALF_BITS;
+        long right = sequence & HALF_MASK;
+        Mac mac = roundMac.get();
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ round(mac, round, right);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long round(Mac mac, int round, long half) {
+        byte[] digest = mac.doFinal(new byte[]{
+                (byte) round, (byte) (half >>> 24), (byte) (half >>> 16), (byte) (half >>> 8), (byte) half});
+        long value = ((digest[0] & 0xFFL) << 24) | ((digest[1] & 0xFFL) << 16) | ((digest[2] & 0xFFL) << 8) | (digest[3] & 0xFFL);
+        return value & HALF_MASK;
+    }
+
+    private static String encode(long value) {
+        int[] digits = new int[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (int) (value & 0x1F);
+            value >>>= 5;
+        }
+        int check = (ALPHABET.length - luhnSum(digits) % ALPHABET.length) % ALPHABET.length;
+
+        StringBuilder sb = new StringBuilder(PREFIX.length() + BODY_LENGTH + 1).append(PREFIX);
+        for (int digit : digits) {
+            sb.append(ALPHABET[digit]);
+        }
+        return sb.append(ALPHABET[check]).toString();
+    }
+
+    // Luhn mod N - 검증 문자 자리를 뺀 본문의 오른쪽부터 2, 1 을 번갈아 곱함
+    private static int luhnSum(int[] digits) {
+        int n = ALPHABET.length;
+        int sum = 0;
+        int factor = 2;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            sum += addend / n + addend % n;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return sum;
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
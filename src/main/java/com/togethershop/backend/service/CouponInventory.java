@@ -0,0 +1,204 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.util.TransactionUtils;
+import com.togethershop.backend.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 쿠폰 템플릿 잔여 수량 (Redis 원자 카운터)
+ * - coupon:stock:{templateId} 를 Lua 로 확인 + 감소 → 동시 발급에도 초과 발급 없음, coupon_templates 행 잠금 없음
+ * - 최초 접근 시 DB current_quantity 로 한 번만 적재 (SET NX), 이후 품절 응답은 MySQL 을 거치지 않음
+ * - 변경된 템플릿은 coupon:stock:dirty 에 모아 reconcile-ms 마다 current_quantity 에 현재 값을 일괄 반영
+ *   (절대값을 쓰므로 순서/중복 반영에 안전)
+ * - Redis 유실 시 DB 값으로 다시 적재 - 마지막 반영 이후 감소분(최대 reconcile-ms)만큼 오차 가능
+ */
+@Component
+@Slf4j
+public class CouponInventory {
+
+    private static final String STOCK_KEY_PREFIX = "coupon:stock:";
+    private static final String DIRTY_KEY = "coupon:stock:dirty";
+
+    // -2: 미적재, -1: 품절, 그 외: 감소 후 남은 수량
+    private static final DefaultRedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+                    "if not v then return -2 end " +
+                    "if tonumber(v) <= 0 then return -1 end " +
+                    "local left = redis.call('DECR', KEYS[1]) " +
+                    "redis.call('SADD', KEYS[2], ARGV[1]) " +
+                    "return left", Long.class);
+
+    // -2: 미적재, 그 외: 실제로 예약한 수량 (0 ~ ARGV[2])
+    private static final DefaultRedisScript<Long> RESERVE_UP_TO_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+                    "if not v then return -2 end " +
+                    "local take = math.min(tonumber(v), tonumber(ARGV[2])) " +
+                    "if take <= 0 then return 0 end " +
+                    "redis.call('DECRBY', KEYS[1], take) " +
+                    "redis.call('SADD', KEYS[2], ARGV[1]) " +
+                    "return take", Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+                    "local left = redis.call('INCRBY', KEYS[1], ARGV[2]) " +
+                    "redis.call('SADD', KEYS[2], ARGV[1]) " +
+                    "return left", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    // 품절 템플릿은 잠깐 로컬에서 바로 거절 (Redis 왕복도 생략)
+    private final TtlLruCache<Long, Boolean> soldOut;
+
+    @Value("${coupon.inventory.reconcile-batch:500}")
+    private int reconcileBatch;
+
+    public CouponInventory(RedisTemplate<String, String> redisTemplate,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${coupon.inventory.sold-out-cache-ms:1000}") long soldOutCacheMs) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.soldOut = new TtlLruCache<>(10_000, Duration.ofMillis(soldOutCacheMs));
+    }
+
+    /**
+     * 1개 예약 - 성공하면 true
+     * - 현재 트랜잭션이 롤백되면 자동으로 반납
+     */
+    public boolean tryReserve(Long templateId) {
+        if (soldOut.get(templateId) != null) return false;
+
+        Long left = reserve(templateId);
+        if (left == -2) {
+            load(templateId);
+            left = reserve(templateId);
+        }
+        if (left < 0) {
+            soldOut.put(templateId, Boolean.TRUE);
+            return false;
+        }
+        TransactionUtils.afterRollback(() -> release(templateId));
+        return true;
+    }
+
+    /**
+     * 대량 발급용 - 최대 count 개까지 한 번에 예약하고 실제 예약 수를 반환 (품절이면 0)
+     * - 트랜잭션과 묶지 않으므로 쓰지 못한 수량은 호출 측에서 release 로 반납
+     */
+    public int reserveUpTo(Long templateId, int count) {
+        if (count <= 0 || soldOut.get(templateId) != null) return 0;
+
+        Long taken = reserveUpToScript(templateId, count);
+        if (taken == -2) {
+            load(templateId);
+            taken = reserveUpToScript(templateId, count);
+        }
+        if (taken <= 0) {
+            soldOut.put(templateId, Boolean.TRUE);
+            return 0;
+        }
+        return taken.intValue();
+    }
+
+    public void release(Long templateId) {
+        release(templateId, 1);
+    }
+
+    public void release(Long templateId, int count) {
+        if (count <= 0) return;
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(STOCK_KEY_PREFIX + templateId, DIRTY_KEY),
+                    String.valueOf(templateId), String.valueOf(count));
+            soldOut.invalidate(templateId);
+        } catch (DataAccessException e) {
+            log.error("쿠폰 재고 반납 실패 - templateId: {}, count: {}", templateId, count, e);
+        }
+    }
+
+    /**
+     * 새 템플릿 / 수량 변경 시 카운터를 지정 값으로 (커밋 후 호출)
+     */
+    public void initialize(Long templateId, Integer remaining) {
+        redisTemplate.opsForValue().set(STOCK_KEY_PREFIX + templateId, String.valueOf(remaining != null ? remaining : 0));
+        soldOut.invalidate(templateId);
+    }
+
+    /**
+     * 표시용 잔여 수량 (미적재면 null)
+     */
+    public Integer remaining(Long templateId) {
+        String value = redisTemplate.opsForValue().get(STOCK_KEY_PREFIX + templateId);
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.inventory.reconcile-ms:1000}")
+    public void reconcile() {
+        List<String> ids;
+        try {
+            ids = redisTemplate.opsForSet().pop(DIRTY_KEY, reconcileBatch);
+        } catch (DataAccessException e) {
+            log.warn("쿠폰 재고 반영 대상 조회 실패", e);
+            return;
+        }
+        if (ids == null || ids.isEmpty()) return;
+
+        List<String> keys = ids.stream().map(id -> STOCK_KEY_PREFIX + id).toList();
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value != null) {
+                args.add(new Object[]{Integer.valueOf(value), Long.valueOf(ids.get(i))});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate("UPDATE coupon_templates SET current_quantity = ? WHERE template_id = ?", args);
+        } catch (DataAccessException e) {
+            // 다음 주기에 다시 반영
+            redisTemplate.opsForSet().add(DIRTY_KEY, ids.toArray(String[]::new));
+            log.error("쿠폰 재고 DB 반영 실패 - {}건", ids.size(), e);
+        }
+    }
+
+    private Long reserve(Long templateId) {
+        Long left = redisTemplate.execute(RESERVE_SCRIPT, List.of(STOCK_KEY_PREFIX + templateId, DIRTY_KEY),
+                String.valueOf(templateId));
+        if (left == null) {
+            throw new IllegalStateException("쿠폰 재고 예약 실패");
+        }
+        return left;
+    }
+
+    private Long reserveUpToScript(Long templateId, int count) {
+        Long taken = redisTemplate.execute(RESERVE_UP_TO_SCRIPT, List.of(STOCK_KEY_PREFIX + templateId, DIRTY_KEY),
+                String.valueOf(templateId), String.valueOf(count));
+        if (taken == null) {
+            throw new IllegalStateException("쿠폰 재고 예약 실패");
+        }
+        return taken;
+    }
+
+    // 여러 노드가 동시에 적재해도 먼저 들어간 값 유지
+    private void load(Long templateId) {
+        Integer current;
+        try {
+            current = jdbcTemplate.queryForObject(
+                    "SELECT current_quantity FROM coupon_templates WHERE template_id = ?", Integer.class, templateId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new IllegalArgumentException("Invalid coupon template id");
+        }
+        redisTemplate.opsForValue().setIfAbsent(STOCK_KEY_PREFIX + templateId,
+                String.valueOf(current != null ? current : 0));
+    }
+}
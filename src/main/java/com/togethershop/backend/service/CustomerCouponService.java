@@ -2,6 +2,7 @@ package com.togethershop.backend.service;
 
 import com.togethershop.backend.domain.*;
 import com.togethershop.backend.dto.*;
+import com.togethershop.backend.exception.CouponClaimConflictException;
 import com.togethershop.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,9 @@ public class CustomerCouponService {
     private final PartnershipRepository partnershipRepository;
     private final CouponTemplateRepository couponTemplateRepository;
     private final CustomerNotificationService customerNotificationService;
+    private final CouponInventory couponInventory;
+    private final CouponClaimGuard couponClaimGuard;
+    private final CouponCodeAllocator couponCodeAllocator;
 
     @Transactional(readOnly = true)
     public List<BusinessWithPartnersCouponsDTO> getAvailableCouponsGrouped(Long customerId) {
@@ -245,26 +249,45 @@ public class CustomerCouponService {
 
     @Transactional
     public CouponResponseDTO claimCoupon(Long customerId, Long couponTemplateId) {
+        return claimCoupon(customerId, couponTemplateId, null);
+    }
+
+    /**
+     * idempotencyKey 가 같은 재시도는 처음 발급한 쿠폰을 그대로 반환 (새 행/알림 없음)
+     * 고객당 발급 한도(coupon.claim.per-customer-limit)를 넘거나 품절이면 CouponClaimConflictException
+     */
+    @Transactional
+    public CouponResponseDTO claimCoupon(Long customerId, Long couponTemplateId, String idempotencyKey) {
+        Long previousCouponId = couponClaimGuard.beginIdempotent(customerId, couponTemplateId, idempotencyKey);
+        if (previousCouponId != null) {
+            return couponRepository.findById(previousCouponId)
+                    .map(this::toCouponResponse)
+                    .orElseThrow(() -> new IllegalStateException("발급 기록을 찾을 수 없습니다"));
+        }
+
+        // 반복 요청은 Redis 에서 거절 (DB 는 (customer_id, template_id, claim_no) 유니크 인덱스로 최종 보장)
+        int claimNo = couponClaimGuard.claimSlot(customerId, couponTemplateId);
+
+        // 재고는 Redis 카운터에서 먼저 차감 (품절이면 DB 조회 없이 거절, 롤백 시 자동 반납)
+        // coupon_templates.current_quantity 는 CouponInventory 가 비동기로 반영
+        if (!couponInventory.tryReserve(couponTemplateId)) {
+            throw new CouponClaimConflictException("Coupon template is out of stock");
+        }
+
         // 쿠폰템플릿 조회
         CouponTemplate template = couponTemplateRepository.findById(couponTemplateId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid coupon template id"));
 
         // 쿠폰 발급 조건 검증 예: maxIssueCount, maxUsePerCustomer, isActive 체크 추가 가능
-        // totalQuantity 검증 및 감소
-        Integer currentQuantity = template.getCurrentQuantity();
-        if (currentQuantity == null || currentQuantity <= 0) {
-            throw new IllegalStateException("Coupon template is out of stock");
-        }
-        template.setCurrentQuantity(currentQuantity - 1);
-        couponTemplateRepository.save(template);
 
-        // 쿠폰 발급용 couponCode 및 JWT JTI 생성 (예시 UUID 활용)
-        String couponCode = "CPN" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 10).toUpperCase();
-        String jtiToken = UUID.randomUUID().toString();
+        // 쿠폰 발급용 couponCode 및 JWT JTI 생성 (노드별 예약 블록에서 발급 - 충돌 없음)
+        String couponCode = couponCodeAllocator.nextCode();
+        String jtiToken = couponCodeAllocator.newJti();
 
         Coupon coupon = Coupon.builder()
                 .templateId(template.getId())
                 .customerId(customerId)
+                .claimNo(claimNo)
                 .couponCode(couponCode)
                 .jtiToken(jtiToken)
                 .qrCodeData(null)  // QR코드는 필요시 별도 생성
@@ -274,7 +297,9 @@ public class CustomerCouponService {
                 .status(CouponStatus.ISSUED)
                 .build();
 
-        couponRepository.save(coupon);
+        // 유니크 인덱스 위반을 알림 전에 확인
+        couponRepository.saveAndFlush(coupon);
+        couponClaimGuard.completeIdempotent(customerId, couponTemplateId, idempotencyKey, coupon.getCouponId());
 
         // partnershipId -> businessId -> businessName 조회
         String couponName = template.getPartnership().getRequester().getBusinessName() + " 에서";
@@ -282,7 +307,11 @@ public class CustomerCouponService {
         // 알림 전송
         customerNotificationService.sendCouponCreatedNotification(customerId, couponName);
 
-        // 엔티티 -> DTO 변환
+        return toCouponResponse(coupon);
+    }
+
+    // 엔티티 -> DTO 변환
+    private CouponResponseDTO toCouponResponse(Coupon coupon) {
         return CouponResponseDTO.builder()
                 .couponId(coupon.getCouponId())
                 .templateId(coupon.getTemplateId())
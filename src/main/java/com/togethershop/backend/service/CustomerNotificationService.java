@@ -9,20 +9,34 @@ import com.togethershop.backend.dto.NotificationResponseDTO;
 import com.togethershop.backend.repository.CustomerNotificationRepository;
 import com.togethershop.backend.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerNotificationService {
 
+    private static final String INSERT_PREFIX = "INSERT INTO customer_notifications " +
+            "(customer_id, title, message, notification_type, sent_at, status) VALUES ";
+    private static final int INSERT_BATCH = 500;
+
     private final CustomerNotificationRepository notificationRepo;
     private final CustomerRepository customerRepo;
     private final FcmService fcmService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional(readOnly = true)
     public List<NotificationResponseDTO> getReadNotificationsByCustomer(Long customerId) {
@@ -89,6 +103,40 @@ public class CustomerNotificationService {
         notificationRepo.save(notification);
     }
 
+    /**
+     * 여러 건을 다중 행 INSERT 로 저장 (대량 발급 / 만료 안내용) - 생성된 id 를 입력 순서대로 반환
+     * (다중 행 INSERT 한 문장의 AUTO_INCREMENT 는 한 번에 연속으로 할당되므로 드라이버가 돌려주는 키 순서 = 행 순서)
+     */
+    @Transactional
+    public List<Long> saveAll(List<CustomerNotification> notifications) {
+        List<Long> ids = new ArrayList<>(notifications.size());
+        for (int from = 0; from < notifications.size(); from += INSERT_BATCH) {
+            List<CustomerNotification> batch = notifications.subList(from, Math.min(from + INSERT_BATCH, notifications.size()));
+            List<Object> args = new ArrayList<>(batch.size() * 6);
+            for (CustomerNotification n : batch) {
+                args.add(n.getCustomerId());
+                args.add(n.getTitle());
+                args.add(n.getMessage());
+                args.add(n.getNotificationType().name());
+                args.add(Timestamp.valueOf(n.getSentAt()));
+                args.add(n.getStatus().name());
+            }
+            String sql = INSERT_PREFIX + String.join(",", Collections.nCopies(batch.size(), "(?,?,?,?,?,?)"));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, keyHolder);
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+
     @Transactional
     public boolean markNotificationAsRead(Long notificationId) {
         int updated = notificationRepo.markAsRead(notificationId);
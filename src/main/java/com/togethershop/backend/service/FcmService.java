@@ -4,6 +4,7 @@ import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
 import com.togethershop.backend.domain.Business;
 import com.togethershop.backend.domain.Customer;
 import com.togethershop.backend.dto.FcmSendDTO;
@@ -16,11 +17,18 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FcmService {
 
+    // FirebaseMessaging.sendEach 한 번에 보낼 수 있는 최대 메시지 수
+    public static final int BATCH_LIMIT = 500;
+
     private final FirebaseMessaging firebaseMessaging;
     private final CustomerRepository customerRepository;
     private final BusinessRepository businessRepository;
@@ -65,4 +73,36 @@ public class FcmService {
         }
     }
 
+    /**
+     * 여러 건을 sendEach 로 묶어 전송 (BATCH_LIMIT 씩) - 입력 순서대로 성공 여부 반환
+     */
+    public List<Boolean> sendAll(List<FcmSendDTO> dtos) {
+        List<Boolean> results = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += BATCH_LIMIT) {
+            List<FcmSendDTO> batch = dtos.subList(from, Math.min(from + BATCH_LIMIT, dtos.size()));
+            List<Message> messages = batch.stream().map(FcmService::toMessage).toList();
+            try {
+                for (SendResponse response : firebaseMessaging.sendEach(messages).getResponses()) {
+                    results.add(response.isSuccessful());
+                }
+            } catch (FirebaseMessagingException e) {
+                log.error("Failed to send Firebase batch ({}): {}", batch.size(), e.getMessage());
+                results.addAll(Collections.nCopies(batch.size(), Boolean.FALSE));
+            }
+        }
+        return results;
+    }
+
+    private static Message toMessage(FcmSendDTO dto) {
+        Notification.Builder notificationBuilder = Notification.builder()
+                .setTitle(dto.getTitle())
+                .setBody(dto.getBody());
+        if (dto.getImage() != null) {
+            notificationBuilder.setImage(dto.getImage());
+        }
+        return Message.builder()
+                .setToken(dto.getToken())
+                .setNotification(notificationBuilder.build())
+                .build();
     }
+}
@@ -0,0 +1,75 @@
+package com.togethershop.backend.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이 노드의 STOMP 구독 수 (destination → 구독 수)
+ * - Redis 로 받은 방 브로드캐스트마다 SimpUserRegistry 전체를 훑지 않고 O(1) 로 로컬 구독자 확인 (ChatBroadcaster)
+ * - SUBSCRIBE / UNSUBSCRIBE / DISCONNECT 이벤트로 갱신, 세션별 subscriptionId → destination 을 보관해 해제 시 차감
+ */
+@Component
+public class LocalSubscriptionIndex {
+
+    // sessionId → (subscriptionId → destination)
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    public boolean hasSubscribers(String destination) {
+        return destination != null && counts.containsKey(destination);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) return;
+
+        String previous = subscriptionsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.merge(destination, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        if (sessionId == null || subscriptionId == null) return;
+
+        Map<String, String> subscriptions = subscriptionsBySession.get(sessionId);
+        String destination = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    // DISCONNECT 가 두 번 오거나 UNSUBSCRIBE 와 겹쳐도 구독마다 한 번만 차감 (remove 에 성공한 쪽만)
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+        if (subscriptions == null) return;
+        for (String subscriptionId : subscriptions.keySet()) {
+            String destination = subscriptions.remove(subscriptionId);
+            if (destination != null) {
+                decrement(destination);
+            }
+        }
+    }
+
+    private void decrement(String destination) {
+        counts.computeIfPresent(destination, (k, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -6,8 +6,8 @@ import com.togethershop.backend.domain.ChatRoom;
 import com.togethershop.backend.domain.Partnership;
 import com.togethershop.backend.dto.*;
 import com.togethershop.backend.repository.*;
+import com.togethershop.backend.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,9 +29,14 @@ public class PartnershipService {
     private final ChatRoomRepository roomRepo;
     private final ShopUserRepository userRepo;
     private final ChatMessageRepository messageRepo;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatBroadcaster chatBroadcaster;
     private final PartnershipRepository partnershipRepo;
     private final BusinessRepository businessRepo;
+    private final SenderProfileCache senderProfileCache;
+    private final RoomSummaryService roomSummaryService;
+    private final RoomMembershipCache roomMembershipCache;
+    private final ChatContentFilter chatContentFilter;
 
     /**
      * 협업 요청 생성
@@ -74,6 +79,8 @@ public class PartnershipService {
                 .build();
 
         room = roomRepo.save(room);
+        roomSummaryService.onRoomCreated(room);
+        onMembershipChanged(room.getRoomId(), room);
 
         // 최초 메시지 저장
         ChatMessage chatMessage = ChatMessage.builder()
@@ -86,9 +93,10 @@ public class PartnershipService {
                 .sentAt(Instant.now())
                 .partnership(p1)
                 .build();
-        messageRepo.save(chatMessage);
+        // 같은 트랜잭션에서 생성한 방을 참조하므로 write-behind 큐를 거치지 않고 바로 저장
+        chatMessageWriter.saveNow(chatMessage);
 
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomId(),
+        chatBroadcaster.sendToRoom(room.getRoomId(),
                 buildPartnershipMessage(chatMessage, ChatStatus.WAITING, null));
 
         return room;
@@ -120,6 +128,7 @@ public class PartnershipService {
 
         partnershipRepo.save(p1);
         partnershipRepo.save(p2);
+        roomSummaryService.onPartnershipStatusChanged(room, PartnershipStatus.ACCEPTED);
 
         // 시스템 메시지
         ChatMessage sysMessage = ChatMessage.builder()
@@ -132,9 +141,9 @@ public class PartnershipService {
                 .sentAt(Instant.now())
                 .partnership(p1)
                 .build();
-        messageRepo.save(sysMessage);
+        chatMessageWriter.save(sysMessage);
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId,
+        chatBroadcaster.sendToRoom(roomId,
                 buildPartnershipMessage(sysMessage, ChatStatus.ACCEPTED, null));
     }
 
@@ -166,6 +175,8 @@ public class PartnershipService {
         p2.setStatus(PartnershipStatus.REJECTED);
         partnershipRepo.save(p1);
         partnershipRepo.save(p2);
+        roomSummaryService.onPartnershipStatusChanged(room, PartnershipStatus.REJECTED);
+        onMembershipChanged(roomId, null);
 
         // 시스템 메시지
         ChatMessage sysMessage = ChatMessage.builder()
@@ -178,17 +189,24 @@ public class PartnershipService {
                 .sentAt(Instant.now())
                 .partnership(p1)
                 .build();
-        messageRepo.save(sysMessage);
+        chatMessageWriter.save(sysMessage);
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId,
+        chatBroadcaster.sendToRoom(roomId,
                 buildPartnershipMessage(sysMessage, ChatStatus.REJECTED, reason));
     }
 
 
+    /**
+     * 금칙어 필터에서 거부되면 ChatService 와 같이 발신자에게 /queue/chat.rejected 로 알리고 저장하지 않음
+     */
     @Transactional
     public void sendTextMessage(String roomId, Long senderId, String content) {
         ChatRoom room = roomRepo.findByRoomId(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("채팅방을 찾을 수 없습니다"));
+        if (content != null) {
+            content = chatContentFilter.applyForSend(content, roomId, getUsernameById(senderId), null);
+            if (content == null) return;
+        }
 
         ChatMessage msg = ChatMessage.builder()
                 .room(room)
@@ -201,18 +219,19 @@ public class PartnershipService {
                 .sentAt(Instant.now())
                 .partnership(room.getPartnership())
                 .build();
-        messageRepo.save(msg);
+        chatMessageWriter.save(msg);
 
         Map<String, Object> stompMessage = new HashMap<>();
         long timestamp = msg.getSentAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         stompMessage.put("id", msg.getId());
+        stompMessage.put("seq", msg.getSeq());
         stompMessage.put("type", "TEXT");
         stompMessage.put("senderId", senderId);
         stompMessage.put("senderName", getUsernameById(senderId));
         stompMessage.put("content", msg.getContent());
         stompMessage.put("createdAt", timestamp);
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId, stompMessage);
+        chatBroadcaster.sendToRoom(roomId, stompMessage);
     }
 
     /**
@@ -229,6 +248,7 @@ public class PartnershipService {
         Instant createdAt = msg.getSentAt(); // LocalDateTime
         long epochMilli = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         stompMessage.put("timestamp", epochMilli);
+        stompMessage.put("seq", msg.getSeq());
         stompMessage.put("type", "PARTNERSHIP_REQUEST");
         stompMessage.put("sender", msg.getSenderId() != null ? getUsernameById(msg.getSenderId()) : "SYSTEM");
         stompMessage.put("payload", payload);
@@ -236,8 +256,21 @@ public class PartnershipService {
         return stompMessage;
     }
 
+    // 구독 권한 캐시 갱신 (커밋 후) - created 가 null 이면 거절
+    private void onMembershipChanged(String roomId, ChatRoom created) {
+        TransactionUtils.afterCommit(() -> {
+            if (created != null) {
+                roomMembershipCache.onRoomCreated(created);
+            } else {
+                roomMembershipCache.onRoomRejected(roomId);
+            }
+            chatBroadcaster.syncToCluster(roomId, ChatBroadcastEnvelope.KIND_ROOM_MEMBERSHIP, null);
+        });
+    }
+
     private String getUsernameById(Long id) {
-        return userRepo.findById(id).map(Business::getUsername).orElse("UNKNOWN");
+        SenderProfileDTO sender = senderProfileCache.get(id);
+        return sender != null ? sender.getUsername() : "UNKNOWN";
     }
 
     public List<PartnershipDTO> getAllBusinesses(Long currentUserId) {
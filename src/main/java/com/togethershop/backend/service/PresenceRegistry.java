@@ -0,0 +1,149 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.security.CustomUserDetails;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사업자 접속 상태 (STOMP CONNECT ~ DISCONNECT)
+ * - Redis ZSET chat:presence:{businessId} - member = nodeId:sessionId, score = 만료 시각(ms)
+ * - 노드는 heartbeat-ms 마다 자기 세션들의 만료 시각을 갱신 → 노드가 죽으면 ttl 후 자동으로 오프라인
+ * - 죽은 클라이언트는 STOMP heart-beat 로 세션이 닫히면서 정리 (WebSocketConfig)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceRegistry {
+
+    private static final String KEY_PREFIX = "chat:presence:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // 이 노드의 세션 - sessionId → businessId, businessId → sessionIds
+    private final Map<String, Long> localSessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> sessionsByBusiness = new ConcurrentHashMap<>();
+
+    @Value("${chat.cluster.node-id:}")
+    private String nodeId;
+    @Value("${chat.presence.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        if (!(event.getUser() instanceof Authentication auth)
+                || !(auth.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            return;
+        }
+        String sessionId = (String) event.getMessage().getHeaders().get("simpSessionId");
+        if (sessionId == null) return;
+
+        Long businessId = userDetails.getUserId();
+        localSessions.put(sessionId, businessId);
+        sessionsByBusiness.computeIfAbsent(businessId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        try {
+            String key = KEY_PREFIX + businessId;
+            redisTemplate.opsForZSet().add(key, member(sessionId), expiresAt());
+            redisTemplate.expire(key, Duration.ofSeconds(ttlSeconds));
+        } catch (DataAccessException e) {
+            log.warn("접속 상태 등록 실패 - businessId: {}", businessId, e);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String sessionId = event.getSessionId();
+        Long businessId = localSessions.remove(sessionId);
+        if (businessId == null) return;
+
+        sessionsByBusiness.computeIfPresent(businessId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        try {
+            redisTemplate.opsForZSet().remove(KEY_PREFIX + businessId, member(sessionId));
+        } catch (DataAccessException e) {
+            log.warn("접속 상태 해제 실패 - businessId: {}", businessId, e);
+        }
+    }
+
+    /**
+     * 이 노드 세션들의 만료 시각 갱신 + 만료된 member 정리 (파이프라인 한 번)
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-ms:20000}")
+    public void heartbeat() {
+        if (localSessions.isEmpty()) return;
+
+        double expiresAt = expiresAt();
+        long now = System.currentTimeMillis();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Map.Entry<Long, Set<String>> entry : sessionsByBusiness.entrySet()) {
+                        String key = KEY_PREFIX + entry.getKey();
+                        for (String sessionId : entry.getValue()) {
+                            ops.opsForZSet().add(key, member(sessionId), expiresAt);
+                        }
+                        ops.opsForZSet().removeRangeByScore(key, 0, now);
+                        ops.expire(key, Duration.ofSeconds(ttlSeconds));
+                    }
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("접속 상태 갱신 실패 - 세션 {}개", localSessions.size(), e);
+        }
+    }
+
+    /**
+     * 살아 있는 세션이 한 노드에라도 있으면 true
+     * - Redis 장애 시에는 온라인으로 간주 (푸시 폭주 방지, 메시지는 브로드캐스트/히스토리로 전달됨)
+     */
+    public boolean isOnline(Long businessId) {
+        if (businessId == null) return false;
+        if (sessionsByBusiness.containsKey(businessId)) return true;
+        try {
+            Long alive = redisTemplate.opsForZSet()
+                    .count(KEY_PREFIX + businessId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return alive != null && alive > 0;
+        } catch (DataAccessException e) {
+            log.warn("접속 상태 조회 실패 - businessId: {}", businessId, e);
+            return true;
+        }
+    }
+
+    private String member(String sessionId) {
+        return nodeId + ":" + sessionId;
+    }
+
+    private double expiresAt() {
+        return System.currentTimeMillis() + ttlSeconds * 1000;
+    }
+}
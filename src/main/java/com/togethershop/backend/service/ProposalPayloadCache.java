@@ -0,0 +1,127 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatProposal;
+import com.togethershop.backend.dto.CouponDTO;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.dto.ProposalPayloadDTO;
+import com.togethershop.backend.repository.ChatProposalRepository;
+import com.togethershop.backend.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 쿠폰 제안 payload 캐시 (messageId → ProposalPayloadDTO)
+ * - 히스토리 렌더링 때마다 제안 JSON 을 다시 역직렬화하지 않도록 변환 결과를 보관
+ * - 캐시 미스는 chat_proposals 에서 조회, 행이 없는 기존 메시지만 JSON 파싱
+ * - 캐시된 DTO 는 공유되므로 수정하지 말 것 (상태 변경 시 evict)
+ */
+@Component
+@Slf4j
+public class ProposalPayloadCache {
+
+    private final ChatProposalRepository proposalRepo;
+    private final ObjectMapper objectMapper;
+    private final TtlLruCache<Long, ProposalPayloadDTO> cache;
+
+    public ProposalPayloadCache(ChatProposalRepository proposalRepo,
+                                ObjectMapper objectMapper,
+                                @Value("${chat.proposal-cache.max-size:5000}") int maxSize,
+                                @Value("${chat.proposal-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.proposalRepo = proposalRepo;
+        this.objectMapper = objectMapper;
+        this.cache = new TtlLruCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * 제안 메시지의 payload (파싱 불가면 null)
+     */
+    public ProposalPayloadDTO get(ChatMessage message) {
+        if (message.getType() != MessageType.COUPON_PROPOSAL || message.getId() == null) {
+            return null;
+        }
+        ProposalPayloadDTO cached = cache.get(message.getId());
+        if (cached != null) return cached;
+
+        ProposalPayloadDTO payload = proposalRepo.findByMessageId(message.getId())
+                .map(ProposalPayloadCache::toPayload)
+                .orElseGet(() -> parseLegacy(message));
+        if (payload != null) {
+            cache.put(message.getId(), payload);
+        }
+        return payload;
+    }
+
+    /**
+     * 히스토리 페이지의 제안 메시지를 IN 쿼리 한 번으로 미리 적재
+     */
+    public void preload(Collection<ChatMessage> messages) {
+        List<Long> missing = new ArrayList<>();
+        for (ChatMessage m : messages) {
+            if (m.getType() == MessageType.COUPON_PROPOSAL && m.getId() != null && cache.get(m.getId()) == null) {
+                missing.add(m.getId());
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        for (ChatProposal proposal : proposalRepo.findByMessageIdIn(missing)) {
+            cache.put(proposal.getMessageId(), toPayload(proposal));
+        }
+    }
+
+    public void put(ChatProposal proposal) {
+        cache.put(proposal.getMessageId(), toPayload(proposal));
+    }
+
+    public void evict(Long messageId) {
+        cache.invalidate(messageId);
+    }
+
+    public static ProposalPayloadDTO toPayload(ChatProposal p) {
+        ProposalPayloadDTO payload = new ProposalPayloadDTO();
+        payload.setMessageId(p.getMessageId());
+        payload.setRoomId(p.getRoomId());
+        payload.setProposerId(p.getProposerId());
+        payload.setStatus(p.getStatus().name());
+        payload.setProposerCoupon(coupon(p.getProposerItemName(), p.getProposerDiscountPercent(),
+                p.getProposerTotalQuantity(), p.getProposerStartDate(), p.getProposerEndDate()));
+        payload.setRecipientCoupon(coupon(p.getRecipientItemName(), p.getRecipientDiscountPercent(),
+                p.getRecipientTotalQuantity(), p.getRecipientStartDate(), p.getRecipientEndDate()));
+        return payload;
+    }
+
+    private static CouponDTO coupon(String itemName, Integer discountPercent, Integer totalQuantity,
+                                    LocalDate startDate, LocalDate endDate) {
+        CouponDTO coupon = new CouponDTO();
+        coupon.setItemName(itemName);
+        coupon.setDiscountPercent(discountPercent);
+        coupon.setTotalQuantity(totalQuantity);
+        coupon.setStartDate(startDate);
+        coupon.setEndDate(endDate);
+        return coupon;
+    }
+
+    /**
+     * chat_proposals 도입 이전 메시지 - proposal_data 또는 content 의 JSON
+     */
+    public ProposalPayloadDTO parseLegacy(ChatMessage message) {
+        String json = message.getProposalData() != null ? message.getProposalData() : message.getContent();
+        if (json == null) return null;
+        try {
+            ProposalPayloadDTO payload = objectMapper.readValue(json, ProposalPayloadDTO.class);
+            payload.setMessageId(message.getId());
+            return payload;
+        } catch (Exception e) {
+            log.warn("제안 payload 파싱 실패 - messageId: {}", message.getId());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.togethershop.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 읽음 처리 DB 반영 (read_at / status) 을 모아서 일괄 UPDATE
+ * - (방, 읽은 사용자) 단위로 합쳐 같은 방을 여러 번 열어도 UPDATE 는 한 번
+ * - 요청 스레드가 아닌 스케줄러 한 스레드에서만 실행되어 chat_messages 행 잠금 경합을 줄임
+ * - 읽은 범위는 seq 로 비교 (HiLo id 는 노드마다 블록이 달라 전송 순서와 무관), seq 없는 기존 행은 항상 포함
+ * - 반영 후 room_summary.unread_count 를 chat_messages 기준으로 다시 계산
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadReceiptBatcher {
+
+    private static final String MARK_READ_SQL = "UPDATE chat_messages SET status = 'READ', read_at = ? " +
+            "WHERE room_id = ? AND sender_business_id <> ? AND status <> 'READ' AND (seq <= ? OR seq IS NULL)";
+    private static final String SUMMARY_UNREAD_SQL = "UPDATE room_summary s SET s.unread_count = " +
+            "(SELECT COUNT(*) FROM chat_messages m WHERE m.room_id = s.room_id " +
+            "AND m.sender_business_id <> s.business_id AND m.status <> 'READ') " +
+            "WHERE s.room_id = ? AND s.business_id = ?";
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${chat.read-receipt.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<String, PendingRead> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param lastSeq 마지막으로 읽은 메시지 seq (없으면 방 전체)
+     */
+    public void enqueue(Long roomPk, Long readerId, Long lastSeq) {
+        PendingRead read = new PendingRead(roomPk, readerId,
+                lastSeq != null ? lastSeq : Long.MAX_VALUE, Instant.now());
+        pending.merge(roomPk + ":" + readerId, read, PendingRead::merge);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.read-receipt.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+
+        List<PendingRead> batch = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            PendingRead read = pending.remove(key);
+            if (read != null) batch.add(read);
+        }
+
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<PendingRead> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                jdbcTemplate.batchUpdate(MARK_READ_SQL, chunk, chunk.size(), (ps, read) -> {
+                    ps.setTimestamp(1, Timestamp.from(read.readAt), (Calendar) UTC.clone());
+                    ps.setLong(2, read.roomPk);
+                    ps.setLong(3, read.readerId);
+                    ps.setLong(4, read.lastSeq);
+                });
+                jdbcTemplate.batchUpdate(SUMMARY_UNREAD_SQL, chunk, chunk.size(), (ps, read) -> {
+                    ps.setLong(1, read.roomPk);
+                    ps.setLong(2, read.readerId);
+                });
+            } catch (Exception e) {
+                // 다음 주기에 재시도 (그 사이 들어온 요청과 합쳐짐)
+                log.error("읽음 처리 일괄 반영 실패 - {}건 재시도 예정: {}", chunk.size(), e.getMessage(), e);
+                chunk.forEach(read -> pending.merge(read.roomPk + ":" + read.readerId, read, PendingRead::merge));
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    @AllArgsConstructor
+    private static final class PendingRead {
+        private final Long roomPk;
+        private final Long readerId;
+        private final long lastSeq;
+        private final Instant readAt;
+
+        private PendingRead merge(PendingRead other) {
+            return new PendingRead(roomPk, readerId,
+                    Math.max(lastSeq, other.lastSeq),
+                    readAt.isAfter(other.readAt) ? readAt : other.readAt);
+        }
+    }
+}
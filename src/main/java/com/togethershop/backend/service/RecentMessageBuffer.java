@@ -0,0 +1,227 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.ChatMessageSliceDTO;
+import com.togethershop.backend.util.ChatCursor;
+import com.togethershop.backend.util.TransactionUtils;
+import com.togethershop.backend.util.TtlLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 활성 채팅방의 최근 메시지 링 버퍼 (변환된 ChatMessageDTO 보관)
+ * - 첫 히스토리 조회 시 DB 최신 room-capacity 건으로 채우고(prime), 이후 전송 메시지를 커밋 후 추가
+ * - 방 개수는 max-rooms 로 제한 (LRU), idle-ttl 이 지나면 제거 → 전체 메모리 상한 = max-rooms x room-capacity
+ * - 클러스터 모드에서는 chat.room.* 채널로 추가/무효화를 다른 노드에 전파
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecentMessageBuffer {
+
+    private final ChatMessageConverter chatMessageConverter;
+    private final ChatBroadcaster chatBroadcaster;
+
+    @Value("${chat.recent-buffer.enabled:true}")
+    private boolean enabled;
+    @Value("${chat.recent-buffer.room-capacity:50}")
+    private int roomCapacity;
+    @Value("${chat.recent-buffer.max-rooms:2000}")
+    private int maxRooms;
+    @Value("${chat.recent-buffer.idle-ttl-seconds:1800}")
+    private long idleTtlSeconds;
+
+    private TtlLruCache<String, Ring> rings;
+
+    @PostConstruct
+    void init() {
+        rings = new TtlLruCache<>(maxRooms, Duration.ofSeconds(idleTtlSeconds));
+    }
+
+    /**
+     * 버퍼로 응답 가능한 첫 페이지 크기인지
+     */
+    public boolean canServe(int size) {
+        return enabled && size <= roomCapacity;
+    }
+
+    public int getRoomCapacity() {
+        return roomCapacity;
+    }
+
+    /**
+     * 최신 페이지를 버퍼에서 조회 (prime 되지 않았으면 null)
+     */
+    public ChatMessageSliceDTO getLatest(String roomId, int size) {
+        if (!canServe(size)) return null;
+        Ring ring = rings.get(roomId);
+        return ring != null ? ring.latest(Math.max(1, size)) : null;
+    }
+
+    /**
+     * DB 조회 전 호출 - 받은 티켓을 prime 에 넘겨 조회 도중 추가/무효화가 있었으면 적재하지 않음
+     */
+    public LoadTicket beginLoad(String roomId) {
+        if (!enabled) return null;
+        synchronized (rings) {
+            Ring ring = rings.get(roomId);
+            if (ring == null) {
+                ring = new Ring(roomCapacity);
+                rings.put(roomId, ring);
+            }
+            return new LoadTicket(roomId, ring, ring.version());
+        }
+    }
+
+    /**
+     * DB 최신 페이지(오래된 순)로 버퍼 채우기
+     */
+    public void prime(LoadTicket ticket, List<ChatMessageDTO> messages, boolean hasOlder) {
+        if (ticket == null) return;
+        // 그 사이 무효화되어 다른 링으로 바뀐 경우도 건너뜀
+        if (rings.get(ticket.roomId) == ticket.ring && ticket.ring.prime(ticket.version, messages, hasOlder)) {
+            log.debug("최근 메시지 버퍼 적재: roomId={}, size={}", ticket.roomId, messages.size());
+        }
+    }
+
+    /**
+     * 메시지 저장 - 커밋 후 로컬 버퍼에 추가하고 다른 노드에 전파
+     */
+    public void onMessageSaved(ChatMessage msg) {
+        if (!enabled) return;
+        ChatMessageDTO dto = chatMessageConverter.toDto(msg);
+        TransactionUtils.afterCommit(() -> {
+            append(dto);
+            chatBroadcaster.syncToCluster(dto.getRoomId(), ChatBroadcastEnvelope.KIND_BUFFER_APPEND, dto);
+        });
+    }
+
+    /**
+     * 기존 메시지 내용이 바뀐 경우 (제안 수락/거절 등) - 커밋 후 버퍼 제거
+     */
+    public void invalidate(String roomId) {
+        if (!enabled) return;
+        TransactionUtils.afterCommit(() -> {
+            invalidateLocally(roomId);
+            chatBroadcaster.syncToCluster(roomId, ChatBroadcastEnvelope.KIND_BUFFER_INVALIDATE, null);
+        });
+    }
+
+    @EventListener
+    public void onClusterSync(ChatBroadcastEnvelope envelope) {
+        if (!enabled) return;
+        if (ChatBroadcastEnvelope.KIND_BUFFER_APPEND.equals(envelope.getKind()) && envelope.getMessage() != null) {
+            append(envelope.getMessage());
+        } else if (ChatBroadcastEnvelope.KIND_BUFFER_INVALIDATE.equals(envelope.getKind())) {
+            invalidateLocally(envelope.getRoomId());
+        }
+    }
+
+    private void append(ChatMessageDTO dto) {
+        Ring ring = rings.get(dto.getRoomId());
+        if (ring != null) {
+            ring.append(dto);
+        }
+    }
+
+    private void invalidateLocally(String roomId) {
+        synchronized (rings) {
+            rings.invalidate(roomId);
+        }
+    }
+
+    @RequiredArgsConstructor
+    public static final class LoadTicket {
+        private final String roomId;
+        private final Ring ring;
+        private final long version;
+    }
+
+    /**
+     * 방 하나의 링 (timestamp, id 오름차순 유지)
+     */
+    private static final class Ring {
+        private final int capacity;
+        private final ArrayDeque<ChatMessageDTO> messages;
+        private boolean primed;
+        private boolean hasOlder;
+        private long version;
+
+        private Ring(int capacity) {
+            this.capacity = capacity;
+            this.messages = new ArrayDeque<>(capacity);
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized boolean prime(long expectedVersion, List<ChatMessageDTO> loaded, boolean older) {
+            if (primed || version != expectedVersion) return false;
+            messages.clear();
+            messages.addAll(loaded);
+            hasOlder = older;
+            primed = true;
+            return true;
+        }
+
+        private synchronized void append(ChatMessageDTO dto) {
+            version++;
+            if (!primed) return;
+
+            // 노드 간 전파로 순서가 뒤바뀔 수 있어 뒤에서부터 위치를 찾음
+            List<ChatMessageDTO> tail = new ArrayList<>();
+            while (!messages.isEmpty() && isAfter(messages.peekLast(), dto)) {
+                tail.add(0, messages.pollLast());
+            }
+            ChatMessageDTO last = messages.peekLast();
+            if (last == null || !last.getId().equals(dto.getId())) {
+                messages.addLast(dto);
+            }
+            messages.addAll(tail);
+
+            while (messages.size() > capacity) {
+                messages.pollFirst();
+                hasOlder = true;
+            }
+        }
+
+        private synchronized ChatMessageSliceDTO latest(int size) {
+            if (!primed) return null;
+            int skip = Math.max(0, messages.size() - size);
+            List<ChatMessageDTO> page = new ArrayList<>(Math.min(size, messages.size()));
+            Iterator<ChatMessageDTO> it = messages.iterator();
+            for (int i = 0; it.hasNext(); i++) {
+                ChatMessageDTO m = it.next();
+                if (i >= skip) page.add(m);
+            }
+            return ChatMessageSliceDTO.builder()
+                    .messages(page)
+                    .hasMore(skip > 0 || hasOlder)
+                    .beforeCursor(page.isEmpty() ? null : cursor(page.get(0)))
+                    .afterCursor(page.isEmpty() ? null : cursor(page.get(page.size() - 1)))
+                    .build();
+        }
+
+        private static boolean isAfter(ChatMessageDTO a, ChatMessageDTO b) {
+            int cmp = a.getTimestamp().compareTo(b.getTimestamp());
+            return cmp > 0 || (cmp == 0 && a.getId() > b.getId());
+        }
+
+        private static String cursor(ChatMessageDTO m) {
+            return new ChatCursor(m.getTimestamp(), m.getId()).encode();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.togethershop.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -15,23 +15,18 @@ public class RedisChatPublisher {
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
 
-    public void publish(ChatMessageDTO dto) {
+    public void publish(String channel, ChatBroadcastEnvelope envelope) {
         try {
-            String channel = "chat.room." + dto.getRoomId();
-
             // ⭐ JSON으로 직렬화
-            String jsonMessage = objectMapper.writeValueAsString(dto);
+            String jsonMessage = objectMapper.writeValueAsString(envelope);
 
-            log.info("Redis 발행 시작: channel={}, messageId={}", channel, dto.getSenderId());
-            log.debug("발행할 JSON: {}", jsonMessage);
+            log.debug("Redis 발행: channel={}, messageId={}", channel, envelope.getMessageId());
 
             redisTemplate.convertAndSend(channel, jsonMessage);
 
-            log.info("Redis 발행 완료: channel={}", channel);
-
         } catch (Exception e) {
-            log.error("Redis 메시지 발행 실패: roomId={}, error={}", dto.getRoomId(), e.getMessage(), e);
+            log.error("Redis 메시지 발행 실패: channel={}, error={}", channel, e.getMessage(), e);
             throw new RuntimeException("메시지 발행 실패", e);
         }
     }
-}
\ No newline at end of file
+}
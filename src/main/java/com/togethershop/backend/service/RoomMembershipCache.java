@@ -0,0 +1,94 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatStatus;
+import com.togethershop.backend.repository.ChatRoomRepository;
+import com.togethershop.backend.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 채팅방 참여자 캐시 (roomId → requesterId, recipientId) - STOMP SUBSCRIBE 권한 확인용
+ * - CONNECT 시 사용자의 방 전체를 한 번에 적재 → 재연결 후 몰려오는 SUBSCRIBE 는 DB 조회 없이 처리
+ * - 방 생성/거절 시 PartnershipService 가 갱신하고, 다른 노드는 클러스터 동기화로 무효화
+ * - 거절된 방, 없는 방은 NONE 으로 캐시 (반복 조회 방지)
+ * - 이 빈은 WebSocket 설정(인터셉터)에서 참조되므로 ChatBroadcaster 에 의존하지 않음
+ */
+@Component
+@Slf4j
+public class RoomMembershipCache {
+
+    private static final Members NONE = new Members(-1L, -1L);
+
+    private final ChatRoomRepository roomRepo;
+    private final TtlLruCache<String, Members> rooms;
+    private final TtlLruCache<Long, Boolean> loadedUsers;
+
+    public RoomMembershipCache(ChatRoomRepository roomRepo,
+                               @Value("${chat.membership-cache.max-rooms:100000}") int maxRooms,
+                               @Value("${chat.membership-cache.max-users:20000}") int maxUsers,
+                               @Value("${chat.membership-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.roomRepo = roomRepo;
+        this.rooms = new TtlLruCache<>(maxRooms, Duration.ofSeconds(ttlSeconds));
+        this.loadedUsers = new TtlLruCache<>(maxUsers, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * CONNECT 시 호출 - ttl 안에 이미 적재한 사용자면 생략
+     */
+    public void preload(Long businessId) {
+        if (businessId == null || loadedUsers.get(businessId) != null) return;
+        List<Object[]> rows = roomRepo.findMembershipsOf(businessId);
+        for (Object[] row : rows) {
+            rooms.put((String) row[0], toMembers(row));
+        }
+        loadedUsers.put(businessId, Boolean.TRUE);
+        log.debug("방 참여 정보 적재 - businessId: {}, rooms: {}", businessId, rows.size());
+    }
+
+    public boolean isMember(String roomId, Long businessId) {
+        if (roomId == null || businessId == null) return false;
+        Members members = rooms.get(roomId);
+        if (members == null) {
+            // 캐시에서 밀려났거나 다른 노드에서 방금 만든 방
+            List<Object[]> rows = roomRepo.findMembership(roomId);
+            members = rows.isEmpty() ? NONE : toMembers(rows.get(0));
+            rooms.put(roomId, members);
+        }
+        return members.includes(businessId);
+    }
+
+    // 방 생성 커밋 후
+    public void onRoomCreated(ChatRoom room) {
+        rooms.put(room.getRoomId(), new Members(room.getRequester().getId(), room.getRecipient().getId()));
+    }
+
+    // 방 거절 커밋 후 - 이후 구독 차단
+    public void onRoomRejected(String roomId) {
+        rooms.put(roomId, NONE);
+    }
+
+    @EventListener
+    public void onClusterSync(ChatBroadcastEnvelope envelope) {
+        if (!ChatBroadcastEnvelope.KIND_ROOM_MEMBERSHIP.equals(envelope.getKind())) return;
+        // 다음 SUBSCRIBE 에서 DB 로 다시 확인
+        rooms.invalidate(envelope.getRoomId());
+    }
+
+    private static Members toMembers(Object[] row) {
+        if (row[3] == ChatStatus.REJECTED) return NONE;
+        return new Members((Long) row[1], (Long) row[2]);
+    }
+
+    private record Members(long requesterId, long recipientId) {
+        boolean includes(Long businessId) {
+            return requesterId == businessId || recipientId == businessId;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.togethershop.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 채팅방별 메시지 시퀀스 발급 (Redis INCR)
+ * - 키가 없으면(최초, Redis 유실) DB / 아카이브 / 아직 저장 대기 중인 write-behind 행의 MAX(seq) 로 초기화 후 증가
+ * - 롤백된 메시지의 번호는 재사용하지 않으므로 빈 번호가 생길 수 있음 (단조 증가만 보장)
+ * - 발급 순서와 커밋 순서는 다를 수 있음 → 재연결 동기화(ChatSyncService)는 lastSeq 앞 구간을 겹쳐 다시 조회
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomSequenceAllocator {
+
+    private static final String SEQ_KEY_PREFIX = "chat:room:seq:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatArchiveStore archiveStore;
+
+    /**
+     * 마지막으로 발급한 seq (키가 없으면 null - 아직 초기화 전)
+     */
+    public Long current(Long roomPk) {
+        String value = redisTemplate.opsForValue().get(SEQ_KEY_PREFIX + roomPk);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    /**
+     * @param pendingMaxSeq 초기화할 때만 호출 - 이 노드에서 아직 DB 에 반영되지 않은 방 메시지의 최대 seq (없으면 0)
+     */
+    public long next(Long roomPk, LongSupplier pendingMaxSeq) {
+        String key = SEQ_KEY_PREFIX + roomPk;
+        if (Boolean.FALSE.equals(redisTemplate.hasKey(key))) {
+            Long dbMax = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(seq), 0) FROM chat_messages WHERE room_id = ?", Long.class, roomPk);
+            // 방의 메시지가 모두 아카이브된 경우 / 큐에만 있는 경우에도 번호가 되돌아가지 않도록
+            long max = Math.max(Math.max(dbMax, archiveStore.maxSeq(roomPk)), pendingMaxSeq.getAsLong());
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(max));
+        }
+        Long seq = redisTemplate.opsForValue().increment(key);
+        if (seq == null) {
+            throw new IllegalStateException("메시지 시퀀스 발급 실패");
+        }
+        return seq;
+    }
+}
@@ -0,0 +1,207 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.Business;
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.domain.Partnership;
+import com.togethershop.backend.domain.RoomSummary;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.dto.PartnershipStatus;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.repository.ChatRoomRepository;
+import com.togethershop.backend.repository.PartnershipRepository;
+import com.togethershop.backend.repository.RoomSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅 목록용 room_summary 프로젝션 관리
+ * - 방 생성 / 메시지 저장 / 파트너십 상태 변경 시 호출자 트랜잭션 안에서 증분 갱신
+ *   (write-behind 모드의 메시지는 ChatMessageWriter flush 배치에서 방별로 묶어 한 번에 반영)
+ * - 요약이 없는 기존 방은 기동 시 backfill, 이후 누락분은 메시지 저장 시 재구성
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomSummaryService {
+
+    private static final int PREVIEW_MAX_LENGTH = 200;
+    private static final int BACKFILL_CHUNK_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final RoomSummaryRepository summaryRepo;
+    private final ChatRoomRepository roomRepo;
+    private final ChatMessageRepository messageRepo;
+    private final PartnershipRepository partnershipRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 채팅 목록 조회 (최근 활동 순)
+     */
+    @Transactional(readOnly = true)
+    public Slice<RoomSummary> findRooms(Long businessId, String query, int page, int size) {
+        String q = (query == null || query.isBlank()) ? null : "%" + query.trim().toLowerCase() + "%";
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return summaryRepo.findRoomList(businessId, q, PageRequest.of(Math.max(page, 0), limit));
+    }
+
+    /**
+     * 방 생성 - 참여자 두 명의 요약 행 생성
+     */
+    @Transactional
+    public void onRoomCreated(ChatRoom room) {
+        String status = room.getPartnership() != null
+                ? room.getPartnership().getStatus().name()
+                : PartnershipStatus.REQUESTED.name();
+        summaryRepo.saveAll(buildSummaries(room, status, null, 0, 0));
+    }
+
+    /**
+     * 메시지 저장 - 미리보기/최근 활동 갱신, 발신자 외 참여자 안 읽은 수 +1
+     */
+    @Transactional
+    public void onMessage(ChatMessage msg) {
+        ChatRoom room = msg.getRoom();
+        int updated = summaryRepo.updateLastMessage(room.getId(), preview(msg.getType(), msg.getContent()),
+                msg.getType(), msg.getSenderId(), msg.getSentAt());
+        if (updated == 0 && !summaryRepo.existsByRoomPk(room.getId())) {
+            rebuild(room);
+            return;
+        }
+        if (msg.getSenderId() != null) {
+            summaryRepo.incrementUnread(room.getId(), msg.getSenderId(), 1);
+        }
+    }
+
+    /**
+     * write-behind 배치 반영 (flush 트랜잭션 안) - 방마다 가장 최근 메시지로 UPDATE 한 번 + 발신자별 안 읽은 수 일괄 증가
+     */
+    @Transactional
+    public void onMessagesFlushed(List<ChatMessageRow> rows) {
+        Map<Long, ChatMessageRow> latest = new LinkedHashMap<>();
+        Map<Long, Map<Long, Integer>> sentCounts = new HashMap<>();
+        for (ChatMessageRow row : rows) {
+            latest.merge(row.getRoomPk(), row, (a, b) -> b.getSentAt().isBefore(a.getSentAt()) ? a : b);
+            if (row.getSenderId() != null) {
+                sentCounts.computeIfAbsent(row.getRoomPk(), k -> new HashMap<>())
+                        .merge(row.getSenderId(), 1, Integer::sum);
+            }
+        }
+
+        for (ChatMessageRow last : latest.values()) {
+            int updated = summaryRepo.updateLastMessage(last.getRoomPk(), preview(last.getType(), last.getContent()),
+                    last.getType(), last.getSenderId(), last.getSentAt());
+            if (updated == 0 && !summaryRepo.existsByRoomPk(last.getRoomPk())) {
+                // 재구성은 이번 배치 행까지 포함해 다시 세므로 증가분은 건너뜀
+                roomRepo.findById(last.getRoomPk()).ifPresent(this::rebuild);
+                sentCounts.remove(last.getRoomPk());
+            }
+        }
+        sentCounts.forEach((roomPk, counts) -> counts.forEach((senderId, count) ->
+                summaryRepo.incrementUnread(roomPk, senderId, count)));
+    }
+
+    @Transactional
+    public void onPartnershipStatusChanged(ChatRoom room, PartnershipStatus status) {
+        summaryRepo.updatePartnershipStatus(room.getId(), status.name());
+    }
+
+    /**
+     * 목록에 표시할 마지막 메시지 문구
+     */
+    public static String preview(MessageType type, String content) {
+        if (type == null) {
+            return "협업 요청 완료";
+        }
+        return switch (type) {
+            case PARTNERSHIP_REQUEST -> "제휴 제안";
+            case COUPON_PROPOSAL -> "제휴 협의";
+            // 파일명은 최대 255자라 접두어까지 붙이면 last_message_preview(200) 를 넘을 수 있음
+            case FILE -> truncate("파일: " + content);
+            default -> truncate(content);
+        };
+    }
+
+    private static String truncate(String text) {
+        return text == null || text.length() <= PREVIEW_MAX_LENGTH ? text : text.substring(0, PREVIEW_MAX_LENGTH);
+    }
+
+    /**
+     * 요약이 없는 기존 방 backfill (청크 단위 트랜잭션)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingSummaries() {
+        int total = 0;
+        while (true) {
+            List<Long> roomIds = summaryRepo.findRoomIdsWithoutSummary(PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+            if (roomIds.isEmpty()) break;
+            transactionTemplate.executeWithoutResult(status ->
+                    roomRepo.findAllById(roomIds).forEach(this::rebuild));
+            total += roomIds.size();
+        }
+        if (total > 0) {
+            log.info("room_summary backfill 완료: {}개 방", total);
+        }
+    }
+
+    // 메시지 테이블 기준으로 방 요약 재구성
+    private void rebuild(ChatRoom room) {
+        ChatMessage last = messageRepo.findTopByRoomRoomIdOrderBySentAtDesc(room.getRoomId()).orElse(null);
+        summaryRepo.saveAll(buildSummaries(room, resolvePartnershipStatus(room), last,
+                (int) messageRepo.countUnreadInRoom(room.getId(), room.getRequester().getId()),
+                (int) messageRepo.countUnreadInRoom(room.getId(), room.getRecipient().getId())));
+    }
+
+    private List<RoomSummary> buildSummaries(ChatRoom room, String status, ChatMessage last,
+                                             int requesterUnread, int recipientUnread) {
+        Instant lastActivityAt = last != null
+                ? last.getSentAt()
+                : room.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return List.of(
+                buildSummary(room, room.getRequester(), room.getRecipient(), "REQUESTER",
+                        status, last, lastActivityAt, requesterUnread),
+                buildSummary(room, room.getRecipient(), room.getRequester(), "RECIPIENT",
+                        status, last, lastActivityAt, recipientUnread));
+    }
+
+    private RoomSummary buildSummary(ChatRoom room, Business owner, Business other, String role, String status,
+                                     ChatMessage last, Instant lastActivityAt, int unread) {
+        return RoomSummary.builder()
+                .roomPk(room.getId())
+                .roomId(room.getRoomId())
+                .businessId(owner.getId())
+                .otherBusiness(other)
+                .role(role)
+                .partnershipStatus(status)
+                .lastMessagePreview(last != null ? preview(last.getType(), last.getContent()) : preview(null, null))
+                .lastMessageType(last != null ? last.getType() : null)
+                .lastSenderId(last != null ? last.getSenderId() : null)
+                .lastActivityAt(lastActivityAt)
+                .unreadCount(unread)
+                .roomCreatedAt(room.getCreatedAt())
+                .build();
+    }
+
+    // 기존 getPartnershipStatus 와 동일 기준 (requester → recipient 파트너십)
+    private String resolvePartnershipStatus(ChatRoom room) {
+        Partnership partnership = room.getPartnership() != null
+                ? room.getPartnership()
+                : partnershipRepo.findByRequesterAndPartner(room.getRequester(), room.getRecipient()).orElse(null);
+        return partnership != null ? partnership.getStatus().name() : PartnershipStatus.REQUESTED.name();
+    }
+}
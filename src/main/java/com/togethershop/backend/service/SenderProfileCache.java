@@ -0,0 +1,84 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.Business;
+import com.togethershop.backend.dto.SenderProfileDTO;
+import com.togethershop.backend.repository.ShopUserRepository;
+import com.togethershop.backend.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 채팅 발신자 프로필 캐시
+ * - 메시지마다 business 를 조회하지 않도록 username / 상호명을 캐싱
+ * - 히스토리 페이지는 getAll 로 한 번에 조회 (캐시 미스만 findAllById)
+ * - Business 변경 시 BusinessProfileListener 가 evict
+ */
+@Component
+@Slf4j
+public class SenderProfileCache {
+
+    private final ShopUserRepository userRepo;
+    private final TtlLruCache<Long, SenderProfileDTO> cache;
+
+    public SenderProfileCache(ShopUserRepository userRepo,
+                              @Value("${chat.sender-cache.max-size:10000}") int maxSize,
+                              @Value("${chat.sender-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepo = userRepo;
+        this.cache = new TtlLruCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * 단건 조회 (없는 사용자면 null)
+     */
+    public SenderProfileDTO get(Long businessId) {
+        if (businessId == null) return null;
+        SenderProfileDTO cached = cache.get(businessId);
+        if (cached != null) return cached;
+
+        return userRepo.findById(businessId)
+                .map(this::cacheProfile)
+                .orElse(null);
+    }
+
+    /**
+     * 여러 발신자 일괄 조회 - 캐시 미스만 한 번의 쿼리로 로딩
+     */
+    public Map<Long, SenderProfileDTO> getAll(Collection<Long> businessIds) {
+        Map<Long, SenderProfileDTO> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+
+        for (Long id : businessIds) {
+            if (id == null || result.containsKey(id)) continue;
+            SenderProfileDTO cached = cache.get(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Business b : userRepo.findAllById(missing)) {
+                result.put(b.getId(), cacheProfile(b));
+            }
+            log.debug("발신자 프로필 캐시 미스 로딩: requested={}, loaded={}", missing.size(), result.size());
+        }
+        return result;
+    }
+
+    public void evict(Long businessId) {
+        if (businessId != null) {
+            cache.invalidate(businessId);
+        }
+    }
+
+    private SenderProfileDTO cacheProfile(Business b) {
+        SenderProfileDTO profile = new SenderProfileDTO(b.getId(), b.getUsername(), b.getBusinessName());
+        cache.put(b.getId(), profile);
+        return profile;
+    }
+}
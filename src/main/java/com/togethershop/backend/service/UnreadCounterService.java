@@ -0,0 +1,148 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import com.togethershop.backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 방 x 사용자 안 읽은 메시지 수 (Redis)
+ * - chat:unread:{businessId}    hash  roomId → 안 읽은 수, "__total" → 전체 합계 (앱 배지)
+ * - chat:last-read:{businessId} hash  roomId → 마지막으로 읽은 메시지 seq
+ * - 전송 시 +1 (트랜잭션 커밋 후), 읽음 시 lastSeq 뒤에 남은 수로 낮추고 DB 반영은 ReadReceiptBatcher 가 비동기 일괄 처리
+ *   (DB 도 seq <= lastSeq 만 READ 로 바꾸므로 카운터와 같은 기준, 이미 더 뒤까지 읽었으면 무시)
+ * - 사용자 hash 가 없으면(최초 조회, Redis 유실) DB 기준으로 한 번에 채움 - 이미 있으면 덮어쓰지 않음 (Lua)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String UNREAD_KEY_PREFIX = "chat:unread:";
+    private static final String LAST_READ_KEY_PREFIX = "chat:last-read:";
+    private static final String TOTAL_FIELD = "__total";
+
+    // 초기화된 사용자만 증가 (없는 hash 를 부분적으로 만들면 이후 DB 초기화가 생략되므로)
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+                    "redis.call('HINCRBY', KEYS[1], '" + TOTAL_FIELD + "', 1) " +
+                    "return 1 end " +
+                    "return 0", Long.class);
+
+    // ARGV: roomId, 읽은 seq('' = 알 수 없음), 남은 안 읽은 수 - 줄이기만 함, 이전보다 앞선 seq 면 무시
+    private static final DefaultRedisScript<Long> MARK_READ_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[2] ~= '' then " +
+                    "local prev = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') " +
+                    "if tonumber(ARGV[2]) <= prev then return 0 end " +
+                    "redis.call('HSET', KEYS[2], ARGV[1], ARGV[2]) end " +
+                    "local c = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+                    "local r = tonumber(ARGV[3]) " +
+                    "if r >= c then return 0 end " +
+                    "redis.call('HSET', KEYS[1], ARGV[1], r) " +
+                    "redis.call('HINCRBY', KEYS[1], '" + TOTAL_FIELD + "', r - c) " +
+                    "return c - r", Long.class);
+
+    // 키가 없을 때만 채움 (동시에 초기화해도 먼저 채운 값 + 그 뒤 증가분을 덮어쓰지 않도록)
+    private static final DefaultRedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+                    "for i = 1, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+                    "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChatMessageRepository messageRepo;
+    private final ReadReceiptBatcher readReceiptBatcher;
+    private final RoomSequenceAllocator roomSequenceAllocator;
+
+    /**
+     * 메시지 저장 - 발신자 외 참여자 안 읽은 수 +1
+     */
+    public void onMessage(ChatMessage msg) {
+        if (msg.getSenderId() == null) return;
+        ChatRoom room = msg.getRoom();
+        String roomId = room.getRoomId();
+        List<Long> receivers = new ArrayList<>(2);
+        for (Long participantId : List.of(room.getRequester().getId(), room.getRecipient().getId())) {
+            if (!participantId.equals(msg.getSenderId())) {
+                receivers.add(participantId);
+            }
+        }
+
+        // 롤백된 메시지가 카운트되지 않도록 커밋 이후 반영
+        TransactionUtils.afterCommit(() -> receivers.forEach(id ->
+                redisTemplate.execute(INCREMENT_SCRIPT, List.of(UNREAD_KEY_PREFIX + id), roomId)));
+    }
+
+    /**
+     * 읽음 처리 - Redis 카운터를 lastSeq 뒤에 남은 수로 낮춘 뒤 DB 읽음 상태는 비동기 일괄 반영
+     *
+     * @param lastSeq 클라이언트가 마지막으로 본 메시지 seq (없으면 방 전체)
+     * @return 읽음 처리된 안 읽은 메시지 수
+     */
+    public long markRead(ChatRoom room, Long businessId, Long lastSeq) {
+        ensureSeeded(businessId);
+        Long latest = roomSequenceAllocator.current(room.getId());
+        Long readSeq = lastSeq != null ? lastSeq : latest;
+        // 마지막 메시지까지 읽었으면 DB 조회 없이 0
+        long remaining = readSeq == null || (latest != null && readSeq >= latest)
+                ? 0L
+                : messageRepo.countFromOthersAfterSeq(room.getId(), businessId, readSeq);
+        Long cleared = redisTemplate.execute(MARK_READ_SCRIPT,
+                List.of(UNREAD_KEY_PREFIX + businessId, LAST_READ_KEY_PREFIX + businessId),
+                room.getRoomId(), readSeq != null ? String.valueOf(readSeq) : "", String.valueOf(remaining));
+        readReceiptBatcher.enqueue(room.getId(), businessId, lastSeq);
+        return cleared != null ? cleared : 0L;
+    }
+
+    public long getTotalUnread(Long businessId) {
+        ensureSeeded(businessId);
+        Object total = redisTemplate.opsForHash().get(UNREAD_KEY_PREFIX + businessId, TOTAL_FIELD);
+        return total != null ? Math.max(0L, Long.parseLong(total.toString())) : 0L;
+    }
+
+    /**
+     * 여러 방의 안 읽은 수 (HMGET 1회)
+     */
+    public Map<String, Long> getUnreadCounts(Long businessId, Collection<String> roomIds) {
+        Map<String, Long> result = new HashMap<>();
+        if (roomIds.isEmpty()) return result;
+        ensureSeeded(businessId);
+
+        List<Object> fields = new ArrayList<>(roomIds);
+        List<Object> values = redisTemplate.opsForHash().multiGet(UNREAD_KEY_PREFIX + businessId, fields);
+        int i = 0;
+        for (String roomId : roomIds) {
+            Object value = values.get(i++);
+            result.put(roomId, value != null ? Long.parseLong(value.toString()) : 0L);
+        }
+        return result;
+    }
+
+    // 사용자 hash 가 없으면 DB 의 안 읽은 메시지 수로 초기화 (GROUP BY 1회)
+    private void ensureSeeded(Long businessId) {
+        String key = UNREAD_KEY_PREFIX + businessId;
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) return;
+
+        List<String> fields = new ArrayList<>();
+        long total = 0;
+        for (Object[] row : messageRepo.countUnreadByRoomFor(businessId)) {
+            long count = ((Number) row[1]).longValue();
+            fields.add((String) row[0]);
+            fields.add(String.valueOf(count));
+            total += count;
+        }
+        fields.add(TOTAL_FIELD);
+        fields.add(String.valueOf(total));
+        Long seeded = redisTemplate.execute(SEED_SCRIPT, List.of(key), fields.toArray());
+        if (Long.valueOf(1L).equals(seeded)) {
+            log.debug("안 읽은 메시지 카운터 초기화: businessId={}, total={}", businessId, total);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.togethershop.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 불변 Aho-Corasick 다중 문자열 매칭 오토마톤 (대소문자 무시)
+ * - 빌드 후에는 배열만 사용: 루트 전이는 char 직접 인덱스, 나머지 상태는 정렬된 라벨 이진 탐색
+ * - scan 은 본문을 한 번만 훑고 객체를 만들지 않음 → 사전 크기와 무관하게 O(본문 길이)
+ * - 단어마다 tag(0 ~ 31)를 붙이고, 본문에서 매치된 tag 집합(비트)을 돌려줌
+ * - mask 는 tag 가 기준 이상인 단어만 치환 (낮은 tag 단어는 그대로 둠)
+ * - 불변이므로 새로 빌드한 인스턴스로 참조만 바꾸면 잠금 없이 교체 가능
+ */
+public final class AhoCorasick {
+
+    private static final AhoCorasick EMPTY = build(Map.of());
+
+    private final int[] rootNext;
+    private final int[] edgeStart;
+    private final int[] edgeCount;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] fail;
+    private final int[] termLength;  // 이 상태에서 끝나는 단어 길이 (자기 자신만), 0 = 단어 아님
+    private final int[] termTag;     // 이 상태에서 끝나는 단어 tag + 1 (자기 자신만), 0 = 단어 아님
+    private final int[] outputLink;  // 실패 링크를 따라 만나는 가장 가까운 단어 상태, 0 = 없음
+    private final int[] matchTags;   // 이 상태에서 끝나는 단어 tag 비트 집합 (출력 링크 포함)
+    private final int termCount;
+
+    private AhoCorasick(int[] rootNext, int[] edgeStart, int[] edgeCount, char[] edgeLabel, int[] edgeTarget,
+                        int[] fail, int[] termLength, int[] termTag, int[] outputLink, int[] matchTags, int termCount) {
+        this.rootNext = rootNext;
+        this.edgeStart = edgeStart;
+        this.edgeCount = edgeCount;
+        this.edgeLabel = edgeLabel;
+        this.edgeTarget = edgeTarget;
+        this.fail = fail;
+        this.termLength = termLength;
+        this.termTag = termTag;
+        this.outputLink = outputLink;
+        this.matchTags = matchTags;
+        this.termCount = termCount;
+    }
+
+    public static AhoCorasick empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param terms 단어 → tag 0 ~ 31 (같은 단어가 여러 번이면 큰 tag)
+     */
+    public static AhoCorasick build(Map<String, Integer> terms) {
+        // 1) 트라이 (빌드 시에만 Map 사용)
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depth = new ArrayList<>();
+        List<Integer> ownTag = new ArrayList<>();
+        children.add(new TreeMap<>());
+        depth.add(0);
+        ownTag.add(0);
+
+        int count = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            String word = term.getKey();
+            if (word == null || word.isEmpty()) continue;
+            if (term.getValue() < 0 || term.getValue() >= Integer.SIZE) {
+                throw new IllegalArgumentException("tag 는 0 ~ 31 이어야 합니다: " + term.getValue());
+            }
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toLowerCase(word.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(c, next);
+                    children.add(new TreeMap<>());
+                    depth.add(depth.get(state) + 1);
+                    ownTag.add(0);
+                }
+                state = next;
+            }
+            ownTag.set(state, Math.max(ownTag.get(state), term.getValue() + 1));
+            count++;
+        }
+
+        // 2) 배열로 평탄화
+        int states = children.size();
+        int edges = states - 1;
+        int[] rootNext = new int[Character.MAX_VALUE + 1];
+        int[] edgeStart = new int[states];
+        int[] edgeCount = new int[states];
+        char[] edgeLabel = new char[edges];
+        int[] edgeTarget = new int[edges];
+        int pos = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = pos;
+            edgeCount[s] = children.get(s).size();
+            for (Map.Entry<Character, Integer> e : children.get(s).entrySet()) {
+                edgeLabel[pos] = e.getKey();
+                edgeTarget[pos] = e.getValue();
+                pos++;
+                if (s == 0) {
+                    rootNext[e.getKey()] = e.getValue();
+                }
+            }
+        }
+
+        // 3) 실패 링크 + 출력 (BFS)
+        int[] fail = new int[states];
+        int[] termLength = new int[states];
+        int[] termTag = new int[states];
+        int[] outputLink = new int[states];
+        int[] matchTags = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : children.get(0).values()) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            int f = fail[s];
+            if (ownTag.get(s) > 0) {
+                termLength[s] = depth.get(s);
+                termTag[s] = ownTag.get(s);
+            }
+            outputLink[s] = termTag[f] > 0 ? f : outputLink[f];
+            matchTags[s] = (termTag[s] > 0 ? 1 << (termTag[s] - 1) : 0) | matchTags[f];
+            for (Map.Entry<Character, Integer> e : children.get(s).entrySet()) {
+                int child = e.getValue();
+                int g = f;
+                int next;
+                while ((next = find(rootNext, edgeStart, edgeCount, edgeLabel, edgeTarget, g, e.getKey())) == 0 && g != 0) {
+                    g = fail[g];
+                }
+                fail[child] = next == child ? 0 : next;
+                queue.add(child);
+            }
+        }
+
+        return new AhoCorasick(rootNext, edgeStart, edgeCount, edgeLabel, edgeTarget,
+                fail, termLength, termTag, outputLink, matchTags, count);
+    }
+
+    public int size() {
+        return termCount;
+    }
+
+    /**
+     * 본문에서 매치된 단어 tag 비트 집합 (tag t 가 매치되면 1 << t, 매치 없으면 0)
+     */
+    public int scan(CharSequence text) {
+        int state = 0;
+        int tags = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            tags |= matchTags[state];
+        }
+        return tags;
+    }
+
+    /**
+     * tag 가 minTag 이상인 단어가 매치된 구간만 mask 문자로 치환 (치환할 구간이 없으면 같은 인스턴스 반환)
+     */
+    public String mask(String text, char mask, int minTag) {
+        int minBits = minTag <= 0 ? -1 : -1 << minTag;
+        char[] masked = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            if ((matchTags[state] & minBits) == 0) continue;
+            // 출력 링크는 긴 단어부터 - 기준 이상인 첫 단어가 이 위치에서 끝나는 가장 긴 구간
+            int length = 0;
+            for (int s = termTag[state] > 0 ? state : outputLink[state]; s != 0; s = outputLink[s]) {
+                if (termTag[s] > minTag) {
+                    length = termLength[s];
+                    break;
+                }
+            }
+            if (length > 0) {
+                if (masked == null) masked = text.toCharArray();
+                for (int j = i - length + 1; j <= i; j++) {
+                    masked[j] = mask;
+                }
+            }
+        }
+        return masked == null ? text : new String(masked);
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int target = find(rootNext, edgeStart, edgeCount, edgeLabel, edgeTarget, state, c);
+            if (target != 0 || state == 0) return target;
+            state = fail[state];
+        }
+    }
+
+    private static int find(int[] rootNext, int[] edgeStart, int[] edgeCount, char[] edgeLabel, int[] edgeTarget,
+                            int state, char c) {
+        if (state == 0) return rootNext[c];
+        int lo = edgeStart[state];
+        int hi = lo + edgeCount[state] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = edgeLabel[mid];
+            if (label < c) lo = mid + 1;
+            else if (label > c) hi = mid - 1;
+            else return edgeTarget[mid];
+        }
+        return 0;
+    }
+}
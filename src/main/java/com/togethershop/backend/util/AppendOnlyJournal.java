@@ -0,0 +1,106 @@
+package com.togethershop.backend.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 로컬 디스크 append-only 저널 (한 줄 = 한 레코드)
+ * - append 시 fsync 여부 선택 가능
+ * - group commit: write 로 기록만 하고 호출자 잠금 밖에서 sync 로 대기
+ *   → 한 번의 force 가 그 사이 기록된 레코드를 모두 반영 (동시 기록이 fsync 를 한 줄로 기다리지 않음)
+ * - 모든 레코드가 반영된 뒤 truncate 로 비움
+ */
+public class AppendOnlyJournal implements AutoCloseable {
+
+    private final Path path;
+    private final boolean fsync;
+    private final FileChannel channel;
+    // force 는 한 스레드만 - 기다리는 동안 앞선 force 가 내 레코드까지 반영했으면 건너뜀
+    private final Object syncLock = new Object();
+    private long written;
+    private volatile long synced;
+
+    public AppendOnlyJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 파일을 열 수 없습니다: " + path, e);
+        }
+    }
+
+    public void append(String line) {
+        sync(write(line));
+    }
+
+    /**
+     * 기록만 하고 fsync 는 하지 않음 - 반환한 번호로 sync 를 호출해 디스크 반영을 기다림
+     */
+    public synchronized long write(String line) {
+        ByteBuffer buf = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 기록 실패: " + path, e);
+        }
+        return ++written;
+    }
+
+    /**
+     * seq 번째 레코드까지 디스크에 반영될 때까지 대기 (fsync 를 끈 저널은 바로 반환)
+     */
+    public void sync(long seq) {
+        if (!fsync || synced >= seq) return;
+        synchronized (syncLock) {
+            if (synced >= seq) return;
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("저널 기록 실패: " + path, e);
+            }
+            synced = target;
+        }
+    }
+
+    public synchronized List<String> readAll() {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                    .filter(l -> !l.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 읽기 실패: " + path, e);
+        }
+    }
+
+    public synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 초기화 실패: " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.togethershop.backend.util;
+
+import com.togethershop.backend.domain.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * 채팅 히스토리 keyset 커서 (sentAt, id)
+ * - 문자열 형식: base64url("epochMicros:id") - 클라이언트는 불투명 값으로만 사용
+ * - sent_at 은 DATETIME(6) 이므로 마이크로초 단위로 충분
+ */
+@Getter
+@AllArgsConstructor
+public class ChatCursor {
+
+    private final Instant sentAt;
+    private final long id;
+
+    public static ChatCursor of(ChatMessage message) {
+        return new ChatCursor(message.getSentAt(), message.getId());
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, sentAt);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChatCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new ChatCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+    }
+}
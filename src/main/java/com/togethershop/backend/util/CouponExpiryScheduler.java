@@ -1,8 +1,9 @@
 package com.togethershop.backend.util;
 
 import com.togethershop.backend.domain.Coupon;
-import com.togethershop.backend.domain.CouponTemplate;
-import com.togethershop.backend.domain.Customer;
+import com.togethershop.backend.domain.CustomerNotification;
+import com.togethershop.backend.domain.NotificationStatus;
+import com.togethershop.backend.domain.NotificationType;
 import com.togethershop.backend.dto.CouponStatus;
 import com.togethershop.backend.dto.FcmSendDTO;
 import com.togethershop.backend.repository.CouponRepository;
@@ -10,66 +11,222 @@ import com.togethershop.backend.repository.CouponTemplateRepository;
 import com.togethershop.backend.repository.CustomerRepository;
 import com.togethershop.backend.service.CustomerNotificationService;
 import com.togethershop.backend.service.FcmService;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 쿠폰 만료 임박(7일 전) 알림
+ * - 대상: expire_date 가 target 날짜 [00:00, 다음날 00:00) 인 ISSUED 쿠폰 (DATETIME 컬럼을 LocalDate 와 직접 비교하지 않음)
+ * - 고객 id keyset 으로 chunk-size 명씩: 쿠폰 → 템플릿 이름 / FCM 토큰을 IN 조회로 한 번에 → 고객당 알림 1건으로 묶음
+ * - FCM 은 FcmService.sendAll(sendEach 500건) 배치를 send-parallelism 개까지 동시에 보내고 chunk 단위로 기다림
+ * - DB 트랜잭션은 chunk 알림 저장에만 (조회 / 전송 중에는 잡지 않음)
+ * - chunk 마다 coupon:expiry:progress:{target} 에 마지막 고객 id 기록 → 중단되면 resume-check-ms 주기에 이어서 실행
+ *   (기록 직전에 중단된 chunk 는 다시 보냄 - 최대 chunk-size 명 중복)
+ * - 여러 노드 중 한 곳에서만 실행되도록 Redis 락 사용
+ * - @Scheduled 는 트리거만 - 본 작업은 couponExpiryExecutor 에서 (기본 스케줄러 스레드를 잡지 않음)
+ */
 @Component
-@Transactional
-@RequiredArgsConstructor
-
+@Slf4j
 public class CouponExpiryScheduler {
+
+    private static final String LOCK_KEY = "coupon:expiry:lock";
+    private static final String PROGRESS_KEY_PREFIX = "coupon:expiry:progress:";
+    private static final int NOTICE_DAYS = 7;
+
     private final CouponRepository couponRepository;
     private final CustomerNotificationService customerNotificationService;
     private final CouponTemplateRepository couponTemplateRepository;
     private final FcmService fcmService;
     private final CustomerRepository customerRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor sendExecutor;
+
+    @Value("${coupon.expiry.chunk-size:2000}")
+    private int chunkSize;
+    @Value("${coupon.expiry.lock-ttl-minutes:30}")
+    private long lockTtlMinutes;
 
+    public CouponExpiryScheduler(CouponRepository couponRepository,
+                                 CustomerNotificationService customerNotificationService,
+                                 CouponTemplateRepository couponTemplateRepository,
+                                 FcmService fcmService,
+                                 CustomerRepository customerRepository,
+                                 RedisTemplate<String, String> redisTemplate,
+                                 @Qualifier("couponExpiryExecutor") ThreadPoolTaskExecutor jobExecutor,
+                                 @Qualifier("couponExpirySendExecutor") ThreadPoolTaskExecutor sendExecutor) {
+        this.couponRepository = couponRepository;
+        this.customerNotificationService = customerNotificationService;
+        this.couponTemplateRepository = couponTemplateRepository;
+        this.fcmService = fcmService;
+        this.customerRepository = customerRepository;
+        this.redisTemplate = redisTemplate;
+        this.jobExecutor = jobExecutor;
+        this.sendExecutor = sendExecutor;
+    }
 
     // 매일 12시 0분 0초에 실행 (cron 표현식)
-    @Scheduled(cron = "0 0 12 * * *")
+    @Scheduled(cron = "${coupon.expiry.cron:0 0 12 * * *}")
     public void checkCouponExpiry() {
-        LocalDate targetDate = LocalDate.now().plusDays(7);
+        LocalDate targetDate = LocalDate.now().plusDays(NOTICE_DAYS);
+        jobExecutor.execute(() -> run(targetDate));
+    }
+
+    // 오늘 실행이 끝나지 않은 채 중단됐으면 기록된 위치부터 이어서
+    @Scheduled(fixedDelayString = "${coupon.expiry.resume-check-ms:600000}",
+            initialDelayString = "${coupon.expiry.resume-check-ms:600000}")
+    public void resumeInterrupted() {
+        LocalDate targetDate = LocalDate.now().plusDays(NOTICE_DAYS);
+        Map<Object, Object> progress = redisTemplate.opsForHash().entries(PROGRESS_KEY_PREFIX + targetDate);
+        if (progress.isEmpty() || progress.containsKey("done")) return;
+        jobExecutor.execute(() -> run(targetDate));
+    }
+
+    public void run(LocalDate targetDate) {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, Duration.ofMinutes(lockTtlMinutes)))) {
+            log.info("다른 노드에서 쿠폰 만료 안내 진행 중 - 건너뜀");
+            return;
+        }
+        try {
+            notifyExpiring(targetDate);
+        } finally {
+            if (token.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    private void notifyExpiring(LocalDate targetDate) {
+        String progressKey = PROGRESS_KEY_PREFIX + targetDate;
+        Map<Object, Object> progress = redisTemplate.opsForHash().entries(progressKey);
+        if (progress.containsKey("done")) {
+            log.info("쿠폰 만료 안내 이미 완료 - target: {}", targetDate);
+            return;
+        }
+        long cursor = Long.parseLong((String) progress.getOrDefault("cursor", "0"));
+        long notified = Long.parseLong((String) progress.getOrDefault("notified", "0"));
+        if (cursor > 0) {
+            log.info("쿠폰 만료 안내 이어서 실행 - target: {}, customerId > {}", targetDate, cursor);
+        }
 
-        // 만료일이 targetDate인 쿠폰 조회 (예: ISSUED 상태인 것만)
-        List<Coupon> expiringCoupons = couponRepository.findByExpireDateAndStatus(targetDate, CouponStatus.ISSUED);
+        LocalDateTime from = targetDate.atStartOfDay();
+        LocalDateTime to = targetDate.plusDays(1).atStartOfDay();
+        saveProgress(progressKey, cursor, notified);
+        while (true) {
+            List<Long> customerIds = couponRepository.findCustomerIdsExpiringBetween(
+                    CouponStatus.ISSUED, from, to, cursor, PageRequest.of(0, chunkSize));
+            if (customerIds.isEmpty()) break;
 
-        for (Coupon coupon : expiringCoupons) {
-            Long customerId = coupon.getCustomerId();
+            notified += notifyChunk(customerIds, from, to);
+            cursor = customerIds.get(customerIds.size() - 1);
+            saveProgress(progressKey, cursor, notified);
+            redisTemplate.expire(LOCK_KEY, Duration.ofMinutes(lockTtlMinutes));
+        }
+        redisTemplate.opsForHash().put(progressKey, "done", "1");
+        log.info("쿠폰 만료 안내 완료 - target: {}, 알림 {}건", targetDate, notified);
+    }
 
-            // 고객 정보와 쿠폰 이름 등 필요한 정보 조회
-            Long templateId = coupon.getTemplateId(); // 필요 시 getter 추가
-            CouponTemplate couponTemplate = couponTemplateRepository.findById(templateId).orElse(null);
-            String couponName= couponTemplate.getPartnership().getRequester().getBusinessName();
+    private int notifyChunk(List<Long> customerIds, LocalDateTime from, LocalDateTime to) {
+        List<Coupon> coupons = couponRepository.findExpiringBetweenFor(customerIds, CouponStatus.ISSUED, from, to);
+        if (coupons.isEmpty()) return 0;
+        Set<Long> templateIds = new HashSet<>();
+        for (Coupon coupon : coupons) {
+            templateIds.add(coupon.getTemplateId());
+        }
+        Map<Long, String> couponNames = toMap(couponTemplateRepository.findRequesterNamesByIds(templateIds));
+        Map<Long, String> tokens = toMap(customerRepository.findFcmTokensByIds(customerIds));
 
-            // 알림 메시지 생성
-            String title = "쿠폰 만료 임박 안내";
-            String body = couponName + " 쿠폰이 7일 후 만료됩니다.";
+        // 고객당 한 건 - 첫 쿠폰 이름 + 나머지 개수
+        Map<Long, List<String>> namesByCustomer = new LinkedHashMap<>();
+        for (Coupon coupon : coupons) {
+            if (!tokens.containsKey(coupon.getCustomerId())) continue;
+            namesByCustomer.computeIfAbsent(coupon.getCustomerId(), id -> new ArrayList<>())
+                    .add(couponNames.getOrDefault(coupon.getTemplateId(), "제휴"));
+        }
+        if (namesByCustomer.isEmpty()) return 0;
 
-            // FCM 전송 DTO 생성
-            String fcmToken = getFcmTokenForCustomer(customerId);
-            if (fcmToken != null && !fcmToken.isEmpty()) {
-                FcmSendDTO dto = FcmSendDTO.builder()
-                        .token(fcmToken)
-                        .title(title)
-                        .body(body)
-                        .build();
+        String title = "쿠폰 만료 임박 안내";
+        List<Long> recipients = new ArrayList<>(namesByCustomer.keySet());
+        List<FcmSendDTO> dtos = new ArrayList<>(recipients.size());
+        for (Long customerId : recipients) {
+            dtos.add(FcmSendDTO.builder()
+                    .token(tokens.get(customerId))
+                    .title(title)
+                    .body(body(namesByCustomer.get(customerId)))
+                    .build());
+        }
 
-                boolean sent = fcmService.sendNotification(dto);
+        List<Boolean> results = sendParallel(dtos);
 
-                // 알림 DB 저장 등 후처리 가능
-                customerNotificationService.saveNotification(customerId, title, body, sent);
-            }
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<CustomerNotification> notifications = new ArrayList<>(recipients.size());
+        for (int i = 0; i < recipients.size(); i++) {
+            notifications.add(CustomerNotification.builder()
+                    .customerId(recipients.get(i))
+                    .title(title)
+                    .message(dtos.get(i).getBody())
+                    .notificationType(NotificationType.COUPON)
+                    .sentAt(sentAt)
+                    .status(results.get(i) ? NotificationStatus.DELIVERED : NotificationStatus.FAILED)
+                    .build());
+        }
+        customerNotificationService.saveAll(notifications);
+        return recipients.size();
+    }
+
+    // sendEach 배치 단위로 나눠 동시에 전송, 입력 순서대로 결과 반환
+    private List<Boolean> sendParallel(List<FcmSendDTO> dtos) {
+        List<CompletableFuture<List<Boolean>>> futures = new ArrayList<>();
+        for (int from = 0; from < dtos.size(); from += FcmService.BATCH_LIMIT) {
+            List<FcmSendDTO> batch = dtos.subList(from, Math.min(from + FcmService.BATCH_LIMIT, dtos.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> fcmService.sendAll(batch), sendExecutor));
+        }
+        List<Boolean> results = new ArrayList<>(dtos.size());
+        for (CompletableFuture<List<Boolean>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    private static String body(List<String> names) {
+        if (names.size() == 1) {
+            return names.get(0) + " 쿠폰이 " + NOTICE_DAYS + "일 후 만료됩니다.";
         }
+        return names.get(0) + " 외 " + (names.size() - 1) + "개 쿠폰이 " + NOTICE_DAYS + "일 후 만료됩니다.";
+    }
+
+    private void saveProgress(String progressKey, long cursor, long notified) {
+        redisTemplate.opsForHash().putAll(progressKey,
+                Map.of("cursor", String.valueOf(cursor), "notified", String.valueOf(notified)));
+        redisTemplate.expire(progressKey, Duration.ofDays(2));
     }
 
-    private String getFcmTokenForCustomer(Long customerId) {
-        // 고객의 FCM 토큰 조회 로직 (ex: customerRepo에서 조회)
-        Customer customer = customerRepository.findById(customerId).orElse(null);
-        return customer.getCustomerFcmToken();
+    private static Map<Long, String> toMap(List<Object[]> rows) {
+        Map<Long, String> map = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            map.put((Long) row[0], (String) row[1]);
+        }
+        return map;
     }
 }
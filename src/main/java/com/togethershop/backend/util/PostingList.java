@@ -0,0 +1,128 @@
+package com.togethershop.backend.util;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * 메시지 id 포스팅 리스트 (오름차순 delta + varint 인코딩)
+ * - 보통 id 가 증가하는 순서로 추가되므로 끝에 이어 붙임
+ * - 노드별 id 블록(HiLo) 때문에 더 작은 id 가 늦게 오면 pending 에 모았다가 재인코딩
+ * - 동기화는 호출 측(방 단위 인덱스)에서 처리
+ */
+public class PostingList {
+
+    private static final int MAX_PENDING = 64;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private long last;
+    private long[] pending = new long[0];
+
+    public void add(long id) {
+        if (count > 0 && id <= last) {
+            if (id == last) return;
+            pending = Arrays.copyOf(pending, pending.length + 1);
+            pending[pending.length - 1] = id;
+            if (pending.length >= MAX_PENDING) {
+                compact();
+            }
+            return;
+        }
+        appendDelta(id - last);
+        last = id;
+        count++;
+    }
+
+    public int size() {
+        return count + pending.length;
+    }
+
+    /**
+     * 오름차순 id 배열로 디코딩
+     */
+    public long[] toArray() {
+        if (pending.length > 0) {
+            compact();
+        }
+        return decode();
+    }
+
+    /**
+     * 인코딩된 크기 (bytes)
+     */
+    public int encodedBytes() {
+        return length + pending.length * Long.BYTES;
+    }
+
+    /**
+     * 조건에 맞는 id 를 빼고 재인코딩 (아카이브 / 방 상한 정리용), 남은 개수 반환
+     */
+    public int removeIf(LongPredicate filter) {
+        long[] ids = toArray();
+        int n = 0;
+        for (long id : ids) {
+            if (!filter.test(id)) {
+                ids[n++] = id;
+            }
+        }
+        if (n < ids.length) {
+            rebuild(ids, n);
+        }
+        return n;
+    }
+
+    private long[] decode() {
+        long[] ids = new long[count];
+        int pos = 0;
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            value += delta;
+            ids[i] = value;
+        }
+        return ids;
+    }
+
+    private void compact() {
+        long[] merged = Arrays.copyOf(decode(), count + pending.length);
+        System.arraycopy(pending, 0, merged, count, pending.length);
+        Arrays.sort(merged);
+        rebuild(merged, merged.length);
+    }
+
+    // 정렬된 ids[0, n) 로 다시 인코딩 (중복은 하나로)
+    private void rebuild(long[] ids, int n) {
+        data = new byte[Math.max(8, length + pending.length * 3)];
+        length = 0;
+        count = 0;
+        last = 0;
+        pending = new long[0];
+        for (int i = 0; i < n; i++) {
+            long id = ids[i];
+            if (count == 0 || id != last) {
+                appendDelta(id - last);
+                last = id;
+                count++;
+            }
+        }
+    }
+
+    private void appendDelta(long delta) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        while ((delta & ~0x7FL) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+    }
+}
@@ -0,0 +1,105 @@
+package com.togethershop.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 채팅 검색용 토크나이저
+ * - 한글: 음절 bigram (한 글자 덩어리는 unigram) → 형태소 분석 없이 조사가 붙은 단어도 부분 일치
+ * - 영문/숫자: 소문자 단어 단위 (접두 검색은 사전 범위 조회로 처리)
+ * - 그 외 문자는 구분자
+ */
+public class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 색인어 (중복 제거)
+     */
+    public static Set<String> indexTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String run : runs(text)) {
+            terms.addAll(runTerms(run));
+        }
+        return terms;
+    }
+
+    /**
+     * 검색어를 덩어리(run) 단위로 분리 - 덩어리 안의 색인어는 모두 일치해야 함
+     */
+    public static List<String> runs(String text) {
+        List<String> runs = new ArrayList<>();
+        if (text == null) return runs;
+        String normalized = normalize(text);
+
+        StringBuilder current = new StringBuilder();
+        boolean currentHangul = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            boolean hangul = isHangul(c);
+            boolean word = hangul || Character.isLetterOrDigit(c) || c == '*';
+            if (!word || (current.length() > 0 && hangul != currentHangul)) {
+                flush(current, runs);
+            }
+            if (word) {
+                current.append(c);
+                currentHangul = hangul;
+            }
+        }
+        flush(current, runs);
+        return runs;
+    }
+
+    /**
+     * 덩어리 하나의 색인어 - 한글은 bigram, 나머지는 단어 자체
+     */
+    public static List<String> runTerms(String run) {
+        String plain = stripWildcard(run);
+        if (plain.isEmpty()) return List.of();
+        if (!isHangul(plain.charAt(0)) || plain.length() == 1) {
+            return List.of(plain);
+        }
+        List<String> grams = new ArrayList<>(plain.length() - 1);
+        for (int i = 0; i + 1 < plain.length(); i++) {
+            grams.add(plain.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 접두 검색 여부 - 영문/숫자 덩어리 끝의 '*' 또는 한 글자 한글 (해당 글자로 시작하는 bigram 전체)
+     * - 두 글자 이상 한글은 '*' 가 있어도 bigram 전체 일치로 처리 (색인어가 bigram 이라 사전 범위 조회로는 찾을 수 없음)
+     */
+    public static boolean isPrefix(String run) {
+        String plain = stripWildcard(run);
+        if (plain.isEmpty()) return false;
+        if (isHangul(plain.charAt(0))) {
+            return plain.length() == 1;
+        }
+        return run.endsWith("*");
+    }
+
+    public static String stripWildcard(String run) {
+        return run.replace("*", "");
+    }
+
+    public static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static void flush(StringBuilder current, List<String> runs) {
+        if (current.length() > 0 && !stripWildcard(current.toString()).isEmpty()) {
+            runs.add(current.toString());
+        }
+        current.setLength(0);
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㆎ');
+    }
+}
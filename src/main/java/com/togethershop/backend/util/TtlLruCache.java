@@ -0,0 +1,55 @@
+package com.togethershop.backend.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 크기 제한(LRU) + TTL 을 갖는 단순 로컬 캐시
+ * - maxSize 를 넘으면 가장 오래 사용되지 않은 항목부터 제거
+ * - ttl 이 지난 항목은 조회 시점에 제거
+ */
+public class TtlLruCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> map;
+
+    public TtlLruCache(int maxSize, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) return null;
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            map.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
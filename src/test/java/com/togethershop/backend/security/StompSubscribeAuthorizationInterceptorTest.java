@@ -0,0 +1,93 @@
+package com.togethershop.backend.security;
+
+import com.togethershop.backend.service.RoomMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StompSubscribeAuthorizationInterceptorTest {
+
+    @Mock
+    RoomMembershipCache roomMembershipCache;
+    @Mock
+    MessageChannel channel;
+
+    private StompSubscribeAuthorizationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new StompSubscribeAuthorizationInterceptor(roomMembershipCache);
+    }
+
+    @Test
+    void allowsMembersToSubscribeToTheirRoom() {
+        when(roomMembershipCache.isMember("room-1", 3L)).thenReturn(true);
+        Message<?> message = subscribe("/topic/room/room-1");
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    void rejectsRoomsTheUserIsNotIn() {
+        when(roomMembershipCache.isMember("room-2", 3L)).thenReturn(false);
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe("/topic/room/room-2"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void rejectsPatternDestinations() {
+        for (String destination : List.of("/topic/**", "/topic/room/*", "/topic/room/room-?", "/topic/room/{id}", "/queue/**")) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe(destination), channel))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+        verify(roomMembershipCache, never()).isMember(anyString(), anyLong());
+    }
+
+    @Test
+    void rejectsOtherTopics() {
+        for (String destination : List.of("/topic/room/", "/topic/room", "/topic/rooms", "/topic/room/room-1/extra")) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe(destination), channel))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+        verify(roomMembershipCache, never()).isMember(anyString(), anyLong());
+    }
+
+    @Test
+    void leavesUserQueuesToTheUserDestinationResolver() {
+        Message<?> message = subscribe("/user/queue/chat.ack");
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    private static Message<?> subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        CustomUserDetails user = CustomUserDetails.builder().userId(3L).username("alice").authorities(List.of()).build();
+        accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
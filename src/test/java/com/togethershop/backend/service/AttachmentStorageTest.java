@@ -0,0 +1,39 @@
+package com.togethershop.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttachmentStorageTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void completesAgainAfterFileWasAlreadyMoved() throws Exception {
+        AttachmentStorage storage = new AttachmentStorage(dir.toString());
+        byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+        storage.writeChunk("ab123", 0, new ByteArrayInputStream(body), body.length);
+
+        storage.complete("ab123");
+        // 메시지 발송 실패 후 확정만 다시 시도
+        storage.complete("ab123");
+
+        assertThat(Files.readAllBytes(storage.filePath("ab123"))).isEqualTo(body);
+    }
+
+    @Test
+    void failsWhenNothingWasUploaded() {
+        AttachmentStorage storage = new AttachmentStorage(dir.toString());
+
+        assertThatThrownBy(() -> storage.complete("cd456")).isInstanceOf(UncheckedIOException.class);
+    }
+}
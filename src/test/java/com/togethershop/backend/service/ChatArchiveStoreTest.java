@@ -0,0 +1,169 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.config.JacksonConfig;
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.MessageDeliveryStatus;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.util.ChatCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ChatArchiveStoreTest {
+
+    private static final long ROOM = 7L;
+    private static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    ChatBroadcaster chatBroadcaster;
+
+    @Test
+    void readsAcrossBlocksAndSegments() throws Exception {
+        // 블록당 2건, 세그먼트마다 블록 하나
+        ChatArchiveStore store = store(1);
+        store.append(ROOM, rows(1, 5));
+
+        try (Stream<Path> segments = Files.list(dir.resolve(String.valueOf(ROOM)))) {
+            assertThat(segments).hasSize(3);
+        }
+        assertThat(ids(store.readBefore(ROOM, null, 10))).containsExactly(105L, 104L, 103L, 102L, 101L);
+        assertThat(ids(store.readBefore(ROOM, cursor(4), 2))).containsExactly(103L, 102L);
+        assertThat(ids(store.readAfter(ROOM, cursor(1), 3))).containsExactly(102L, 103L, 104L);
+        assertThat(ids(store.readAfterSeq(ROOM, 2, 10))).containsExactly(103L, 104L, 105L);
+        assertThat(store.readAfter(ROOM, cursor(5), 10)).isEmpty();
+    }
+
+    @Test
+    void exposesWatermarkAndMaxSeq() {
+        ChatArchiveStore store = store(8_388_608);
+        assertThat(store.hasArchive(ROOM)).isFalse();
+        assertThat(store.watermark(ROOM)).isNull();
+        assertThat(store.maxSeq(ROOM)).isZero();
+
+        store.append(ROOM, rows(1, 3));
+
+        ChatCursor watermark = store.watermark(ROOM);
+        assertThat(watermark.getId()).isEqualTo(103L);
+        assertThat(watermark.getSentAt()).isEqualTo(BASE.plusSeconds(3));
+        assertThat(store.maxSeq(ROOM)).isEqualTo(3L);
+        verify(chatBroadcaster).syncToCluster(ROOM, ChatBroadcastEnvelope.KIND_ARCHIVE_INDEX);
+    }
+
+    @Test
+    void rejectsRowsNotAfterWatermark() {
+        ChatArchiveStore store = store(8_388_608);
+        store.append(ROOM, rows(3, 4));
+
+        assertThatThrownBy(() -> store.append(ROOM, rows(2, 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ids(store.readBefore(ROOM, null, 10))).containsExactly(104L, 103L);
+    }
+
+    @Test
+    void dropsTornTailBlockAndRepairsOnNextAppend() throws Exception {
+        ChatArchiveStore store = store(8_388_608);
+        store.append(ROOM, rows(1, 2));
+        Path segment = dir.resolve(String.valueOf(ROOM)).resolve("00000001.seg");
+        long intactSize = Files.size(segment);
+        // 헤더 기록 도중 종료된 블록
+        Files.write(segment, new byte[]{0x43, 0x48, 0x42}, StandardOpenOption.APPEND);
+
+        ChatArchiveStore restarted = store(8_388_608);
+        assertThat(ids(restarted.readBefore(ROOM, null, 10))).containsExactly(102L, 101L);
+
+        restarted.append(ROOM, rows(3, 3));
+        assertThat(Files.size(segment)).isGreaterThan(intactSize);
+        assertThat(ids(store(8_388_608).readAfter(ROOM, cursor(0), 10))).containsExactly(101L, 102L, 103L);
+    }
+
+    @Test
+    void refreshesCachedIndexOnClusterInvalidation() {
+        ChatArchiveStore local = store(8_388_608);
+        ChatArchiveStore remote = store(8_388_608);
+        local.append(ROOM, rows(1, 2));
+        assertThat(local.watermark(ROOM).getId()).isEqualTo(102L);
+
+        remote.append(ROOM, rows(3, 3));
+        assertThat(local.watermark(ROOM).getId()).isEqualTo(102L);
+
+        local.onClusterSync(ChatBroadcastEnvelope.builder()
+                .kind(ChatBroadcastEnvelope.KIND_ARCHIVE_INDEX)
+                .roomPk(ROOM)
+                .build());
+        assertThat(local.watermark(ROOM).getId()).isEqualTo(103L);
+    }
+
+    @Test
+    void doesNotCacheRoomsWithoutArchive() {
+        ChatArchiveStore local = store(8_388_608);
+        ChatArchiveStore remote = store(8_388_608);
+        assertThat(local.hasArchive(ROOM)).isFalse();
+
+        remote.append(ROOM, rows(1, 1));
+
+        assertThat(local.hasArchive(ROOM)).isTrue();
+    }
+
+    @Test
+    void keepsAppendWhenInvalidationFails() {
+        doThrow(new IllegalStateException("redis down"))
+                .when(chatBroadcaster).syncToCluster(ROOM, ChatBroadcastEnvelope.KIND_ARCHIVE_INDEX);
+        ChatArchiveStore store = store(8_388_608);
+
+        store.append(ROOM, rows(1, 2));
+
+        assertThat(store.maxSeq(ROOM)).isEqualTo(2L);
+    }
+
+    private ChatArchiveStore store(long segmentMaxBytes) {
+        return new ChatArchiveStore(new JacksonConfig().objectMapper(), chatBroadcaster,
+                dir.toString(), segmentMaxBytes, 2, 100, 600);
+    }
+
+    // seq i, id 100+i, sentAt BASE+i초
+    private static List<ChatMessageRow> rows(int from, int to) {
+        List<ChatMessageRow> rows = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            rows.add(ChatMessageRow.builder()
+                    .id(100L + i)
+                    .roomPk(ROOM)
+                    .senderId(1L)
+                    .receiverBusinessId(2L)
+                    .type(MessageType.TEXT)
+                    .content("message " + i)
+                    .sentAt(BASE.plusSeconds(i))
+                    .seq((long) i)
+                    .deliveryStatus(MessageDeliveryStatus.SENT)
+                    .build());
+        }
+        return rows;
+    }
+
+    private static ChatCursor cursor(int i) {
+        return new ChatCursor(BASE.plusSeconds(i), 100L + i);
+    }
+
+    private static List<Long> ids(List<ChatMessageRow> rows) {
+        return rows.stream().map(ChatMessageRow::getId).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.togethershop.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ChatContentFilterTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    ChatBroadcaster chatBroadcaster;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Path dictionary;
+    private ChatContentFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dictionary = dir.resolve("chat-moderation.txt");
+        Files.write(dictionary, List.of("# 테스트 사전", "darn\tFLAG", "idiot", "casino.com\tREJECT"), StandardCharsets.UTF_8);
+
+        filter = new ChatContentFilter(chatBroadcaster, meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "dictionary", dictionary.toString());
+        ReflectionTestUtils.setField(filter, "defaultAction", ChatContentFilter.Action.MASK);
+        ReflectionTestUtils.setField(filter, "maskChar", '*');
+        filter.init();
+    }
+
+    @Test
+    void masksDefaultActionTermsAndLeavesFlaggedOnes() {
+        assertThat(filter.apply("you idiot")).isEqualTo("you *****");
+        assertThat(filter.apply("darn idiot")).isEqualTo("darn *****");
+
+        String flagged = "darn it";
+        assertThat(filter.apply(flagged)).isSameAs(flagged);
+        assertThat(hits("flag")).isEqualTo(2.0);
+        assertThat(hits("mask")).isEqualTo(2.0);
+    }
+
+    @Test
+    void rejectsOnApply() {
+        assertThatThrownBy(() -> filter.apply("visit CASINO.COM idiot"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(hits("reject")).isEqualTo(1.0);
+    }
+
+    @Test
+    void notifiesSenderAndReturnsNullWhenSendIsRejected() {
+        assertThat(filter.applyForSend("visit casino.com", "room-1", "alice", "c-1")).isNull();
+
+        verify(chatBroadcaster).sendToUser(eq("alice"), eq("/queue/chat.rejected"), argThat(payload -> {
+            Map<?, ?> rejected = (Map<?, ?>) payload;
+            return "room-1".equals(rejected.get("roomId")) && "c-1".equals(rejected.get("clientMessageId"));
+        }));
+    }
+
+    @Test
+    void passesMaskedTextThroughSendPath() {
+        assertThat(filter.applyForSend("you idiot", "room-1", "alice", "c-1")).isEqualTo("you *****");
+        verify(chatBroadcaster, never()).sendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void reloadsChangedDictionary() throws Exception {
+        assertThat(filter.apply("free bonus")).isEqualTo("free bonus");
+
+        Files.write(dictionary, List.of("idiot", "bonus\tMASK"), StandardCharsets.UTF_8);
+        filter.reloadIfChanged();
+
+        assertThat(filter.apply("free bonus")).isEqualTo("free *****");
+        assertThat(filter.apply("casino.com")).isEqualTo("casino.com");
+    }
+
+    private double hits(String action) {
+        return meterRegistry.get("chat.moderation.hits").tag("action", action).counter().count();
+    }
+}
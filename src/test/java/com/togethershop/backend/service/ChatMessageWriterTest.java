@@ -0,0 +1,298 @@
+package com.togethershop.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togethershop.backend.config.JacksonConfig;
+import com.togethershop.backend.domain.ChatMessage;
+import com.togethershop.backend.domain.ChatRoom;
+import com.togethershop.backend.dto.ChatMessageRow;
+import com.togethershop.backend.dto.MessageDeliveryStatus;
+import com.togethershop.backend.dto.MessageType;
+import com.togethershop.backend.repository.ChatMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    ChatMessageRepository messageRepo;
+    @Mock
+    ChatMessageIdAllocator idAllocator;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    RoomSummaryService roomSummaryService;
+    @Mock
+    UnreadCounterService unreadCounterService;
+    @Mock
+    RecentMessageBuffer recentMessageBuffer;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    RoomSequenceAllocator roomSequenceAllocator;
+    @Mock
+    ChatSearchIndex chatSearchIndex;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final ChatRoom room = ChatRoom.builder().id(7L).roomId("room-7").build();
+    private ChatMessageWriter writer;
+    private long nextId = 1000;
+    private long nextSeq = 0;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void keepsBatchInJournalAndRetriesAfterTransientFailure() throws Exception {
+        start(100);
+        ChatMessage first = send("hello");
+        ChatMessage second = send("world");
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"))
+                .thenReturn(2);
+
+        writer.flush();
+        verify(roomSummaryService, never()).onMessagesFlushed(anyList());
+        assertThat(Files.readAllLines(journal())).hasSize(2);
+        assertThat(writer.pendingRows(room.getId()))
+                .extracting(ChatMessageRow::getId)
+                .containsExactly(first.getId(), second.getId());
+
+        writer.flush();
+        verify(jdbcTemplate, times(2)).update(any(PreparedStatementCreator.class));
+        verify(roomSummaryService).onMessagesFlushed(argThat(rows -> rows.size() == 2));
+        assertThat(Files.readAllLines(journal())).isEmpty();
+
+        // 저장된 행은 한 주기 더 조회 대상에 남았다가 다음 flush 에서 빠짐
+        assertThat(writer.pendingRows(room.getId())).hasSize(2);
+        writer.flush();
+        assertThat(writer.pendingRows(room.getId())).isEmpty();
+    }
+
+    @Test
+    void retriesOnlyChunksThatWereNotCommitted() throws Exception {
+        start(100);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        ChatMessage first = send("hello");
+        ChatMessage second = send("world");
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenReturn(1)
+                .thenThrow(new TransientDataAccessResourceException("connection refused"))
+                .thenReturn(1);
+
+        writer.flush();
+        verify(roomSummaryService).onMessagesFlushed(
+                argThat(rows -> rows.size() == 1 && rows.get(0).getId().equals(first.getId())));
+        assertThat(Files.readAllLines(journal())).hasSize(2);
+
+        // 커밋된 첫 chunk 는 다시 INSERT 하지 않음
+        writer.flush();
+        verify(jdbcTemplate, times(3)).update(any(PreparedStatementCreator.class));
+        verify(roomSummaryService, times(2)).onMessagesFlushed(anyList());
+        verify(roomSummaryService).onMessagesFlushed(
+                argThat(rows -> rows.size() == 1 && rows.get(0).getId().equals(second.getId())));
+        assertThat(Files.readAllLines(journal())).isEmpty();
+    }
+
+    @Test
+    void movesRowsViolatingConstraintsToDeadLetter() throws Exception {
+        start(100);
+        ChatMessage saved = send("ok");
+        ChatMessage broken = send("broken");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("foreign key");
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenThrow(violation)   // multi-row INSERT
+                .thenReturn(1)          // 행 단위 재시도 - ok
+                .thenThrow(violation);  // 행 단위 재시도 - broken
+
+        writer.flush();
+
+        verify(roomSummaryService).onMessagesFlushed(
+                argThat(rows -> rows.size() == 1 && rows.get(0).getId().equals(saved.getId())));
+        List<String> deadLetters = Files.readAllLines(deadLetter());
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0)).contains("\"id\":" + broken.getId());
+
+        // 나머지 행은 저장됐으므로 파이프라인이 멈추지 않음
+        verify(jdbcTemplate, times(3)).update(any(PreparedStatementCreator.class));
+        assertThat(Files.readAllLines(journal())).isEmpty();
+    }
+
+    @Test
+    void keepsDeadLettersThatStillFailOnReplay() throws Exception {
+        Files.writeString(deadLetter(),
+                objectMapper.writeValueAsString(row(42L)) + "\n" + objectMapper.writeValueAsString(row(43L)) + "\n");
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("foreign key"));
+
+        start(100);
+
+        List<String> remaining = Files.readAllLines(deadLetter());
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0)).contains("\"id\":43");
+    }
+
+    @Test
+    void flushesPendingMessageOnWriterThread() {
+        start(100);
+        ChatMessage proposal = send("proposal");
+        AtomicReference<String> flushThread = new AtomicReference<>();
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            flushThread.set(Thread.currentThread().getName());
+            return 1;
+        });
+
+        writer.flushIfPending(proposal.getId());
+        // 이미 저장된 메시지는 다시 flush 하지 않음
+        writer.flushIfPending(proposal.getId());
+
+        assertThat(flushThread.get()).startsWith("chat-write-behind-");
+        verify(jdbcTemplate).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void assignsRoomSeqBeforeQueueing() {
+        start(100);
+        ChatMessage first = send("first");
+        ChatMessage second = send("second");
+
+        assertThat(first.getSeq()).isEqualTo(1L);
+        assertThat(second.getSeq()).isEqualTo(2L);
+    }
+
+    @Test
+    void seedsSequenceFromRowsStillQueued() {
+        start(100);
+        send("first");
+        send("second");
+        ArgumentCaptor<LongSupplier> pendingMaxSeq = ArgumentCaptor.forClass(LongSupplier.class);
+        verify(roomSequenceAllocator, times(2)).next(eq(room.getId()), pendingMaxSeq.capture());
+
+        // Redis 키가 유실돼도 아직 DB 에 없는 행보다 작은 번호로 되돌아가지 않음
+        assertThat(pendingMaxSeq.getValue().getAsLong()).isEqualTo(nextSeq);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        start(1);
+        send("first");
+
+        assertThatThrownBy(() -> writer.save(message("second")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("대기열");
+    }
+
+    @Test
+    void replaysJournalIdempotentlyOnStartup() throws Exception {
+        Files.writeString(journal(), objectMapper.writeValueAsString(row(42L)) + "\n");
+
+        start(100);
+
+        ArgumentCaptor<PreparedStatementCreator> insert = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(insert.capture());
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        insert.getValue().createPreparedStatement(con);
+        verify(con).prepareStatement(endsWith("ON DUPLICATE KEY UPDATE id = id"));
+        verify(roomSummaryService).onMessagesFlushed(argThat(rows -> rows.size() == 1));
+        assertThat(Files.readAllLines(journal())).isEmpty();
+    }
+
+    private void start(int queueCapacity) {
+        writer = new ChatMessageWriter(messageRepo, idAllocator, jdbcTemplate, objectMapper,
+                roomSummaryService, unreadCounterService, recentMessageBuffer, transactionManager,
+                roomSequenceAllocator, chatSearchIndex);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(writer, "batchSize", 200);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 50L);
+        ReflectionTestUtils.setField(writer, "journalPath", journal().toString());
+        ReflectionTestUtils.setField(writer, "journalFsync", false);
+        ReflectionTestUtils.setField(writer, "deadLetterPath", deadLetter().toString());
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writer, "flushWaitMs", 1_000L);
+        // 주기 flush 는 1분 뒤라 테스트 중에는 돌지 않음 - flush 는 직접 호출
+        writer.init();
+    }
+
+    private Path journal() {
+        return dir.resolve("journal");
+    }
+
+    private Path deadLetter() {
+        return dir.resolve("dead-letter");
+    }
+
+    private ChatMessageRow row(long id) {
+        return ChatMessageRow.builder()
+                .id(id)
+                .roomPk(room.getId())
+                .senderId(1L)
+                .receiverBusinessId(2L)
+                .type(MessageType.TEXT)
+                .content("남은 메시지")
+                .sentAt(Instant.now())
+                .deliveryStatus(MessageDeliveryStatus.SENT)
+                .build();
+    }
+
+    private ChatMessage send(String content) {
+        when(idAllocator.nextId()).thenReturn(++nextId);
+        when(roomSequenceAllocator.next(eq(room.getId()), any())).thenReturn(++nextSeq);
+        return writer.save(message(content));
+    }
+
+    private ChatMessage message(String content) {
+        return ChatMessage.builder()
+                .room(room)
+                .senderId(1L)
+                .receiverBusinessId(2L)
+                .type(MessageType.TEXT)
+                .content(content)
+                .deliveryStatus(MessageDeliveryStatus.SENT)
+                .sentAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.dto.ChatBroadcastEnvelope;
+import com.togethershop.backend.dto.ChatMessageDTO;
+import com.togethershop.backend.dto.MessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatSearchIndexTest {
+
+    private static final String ROOM = "room-1";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    ChatBroadcaster chatBroadcaster;
+    @Mock
+    ThreadPoolTaskExecutor backfillExecutor;
+
+    private ChatSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ChatSearchIndex(jdbcTemplate, chatBroadcaster, backfillExecutor);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "backfillBatchSize", 2);
+        ReflectionTestUtils.setField(index, "maxMessagesPerRoom", 200_000);
+    }
+
+    @Test
+    void matchesHangulBigramsAndWordPrefixes() {
+        index.add(ROOM, 1, "쿠폰을 드려요");
+        index.add(ROOM, 2, "쿠키 주세요");
+        index.add(ROOM, 3, "Coupon 20% off");
+        index.add(ROOM, 4, "쿠폰북 확인");
+
+        assertThat(index.search(ROOM, "쿠폰", null, 10)).containsExactly(4L, 1L);
+        assertThat(index.search(ROOM, "쿠폰*", null, 10)).containsExactly(4L, 1L);
+        assertThat(index.search(ROOM, "쿠", null, 10)).containsExactly(4L, 2L, 1L);
+        assertThat(index.search(ROOM, "coup*", null, 10)).containsExactly(3L);
+        assertThat(index.search(ROOM, "coup", null, 10)).isEmpty();
+        assertThat(index.search(ROOM, "쿠폰 off", null, 10)).isEmpty();
+        assertThat(index.search(ROOM, "쿠폰", 4L, 10)).containsExactly(1L);
+        assertThat(index.search("other-room", "쿠폰", null, 10)).isEmpty();
+    }
+
+    @Test
+    void indexesMessagesFromOtherNodes() {
+        index.onClusterSync(ChatBroadcastEnvelope.builder()
+                .kind(ChatBroadcastEnvelope.KIND_SEARCH_INDEX)
+                .roomId(ROOM)
+                .message(ChatMessageDTO.builder().id(1L).roomId(ROOM).type(MessageType.TEXT).content("쿠폰 안내").build())
+                .build());
+
+        assertThat(index.search(ROOM, "쿠폰", null, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void trimsOldestMessagesPastRoomLimit() {
+        ReflectionTestUtils.setField(index, "maxMessagesPerRoom", 10);
+        for (long id = 1; id <= 11; id++) {
+            index.add(ROOM, id, "hello " + id);
+        }
+        // 상한 + 10% 까지는 그대로
+        assertThat(index.search(ROOM, "hello", null, 100)).hasSize(11);
+
+        index.add(ROOM, 12, "hello 12");
+
+        assertThat(index.search(ROOM, "hello", null, 100))
+                .containsExactly(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L);
+        assertThat(index.search(ROOM, "1", null, 100)).isEmpty();
+    }
+
+    @Test
+    void prunesArchivedMessagesHereAndOnOtherNodes() {
+        index.add(ROOM, 1, "쿠폰 안내");
+        index.add(ROOM, 2, "쿠폰 사용");
+
+        index.onArchived(ROOM, List.of(1L));
+
+        assertThat(index.search(ROOM, "쿠폰", null, 10)).containsExactly(2L);
+        verify(chatBroadcaster).syncMessageIdsToCluster(ROOM, ChatBroadcastEnvelope.KIND_SEARCH_PRUNE, List.of(1L));
+    }
+
+    @Test
+    void appliesPruneFromOtherNodes() {
+        index.add(ROOM, 1, "쿠폰 안내");
+        index.add(ROOM, 2, "쿠폰 사용");
+
+        index.onClusterSync(ChatBroadcastEnvelope.builder()
+                .kind(ChatBroadcastEnvelope.KIND_SEARCH_PRUNE)
+                .roomId(ROOM)
+                .messageIds(List.of(1L, 2L))
+                .build());
+
+        assertThat(index.search(ROOM, "쿠폰", null, 10)).isEmpty();
+    }
+
+    @Test
+    void backfillsOnManagedExecutorInIdOrder() {
+        index.backfill();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(backfillExecutor).execute(task.capture());
+        assertThat(index.isReady()).isFalse();
+
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), eq(2)))
+                .thenReturn(List.of(new Object[]{1L, ROOM, "쿠폰 안내"}, new Object[]{2L, ROOM, "쿠폰 사용"}));
+        doReturn(List.of(new Object[]{3L, ROOM, "쿠폰 만료"}))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(2L), eq(2));
+        task.getValue().run();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(ROOM, "쿠폰", null, 10)).containsExactly(3L, 2L, 1L);
+    }
+}
@@ -0,0 +1,61 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.ChatMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientMessageDeduplicatorTest {
+
+    private static final String KEY = "chat:client-msg:room-1:3:c-1";
+
+    @Mock
+    RedisTemplate<String, String> redisTemplate;
+    @Mock
+    ValueOperations<String, String> valueOps;
+
+    private ClientMessageDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        deduplicator = new ClientMessageDeduplicator(redisTemplate);
+        ReflectionTestUtils.setField(deduplicator, "ttlHours", 24L);
+        ReflectionTestUtils.setField(deduplicator, "pendingTtlSeconds", 30L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+    }
+
+    @Test
+    void marksFirstSendPendingWithShortTtl() {
+        when(valueOps.setIfAbsent(KEY, "PENDING", Duration.ofSeconds(30))).thenReturn(true);
+
+        assertThat(deduplicator.claim("room-1", 3L, "c-1")).isTrue();
+    }
+
+    @Test
+    void rejectsResendWhileKeyExists() {
+        when(valueOps.setIfAbsent(KEY, "PENDING", Duration.ofSeconds(30))).thenReturn(false);
+
+        assertThat(deduplicator.claim("room-1", 3L, "c-1")).isFalse();
+    }
+
+    @Test
+    void recordsResultWithFullTtl() {
+        ChatMessage msg = ChatMessage.builder().id(77L).seq(5L).clientMessageId("c-1").build();
+
+        deduplicator.complete("room-1", 3L, msg);
+
+        verify(valueOps).set(KEY, "77:5", Duration.ofHours(24));
+    }
+}
@@ -0,0 +1,217 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.domain.Business;
+import com.togethershop.backend.domain.CouponTemplate;
+import com.togethershop.backend.domain.Partnership;
+import com.togethershop.backend.repository.CouponRepository;
+import com.togethershop.backend.repository.CouponTemplateRepository;
+import com.togethershop.backend.repository.PaymentHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponBulkIssueServiceTest {
+
+    private static final Long BUSINESS_ID = 1L;
+    private static final Long TEMPLATE_ID = 9L;
+    private static final String LOCK_KEY = "coupon:bulk:lock:9";
+
+    @Mock
+    CouponTemplateRepository couponTemplateRepository;
+    @Mock
+    CouponRepository couponRepository;
+    @Mock
+    PaymentHistoryRepository paymentHistoryRepository;
+    @Mock
+    CouponInventory couponInventory;
+    @Mock
+    CouponClaimGuard couponClaimGuard;
+    @Mock
+    CouponCodeAllocator couponCodeAllocator;
+    @Mock
+    FcmService fcmService;
+    @Mock
+    CustomerNotificationService customerNotificationService;
+    @Mock
+    RedisTemplate<String, String> redisTemplate;
+    @Mock
+    ValueOperations<String, String> valueOps;
+    @Mock
+    HashOperations<String, Object, Object> hashOps;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor jobExecutor;
+    private ThreadPoolTaskExecutor pushExecutor;
+    private CouponBulkIssueService service;
+
+    @BeforeEach
+    void setUp() {
+        jobExecutor = executor(1);
+        pushExecutor = executor(10);
+        service = new CouponBulkIssueService(couponTemplateRepository, couponRepository, paymentHistoryRepository,
+                couponInventory, couponClaimGuard, couponCodeAllocator, fcmService, customerNotificationService,
+                redisTemplate, jdbcTemplate, transactionManager, jobExecutor, pushExecutor);
+        ReflectionTestUtils.setField(service, "chunkSize", 1000);
+        ReflectionTestUtils.setField(service, "sseTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "lockTtlMinutes", 30L);
+        ReflectionTestUtils.setField(service, "jobTtlHours", 24L);
+
+        Business requester = Business.builder().id(BUSINESS_ID).businessName("카페").build();
+        Business partner = Business.builder().id(2L).businessName("빵집").build();
+        CouponTemplate template = CouponTemplate.builder()
+                .id(TEMPLATE_ID)
+                .partnership(Partnership.builder().requester(requester).partner(partner).build())
+                .endDate(LocalDate.now().plusDays(30))
+                .build();
+        when(couponTemplateRepository.findById(TEMPLATE_ID)).thenReturn(Optional.of(template));
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(LOCK_KEY), anyString(), eq(Duration.ofMinutes(30)))).thenReturn(true);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(paymentHistoryRepository.countCustomersPaidSince(eq(BUSINESS_ID), any(LocalDateTime.class))).thenReturn(3L);
+        when(paymentHistoryRepository.findCustomerIdsPaidSince(eq(BUSINESS_ID), any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(10L, 11L, 12L));
+        when(couponClaimGuard.getPerCustomerLimit()).thenReturn(2);
+        // 10: 2건 한도 중 1건 (claim_no 는 3 까지 사용), 11: 한도 도달, 12: 첫 발급
+        when(couponRepository.findClaimCounts(TEMPLATE_ID, List.of(10L, 11L, 12L)))
+                .thenReturn(List.of(new Object[]{10L, 1L, 3}, new Object[]{11L, 2L, 2}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.shutdown();
+        pushExecutor.shutdown();
+    }
+
+    private static ThreadPoolTaskExecutor executor(int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    @Test
+    void issuesNextClaimNoAndSkipsRowsLostToConcurrentClaims() throws Exception {
+        doReturn(List.of()).when(paymentHistoryRepository)
+                .findCustomerIdsPaidSince(eq(BUSINESS_ID), any(LocalDateTime.class), eq(12L), any(Pageable.class));
+        when(couponInventory.reserveUpTo(TEMPLATE_ID, 2)).thenReturn(2);
+        when(couponCodeAllocator.nextCodes(2)).thenReturn(List.of("C1", "C2"));
+        when(couponCodeAllocator.newJti()).thenReturn("j1", "j2");
+        // 12 는 같은 순간 개별 발급과 겹쳐 ON DUPLICATE KEY 로 건너뜀
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("j1"), eq("j2"))).thenReturn(List.of(10L));
+        when(customerNotificationService.saveAll(argThat(list -> list.size() == 1 && list.get(0).getCustomerId().equals(10L))))
+                .thenReturn(List.of(500L));
+        ResultSet tokenRow = mock(ResultSet.class);
+        when(tokenRow.getLong(1)).thenReturn(10L);
+        when(tokenRow.getString(2)).thenReturn("token-10");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(tokenRow);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(10L));
+        when(fcmService.sendAll(argThat(dtos -> dtos.size() == 1 && "token-10".equals(dtos.get(0).getToken()))))
+                .thenReturn(List.of(true));
+
+        service.start(BUSINESS_ID, TEMPLATE_ID, 30);
+        awaitUnlock();
+
+        verify(jdbcTemplate).update(
+                argThat((String sql) -> sql.startsWith("INSERT INTO coupons") && sql.endsWith("ON DUPLICATE KEY UPDATE coupon_id = coupon_id")),
+                eq(TEMPLATE_ID), eq(10L), eq(4), eq("C1"), eq("j1"), any(), any(), eq("ISSUED"),
+                eq(TEMPLATE_ID), eq(12L), eq(1), eq("C2"), eq("j2"), any(), any(), eq("ISSUED"));
+        verify(couponInventory).release(TEMPLATE_ID, 1);
+        verify(couponClaimGuard).forget(TEMPLATE_ID, List.of(10L));
+        assertThat(lastProgress())
+                .containsEntry("status", "DONE")
+                .containsEntry("processed", "3")
+                .containsEntry("issued", "1")
+                .containsEntry("skipped", "2");
+
+        // 푸시 결과는 이번에 저장한 알림 id 로 반영
+        verify(jdbcTemplate, timeout(5_000)).update(
+                argThat((String sql) -> sql.startsWith("UPDATE customer_notifications")), eq("DELIVERED"), eq(500L));
+    }
+
+    @Test
+    void stopsWhenStockRunsOut() {
+        when(couponInventory.reserveUpTo(TEMPLATE_ID, 2)).thenReturn(0);
+
+        service.start(BUSINESS_ID, TEMPLATE_ID, 30);
+        awaitUnlock();
+
+        verify(couponCodeAllocator, never()).nextCodes(anyInt());
+        assertThat(lastProgress())
+                .containsEntry("status", "SOLD_OUT")
+                .containsEntry("issued", "0");
+    }
+
+    @Test
+    void returnsReservedStockWhenChunkFails() {
+        when(couponInventory.reserveUpTo(TEMPLATE_ID, 2)).thenReturn(2);
+        when(couponCodeAllocator.nextCodes(2)).thenReturn(List.of("C1", "C2"));
+        when(couponCodeAllocator.newJti()).thenReturn("j1", "j2");
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataIntegrityViolationException("foreign key"));
+
+        service.start(BUSINESS_ID, TEMPLATE_ID, 30);
+        awaitUnlock();
+
+        verify(couponInventory).release(TEMPLATE_ID, 2);
+        verify(customerNotificationService, never()).saveAll(any());
+        assertThat(lastProgress()).containsEntry("status", "FAILED");
+    }
+
+    private void awaitUnlock() {
+        RedisScript<Long> script = any();
+        verify(redisTemplate, timeout(5_000)).execute(script, eq(List.of(LOCK_KEY)), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> lastProgress() {
+        ArgumentCaptor<Map<String, String>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(hashOps, atLeastOnce()).putAll(anyString(), fields.capture());
+        return fields.getValue();
+    }
+}
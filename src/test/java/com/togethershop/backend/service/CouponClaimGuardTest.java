@@ -0,0 +1,163 @@
+package com.togethershop.backend.service;
+
+import com.togethershop.backend.exception.CouponClaimConflictException;
+import com.togethershop.backend.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponClaimGuardTest {
+
+    private static final Long CUSTOMER_ID = 3L;
+    private static final Long TEMPLATE_ID = 9L;
+    private static final String CLAIMED_KEY = "coupon:claimed:9";
+    private static final String CLAIMED_TTL_MS = String.valueOf(Duration.ofDays(30).toMillis());
+
+    @Mock
+    RedisTemplate<String, String> redisTemplate;
+    @Mock
+    ValueOperations<String, String> valueOps;
+    @Mock
+    HashOperations<String, Object, Object> hashOps;
+    @Mock
+    CouponRepository couponRepository;
+
+    private CouponClaimGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new CouponClaimGuard(redisTemplate, couponRepository, 2, 24, 30, 30);
+    }
+
+    @Test
+    void seedsClaimCountFromDbWhenFieldIsMissing() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(claim()).thenReturn(-2L, 2L);
+        when(couponRepository.countByCustomerIdAndTemplateId(CUSTOMER_ID, TEMPLATE_ID)).thenReturn(1L);
+
+        assertThat(guard.claimSlot(CUSTOMER_ID, TEMPLATE_ID)).isEqualTo(2);
+        verify(hashOps).putIfAbsent(CLAIMED_KEY, "3", "1");
+    }
+
+    @Test
+    void rejectsOverLimitWithoutDbLookup() {
+        when(claim()).thenReturn(-1L);
+
+        assertThatThrownBy(() -> guard.claimSlot(CUSTOMER_ID, TEMPLATE_ID))
+                .isInstanceOf(CouponClaimConflictException.class);
+        verifyNoInteractions(couponRepository);
+    }
+
+    @Test
+    void rejectsWhenDbCountIsAlreadyAtLimit() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(claim()).thenReturn(-2L, -1L);
+        when(couponRepository.countByCustomerIdAndTemplateId(CUSTOMER_ID, TEMPLATE_ID)).thenReturn(2L);
+
+        assertThatThrownBy(() -> guard.claimSlot(CUSTOMER_ID, TEMPLATE_ID))
+                .isInstanceOf(CouponClaimConflictException.class);
+        verify(hashOps).putIfAbsent(CLAIMED_KEY, "3", "2");
+    }
+
+    @Test
+    void clearsClaimCountWhenTransactionRollsBack() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(claim()).thenReturn(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(guard.claimSlot(CUSTOMER_ID, TEMPLATE_ID)).isEqualTo(1);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(hashOps).delete(CLAIMED_KEY, "3");
+    }
+
+    @Test
+    void marksFirstRequestPendingWithShortTtl() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("coupon:idem:3:9:k1", "PENDING", Duration.ofSeconds(30))).thenReturn(true);
+
+        assertThat(guard.beginIdempotent(CUSTOMER_ID, TEMPLATE_ID, "k1")).isNull();
+    }
+
+    @Test
+    void rejectsSameKeyWhileFirstRequestIsPending() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("coupon:idem:3:9:k1", "PENDING", Duration.ofSeconds(30))).thenReturn(false);
+        when(valueOps.get("coupon:idem:3:9:k1")).thenReturn("PENDING");
+
+        assertThatThrownBy(() -> guard.beginIdempotent(CUSTOMER_ID, TEMPLATE_ID, "k1"))
+                .isInstanceOf(CouponClaimConflictException.class);
+    }
+
+    @Test
+    void replaysCompletedRequestForSameTemplateOnly() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("coupon:idem:3:9:k1", "PENDING", Duration.ofSeconds(30))).thenReturn(false);
+        when(valueOps.get("coupon:idem:3:9:k1")).thenReturn("77");
+        doReturn(true).when(valueOps).setIfAbsent("coupon:idem:3:10:k1", "PENDING", Duration.ofSeconds(30));
+
+        assertThat(guard.beginIdempotent(CUSTOMER_ID, TEMPLATE_ID, "k1")).isEqualTo(77L);
+        // 같은 키라도 다른 템플릿이면 새 요청
+        assertThat(guard.beginIdempotent(CUSTOMER_ID, 10L, "k1")).isNull();
+    }
+
+    @Test
+    void recordsResultWithFullTtl() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        guard.completeIdempotent(CUSTOMER_ID, TEMPLATE_ID, "k1", 77L);
+
+        verify(valueOps).set("coupon:idem:3:9:k1", "77", Duration.ofHours(24));
+    }
+
+    @Test
+    void skipsIdempotencyWithoutKey() {
+        assertThat(guard.beginIdempotent(CUSTOMER_ID, TEMPLATE_ID, " ")).isNull();
+        guard.completeIdempotent(CUSTOMER_ID, TEMPLATE_ID, null, 77L);
+
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void forgetsClaimCountsOfBulkIssuedCustomers() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+
+        guard.forget(TEMPLATE_ID, List.of(3L, 4L));
+
+        verify(hashOps).delete(CLAIMED_KEY, "3", "4");
+        verify(couponRepository, never()).countByCustomerIdAndTemplateId(anyLong(), anyLong());
+    }
+
+    private Long claim() {
+        RedisScript<Long> script = any();
+        return redisTemplate.execute(script, eq(List.of(CLAIMED_KEY)), eq("3"), eq("2"), eq(CLAIMED_TTL_MS));
+    }
+}
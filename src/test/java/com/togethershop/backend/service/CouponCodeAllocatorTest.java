@@ -0,0 +1,209 @@
+package com.togethershop.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCodeAllocatorTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final String LAST_INSERT_ID = "SELECT LAST_INSERT_ID()";
+    private static final String INSERT_SEQUENCE = "INSERT IGNORE INTO coupon_code_sequences (name, next_value) VALUES (?, 0)";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<String> blockThreads = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor blockExecutor;
+
+    @BeforeEach
+    void setUp() {
+        blockExecutor = new ThreadPoolTaskExecutor();
+        blockExecutor.setThreadNamePrefix("coupon-code-block-");
+        blockExecutor.setCorePoolSize(1);
+        blockExecutor.setMaxPoolSize(1);
+        blockExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockExecutor.shutdown();
+    }
+
+    @Test
+    void issuesUniqueWellFormedCodes() {
+        stubSequenceTable(4);
+        CouponCodeAllocator allocator = allocator("secret", 4);
+
+        List<String> codes = new ArrayList<>(allocator.nextCodes(10));
+        codes.add(allocator.nextCode());
+
+        assertThat(new HashSet<>(codes)).hasSize(11);
+        assertThat(codes).allSatisfy(code -> {
+            assertThat(code).matches("CP[0-9A-HJKMNP-TV-Z]{13}");
+            assertThat(luhnValid(code)).isTrue();
+        });
+    }
+
+    @Test
+    void checkCharacterCatchesSingleCharacterTypos() {
+        stubSequenceTable(4);
+        String code = allocator("secret", 4).nextCode();
+
+        for (int i = 2; i < code.length(); i++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c == code.charAt(i)) continue;
+                String typo = code.substring(0, i) + c + code.substring(i + 1);
+                assertThat(luhnValid(typo)).as(typo).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void permutationDependsOnSecret() {
+        // 블록 8개 중 3개만 쓰므로 다음 블록을 미리 예약하지 않음 (순번이 같은 구간에서 시작)
+        stubSequenceTable(8);
+        List<String> first = allocator("secret", 8).nextCodes(3);
+        sequence.set(0);
+        List<String> same = allocator("secret", 8).nextCodes(3);
+        sequence.set(0);
+        List<String> other = allocator("another-secret", 8).nextCodes(3);
+
+        assertThat(same).isEqualTo(first);
+        assertThat(other).doesNotContainAnyElementsOf(first);
+    }
+
+    @Test
+    void reservesBlocksOnBlockExecutorAndPrefetchesAtHalf() {
+        stubSequenceTable(4);
+        CouponCodeAllocator allocator = allocator("secret", 4);
+        allocator.prefetch();
+        verify(jdbcTemplate, timeout(1_000)).queryForObject(LAST_INSERT_ID, Long.class);
+
+        // 4개 중 2개를 쓰면 다음 블록을 미리 예약
+        allocator.nextCodes(2);
+        verify(jdbcTemplate, timeout(1_000).times(2)).queryForObject(LAST_INSERT_ID, Long.class);
+
+        assertThat(allocator.nextCodes(6)).hasSize(6);
+        assertThat(blockThreads).isNotEmpty().allMatch(name -> name.startsWith("coupon-code-block-"));
+    }
+
+    @Test
+    void createsSequenceRowOnFirstUse() {
+        when(jdbcTemplate.update(anyString(), eq(4), eq("coupon_code"))).thenReturn(0, 1);
+        doReturn(1).when(jdbcTemplate).update(INSERT_SEQUENCE, "coupon_code");
+        when(jdbcTemplate.queryForObject(LAST_INSERT_ID, Long.class)).thenReturn(4L);
+
+        assertThat(allocator("secret", 4).nextCode()).startsWith("CP");
+        verify(jdbcTemplate).update(INSERT_SEQUENCE, "coupon_code");
+        verify(jdbcTemplate, times(2)).update(anyString(), eq(4), eq("coupon_code"));
+    }
+
+    @Test
+    void retriesBlockAfterFailedReservation() {
+        when(jdbcTemplate.update(anyString(), eq(4), eq("coupon_code"))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(LAST_INSERT_ID, Long.class)).thenReturn(null, 4L);
+        CouponCodeAllocator allocator = allocator("secret", 4);
+
+        assertThatThrownBy(allocator::nextCode).isInstanceOf(IllegalStateException.class);
+        assertThat(allocator.nextCode()).startsWith("CP");
+    }
+
+    @Test
+    void staysUniqueUnderConcurrentCallers() throws Exception {
+        stubSequenceTable(50);
+        CouponCodeAllocator allocator = allocator("secret", 50);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> {
+                    List<String> codes = new ArrayList<>();
+                    for (int j = 0; j < 50; j++) {
+                        codes.addAll(allocator.nextCodes(1 + j % 7));
+                    }
+                    return codes;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            int total = 0;
+            for (Future<List<String>> result : results) {
+                List<String> codes = result.get();
+                total += codes.size();
+                all.addAll(codes);
+            }
+            assertThat(all).hasSize(total);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void issuesDistinctJtis() {
+        CouponCodeAllocator allocator = allocator("secret", 4);
+        Set<String> jtis = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            jtis.add(allocator.newJti());
+        }
+
+        assertThat(jtis).hasSize(1_000);
+        assertThat(jtis).allSatisfy(jti -> assertThat(jti).hasSize(22));
+    }
+
+    private CouponCodeAllocator allocator(String secret, int blockSize) {
+        return new CouponCodeAllocator(jdbcTemplate, transactionManager, blockExecutor, secret, blockSize);
+    }
+
+    // coupon_code_sequences 의 LAST_INSERT_ID(next_value + blockSize) 흉내
+    private void stubSequenceTable(int blockSize) {
+        when(jdbcTemplate.update(anyString(), anyInt(), eq("coupon_code"))).thenAnswer(invocation -> {
+            blockThreads.add(Thread.currentThread().getName());
+            return 1;
+        });
+        when(jdbcTemplate.queryForObject(LAST_INSERT_ID, Long.class)).thenAnswer(invocation -> sequence.addAndGet(blockSize));
+    }
+
+    // Luhn mod 32 - 검증 문자를 포함해 오른쪽부터 1, 2 를 번갈아 곱한 합이 32 의 배수
+    private static boolean luhnValid(String code) {
+        int n = ALPHABET.length();
+        int sum = 0;
+        int factor = 1;
+        for (int i = code.length() - 1; i >= 2; i--) {
+            int addend = factor * ALPHABET.indexOf(code.charAt(i));
+            sum += addend / n + addend % n;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return sum % n == 0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.togethershop.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponInventoryTest {
+
+    private static final Long TEMPLATE_ID = 5L;
+    private static final String STOCK_KEY = "coupon:stock:5";
+    private static final String DIRTY_KEY = "coupon:stock:dirty";
+    private static final List<String> KEYS = List.of(STOCK_KEY, DIRTY_KEY);
+    private static final String UPDATE_SQL = "UPDATE coupon_templates SET current_quantity = ? WHERE template_id = ?";
+
+    @Mock
+    RedisTemplate<String, String> redisTemplate;
+    @Mock
+    ValueOperations<String, String> valueOps;
+    @Mock
+    SetOperations<String, String> setOps;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    private CouponInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new CouponInventory(redisTemplate, jdbcTemplate, 60_000);
+        ReflectionTestUtils.setField(inventory, "reconcileBatch", 500);
+    }
+
+    @Test
+    void loadsCounterFromDbOnFirstReserve() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.execute(anyScript(), eq(KEYS), eq("5"))).thenReturn(-2L, 9L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEMPLATE_ID))).thenReturn(10);
+
+        assertThat(inventory.tryReserve(TEMPLATE_ID)).isTrue();
+
+        // 다른 노드가 먼저 적재했으면 그 값을 유지
+        verify(valueOps).setIfAbsent(STOCK_KEY, "10");
+    }
+
+    @Test
+    void rejectsUnknownTemplate() {
+        when(redisTemplate.execute(anyScript(), eq(KEYS), eq("5"))).thenReturn(-2L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEMPLATE_ID)))
+                .thenThrow(new EmptyResultDataAccessException(1));
+
+        assertThatThrownBy(() -> inventory.tryReserve(TEMPLATE_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cachesSoldOutUntilStockIsReleased() {
+        when(redisTemplate.execute(anyScript(), eq(KEYS), eq("5"))).thenReturn(-1L, 0L);
+        doReturn(1L).when(redisTemplate).execute(anyScript(), eq(KEYS), eq("5"), eq("1"));
+
+        assertThat(inventory.tryReserve(TEMPLATE_ID)).isFalse();
+        assertThat(inventory.tryReserve(TEMPLATE_ID)).isFalse();
+        verify(redisTemplate, times(1)).execute(anyScript(), eq(KEYS), eq("5"));
+
+        inventory.release(TEMPLATE_ID);
+
+        assertThat(inventory.tryReserve(TEMPLATE_ID)).isTrue();
+        verify(redisTemplate, times(2)).execute(anyScript(), eq(KEYS), eq("5"));
+    }
+
+    @Test
+    void releasesReservationWhenTransactionRollsBack() {
+        when(redisTemplate.execute(anyScript(), eq(KEYS), eq("5"))).thenReturn(3L);
+        doReturn(3L).when(redisTemplate).execute(anyScript(), eq(KEYS), eq("5"), eq("1"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(inventory.tryReserve(TEMPLATE_ID)).isTrue();
+            verify(redisTemplate, never()).execute(anyScript(), eq(KEYS), eq("5"), eq("1"));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).execute(anyScript(), eq(KEYS), eq("5"), eq("1"));
+    }
+
+    @Test
+    void reservesUpToRemainingStock() {
+        when(redisTemplate.execute(anyScript(), eq(KEYS), eq("5"), eq("10"))).thenReturn(3L, 0L);
+
+        assertThat(inventory.reserveUpTo(TEMPLATE_ID, 10)).isEqualTo(3);
+        assertThat(inventory.reserveUpTo(TEMPLATE_ID, 10)).isZero();
+        // 품절 캐시 - Redis 를 다시 호출하지 않음
+        assertThat(inventory.reserveUpTo(TEMPLATE_ID, 10)).isZero();
+        verify(redisTemplate, times(2)).execute(anyScript(), eq(KEYS), eq("5"), eq("10"));
+        assertThat(inventory.reserveUpTo(TEMPLATE_ID, 0)).isZero();
+    }
+
+    @Test
+    void reconcilesDirtyCountersAsAbsoluteValues() {
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(setOps.pop(DIRTY_KEY, 500)).thenReturn(List.of("5", "6"));
+        when(valueOps.multiGet(List.of(STOCK_KEY, "coupon:stock:6"))).thenReturn(Arrays.asList("7", null));
+
+        inventory.reconcile();
+
+        verify(jdbcTemplate).batchUpdate(eq(UPDATE_SQL), argThat((List<Object[]> args) ->
+                args.size() == 1 && args.get(0)[0].equals(7) && args.get(0)[1].equals(5L)));
+    }
+
+    @Test
+    void requeuesDirtyTemplatesWhenDbUpdateFails() {
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(setOps.pop(DIRTY_KEY, 500)).thenReturn(List.of("5"));
+        when(valueOps.multiGet(List.of(STOCK_KEY))).thenReturn(List.of("7"));
+        when(jdbcTemplate.batchUpdate(eq(UPDATE_SQL), any(List.class)))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"));
+
+        inventory.reconcile();
+
+        verify(setOps).add(DIRTY_KEY, "5");
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+}
@@ -0,0 +1,90 @@
+package com.togethershop.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSequenceAllocatorTest {
+
+    private static final String KEY = "chat:room:seq:7";
+
+    @Mock
+    RedisTemplate<String, String> redisTemplate;
+    @Mock
+    ValueOperations<String, String> valueOps;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    ChatArchiveStore archiveStore;
+
+    @InjectMocks
+    RoomSequenceAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+    }
+
+    @Test
+    void seedsFromLargestOfDbArchiveAndPendingRows() {
+        when(redisTemplate.hasKey(KEY)).thenReturn(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(7L))).thenReturn(10L);
+        when(archiveStore.maxSeq(7L)).thenReturn(25L);
+        when(valueOps.increment(KEY)).thenReturn(41L);
+
+        long seq = allocator.next(7L, () -> 40L);
+
+        assertThat(seq).isEqualTo(41L);
+        verify(valueOps).setIfAbsent(KEY, "40");
+    }
+
+    @Test
+    void seedsFromArchiveWhenRoomHasNoRowsLeft() {
+        when(redisTemplate.hasKey(KEY)).thenReturn(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(7L))).thenReturn(0L);
+        when(archiveStore.maxSeq(7L)).thenReturn(300L);
+        when(valueOps.increment(KEY)).thenReturn(301L);
+
+        assertThat(allocator.next(7L, () -> 0L)).isEqualTo(301L);
+        verify(valueOps).setIfAbsent(KEY, "300");
+    }
+
+    @Test
+    void skipsSeedingWhenKeyExists() {
+        LongSupplier pending = mock(LongSupplier.class);
+        when(redisTemplate.hasKey(KEY)).thenReturn(true);
+        when(valueOps.increment(KEY)).thenReturn(8L);
+
+        assertThat(allocator.next(7L, pending)).isEqualTo(8L);
+        verify(valueOps, never()).setIfAbsent(anyString(), anyString());
+        verifyNoInteractions(jdbcTemplate, archiveStore, pending);
+    }
+
+    @Test
+    void failsWhenIncrementReturnsNothing() {
+        when(redisTemplate.hasKey(KEY)).thenReturn(true);
+        when(valueOps.increment(KEY)).thenReturn(null);
+
+        assertThatThrownBy(() -> allocator.next(7L, () -> 0L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.togethershop.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AhoCorasickTest {
+
+    @Test
+    void scanReturnsTagBitsOfMatchedTerms() {
+        AhoCorasick automaton = AhoCorasick.build(Map.of("spam", 0, "바보", 1, "casino.com", 2));
+
+        assertThat(automaton.size()).isEqualTo(3);
+        assertThat(automaton.scan("hello there")).isZero();
+        assertThat(automaton.scan("Visit CASINO.com now")).isEqualTo(1 << 2);
+        assertThat(automaton.scan("spam 바보")).isEqualTo((1 << 0) | (1 << 1));
+    }
+
+    @Test
+    void masksOverlappingTermsCaseInsensitively() {
+        AhoCorasick automaton = AhoCorasick.build(Map.of("he", 0, "she", 0, "hers", 0));
+
+        assertThat(automaton.mask("ushers", '*', 0)).isEqualTo("u*****");
+        assertThat(automaton.mask("SHE said", '#', 0)).isEqualTo("### said");
+    }
+
+    @Test
+    void masksOnlyTermsAtOrAboveMinTag() {
+        AhoCorasick automaton = AhoCorasick.build(Map.of("darn", 0, "idiot", 1));
+
+        assertThat(automaton.mask("darn idiot", '*', 1)).isEqualTo("darn *****");
+        assertThat(automaton.mask("darn idiot", '*', 0)).isEqualTo("**** *****");
+    }
+
+    @Test
+    void masksShorterTermWhenLongerOneIsBelowMinTag() {
+        // "abcd" 끝에서 출력 링크로 "cd" 에 도달
+        AhoCorasick automaton = AhoCorasick.build(Map.of("abcd", 0, "cd", 1));
+
+        assertThat(automaton.scan("abcd")).isEqualTo((1 << 0) | (1 << 1));
+        assertThat(automaton.mask("abcd", '*', 1)).isEqualTo("ab**");
+    }
+
+    @Test
+    void returnsSameInstanceWhenNothingToMask() {
+        AhoCorasick automaton = AhoCorasick.build(Map.of("darn", 0));
+        String text = "darn it";
+
+        assertThat(automaton.mask(text, '*', 1)).isSameAs(text);
+        assertThat(AhoCorasick.empty().mask(text, '*', 0)).isSameAs(text);
+    }
+
+    @Test
+    void rejectsTagsOutsideBitRange() {
+        assertThatThrownBy(() -> AhoCorasick.build(Map.of("spam", 32)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AhoCorasick.build(Map.of("spam", -1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(AhoCorasick.build(Map.of("", 0)).size()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package com.togethershop.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppendOnlyJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void syncCoversRecordsWrittenBeforeIt() throws Exception {
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(dir.resolve("journal"), true)) {
+            long first = journal.write("a");
+            long second = journal.write("b");
+            journal.sync(second);
+            // 앞선 sync 에 이미 반영됨
+            journal.sync(first);
+
+            assertThat(journal.readAll()).containsExactly("a", "b");
+        }
+    }
+
+    @Test
+    void keepsNumberingAcrossTruncate() throws Exception {
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(dir.resolve("journal"), true)) {
+            long before = journal.write("a");
+            journal.truncate();
+            long after = journal.write("b");
+            journal.sync(after);
+
+            assertThat(after).isGreaterThan(before);
+            assertThat(journal.readAll()).containsExactly("b");
+        }
+    }
+
+    @Test
+    void keepsEveryLineUnderConcurrentWriters() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(dir.resolve("journal"), true)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int writer = i;
+                results.add(writers.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        journal.sync(journal.write(writer + ":" + j));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            assertThat(journal.readAll()).hasSize(400).doesNotHaveDuplicates();
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.togethershop.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void roundTripsAscendingIdsAndLargeDeltas() {
+        PostingList postings = new PostingList();
+        long[] ids = {1, 2, 130, 1L << 20, (1L << 40) + 7, Long.MAX_VALUE / 2};
+        for (long id : ids) {
+            postings.add(id);
+        }
+        postings.add(130);   // 마지막이 아닌 중복
+
+        assertThat(postings.toArray()).containsExactly(ids);
+    }
+
+    @Test
+    void mergesLateSmallerIdsInOrder() {
+        PostingList postings = new PostingList();
+        postings.add(100);
+        postings.add(200);
+        postings.add(150);
+        postings.add(50);
+        postings.add(200);
+
+        assertThat(postings.size()).isEqualTo(4);
+        assertThat(postings.toArray()).containsExactly(50, 100, 150, 200);
+
+        postings.add(120);
+        assertThat(postings.toArray()).containsExactly(50, 100, 120, 150, 200);
+    }
+
+    @Test
+    void compactsWhenManyIdsArriveOutOfOrder() {
+        PostingList postings = new PostingList();
+        postings.add(10_000);
+        for (long id = 999; id >= 0; id--) {
+            postings.add(id);
+        }
+
+        long[] expected = LongStream.concat(LongStream.range(0, 1000), LongStream.of(10_000)).toArray();
+        assertThat(postings.toArray()).containsExactly(expected);
+    }
+
+    @Test
+    void encodesDenseIdsCompactly() {
+        PostingList postings = new PostingList();
+        for (long id = 1_000_000; id < 1_001_000; id++) {
+            postings.add(id);
+        }
+
+        // 첫 delta 외에는 1바이트
+        assertThat(postings.encodedBytes()).isLessThan(1_000 + 8);
+    }
+
+    @Test
+    void removesMatchingIdsAndKeepsAccepting() {
+        PostingList postings = new PostingList();
+        for (long id = 1; id <= 10; id++) {
+            postings.add(id);
+        }
+
+        assertThat(postings.removeIf(id -> id % 2 == 0)).isEqualTo(5);
+        assertThat(postings.toArray()).containsExactly(1, 3, 5, 7, 9);
+
+        postings.add(4);
+        postings.add(11);
+        assertThat(postings.toArray()).containsExactly(1, 3, 4, 5, 7, 9, 11);
+
+        assertThat(postings.removeIf(id -> true)).isZero();
+        assertThat(postings.size()).isZero();
+        postings.add(42);
+        assertThat(postings.toArray()).containsExactly(42);
+    }
+}
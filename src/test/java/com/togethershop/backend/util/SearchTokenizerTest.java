@@ -0,0 +1,35 @@
+package com.togethershop.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    @Test
+    void splitsRunsOnScriptChangeAndSeparators() {
+        assertThat(SearchTokenizer.runs("쿠폰을 Coupon20* 사용!")).containsExactly("쿠폰을", "coupon20*", "사용");
+        assertThat(SearchTokenizer.runs("abc한글")).containsExactly("abc", "한글");
+        assertThat(SearchTokenizer.runs("ＡＢＣ")).containsExactly("abc");
+        assertThat(SearchTokenizer.runs(" * ! ")).isEmpty();
+        assertThat(SearchTokenizer.runs(null)).isEmpty();
+    }
+
+    @Test
+    void indexesHangulAsBigramsAndWordsAsIs() {
+        assertThat(SearchTokenizer.runTerms("쿠폰을")).containsExactly("쿠폰", "폰을");
+        assertThat(SearchTokenizer.runTerms("쿠")).containsExactly("쿠");
+        assertThat(SearchTokenizer.runTerms("coupon*")).containsExactly("coupon");
+        assertThat(SearchTokenizer.indexTerms("쿠폰 쿠폰 coupon")).containsExactly("쿠폰", "coupon");
+    }
+
+    @Test
+    void treatsOnlySingleSyllableHangulAndStarredWordsAsPrefix() {
+        assertThat(SearchTokenizer.isPrefix("쿠")).isTrue();
+        assertThat(SearchTokenizer.isPrefix("coup*")).isTrue();
+        assertThat(SearchTokenizer.isPrefix("coupon")).isFalse();
+        // bigram 색인이라 두 글자 이상 한글은 '*' 가 있어도 전체 일치
+        assertThat(SearchTokenizer.isPrefix("쿠폰*")).isFalse();
+        assertThat(SearchTokenizer.runs("쿠폰*")).containsExactly("쿠폰");
+    }
+}